@@ -40,7 +40,6 @@ import tech.pegasys.teku.spec.logic.common.util.AsyncBLSSignatureVerifier;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
 import tech.pegasys.teku.statetransition.block.BlockImporter;
 import tech.pegasys.teku.statetransition.util.PendingPool;
-import tech.pegasys.teku.statetransition.validation.signatures.SignatureVerificationService;
 import tech.pegasys.teku.storage.api.StorageUpdateChannel;
 import tech.pegasys.teku.storage.client.CombinedChainDataClient;
 import tech.pegasys.teku.storage.client.RecentChainData;
@@ -86,7 +85,7 @@ public class DefaultSyncServiceFactory implements SyncServiceFactory {
       final BlobsSidecarManager blobsSidecarManager,
       final PendingPool<SignedBeaconBlock> pendingBlocks,
       final int getStartupTargetPeerCount,
-      final SignatureVerificationService signatureVerifier,
+      final AsyncBLSSignatureVerifier signatureVerifier,
       final Duration startupTimeout,
       final Spec spec) {
     this.syncConfig = syncConfig;
@@ -148,6 +147,7 @@ public class DefaultSyncServiceFactory implements SyncServiceFactory {
         signatureVerifier,
         syncStateProvider,
         syncConfig.isReconstructHistoricStatesEnabled(),
+        syncConfig.getReconstructHistoricStatesBatchSize(),
         genesisStateResource,
         syncConfig.fetchAllHistoricBlocks());
   }
@@ -172,7 +172,8 @@ public class DefaultSyncServiceFactory implements SyncServiceFactory {
               p2pNetwork,
               blockImporter,
               blobsSidecarManager,
-              spec);
+              spec,
+              syncConfig.isPipelinedBlockImportEnabled());
     } else {
       LOG.info("Using single peer sync");
       forwardSync =
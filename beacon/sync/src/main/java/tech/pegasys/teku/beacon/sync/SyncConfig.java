@@ -13,27 +13,36 @@
 
 package tech.pegasys.teku.beacon.sync;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class SyncConfig {
 
   public static final boolean DEFAULT_MULTI_PEER_SYNC_ENABLED = true;
+  public static final boolean DEFAULT_PIPELINED_BLOCK_IMPORT_ENABLED = false;
   public static final boolean DEFAULT_RECONSTRUCT_HISTORIC_STATES_ENABLED = false;
   public static final boolean DEFAULT_FETCH_ALL_HISTORIC_BLOCKS = true;
+  public static final int DEFAULT_RECONSTRUCT_HISTORIC_STATES_BATCH_SIZE = 1;
 
   private final boolean isEnabled;
   private final boolean isMultiPeerSyncEnabled;
+  private final boolean isPipelinedBlockImportEnabled;
   private final boolean reconstructHistoricStatesEnabled;
+  private final int reconstructHistoricStatesBatchSize;
   private final boolean fetchAllHistoricBlocks;
 
   private SyncConfig(
       final boolean isEnabled,
       final boolean isMultiPeerSyncEnabled,
+      final boolean isPipelinedBlockImportEnabled,
       final boolean reconstructHistoricStatesEnabled,
+      final int reconstructHistoricStatesBatchSize,
       final boolean fetchAllHistoricBlocks) {
     this.isEnabled = isEnabled;
     this.isMultiPeerSyncEnabled = isMultiPeerSyncEnabled;
+    this.isPipelinedBlockImportEnabled = isPipelinedBlockImportEnabled;
     this.reconstructHistoricStatesEnabled = reconstructHistoricStatesEnabled;
+    this.reconstructHistoricStatesBatchSize = reconstructHistoricStatesBatchSize;
     this.fetchAllHistoricBlocks = fetchAllHistoricBlocks;
   }
 
@@ -49,10 +58,18 @@ public class SyncConfig {
     return isMultiPeerSyncEnabled;
   }
 
+  public boolean isPipelinedBlockImportEnabled() {
+    return isPipelinedBlockImportEnabled;
+  }
+
   public boolean isReconstructHistoricStatesEnabled() {
     return reconstructHistoricStatesEnabled;
   }
 
+  public int getReconstructHistoricStatesBatchSize() {
+    return reconstructHistoricStatesBatchSize;
+  }
+
   public boolean fetchAllHistoricBlocks() {
     return fetchAllHistoricBlocks;
   }
@@ -60,7 +77,10 @@ public class SyncConfig {
   public static class Builder {
     private Boolean isEnabled;
     private Boolean isMultiPeerSyncEnabled = DEFAULT_MULTI_PEER_SYNC_ENABLED;
+    private boolean isPipelinedBlockImportEnabled = DEFAULT_PIPELINED_BLOCK_IMPORT_ENABLED;
     private Boolean reconstructHistoricStatesEnabled = DEFAULT_RECONSTRUCT_HISTORIC_STATES_ENABLED;
+    private int reconstructHistoricStatesBatchSize =
+        DEFAULT_RECONSTRUCT_HISTORIC_STATES_BATCH_SIZE;
     private boolean fetchAllHistoricBlocks = DEFAULT_FETCH_ALL_HISTORIC_BLOCKS;
 
     private Builder() {}
@@ -70,7 +90,9 @@ public class SyncConfig {
       return new SyncConfig(
           isEnabled,
           isMultiPeerSyncEnabled,
+          isPipelinedBlockImportEnabled,
           reconstructHistoricStatesEnabled,
+          reconstructHistoricStatesBatchSize,
           fetchAllHistoricBlocks);
     }
 
@@ -99,6 +121,11 @@ public class SyncConfig {
       return this;
     }
 
+    public Builder isPipelinedBlockImportEnabled(final boolean pipelinedBlockImportEnabled) {
+      isPipelinedBlockImportEnabled = pipelinedBlockImportEnabled;
+      return this;
+    }
+
     public Builder reconstructHistoricStatesEnabled(
         final Boolean reconstructHistoricStatesEnabled) {
       checkNotNull(reconstructHistoricStatesEnabled);
@@ -106,6 +133,15 @@ public class SyncConfig {
       return this;
     }
 
+    public Builder reconstructHistoricStatesBatchSize(
+        final int reconstructHistoricStatesBatchSize) {
+      checkArgument(
+          reconstructHistoricStatesBatchSize > 0,
+          "Reconstruct historic states batch size must be positive");
+      this.reconstructHistoricStatesBatchSize = reconstructHistoricStatesBatchSize;
+      return this;
+    }
+
     public Builder fetchAllHistoricBlocks(final boolean fetchAllHistoricBlocks) {
       this.fetchAllHistoricBlocks = fetchAllHistoricBlocks;
       return this;
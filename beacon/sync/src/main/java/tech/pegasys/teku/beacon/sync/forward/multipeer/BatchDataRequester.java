@@ -13,6 +13,7 @@
 
 package tech.pegasys.teku.beacon.sync.forward.multipeer;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toList;
 
 import java.util.List;
@@ -28,13 +29,17 @@ import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 /**
  * Attempts to create a {@link BatchChain} and download the blocks for each batch.
  *
- * <p>Applies limits to the number of batches awaiting import to avoid excessive memory usage.
+ * <p>Applies limits to the number of batches awaiting import to avoid excessive memory usage. The
+ * number of batches requested ahead of import scales with the number of peers on the target chain
+ * so that every peer can be kept busy. When the first incomplete batch is holding up import and its
+ * request is slow, a duplicate request is sent to another peer.
  */
 public class BatchDataRequester {
   private final EventThread eventThread;
   private final BatchChain activeBatches;
   private final BatchFactory batchFactory;
   private final UInt64 batchSize;
+  private final int minPendingBatches;
   private final int maxPendingBatches;
 
   public BatchDataRequester(
@@ -43,10 +48,26 @@ public class BatchDataRequester {
       final BatchFactory batchFactory,
       final UInt64 batchSize,
       final int maxPendingBatches) {
+    this(eventThread, activeBatches, batchFactory, batchSize, maxPendingBatches, maxPendingBatches);
+  }
+
+  public BatchDataRequester(
+      final EventThread eventThread,
+      final BatchChain activeBatches,
+      final BatchFactory batchFactory,
+      final UInt64 batchSize,
+      final int minPendingBatches,
+      final int maxPendingBatches) {
+    checkArgument(
+        minPendingBatches <= maxPendingBatches,
+        "Min pending batches %s must not exceed max pending batches %s",
+        minPendingBatches,
+        maxPendingBatches);
     this.eventThread = eventThread;
     this.activeBatches = activeBatches;
     this.batchFactory = batchFactory;
     this.batchSize = batchSize;
+    this.minPendingBatches = minPendingBatches;
     this.maxPendingBatches = maxPendingBatches;
   }
 
@@ -66,11 +87,22 @@ public class BatchDataRequester {
         .filter(batch -> (!batch.isComplete() || batch.isContested()) && !batch.isAwaitingBlocks())
         .forEach(batch -> requestMoreBlocks(batch, requestCompleteCallback));
 
+    // Import can't progress until the first incomplete batch arrives so hedge against a slow peer
+    activeBatches.stream()
+        .filter(batch -> !batch.isComplete())
+        .findFirst()
+        .ifPresent(
+            batch ->
+                batch.requestDuplicateIfSlow(
+                    () -> eventThread.execute(() -> requestCompleteCallback.accept(batch))));
+
     // Add more pending batches if there is room
+    final int pendingBatchesLimit =
+        Math.max(minPendingBatches, Math.min(maxPendingBatches, targetChain.getPeerCount()));
     UInt64 nextBatchStart = getNextSlotToRequest(commonAncestorSlot);
     final UInt64 targetSlot = targetChain.getChainHead().getSlot();
     for (long i = pendingBatchesCount;
-        i < maxPendingBatches && nextBatchStart.isLessThanOrEqualTo(targetSlot);
+        i < pendingBatchesLimit && nextBatchStart.isLessThanOrEqualTo(targetSlot);
         i++) {
       final UInt64 remainingSlots = targetSlot.minus(nextBatchStart).plus(1);
       final UInt64 count = remainingSlots.min(batchSize);
@@ -33,6 +33,7 @@ import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSid
 import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportResult;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
 import tech.pegasys.teku.statetransition.block.BlockImporter;
+import tech.pegasys.teku.statetransition.block.PipelinedBlockImport;
 
 public class BatchImporter {
   private static final Logger LOG = LogManager.getLogger();
@@ -40,14 +41,17 @@ public class BatchImporter {
   private final BlockImporter blockImporter;
   private final BlobsSidecarManager blobsSidecarManager;
   private final AsyncRunner asyncRunner;
+  private final boolean pipelinedImportEnabled;
 
   public BatchImporter(
       final BlockImporter blockImporter,
       final BlobsSidecarManager blobsSidecarManager,
-      final AsyncRunner asyncRunner) {
+      final AsyncRunner asyncRunner,
+      final boolean pipelinedImportEnabled) {
     this.blockImporter = blockImporter;
     this.blobsSidecarManager = blobsSidecarManager;
     this.asyncRunner = asyncRunner;
+    this.pipelinedImportEnabled = pipelinedImportEnabled;
   }
 
   /**
@@ -55,6 +59,11 @@ public class BatchImporter {
    *
    * <p>Guaranteed to return immediately and perform the import on worker threads.
    *
+   * <p>When pipelined import is enabled, each block's state transition starts as soon as the
+   * previous block's state transition completes, while the previous block's signatures are still
+   * being batch verified. Blocks are still added to the store in order and only once their
+   * signatures are valid.
+   *
    * @param batch the batch to import
    * @return a future reporting the result of the import
    */
@@ -68,6 +77,10 @@ public class BatchImporter {
     checkState(!blocks.isEmpty(), "Batch has no blocks to import");
     return asyncRunner.runAsync(
         () -> {
+          if (pipelinedImportEnabled) {
+            return getBatchImportResult(
+                batch, importBlocksPipelined(blocks, blobsSidecarsBySlot, source.orElseThrow()));
+          }
           final SignedBeaconBlock firstBlock = blocks.get(0);
           SafeFuture<BlockImportResult> importResult =
               storeBlobsSidecarAndImportBlock(
@@ -89,23 +102,62 @@ public class BatchImporter {
                       }
                     });
           }
-          return importResult.thenApply(
-              lastBlockImportResult -> {
-                if (lastBlockImportResult.isSuccessful()) {
-                  return BatchImportResult.IMPORTED_ALL_BLOCKS;
-                } else if (lastBlockImportResult.hasFailedExecutingExecutionPayload()) {
-                  return BatchImportResult.SERVICE_OFFLINE;
-                }
-                LOG.debug(
-                    "Failed to import batch {}: {}",
-                    batch,
-                    lastBlockImportResult.getFailureReason(),
-                    lastBlockImportResult.getFailureCause().orElse(null));
-                return BatchImportResult.IMPORT_FAILED;
-              });
+          return getBatchImportResult(batch, importResult);
+        });
+  }
+
+  private SafeFuture<BatchImportResult> getBatchImportResult(
+      final Batch batch, final SafeFuture<BlockImportResult> importResult) {
+    return importResult.thenApply(
+        lastBlockImportResult -> {
+          if (lastBlockImportResult.isSuccessful()) {
+            return BatchImportResult.IMPORTED_ALL_BLOCKS;
+          } else if (lastBlockImportResult.hasFailedExecutingExecutionPayload()) {
+            return BatchImportResult.SERVICE_OFFLINE;
+          }
+          LOG.debug(
+              "Failed to import batch {}: {}",
+              batch,
+              lastBlockImportResult.getFailureReason(),
+              lastBlockImportResult.getFailureCause().orElse(null));
+          return BatchImportResult.IMPORT_FAILED;
         });
   }
 
+  /**
+   * Starts importing all blocks without waiting for earlier blocks to be imported.
+   *
+   * @return a future reporting the result of the first block to fail or of the last block if all
+   *     were successful
+   */
+  private SafeFuture<BlockImportResult> importBlocksPipelined(
+      final List<SignedBeaconBlock> blocks,
+      final Map<UInt64, BlobsSidecar> blobsSidecarsBySlot,
+      final SyncSource source) {
+    Optional<PipelinedBlockImport> previousImport = Optional.empty();
+    SafeFuture<BlockImportResult> importResult = null;
+    for (SignedBeaconBlock block : blocks) {
+      Optional.ofNullable(blobsSidecarsBySlot.get(block.getSlot()))
+          .ifPresent(blobsSidecarManager::storeUnconfirmedBlobsSidecar);
+      final PipelinedBlockImport blockImport =
+          blockImporter.importBlockPipelined(block, previousImport, asyncRunner);
+      final SafeFuture<BlockImportResult> blockResult =
+          blockImport
+              .getImportResult()
+              .thenApply(result -> disconnectOnWeakSubjectivityFailure(result, source));
+      importResult =
+          importResult == null
+              ? blockResult
+              : importResult.thenCompose(
+                  previousResult ->
+                      previousResult.isSuccessful()
+                          ? blockResult
+                          : SafeFuture.completedFuture(previousResult));
+      previousImport = Optional.of(blockImport);
+    }
+    return importResult;
+  }
+
   private SafeFuture<BlockImportResult> storeBlobsSidecarAndImportBlock(
       final Optional<BlobsSidecar> blobsSidecar,
       final SignedBeaconBlock block,
@@ -113,20 +165,20 @@ public class BatchImporter {
     blobsSidecar.ifPresent(blobsSidecarManager::storeUnconfirmedBlobsSidecar);
     return blockImporter
         .importBlock(block)
-        .thenApply(
-            result -> {
-              if (result.getFailureReason()
-                  == BlockImportResult.FailureReason.FAILED_WEAK_SUBJECTIVITY_CHECKS) {
-                LOG.warn(
-                    "Disconnecting source ({}) for sending block that failed weak subjectivity checks: {}",
-                    source,
-                    result);
-                source
-                    .disconnectCleanly(DisconnectReason.REMOTE_FAULT)
-                    .ifExceptionGetsHereRaiseABug();
-              }
-              return result;
-            });
+        .thenApply(result -> disconnectOnWeakSubjectivityFailure(result, source));
+  }
+
+  private BlockImportResult disconnectOnWeakSubjectivityFailure(
+      final BlockImportResult result, final SyncSource source) {
+    if (result.getFailureReason()
+        == BlockImportResult.FailureReason.FAILED_WEAK_SUBJECTIVITY_CHECKS) {
+      LOG.warn(
+          "Disconnecting source ({}) for sending block that failed weak subjectivity checks: {}",
+          source,
+          result);
+      source.disconnectCleanly(DisconnectReason.REMOTE_FAULT).ifExceptionGetsHereRaiseABug();
+    }
+    return result;
   }
 
   public enum BatchImportResult {
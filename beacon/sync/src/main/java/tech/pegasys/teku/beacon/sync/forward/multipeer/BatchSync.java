@@ -42,7 +42,8 @@ import tech.pegasys.teku.storage.client.RecentChainData;
 /** Manages the sync process to reach a finalized chain. */
 public class BatchSync implements Sync {
   private static final Logger LOG = LogManager.getLogger();
-  private static final int MAX_PENDING_BATCHES = 5;
+  private static final int MIN_PENDING_BATCHES = 5;
+  private static final int MAX_PENDING_BATCHES = 10;
   private static final Duration PAUSE_ON_SERVICE_OFFLINE = Duration.ofSeconds(5);
 
   private final EventThread eventThread;
@@ -104,7 +105,12 @@ public class BatchSync implements Sync {
     final BatchChain activeBatches = new BatchChain();
     final BatchDataRequester batchDataRequester =
         new BatchDataRequester(
-            eventThread, activeBatches, batchFactory, batchSize, MAX_PENDING_BATCHES);
+            eventThread,
+            activeBatches,
+            batchFactory,
+            batchSize,
+            MIN_PENDING_BATCHES,
+            MAX_PENDING_BATCHES);
     return new BatchSync(
         eventThread,
         asyncRunner,
@@ -18,6 +18,7 @@ import tech.pegasys.teku.beacon.sync.events.SyncingStatus;
 import tech.pegasys.teku.beacon.sync.forward.ForwardSyncService;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.BatchFactory;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.PeerScoringConflictResolutionStrategy;
+import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.PeerChainTracker;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.SyncSourceFactory;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChains;
@@ -72,7 +73,8 @@ public class MultipeerSyncService extends Service implements ForwardSyncService
       final P2PNetwork<Eth2Peer> p2pNetwork,
       final BlockImporter blockImporter,
       final BlobsSidecarManager blobsSidecarManager,
-      final Spec spec) {
+      final Spec spec,
+      final boolean pipelinedBlockImportEnabled) {
     final EventThread eventThread = new AsyncRunnerEventThread("sync", asyncRunnerFactory);
     final SettableLabelledGauge targetChainCountGauge =
         SettableLabelledGauge.create(
@@ -84,14 +86,20 @@ public class MultipeerSyncService extends Service implements ForwardSyncService
     final TargetChains finalizedTargetChains = new TargetChains(targetChainCountGauge, "finalized");
     final TargetChains nonfinalizedTargetChains =
         new TargetChains(targetChainCountGauge, "nonfinalized");
+    final SyncSourcePerformanceTracker performanceTracker =
+        new SyncSourcePerformanceTracker(timeProvider, metricsSystem);
     final BatchSync batchSync =
         BatchSync.create(
             eventThread,
             asyncRunner,
             recentChainData,
-            new BatchImporter(blockImporter, blobsSidecarManager, asyncRunner),
+            new BatchImporter(
+                blockImporter, blobsSidecarManager, asyncRunner, pipelinedBlockImportEnabled),
             new BatchFactory(
-                eventThread, new PeerScoringConflictResolutionStrategy(), blobsSidecarManager),
+                eventThread,
+                new PeerScoringConflictResolutionStrategy(),
+                blobsSidecarManager,
+                performanceTracker),
             Constants.SYNC_BATCH_SIZE,
             MultipeerCommonAncestorFinder.create(recentChainData, eventThread, spec),
             timeProvider);
@@ -112,7 +120,7 @@ public class MultipeerSyncService extends Service implements ForwardSyncService
             recentChainData.getSpec(),
             eventThread,
             p2pNetwork,
-            new SyncSourceFactory(asyncRunner, timeProvider),
+            new SyncSourceFactory(asyncRunner, timeProvider, performanceTracker),
             finalizedTargetChains,
             nonfinalizedTargetChains);
     peerChainTracker.subscribeToTargetChainUpdates(syncController::onTargetChainsUpdated);
@@ -64,5 +64,14 @@ public interface Batch {
 
   void requestMoreBlocks(Runnable callback);
 
+  /**
+   * Sends a duplicate of the outstanding request to a different source if the request is taking
+   * longer than expected. The result of whichever request succeeds first is used.
+   *
+   * @param callback invoked once the result of the duplicate request has been applied
+   * @return true if a duplicate request was sent
+   */
+  boolean requestDuplicateIfSlow(Runnable callback);
+
   TargetChain getTargetChain();
 }
@@ -13,9 +13,11 @@
 
 package tech.pegasys.teku.beacon.sync.forward.multipeer.batches;
 
+import java.util.Optional;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChain;
 import tech.pegasys.teku.infrastructure.async.eventthread.EventThread;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.networking.eth2.peers.SyncSource;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
 
 public class BatchFactory {
@@ -23,19 +25,33 @@ public class BatchFactory {
   private final EventThread eventThread;
   private final ConflictResolutionStrategy conflictResolutionStrategy;
   private final BlobsSidecarManager blobsSidecarManager;
+  private final SyncSourcePerformanceTracker performanceTracker;
 
   public BatchFactory(
       final EventThread eventThread,
       final ConflictResolutionStrategy conflictResolutionStrategy,
-      final BlobsSidecarManager blobsSidecarManager) {
+      final BlobsSidecarManager blobsSidecarManager,
+      final SyncSourcePerformanceTracker performanceTracker) {
     this.eventThread = eventThread;
     this.conflictResolutionStrategy = conflictResolutionStrategy;
     this.blobsSidecarManager = blobsSidecarManager;
+    this.performanceTracker = performanceTracker;
   }
 
   public Batch createBatch(final TargetChain chain, final UInt64 start, final UInt64 count) {
     eventThread.checkOnEventThread();
-    final SyncSourceSelector syncSourceProvider = chain::selectRandomPeer;
+    final SyncSourceSelector syncSourceProvider =
+        new SyncSourceSelector() {
+          @Override
+          public Optional<SyncSource> selectSource() {
+            return performanceTracker.selectSource(chain.getPeers(), Optional.empty());
+          }
+
+          @Override
+          public Optional<SyncSource> selectAlternativeSource(final SyncSource excluded) {
+            return performanceTracker.selectSource(chain.getPeers(), Optional.of(excluded));
+          }
+        };
     return new EventThreadOnlyBatch(
         eventThread,
         new SyncSourceBatch(
@@ -45,6 +61,7 @@ public class BatchFactory {
             chain,
             blobsSidecarManager,
             start,
-            count));
+            count,
+            performanceTracker));
   }
 }
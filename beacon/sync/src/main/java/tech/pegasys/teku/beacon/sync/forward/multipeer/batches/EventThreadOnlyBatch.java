@@ -147,6 +147,12 @@ public class EventThreadOnlyBatch implements Batch {
     delegate.requestMoreBlocks(callback);
   }
 
+  @Override
+  public boolean requestDuplicateIfSlow(final Runnable callback) {
+    eventThread.checkOnEventThread();
+    return delegate.requestDuplicateIfSlow(callback);
+  }
+
   @Override
   public TargetChain getTargetChain() {
     eventThread.checkOnEventThread();
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker.PendingRequest;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChain;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.async.eventthread.EventThread;
@@ -49,8 +50,10 @@ public class SyncSourceBatch implements Batch {
   private final BlobsSidecarManager blobsSidecarManager;
   private final UInt64 firstSlot;
   private final UInt64 count;
+  private final SyncSourcePerformanceTracker performanceTracker;
 
   private Optional<SyncSource> currentSyncSource = Optional.empty();
+  private Optional<UInt64> lastSlotOfEmptyResponse = Optional.empty();
   private boolean complete = false;
   private boolean contested = false;
   private boolean firstBlockConfirmed = false;
@@ -59,6 +62,7 @@ public class SyncSourceBatch implements Batch {
 
   private final List<SignedBeaconBlock> blocks = new ArrayList<>();
   private final Map<UInt64, BlobsSidecar> blobsSidecarsBySlot = new HashMap<>();
+  private final List<BlocksRequest> pendingRequests = new ArrayList<>();
 
   SyncSourceBatch(
       final EventThread eventThread,
@@ -67,7 +71,8 @@ public class SyncSourceBatch implements Batch {
       final TargetChain targetChain,
       final BlobsSidecarManager blobsSidecarManager,
       final UInt64 firstSlot,
-      final UInt64 count) {
+      final UInt64 count,
+      final SyncSourcePerformanceTracker performanceTracker) {
     checkArgument(
         count.isGreaterThanOrEqualTo(UInt64.ONE), "Must include at least one slot in a batch");
     this.eventThread = eventThread;
@@ -77,6 +82,7 @@ public class SyncSourceBatch implements Batch {
     this.blobsSidecarManager = blobsSidecarManager;
     this.firstSlot = firstSlot;
     this.count = count;
+    this.performanceTracker = performanceTracker;
   }
 
   @Override
@@ -196,11 +202,8 @@ public class SyncSourceBatch implements Batch {
   public void requestMoreBlocks(final Runnable callback) {
     checkState(
         !isComplete() || isContested(), "Attempting to request more blocks from a complete batch");
-    final BlockRequestHandler blockRequestHandler = new BlockRequestHandler();
-    final UInt64 startSlot =
-        getLastBlock().map(SignedBeaconBlock::getSlot).map(UInt64::increment).orElse(firstSlot);
+    final UInt64 startSlot = getNextSlotToRequest();
     final UInt64 remainingSlots = count.minus(startSlot.minus(firstSlot));
-    final UInt64 lastSlot = startSlot.plus(remainingSlots).decrement();
 
     checkState(
         remainingSlots.isGreaterThan(UInt64.ZERO),
@@ -214,48 +217,120 @@ public class SyncSourceBatch implements Batch {
     }
     awaitingBlocks = true;
     final SyncSource syncSource = currentSyncSource.orElseThrow();
+    sendRequest(
+        syncSource,
+        startSlot,
+        performanceTracker.getRequestSize(syncSource, remainingSlots),
+        callback);
+  }
+
+  @Override
+  public boolean requestDuplicateIfSlow(final Runnable callback) {
+    if (!awaitingBlocks || pendingRequests.size() != 1) {
+      return false;
+    }
+    // Follow-up requests must come from the source that provided the earlier part of the batch so
+    // the whole batch is attributed to a single source
+    if (!blocks.isEmpty() || lastSlotOfEmptyResponse.isPresent()) {
+      return false;
+    }
+    final BlocksRequest request = pendingRequests.get(0);
+    if (!request.performance.isSpeculativeRequestDue()) {
+      return false;
+    }
+    final Optional<SyncSource> alternativeSource =
+        syncSourceProvider.selectAlternativeSource(request.getSource());
+    if (alternativeSource.isEmpty()) {
+      return false;
+    }
+    LOG.debug(
+        "Duplicating slow request for batch {} from peer {} to peer {}",
+        this,
+        request.getSource(),
+        alternativeSource.get());
+    sendRequest(alternativeSource.get(), request.startSlot, request.count, callback);
+    return true;
+  }
+
+  private UInt64 getNextSlotToRequest() {
+    // Resume after the last block received since responses may stop short of the requested range,
+    // but skip past ranges that were confirmed to be empty
+    final UInt64 slotAfterLastBlock =
+        getLastBlock().map(SignedBeaconBlock::getSlot).map(UInt64::increment).orElse(firstSlot);
+    return lastSlotOfEmptyResponse.map(UInt64::increment).orElse(firstSlot).max(slotAfterLastBlock);
+  }
+
+  private void sendRequest(
+      final SyncSource syncSource,
+      final UInt64 startSlot,
+      final UInt64 requestCount,
+      final Runnable callback) {
+    final BlocksRequest request =
+        new BlocksRequest(performanceTracker.startRequest(syncSource), startSlot, requestCount);
+    pendingRequests.add(request);
+    final UInt64 lastSlot = request.getLastSlot();
 
     LOG.debug(
         "Requesting blocks for {} slots starting at {} from peer {}",
-        remainingSlots,
+        requestCount,
         startSlot,
         syncSource);
 
     final SafeFuture<Void> blocksRequest =
-        syncSource.requestBlocksByRange(startSlot, remainingSlots, blockRequestHandler);
+        syncSource.requestBlocksByRange(startSlot, requestCount, request.blockRequestHandler);
 
     final SafeFuture<Void> blobsSidecarsRequest;
     if (blobsSidecarManager.isStorageOfBlobsSidecarRequired(lastSlot)) {
       LOG.debug(
           "Requesting blobs sidecars for {} slots starting at {} from peer {}",
-          remainingSlots,
+          requestCount,
           startSlot,
           syncSource);
-      final BlobsSidecarRequestHandler blobsSidecarRequestHandler =
-          new BlobsSidecarRequestHandler();
       blobsSidecarsRequest =
           syncSource.requestBlobsSidecarsByRange(
-              startSlot, remainingSlots, blobsSidecarRequestHandler);
+              startSlot, requestCount, request.blobsSidecarRequestHandler);
     } else {
       blobsSidecarsRequest = SafeFuture.COMPLETE;
     }
 
     SafeFuture.allOfFailFast(blocksRequest, blobsSidecarsRequest)
-        .thenRunAsync(() -> onRequestComplete(blockRequestHandler), eventThread)
+        .thenApplyAsync(__ -> onRequestComplete(request), eventThread)
         .handleAsync(
-            (__, error) -> {
-              if (error != null) {
-                handleRequestErrors(error);
+            (applied, error) -> {
+              final boolean updated = error == null ? applied : onRequestFailed(request, error);
+              if (updated) {
+                // Ensure there is time for other events to be processed before the callback
+                // completes. Allows external events like peers disconnecting to be processed
+                // before retrying
+                eventThread.executeLater(callback);
               }
-              // Ensure there is time for other events to be processed before the callback completes
-              // Allows external events like peers disconnecting to be processed before retrying
-              eventThread.executeLater(callback);
               return null;
             },
             eventThread)
         .ifExceptionGetsHereRaiseABug();
   }
 
+  /**
+   * Handles a failed request.
+   *
+   * @return true if the batch was updated, false if the failure was ignored because the request
+   *     was superseded or a duplicate request is still pending
+   */
+  private boolean onRequestFailed(final BlocksRequest request, final Throwable error) {
+    eventThread.checkOnEventThread();
+    request.performance.fail();
+    if (!pendingRequests.remove(request)) {
+      return false;
+    }
+    if (!pendingRequests.isEmpty()) {
+      LOG.debug("Request to {} failed but a duplicate request is pending", request.getSource());
+      return false;
+    }
+    currentSyncSource = Optional.of(request.getSource());
+    handleRequestErrors(error);
+    return true;
+  }
+
   private void handleRequestErrors(final Throwable error) {
     eventThread.checkOnEventThread();
     awaitingBlocks = false;
@@ -282,13 +357,30 @@ public class SyncSourceBatch implements Batch {
     contested = false;
     firstBlockConfirmed = false;
     lastBlockConfirmed = false;
+    lastSlotOfEmptyResponse = Optional.empty();
     blocks.clear();
     blobsSidecarsBySlot.clear();
   }
 
-  private void onRequestComplete(final BlockRequestHandler blockRequestHandler) {
+  /**
+   * Applies the result of a successful request.
+   *
+   * @return true if the batch was updated, false if the result was ignored because a duplicate
+   *     request already completed
+   */
+  private boolean onRequestComplete(final BlocksRequest request) {
     eventThread.checkOnEventThread();
-    final List<SignedBeaconBlock> newBlocks = blockRequestHandler.complete();
+    final List<SignedBeaconBlock> newBlocks = request.blockRequestHandler.complete();
+    final boolean superseded = !pendingRequests.remove(request);
+    request.performance.complete(
+        request.count, request.blockRequestHandler.getByteCount(), !superseded);
+    if (superseded) {
+      LOG.debug("Ignoring superseded response from {}", request.getSource());
+      return false;
+    }
+    // Any duplicate of this request is no longer needed
+    pendingRequests.clear();
+    currentSyncSource = Optional.of(request.getSource());
 
     awaitingBlocks = false;
     if (!blocks.isEmpty() && !newBlocks.isEmpty()) {
@@ -298,14 +390,21 @@ public class SyncSourceBatch implements Batch {
         LOG.debug(
             "Marking batch invalid because new blocks do not form a chain with previous blocks");
         markAsInvalid();
-        return;
+        return true;
       }
     }
     blocks.addAll(newBlocks);
-    if (newBlocks.isEmpty()
-        || newBlocks.get(newBlocks.size() - 1).getSlot().equals(getLastSlot())) {
+    blobsSidecarsBySlot.putAll(request.blobsSidecarRequestHandler.blobsSidecarsBySlot);
+    if (newBlocks.isEmpty()) {
+      lastSlotOfEmptyResponse = Optional.of(request.getLastSlot());
+    }
+    final boolean requestedToEnd = request.getLastSlot().equals(getLastSlot());
+    if ((newBlocks.isEmpty() && requestedToEnd)
+        || (!newBlocks.isEmpty()
+            && newBlocks.get(newBlocks.size() - 1).getSlot().equals(getLastSlot()))) {
       complete = true;
     }
+    return true;
   }
 
   @Override
@@ -339,21 +438,52 @@ public class SyncSourceBatch implements Batch {
         + ")";
   }
 
+  private static class BlocksRequest {
+    private final PendingRequest performance;
+    private final UInt64 startSlot;
+    private final UInt64 count;
+    private final BlockRequestHandler blockRequestHandler = new BlockRequestHandler();
+    private final BlobsSidecarRequestHandler blobsSidecarRequestHandler =
+        new BlobsSidecarRequestHandler();
+
+    private BlocksRequest(
+        final PendingRequest performance, final UInt64 startSlot, final UInt64 count) {
+      this.performance = performance;
+      this.startSlot = startSlot;
+      this.count = count;
+    }
+
+    private SyncSource getSource() {
+      return performance.getSource();
+    }
+
+    private UInt64 getLastSlot() {
+      return startSlot.plus(count).decrement();
+    }
+  }
+
   private static class BlockRequestHandler implements RpcResponseListener<SignedBeaconBlock> {
     private final List<SignedBeaconBlock> blocks = new ArrayList<>();
+    private long byteCount = 0;
 
     @Override
     public SafeFuture<?> onResponse(final SignedBeaconBlock block) {
       blocks.add(block);
+      byteCount += block.getSchema().getSszSize(block.getBackingNode());
       return SafeFuture.COMPLETE;
     }
 
     public List<SignedBeaconBlock> complete() {
       return blocks;
     }
+
+    public long getByteCount() {
+      return byteCount;
+    }
   }
 
-  private class BlobsSidecarRequestHandler implements RpcResponseListener<BlobsSidecar> {
+  private static class BlobsSidecarRequestHandler implements RpcResponseListener<BlobsSidecar> {
+    private final Map<UInt64, BlobsSidecar> blobsSidecarsBySlot = new HashMap<>();
 
     @Override
     public SafeFuture<?> onResponse(final BlobsSidecar response) {
@@ -0,0 +1,244 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.beacon.sync.forward.multipeer.batches;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import tech.pegasys.teku.infrastructure.metrics.MetricsHistogram;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.TimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.networking.eth2.peers.SyncSource;
+
+/**
+ * Tracks the throughput and latency of block requests made to each sync source.
+ *
+ * <p>Requests are directed to the least busy, fastest sources and sized so that each request
+ * should complete in roughly {@link #TARGET_REQUEST_DURATION_MILLIS}. Sources without any
+ * completed requests are preferred so that their performance is measured. Estimates are
+ * exponentially weighted moving averages so they follow changes in peer performance.
+ *
+ * <p>Must only be accessed from the sync event thread.
+ */
+public class SyncSourcePerformanceTracker {
+  static final UInt64 MIN_REQUEST_SIZE = UInt64.valueOf(8);
+  static final long TARGET_REQUEST_DURATION_MILLIS = 5000;
+  static final long MIN_SPECULATIVE_REQUEST_DELAY_MILLIS = 2000;
+  private static final double SMOOTHING_FACTOR = 0.3;
+
+  private final TimeProvider timeProvider;
+  private final Map<SyncSource, SourcePerformance> performanceBySource = new HashMap<>();
+  private final Counter downloadedSlotsCounter;
+  private final MetricsHistogram bandwidthHistogram;
+  private volatile double totalSlotsPerSecond = 0;
+
+  public SyncSourcePerformanceTracker(
+      final TimeProvider timeProvider, final MetricsSystem metricsSystem) {
+    this.timeProvider = timeProvider;
+    this.downloadedSlotsCounter =
+        metricsSystem.createCounter(
+            TekuMetricCategory.BEACON,
+            "forward_sync_downloaded_slots_total",
+            "Total number of slots downloaded by forward sync");
+    metricsSystem.createGauge(
+        TekuMetricCategory.BEACON,
+        "forward_sync_download_slots_per_second",
+        "Estimated combined download rate in slots per second of peers used by forward sync",
+        () -> totalSlotsPerSecond);
+    this.bandwidthHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.BEACON,
+            metricsSystem,
+            "forward_sync_peer_bandwidth",
+            "Histogram of the bytes per second downloaded from individual peers by forward sync",
+            3,
+            List.of());
+  }
+
+  /**
+   * Selects the source with the fewest outstanding requests, preferring sources with no completed
+   * requests and then those with the highest throughput. Candidates are connected sources so any
+   * not seen before start being tracked.
+   *
+   * @param candidates the sources to select from
+   * @param excluded a source which must not be selected
+   * @return the selected source or empty if there are no suitable sources
+   */
+  public Optional<SyncSource> selectSource(
+      final Collection<SyncSource> candidates, final Optional<SyncSource> excluded) {
+    candidates.forEach(this::getPerformance);
+    final List<SyncSource> shuffledCandidates = new ArrayList<>(candidates);
+    excluded.ifPresent(shuffledCandidates::remove);
+    // Shuffle so that sources which are otherwise equal are used evenly
+    Collections.shuffle(shuffledCandidates);
+    return shuffledCandidates.stream()
+        .min(
+            Comparator.<SyncSource>comparingInt(source -> getPerformance(source).pendingRequests)
+                .thenComparing(
+                    source -> getPerformance(source).getExpectedSlotsPerSecond(),
+                    Comparator.reverseOrder()));
+  }
+
+  /**
+   * Returns the number of slots to request from the source, which is at most {@code
+   * remainingSlots}.
+   */
+  public UInt64 getRequestSize(final SyncSource source, final UInt64 remainingSlots) {
+    final SourcePerformance performance = performanceBySource.get(source);
+    if (performance == null || !performance.hasSamples()) {
+      return remainingSlots;
+    }
+    final UInt64 targetSize =
+        UInt64.valueOf(
+            (long) (performance.slotsPerSecond * TARGET_REQUEST_DURATION_MILLIS / 1000));
+    return targetSize.max(MIN_REQUEST_SIZE).min(remainingSlots);
+  }
+
+  public PendingRequest startRequest(final SyncSource source) {
+    return new PendingRequest(source, timeProvider.getTimeInMillis());
+  }
+
+  public void onSourceDisconnected(final SyncSource source) {
+    performanceBySource.remove(source);
+    updateTotalSlotsPerSecond();
+  }
+
+  private SourcePerformance getPerformance(final SyncSource source) {
+    return performanceBySource.computeIfAbsent(source, __ -> new SourcePerformance());
+  }
+
+  private void updateTotalSlotsPerSecond() {
+    totalSlotsPerSecond =
+        performanceBySource.values().stream().mapToDouble(p -> p.slotsPerSecond).sum();
+  }
+
+  /** A request to a sync source which will be included in its performance estimates. */
+  public class PendingRequest {
+    private final SyncSource source;
+    private final UInt64 startTimeMillis;
+    private boolean done = false;
+
+    private PendingRequest(final SyncSource source, final UInt64 startTimeMillis) {
+      this.source = source;
+      this.startTimeMillis = startTimeMillis;
+      getTrackedPerformance().ifPresent(performance -> performance.pendingRequests++);
+    }
+
+    public SyncSource getSource() {
+      return source;
+    }
+
+    /**
+     * Returns true if the request has taken long enough that a duplicate request to another source
+     * is worthwhile.
+     */
+    public boolean isSpeculativeRequestDue() {
+      final long usualLatencyMillis =
+          getTrackedPerformance()
+              .filter(SourcePerformance::hasSamples)
+              .map(performance -> (long) performance.latencyMillis)
+              .orElse(0L);
+      return getElapsedMillis()
+          >= Math.max(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS, 2 * usualLatencyMillis);
+    }
+
+    /**
+     * Records a successful response in the source's performance estimates.
+     *
+     * @param slotCount the number of slots covered by the request
+     * @param byteCount the number of bytes received
+     * @param used false if the response was superseded by a duplicate request, in which case its
+     *     slots are not counted as downloaded again
+     */
+    public void complete(final UInt64 slotCount, final long byteCount, final boolean used) {
+      if (!markDone()) {
+        return;
+      }
+      // Avoid dividing by zero for requests that complete within the same millisecond
+      final long elapsedMillis = Math.max(1, getElapsedMillis());
+      if (used) {
+        downloadedSlotsCounter.inc(slotCount.longValue());
+      }
+      bandwidthHistogram.recordValue(byteCount * 1000 / elapsedMillis);
+      getTrackedPerformance()
+          .ifPresent(
+              performance ->
+                  performance.addSample(
+                      slotCount.longValue() * 1000d / elapsedMillis, elapsedMillis));
+      updateTotalSlotsPerSecond();
+    }
+
+    public void fail() {
+      if (!markDone()) {
+        return;
+      }
+      // Halve the expected throughput so the source is deprioritised and sent smaller requests
+      getTrackedPerformance().ifPresent(performance -> performance.slotsPerSecond /= 2);
+      updateTotalSlotsPerSecond();
+    }
+
+    private boolean markDone() {
+      if (done) {
+        return false;
+      }
+      done = true;
+      getTrackedPerformance().ifPresent(performance -> performance.pendingRequests--);
+      return true;
+    }
+
+    private Optional<SourcePerformance> getTrackedPerformance() {
+      // Sources are only tracked once selected and may have disconnected since then
+      return Optional.ofNullable(performanceBySource.get(source));
+    }
+
+    private long getElapsedMillis() {
+      return timeProvider.getTimeInMillis().minusMinZero(startTimeMillis).longValue();
+    }
+  }
+
+  private static class SourcePerformance {
+    private int pendingRequests = 0;
+    private int samples = 0;
+    private double slotsPerSecond = 0;
+    private double latencyMillis = 0;
+
+    private boolean hasSamples() {
+      return samples > 0;
+    }
+
+    private double getExpectedSlotsPerSecond() {
+      // Sources that have never completed a request are tried first so they can be measured
+      return hasSamples() ? slotsPerSecond : Double.MAX_VALUE;
+    }
+
+    private void addSample(final double sampleSlotsPerSecond, final long sampleLatencyMillis) {
+      if (samples == 0) {
+        slotsPerSecond = sampleSlotsPerSecond;
+        latencyMillis = sampleLatencyMillis;
+      } else {
+        slotsPerSecond += SMOOTHING_FACTOR * (sampleSlotsPerSecond - slotsPerSecond);
+        latencyMillis += SMOOTHING_FACTOR * (sampleLatencyMillis - latencyMillis);
+      }
+      samples++;
+    }
+  }
+}
@@ -18,4 +18,8 @@ import tech.pegasys.teku.networking.eth2.peers.SyncSource;
 
 public interface SyncSourceSelector {
   Optional<SyncSource> selectSource();
+
+  default Optional<SyncSource> selectAlternativeSource(final SyncSource excluded) {
+    return Optional.empty();
+  }
 }
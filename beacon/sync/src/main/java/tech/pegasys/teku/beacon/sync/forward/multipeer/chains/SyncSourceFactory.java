@@ -20,6 +20,7 @@ import static tech.pegasys.teku.spec.config.Constants.SYNC_BLOBS_SIDECARS_SIZE;
 
 import java.util.HashMap;
 import java.util.Map;
+import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker;
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.time.TimeProvider;
 import tech.pegasys.teku.networking.eth2.peers.Eth2Peer;
@@ -29,11 +30,16 @@ public class SyncSourceFactory {
 
   private final AsyncRunner asyncRunner;
   private final TimeProvider timeProvider;
+  private final SyncSourcePerformanceTracker performanceTracker;
   private final Map<Eth2Peer, SyncSource> syncSourcesByPeer = new HashMap<>();
 
-  public SyncSourceFactory(final AsyncRunner asyncRunner, final TimeProvider timeProvider) {
+  public SyncSourceFactory(
+      final AsyncRunner asyncRunner,
+      final TimeProvider timeProvider,
+      final SyncSourcePerformanceTracker performanceTracker) {
     this.asyncRunner = asyncRunner;
     this.timeProvider = timeProvider;
+    this.performanceTracker = performanceTracker;
   }
 
   public SyncSource getOrCreateSyncSource(final Eth2Peer peer) {
@@ -49,6 +55,9 @@ public class SyncSourceFactory {
   }
 
   public void onPeerDisconnected(final Eth2Peer peer) {
-    syncSourcesByPeer.remove(peer);
+    final SyncSource syncSource = syncSourcesByPeer.remove(peer);
+    if (syncSource != null) {
+      performanceTracker.onSourceDisconnected(syncSource);
+    }
   }
 }
@@ -129,6 +129,7 @@ public class HistoricalBlockSyncService extends Service {
       final AsyncBLSSignatureVerifier signatureVerifier,
       final SyncStateProvider syncStateProvider,
       final boolean reconstructHistoricStatesEnabled,
+      final int reconstructHistoricStatesBatchSize,
       final Optional<String> genesisStateResource,
       final boolean fetchAllHistoricBlocks) {
     Optional<ReconstructHistoricalStatesService> reconstructHistoricalStatesService =
@@ -140,7 +141,8 @@ public class HistoricalBlockSyncService extends Service {
                     spec,
                     timeProvider,
                     metricsSystem,
-                    genesisStateResource))
+                    genesisStateResource,
+                    reconstructHistoricStatesBatchSize))
             : Optional.empty();
 
     return new HistoricalBlockSyncService(
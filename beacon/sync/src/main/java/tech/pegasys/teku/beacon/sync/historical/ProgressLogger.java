@@ -14,6 +14,7 @@
 package tech.pegasys.teku.beacon.sync.historical;
 
 import java.time.Duration;
+import java.util.Optional;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import tech.pegasys.teku.infrastructure.logging.StatusLogger;
 import tech.pegasys.teku.infrastructure.metrics.SettableGauge;
@@ -24,9 +25,13 @@ import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 
 public class ProgressLogger {
   private final SettableGauge reconstructGauge;
+  private final SettableGauge slotsPerSecondGauge;
+  private final SettableGauge remainingTimeGauge;
   private final TimeProvider timeProvider;
   private UInt64 lastLogged;
   private final StatusLogger statusLogger;
+  private Optional<UInt64> startSlot = Optional.empty();
+  private UInt64 startTimeMillis;
 
   protected ProgressLogger(
       final MetricsSystem metricsSystem,
@@ -38,6 +43,18 @@ public class ProgressLogger {
             TekuMetricCategory.BEACON,
             "reconstruct_historical_states_slot",
             "The slot the reconstruct historical states service has last saved");
+    this.slotsPerSecondGauge =
+        SettableGauge.create(
+            metricsSystem,
+            TekuMetricCategory.BEACON,
+            "reconstruct_historical_states_slots_per_second",
+            "The average number of slots replayed per second since reconstruction started");
+    this.remainingTimeGauge =
+        SettableGauge.create(
+            metricsSystem,
+            TekuMetricCategory.BEACON,
+            "reconstruct_historical_states_remaining_seconds",
+            "The estimated number of seconds until historical states are fully reconstructed");
 
     this.timeProvider = timeProvider;
     this.lastLogged = timeProvider.getTimeInSeconds();
@@ -47,6 +64,7 @@ public class ProgressLogger {
   void update(final SignedBeaconBlock block, final UInt64 anchorSlot) {
     final UInt64 currentSlot = block.getSlot();
     reconstructGauge.set(currentSlot.doubleValue());
+    updateThroughput(currentSlot, anchorSlot);
 
     final UInt64 now = timeProvider.getTimeInSeconds();
     if (now.isGreaterThanOrEqualTo(lastLogged.plus(Duration.ofMinutes(5).toSeconds()))) {
@@ -54,4 +72,24 @@ public class ProgressLogger {
       lastLogged = now;
     }
   }
+
+  private void updateThroughput(final UInt64 currentSlot, final UInt64 anchorSlot) {
+    final UInt64 nowMillis = timeProvider.getTimeInMillis();
+    if (startSlot.isEmpty()) {
+      startSlot = Optional.of(currentSlot);
+      startTimeMillis = nowMillis;
+      return;
+    }
+    final UInt64 elapsedMillis = nowMillis.minusMinZero(startTimeMillis);
+    if (elapsedMillis.isZero()) {
+      return;
+    }
+    final double elapsedSeconds = elapsedMillis.doubleValue() / 1000;
+    final double slotsPerSecond =
+        currentSlot.minusMinZero(startSlot.get()).doubleValue() / elapsedSeconds;
+    slotsPerSecondGauge.set(slotsPerSecond);
+    if (slotsPerSecond > 0) {
+      remainingTimeGauge.set(anchorSlot.minusMinZero(currentSlot).doubleValue() / slotsPerSecond);
+    }
+  }
 }
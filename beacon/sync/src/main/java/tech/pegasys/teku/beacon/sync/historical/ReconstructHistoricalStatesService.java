@@ -13,18 +13,23 @@
 
 package tech.pegasys.teku.beacon.sync.historical;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static tech.pegasys.teku.infrastructure.logging.StatusLogger.STATUS_LOG;
 import static tech.pegasys.teku.spec.config.SpecConfig.GENESIS_SLOT;
 
 import com.google.common.base.Throwables;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import tech.pegasys.teku.beacon.sync.SyncConfig;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
 import tech.pegasys.teku.infrastructure.logging.StatusLogger;
@@ -34,6 +39,7 @@ import tech.pegasys.teku.service.serviceutils.Service;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.datastructures.blocks.BeaconBlockHeader;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.spec.datastructures.util.ChainDataLoader;
 import tech.pegasys.teku.storage.api.StorageUpdateChannel;
@@ -49,6 +55,7 @@ public class ReconstructHistoricalStatesService extends Service {
   private final StorageUpdateChannel storageUpdateChannel;
   private final StatusLogger statusLogger;
   private final ProgressLogger progressLogger;
+  private final int batchSize;
 
   private final AtomicBoolean shutdown = new AtomicBoolean(false);
   private final SafeFuture<Void> stopped = new SafeFuture<>();
@@ -67,7 +74,26 @@ public class ReconstructHistoricalStatesService extends Service {
         timeProvider,
         metricsSystem,
         genesisStateResource,
-        STATUS_LOG);
+        SyncConfig.DEFAULT_RECONSTRUCT_HISTORIC_STATES_BATCH_SIZE);
+  }
+
+  public ReconstructHistoricalStatesService(
+      final StorageUpdateChannel storageUpdateChannel,
+      final CombinedChainDataClient chainDataClient,
+      final Spec spec,
+      final TimeProvider timeProvider,
+      final MetricsSystem metricsSystem,
+      final Optional<String> genesisStateResource,
+      final int batchSize) {
+    this(
+        storageUpdateChannel,
+        chainDataClient,
+        spec,
+        timeProvider,
+        metricsSystem,
+        genesisStateResource,
+        STATUS_LOG,
+        batchSize);
   }
 
   public ReconstructHistoricalStatesService(
@@ -78,12 +104,39 @@ public class ReconstructHistoricalStatesService extends Service {
       final MetricsSystem metricsSystem,
       final Optional<String> genesisStateResource,
       final StatusLogger statusLogger) {
+    this(
+        storageUpdateChannel,
+        chainDataClient,
+        spec,
+        timeProvider,
+        metricsSystem,
+        genesisStateResource,
+        statusLogger,
+        SyncConfig.DEFAULT_RECONSTRUCT_HISTORIC_STATES_BATCH_SIZE);
+  }
+
+  /**
+   * @param batchSize the number of slots replayed before their states are written. When greater
+   *     than one, blocks for the next batch are loaded and replayed while the previous batch is
+   *     written in a single transaction.
+   */
+  public ReconstructHistoricalStatesService(
+      final StorageUpdateChannel storageUpdateChannel,
+      final CombinedChainDataClient chainDataClient,
+      final Spec spec,
+      final TimeProvider timeProvider,
+      final MetricsSystem metricsSystem,
+      final Optional<String> genesisStateResource,
+      final StatusLogger statusLogger,
+      final int batchSize) {
+    checkArgument(batchSize > 0, "Batch size must be positive but was %s", batchSize);
     this.storageUpdateChannel = storageUpdateChannel;
     this.chainDataClient = chainDataClient;
     this.spec = spec;
     this.genesisStateResource = genesisStateResource;
     this.statusLogger = statusLogger;
     this.progressLogger = new ProgressLogger(metricsSystem, statusLogger, timeProvider);
+    this.batchSize = batchSize;
   }
 
   @Override
@@ -132,7 +185,7 @@ public class ReconstructHistoricalStatesService extends Service {
                                     new Context(
                                         genesisState, GENESIS_SLOT.increment(), anchorSlot));
                       })
-                  .thenComposeChecked(this::applyNextBlock)
+                  .thenComposeChecked(this::applyBlocks)
                   .finish(
                       error -> {
                         final Throwable rootCause = Throwables.getRootCause(error);
@@ -147,6 +200,13 @@ public class ReconstructHistoricalStatesService extends Service {
             });
   }
 
+  private SafeFuture<Void> applyBlocks(final Context context) {
+    if (batchSize == 1) {
+      return applyNextBlock(context);
+    }
+    return applyNextBatch(context, fetchNextBatch(context.slot, context.anchorSlot));
+  }
+
   private SafeFuture<Void> applyNextBlock(Context context) {
     if (context.checkStopApplyBlock()) {
       statusLogger.reconstructHistoricalStatesServiceComplete();
@@ -177,6 +237,58 @@ public class ReconstructHistoricalStatesService extends Service {
         .thenCompose(__ -> applyNextBlock(context));
   }
 
+  private SafeFuture<Void> applyNextBatch(
+      final Context context, final SafeFuture<List<SignedBeaconBlock>> batchBlocks) {
+    if (context.checkStopApplyBlock()) {
+      return context.pendingWrite.thenRun(
+          () -> {
+            statusLogger.reconstructHistoricalStatesServiceComplete();
+            stopped.complete(null);
+          });
+    }
+
+    if (shutdown.get()) {
+      return context.pendingWrite.alwaysRun(() -> stopped.complete(null));
+    }
+
+    return batchBlocks.thenComposeChecked(
+        blocks -> {
+          final UInt64 nextBatchStart = context.slot.plus(batchSize).min(context.anchorSlot);
+          // Load the following batch from storage while this one is replayed
+          final SafeFuture<List<SignedBeaconBlock>> nextBatchBlocks =
+              fetchNextBatch(nextBatchStart, context.anchorSlot);
+
+          final List<SignedBlockAndState> replayedStates = new ArrayList<>(blocks.size());
+          for (SignedBeaconBlock block : blocks) {
+            progressLogger.update(block, context.anchorSlot);
+            context.currentState = spec.replayValidatedBlock(context.currentState, block);
+            replayedStates.add(new SignedBlockAndState(block, context.currentState));
+          }
+          context.slot = nextBatchStart;
+
+          // Only one batch is written at a time so stored states never have gaps and a restart
+          // resumes from the latest state that was stored
+          final SafeFuture<Void> previousWrite = context.pendingWrite;
+          context.pendingWrite =
+              previousWrite.thenCompose(
+                  __ ->
+                      replayedStates.isEmpty()
+                          ? SafeFuture.COMPLETE
+                          : storageUpdateChannel.onReconstructedFinalizedStates(replayedStates));
+          return previousWrite.thenCompose(__ -> applyNextBatch(context, nextBatchBlocks));
+        });
+  }
+
+  private SafeFuture<List<SignedBeaconBlock>> fetchNextBatch(
+      final UInt64 batchStart, final UInt64 anchorSlot) {
+    final UInt64 batchEnd = batchStart.plus(batchSize).min(anchorSlot);
+    return SafeFuture.collectAll(
+            UInt64.range(batchStart, batchEnd).map(chainDataClient::getBlockAtSlotExact))
+        .thenApply(
+            maybeBlocks ->
+                maybeBlocks.stream().flatMap(Optional::stream).collect(Collectors.toList()));
+  }
+
   @Override
   protected SafeFuture<?> doStop() {
     shutdown.set(true);
@@ -187,6 +299,7 @@ public class ReconstructHistoricalStatesService extends Service {
     private BeaconState currentState;
     private UInt64 slot;
     private final UInt64 anchorSlot;
+    private SafeFuture<Void> pendingWrite = SafeFuture.COMPLETE;
 
     Context(BeaconState currentState, UInt64 slot, UInt64 anchorSlot) {
       this.currentState = currentState;
@@ -21,6 +21,7 @@ import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ZERO;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.Batch;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.BatchChain;
@@ -29,6 +30,7 @@ import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChain;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChainTestUtil;
 import tech.pegasys.teku.infrastructure.async.eventthread.InlineEventThread;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.networking.eth2.peers.SyncSource;
 import tech.pegasys.teku.spec.TestSpecFactory;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.util.DataStructureUtil;
@@ -148,6 +150,29 @@ class BatchDataRequesterTest {
     assertThatBatch(batches.get(1)).hasRange(targetSlot, targetSlot);
   }
 
+  @Test
+  void shouldScalePendingBatchesWithNumberOfPeers() {
+    assertThat(fillQueueWithPeers(3)).isEqualTo(MAX_PENDING_BATCHES);
+    assertThat(fillQueueWithPeers(7)).isEqualTo(7);
+    assertThat(fillQueueWithPeers(12)).isEqualTo(8);
+  }
+
+  private long fillQueueWithPeers(final int peerCount) {
+    final BatchChain activeBatches = new BatchChain();
+    final BatchDataRequester scalingRequester =
+        new BatchDataRequester(
+            eventThread, activeBatches, batchFactory, BATCH_SIZE, MAX_PENDING_BATCHES, 8);
+    final TargetChain chainWithPeers =
+        TargetChainTestUtil.chainWith(
+            targetChain.getChainHead(),
+            Stream.generate(() -> mock(SyncSource.class))
+                .limit(peerCount)
+                .toArray(SyncSource[]::new));
+    eventThread.execute(
+        () -> scalingRequester.fillRetrievingQueue(chainWithPeers, ZERO, requestCompleteCallback));
+    return activeBatches.stream().count();
+  }
+
   private void fillQueue(final UInt64 commonAncestorSlot) {
     eventThread.execute(
         () ->
@@ -44,6 +44,7 @@ import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportRe
 import tech.pegasys.teku.spec.util.DataStructureUtil;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
 import tech.pegasys.teku.statetransition.block.BlockImporter;
+import tech.pegasys.teku.statetransition.block.PipelinedBlockImport;
 
 class BatchImporterTest {
   private final DataStructureUtil dataStructureUtil =
@@ -55,7 +56,9 @@ class BatchImporterTest {
   final SyncSource syncSource = mock(SyncSource.class);
 
   private final BatchImporter importer =
-      new BatchImporter(blockImporter, blobsSidecarManager, asyncRunner);
+      new BatchImporter(blockImporter, blobsSidecarManager, asyncRunner, false);
+  private final BatchImporter pipelinedImporter =
+      new BatchImporter(blockImporter, blobsSidecarManager, asyncRunner, true);
 
   @BeforeEach
   public void setup() {
@@ -262,6 +265,95 @@ class BatchImporterTest {
     verifyNoMoreInteractions(blockImporter);
   }
 
+  @Test
+  void shouldStartImportingAllBlocksWhenPipelined() {
+    final SignedBeaconBlock block1 = dataStructureUtil.randomSignedBeaconBlock(1);
+    final SignedBeaconBlock block2 = dataStructureUtil.randomSignedBeaconBlock(2);
+    final SignedBeaconBlock block3 = dataStructureUtil.randomSignedBeaconBlock(3);
+    final SafeFuture<BlockImportResult> importResult1 = new SafeFuture<>();
+    final SafeFuture<BlockImportResult> importResult2 = new SafeFuture<>();
+    final SafeFuture<BlockImportResult> importResult3 = new SafeFuture<>();
+    when(batch.getBlocks()).thenReturn(List.of(block1, block2, block3));
+    final PipelinedBlockImport import1 =
+        withPipelinedImport(block1, Optional.empty(), importResult1);
+    final PipelinedBlockImport import2 =
+        withPipelinedImport(block2, Optional.of(import1), importResult2);
+    withPipelinedImport(block3, Optional.of(import2), importResult3);
+
+    final SafeFuture<BatchImportResult> result = pipelinedImporter.importBatch(batch);
+
+    // Should not be started on the calling thread
+    verifyNoInteractions(blockImporter);
+
+    asyncRunner.executeQueuedActions();
+
+    // All blocks are started before any have been imported
+    verify(blockImporter).importBlockPipelined(block1, Optional.empty(), asyncRunner);
+    verify(blockImporter).importBlockPipelined(block2, Optional.of(import1), asyncRunner);
+    verify(blockImporter).importBlockPipelined(block3, Optional.of(import2), asyncRunner);
+    verifyNoMoreInteractions(blockImporter);
+
+    importResult1.complete(BlockImportResult.successful(block1));
+    importResult2.complete(BlockImportResult.successful(block2));
+    assertThat(result).isNotDone();
+    importResult3.complete(BlockImportResult.successful(block3));
+    assertThat(result).isCompletedWithValue(BatchImportResult.IMPORTED_ALL_BLOCKS);
+  }
+
+  @Test
+  void shouldReportFirstFailureWhenPipelined() {
+    final SignedBeaconBlock block1 = dataStructureUtil.randomSignedBeaconBlock(1);
+    final SignedBeaconBlock block2 = dataStructureUtil.randomSignedBeaconBlock(2);
+    final SignedBeaconBlock block3 = dataStructureUtil.randomSignedBeaconBlock(3);
+    final SafeFuture<BlockImportResult> importResult1 = new SafeFuture<>();
+    final SafeFuture<BlockImportResult> importResult2 = new SafeFuture<>();
+    final SafeFuture<BlockImportResult> importResult3 = new SafeFuture<>();
+    when(batch.getBlocks()).thenReturn(List.of(block1, block2, block3));
+    final PipelinedBlockImport import1 =
+        withPipelinedImport(block1, Optional.empty(), importResult1);
+    final PipelinedBlockImport import2 =
+        withPipelinedImport(block2, Optional.of(import1), importResult2);
+    withPipelinedImport(block3, Optional.of(import2), importResult3);
+
+    final SafeFuture<BatchImportResult> result = pipelinedImporter.importBatch(batch);
+    asyncRunner.executeQueuedActions();
+
+    importResult1.complete(BlockImportResult.successful(block1));
+    importResult2.complete(BlockImportResult.failedExecutionPayloadExecution(new Error()));
+    // The first failure is reported without waiting for later blocks
+    assertThat(result).isCompletedWithValue(BatchImportResult.SERVICE_OFFLINE);
+
+    importResult3.complete(BlockImportResult.FAILED_UNKNOWN_PARENT);
+    assertThat(result).isCompletedWithValue(BatchImportResult.SERVICE_OFFLINE);
+  }
+
+  @Test
+  void shouldDisconnectPeersForWeakSubjectivityViolationWhenPipelined() {
+    when(syncSource.disconnectCleanly(any())).thenReturn(SafeFuture.COMPLETE);
+    final SignedBeaconBlock block1 = dataStructureUtil.randomSignedBeaconBlock(1);
+    final SafeFuture<BlockImportResult> importResult1 = new SafeFuture<>();
+    when(batch.getBlocks()).thenReturn(List.of(block1));
+    withPipelinedImport(block1, Optional.empty(), importResult1);
+
+    final SafeFuture<BatchImportResult> result = pipelinedImporter.importBatch(batch);
+    asyncRunner.executeQueuedActions();
+
+    importResult1.complete(BlockImportResult.FAILED_WEAK_SUBJECTIVITY_CHECKS);
+    assertThat(result).isCompletedWithValue(BatchImportResult.IMPORT_FAILED);
+    verify(syncSource).disconnectCleanly(DisconnectReason.REMOTE_FAULT);
+  }
+
+  private PipelinedBlockImport withPipelinedImport(
+      final SignedBeaconBlock block,
+      final Optional<PipelinedBlockImport> parentImport,
+      final SafeFuture<BlockImportResult> importResult) {
+    final PipelinedBlockImport blockImport =
+        new PipelinedBlockImport(SafeFuture.completedFuture(Optional.empty()), importResult);
+    when(blockImporter.importBlockPipelined(block, parentImport, asyncRunner))
+        .thenReturn(blockImport);
+    return blockImport;
+  }
+
   private void blobsSidecarImportedSuccessfully(final BlobsSidecar blobsSidecar) {
     verify(blobsSidecarManager).storeUnconfirmedBlobsSidecar(blobsSidecar);
     verifyNoMoreInteractions(blobsSidecarManager);
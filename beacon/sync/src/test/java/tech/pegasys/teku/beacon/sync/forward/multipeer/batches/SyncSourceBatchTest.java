@@ -22,6 +22,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static tech.pegasys.teku.beacon.sync.forward.multipeer.batches.BatchAssert.assertThatBatch;
+import static tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker.MIN_SPECULATIVE_REQUEST_DELAY_MILLIS;
 import static tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChainTestUtil.chainWith;
 
 import java.util.ArrayList;
@@ -34,8 +35,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChain;
 import tech.pegasys.teku.infrastructure.async.eventthread.InlineEventThread;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.networking.eth2.peers.StubSyncSource;
+import tech.pegasys.teku.networking.eth2.peers.SyncSource;
 import tech.pegasys.teku.networking.eth2.rpc.beaconchain.methods.BlocksByRangeResponseInvalidResponseException;
 import tech.pegasys.teku.networking.eth2.rpc.beaconchain.methods.BlocksByRangeResponseInvalidResponseException.InvalidResponseType;
 import tech.pegasys.teku.networking.p2p.peer.PeerDisconnectedException;
@@ -56,6 +60,9 @@ public class SyncSourceBatchTest {
   private final ConflictResolutionStrategy conflictResolutionStrategy =
       mock(ConflictResolutionStrategy.class);
   private final BlobsSidecarManager blobsSidecarManager = mock(BlobsSidecarManager.class);
+  private final StubTimeProvider timeProvider = StubTimeProvider.withTimeInMillis(0);
+  private final SyncSourcePerformanceTracker performanceTracker =
+      new SyncSourcePerformanceTracker(timeProvider, new StubMetricsSystem());
   private final Map<Batch, List<StubSyncSource>> syncSources = new HashMap<>();
 
   @Test
@@ -227,6 +234,86 @@ public class SyncSourceBatchTest {
     verify(conflictResolutionStrategy).reportInvalidBatch(batch, getSyncSource(batch));
   }
 
+  @Test
+  void requestMoreBlocks_shouldLimitSubsequentRequestsToMeasuredThroughput() {
+    final Batch batch = createBatch(0, 50);
+    batch.requestMoreBlocks(() -> {});
+    getSyncSource(batch).assertRequestedBlocks(0, 50);
+    timeProvider.advanceTimeByMillis(10_000);
+    receiveBlocks(batch, dataStructureUtil.randomSignedBeaconBlock(9));
+    assertThatBatch(batch).isNotComplete();
+
+    // 50 slots in 10 seconds means 25 slots can be downloaded in the target request duration
+    batch.requestMoreBlocks(() -> {});
+    getSyncSource(batch).assertRequestedBlocks(10, 25);
+  }
+
+  @Test
+  void requestDuplicateIfSlow_shouldRequestSameRangeFromAlternativeSource() {
+    final StubSyncSource slowSource = new StubSyncSource();
+    final StubSyncSource fastSource = new StubSyncSource();
+    final Batch batch = createBatchWithAlternativeSource(slowSource, fastSource);
+    final Runnable slowCallback = mock(Runnable.class);
+    final Runnable fastCallback = mock(Runnable.class);
+    batch.requestMoreBlocks(slowCallback);
+
+    assertThat(batch.requestDuplicateIfSlow(fastCallback)).isFalse();
+    timeProvider.advanceTimeByMillis(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS);
+    assertThat(batch.requestDuplicateIfSlow(fastCallback)).isTrue();
+    fastSource.assertRequestedBlocks(70, 50);
+    // Only one duplicate request is made
+    assertThat(batch.requestDuplicateIfSlow(fastCallback)).isFalse();
+
+    final SignedBeaconBlock block = dataStructureUtil.randomSignedBeaconBlock(119);
+    fastSource.receiveBlocks(block);
+    eventThread.executePendingTasks();
+    verify(fastCallback).run();
+    assertThatBatch(batch).isComplete();
+    assertThat(batch.getBlocks()).containsExactly(block);
+
+    // Late response from the original source is ignored
+    slowSource.receiveBlocks(dataStructureUtil.randomSignedBeaconBlock(100));
+    eventThread.executePendingTasks();
+    verifyNoInteractions(slowCallback);
+    assertThat(batch.getBlocks()).containsExactly(block);
+  }
+
+  @Test
+  void requestDuplicateIfSlow_shouldIgnoreFailureWhileDuplicateRequestPending() {
+    final StubSyncSource slowSource = new StubSyncSource();
+    final StubSyncSource fastSource = new StubSyncSource();
+    final Batch batch = createBatchWithAlternativeSource(slowSource, fastSource);
+    final Runnable slowCallback = mock(Runnable.class);
+    batch.requestMoreBlocks(slowCallback);
+    timeProvider.advanceTimeByMillis(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS);
+    assertThat(batch.requestDuplicateIfSlow(() -> {})).isTrue();
+
+    slowSource.failRequest(new PeerDisconnectedException());
+    eventThread.executePendingTasks();
+    verifyNoInteractions(slowCallback);
+    verifyNoInteractions(conflictResolutionStrategy);
+    assertThatBatch(batch).isAwaitingBlocks();
+
+    fastSource.receiveBlocks();
+    assertThatBatch(batch).isComplete();
+  }
+
+  @Test
+  void requestDuplicateIfSlow_shouldNotDuplicateFollowUpRequests() {
+    final StubSyncSource slowSource = new StubSyncSource();
+    final StubSyncSource fastSource = new StubSyncSource();
+    final Batch batch = createBatchWithAlternativeSource(slowSource, fastSource);
+    batch.requestMoreBlocks(() -> {});
+    slowSource.receiveBlocks(dataStructureUtil.randomSignedBeaconBlock(80));
+    eventThread.executePendingTasks();
+
+    batch.requestMoreBlocks(() -> {});
+    slowSource.assertRequestedBlocks(81, 39);
+    timeProvider.advanceTimeByMillis(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS);
+    // Blocks from another source could not be attributed to a single source
+    assertThat(batch.requestDuplicateIfSlow(() -> {})).isFalse();
+  }
+
   @Test
   void shouldSkipMakingRequestWhenNoTargetPeerIsAvailable() {
     final SyncSourceSelector emptySourceSelector = Optional::empty;
@@ -238,7 +325,8 @@ public class SyncSourceBatchTest {
             targetChain,
             blobsSidecarManager,
             UInt64.ONE,
-            UInt64.ONE);
+            UInt64.ONE,
+            performanceTracker);
 
     final Runnable callback = mock(Runnable.class);
     batch.requestMoreBlocks(callback);
@@ -257,7 +345,7 @@ public class SyncSourceBatchTest {
         () -> {
           final StubSyncSource source = new StubSyncSource();
           syncSources.add(source);
-          return Optional.of(source);
+          return performanceTracker.selectSource(List.of(source), Optional.empty());
         };
     final SyncSourceBatch batch =
         new SyncSourceBatch(
@@ -267,11 +355,37 @@ public class SyncSourceBatchTest {
             targetChain,
             blobsSidecarManager,
             UInt64.valueOf(startSlot),
-            UInt64.valueOf(count));
+            UInt64.valueOf(count),
+            performanceTracker);
     this.syncSources.put(batch, syncSources);
     return batch;
   }
 
+  private Batch createBatchWithAlternativeSource(
+      final StubSyncSource source, final StubSyncSource alternativeSource) {
+    final SyncSourceSelector syncSourceProvider =
+        new SyncSourceSelector() {
+          @Override
+          public Optional<SyncSource> selectSource() {
+            return performanceTracker.selectSource(List.of(source), Optional.empty());
+          }
+
+          @Override
+          public Optional<SyncSource> selectAlternativeSource(final SyncSource excluded) {
+            return performanceTracker.selectSource(List.of(alternativeSource), Optional.empty());
+          }
+        };
+    return new SyncSourceBatch(
+        eventThread,
+        syncSourceProvider,
+        conflictResolutionStrategy,
+        targetChain,
+        blobsSidecarManager,
+        UInt64.valueOf(70),
+        UInt64.valueOf(50),
+        performanceTracker);
+  }
+
   protected void receiveBlocks(final Batch batch, final SignedBeaconBlock... blocks) {
     getSyncSource(batch).receiveBlocks(blocks);
   }
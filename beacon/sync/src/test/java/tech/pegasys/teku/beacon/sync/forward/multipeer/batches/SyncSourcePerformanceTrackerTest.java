@@ -0,0 +1,207 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.beacon.sync.forward.multipeer.batches;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker.MIN_REQUEST_SIZE;
+import static tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker.MIN_SPECULATIVE_REQUEST_DELAY_MILLIS;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.beacon.sync.forward.multipeer.batches.SyncSourcePerformanceTracker.PendingRequest;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.networking.eth2.peers.StubSyncSource;
+import tech.pegasys.teku.networking.eth2.peers.SyncSource;
+
+class SyncSourcePerformanceTrackerTest {
+  private static final UInt64 BATCH_SIZE = UInt64.valueOf(50);
+
+  private final StubTimeProvider timeProvider = StubTimeProvider.withTimeInMillis(0);
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final SyncSourcePerformanceTracker tracker =
+      new SyncSourcePerformanceTracker(timeProvider, metricsSystem);
+
+  private final SyncSource slowSource = new StubSyncSource();
+  private final SyncSource fastSource = new StubSyncSource();
+  private final SyncSource unmeasuredSource = new StubSyncSource();
+
+  @Test
+  void selectSource_shouldReturnEmptyWhenNoCandidates() {
+    assertThat(tracker.selectSource(List.of(), Optional.empty())).isEmpty();
+    assertThat(tracker.selectSource(List.of(slowSource), Optional.of(slowSource))).isEmpty();
+  }
+
+  @Test
+  void selectSource_shouldPreferUnmeasuredThenFasterSources() {
+    completeRequest(slowSource, 10_000);
+    completeRequest(fastSource, 1_000);
+
+    assertThat(
+            tracker.selectSource(
+                List.of(slowSource, fastSource, unmeasuredSource), Optional.empty()))
+        .contains(unmeasuredSource);
+    assertThat(tracker.selectSource(List.of(slowSource, fastSource), Optional.empty()))
+        .contains(fastSource);
+    assertThat(tracker.selectSource(List.of(slowSource, fastSource), Optional.of(fastSource)))
+        .contains(slowSource);
+  }
+
+  @Test
+  void selectSource_shouldPreferSourcesWithFewerPendingRequests() {
+    completeRequest(slowSource, 10_000);
+    completeRequest(fastSource, 1_000);
+    startRequest(fastSource);
+
+    assertThat(tracker.selectSource(List.of(slowSource, fastSource), Optional.empty()))
+        .contains(slowSource);
+  }
+
+  @Test
+  void getRequestSize_shouldRequestAllRemainingSlotsFromUnmeasuredSource() {
+    assertThat(tracker.getRequestSize(unmeasuredSource, BATCH_SIZE)).isEqualTo(BATCH_SIZE);
+  }
+
+  @Test
+  void getRequestSize_shouldSizeRequestsByThroughput() {
+    // 5 slots per second
+    completeRequest(slowSource, 10_000);
+    // 50 slots per second
+    completeRequest(fastSource, 1_000);
+
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(UInt64.valueOf(25));
+    assertThat(tracker.getRequestSize(fastSource, BATCH_SIZE)).isEqualTo(BATCH_SIZE);
+  }
+
+  @Test
+  void getRequestSize_shouldNotRequestLessThanMinimum() {
+    completeRequest(slowSource, 100_000);
+
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(MIN_REQUEST_SIZE);
+    assertThat(tracker.getRequestSize(slowSource, UInt64.ONE)).isEqualTo(UInt64.ONE);
+  }
+
+  @Test
+  void getRequestSize_shouldReduceRequestSizeAfterFailure() {
+    completeRequest(slowSource, 10_000);
+    startRequest(slowSource).fail();
+
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(UInt64.valueOf(12));
+  }
+
+  @Test
+  void isSpeculativeRequestDue_shouldUseMinimumDelayForUnmeasuredSource() {
+    final PendingRequest request = startRequest(unmeasuredSource);
+    timeProvider.advanceTimeByMillis(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS - 1);
+    assertThat(request.isSpeculativeRequestDue()).isFalse();
+
+    timeProvider.advanceTimeByMillis(1);
+    assertThat(request.isSpeculativeRequestDue()).isTrue();
+  }
+
+  @Test
+  void isSpeculativeRequestDue_shouldWaitForTwiceTheUsualLatency() {
+    completeRequest(slowSource, 10_000);
+    final PendingRequest request = startRequest(slowSource);
+    timeProvider.advanceTimeByMillis(19_999);
+    assertThat(request.isSpeculativeRequestDue()).isFalse();
+
+    timeProvider.advanceTimeByMillis(1);
+    assertThat(request.isSpeculativeRequestDue()).isTrue();
+  }
+
+  @Test
+  void shouldUpdateMetricsWhenRequestsComplete() {
+    completeRequest(slowSource, 10_000);
+    completeRequest(fastSource, 1_000);
+
+    assertThat(
+            metricsSystem
+                .getCounter(TekuMetricCategory.BEACON, "forward_sync_downloaded_slots_total")
+                .getValue())
+        .isEqualTo(100);
+    assertThat(
+            metricsSystem
+                .getGauge(TekuMetricCategory.BEACON, "forward_sync_download_slots_per_second")
+                .getValue())
+        .isEqualTo(55);
+
+    tracker.onSourceDisconnected(fastSource);
+    assertThat(
+            metricsSystem
+                .getGauge(TekuMetricCategory.BEACON, "forward_sync_download_slots_per_second")
+                .getValue())
+        .isEqualTo(5);
+  }
+
+  @Test
+  void shouldNotCountSlotsFromSupersededResponsesAsDownloaded() {
+    final PendingRequest request = startRequest(slowSource);
+    final PendingRequest duplicate = startRequest(fastSource);
+    timeProvider.advanceTimeByMillis(1_000);
+    duplicate.complete(BATCH_SIZE, 1000, true);
+    timeProvider.advanceTimeByMillis(9_000);
+    request.complete(BATCH_SIZE, 1000, false);
+
+    assertThat(
+            metricsSystem
+                .getCounter(TekuMetricCategory.BEACON, "forward_sync_downloaded_slots_total")
+                .getValue())
+        .isEqualTo(50);
+    // The superseded response is still used to measure the source
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(UInt64.valueOf(25));
+  }
+
+  @Test
+  void shouldIgnoreCompletionOfRequestsToDisconnectedSources() {
+    final PendingRequest request = startRequest(slowSource);
+    tracker.onSourceDisconnected(slowSource);
+    request.complete(BATCH_SIZE, 1000, true);
+
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(BATCH_SIZE);
+  }
+
+  @Test
+  void shouldNotTrackDisconnectedSourcesAgainWhenRequested() {
+    completeRequest(slowSource, 10_000);
+    tracker.onSourceDisconnected(slowSource);
+
+    final PendingRequest request = tracker.startRequest(slowSource);
+    timeProvider.advanceTimeByMillis(MIN_SPECULATIVE_REQUEST_DELAY_MILLIS);
+    assertThat(request.isSpeculativeRequestDue()).isTrue();
+    request.complete(BATCH_SIZE, 1000, true);
+
+    assertThat(tracker.getRequestSize(slowSource, BATCH_SIZE)).isEqualTo(BATCH_SIZE);
+    assertThat(
+            metricsSystem
+                .getGauge(TekuMetricCategory.BEACON, "forward_sync_download_slots_per_second")
+                .getValue())
+        .isZero();
+  }
+
+  private PendingRequest startRequest(final SyncSource source) {
+    // Sources are tracked once they have been a candidate for selection
+    tracker.selectSource(List.of(source), Optional.empty());
+    return tracker.startRequest(source);
+  }
+
+  private void completeRequest(final SyncSource source, final long durationMillis) {
+    final PendingRequest request = startRequest(source);
+    timeProvider.advanceTimeByMillis(durationMillis);
+    request.complete(BATCH_SIZE, 1000, true);
+  }
+}
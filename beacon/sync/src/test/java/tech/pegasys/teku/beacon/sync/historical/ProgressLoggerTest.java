@@ -13,6 +13,7 @@
 
 package tech.pegasys.teku.beacon.sync.historical;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -26,6 +27,8 @@ import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.infrastructure.logging.StatusLogger;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
@@ -83,4 +86,29 @@ public class ProgressLoggerTest {
 
     verify(statusLogger, never()).reconstructedHistoricalBlocks(any(), any());
   }
+
+  @Test
+  public void shouldReportThroughputAndRemainingTime() {
+    final StubMetricsSystem stubMetricsSystem = new StubMetricsSystem();
+    progressLogger = new ProgressLogger(stubMetricsSystem, statusLogger, timeProvider);
+    final UInt64 anchorSlot = UInt64.valueOf(123);
+    progressLogger.update(dataStructureUtil.randomSignedBeaconBlock(UInt64.valueOf(3)), anchorSlot);
+
+    timeProvider.advanceTimeBy(Duration.ofSeconds(10));
+    progressLogger.update(
+        dataStructureUtil.randomSignedBeaconBlock(UInt64.valueOf(23)), anchorSlot);
+
+    assertThat(
+            stubMetricsSystem
+                .getGauge(
+                    TekuMetricCategory.BEACON, "reconstruct_historical_states_slots_per_second")
+                .getValue())
+        .isEqualTo(2);
+    assertThat(
+            stubMetricsSystem
+                .getGauge(
+                    TekuMetricCategory.BEACON, "reconstruct_historical_states_remaining_seconds")
+                .getValue())
+        .isEqualTo(50);
+  }
 }
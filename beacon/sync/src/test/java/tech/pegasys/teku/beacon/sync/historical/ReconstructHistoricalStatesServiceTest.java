@@ -27,13 +27,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
 import tech.pegasys.teku.infrastructure.logging.StatusLogger;
@@ -41,6 +44,7 @@ import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.spec.generator.ChainBuilder;
@@ -66,6 +70,8 @@ public class ReconstructHistoricalStatesServiceTest {
 
     when(storageUpdateChannel.onReconstructedFinalizedState(any(), any()))
         .thenReturn(SafeFuture.COMPLETE);
+    when(storageUpdateChannel.onReconstructedFinalizedStates(any()))
+        .thenReturn(SafeFuture.COMPLETE);
   }
 
   @Test
@@ -200,12 +206,60 @@ public class ReconstructHistoricalStatesServiceTest {
                     .onReconstructedFinalizedState(any(), eq(signedBlockAndState.getRoot())));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldRegenerateStatesInBatches(@TempDir final Path tempDir) throws IOException {
+    when(chainDataClient.getLatestAvailableFinalizedState(any()))
+        .thenReturn(SafeFuture.completedFuture(Optional.empty()));
+    chainBuilder.generateBlockAtSlot(12);
+    chainBuilder.generateBlocksUpToSlot(18);
+    final Checkpoint initialAnchor = getInitialAnchor();
+    final int anchorSlot = initialAnchor.getEpochStartSlot(spec).intValue();
+    final int batchSize = 4;
+    setUpService(tempDir, initialAnchor, batchSize);
+
+    final SafeFuture<?> res = service.start();
+    assertThat(res).isCompleted();
+    final ArgumentCaptor<List<SignedBlockAndState>> captor = ArgumentCaptor.forClass(List.class);
+    // Slots from 1 up to the anchor are replayed, rounding up to whole batches
+    final int expectedBatches = (anchorSlot - 1 + batchSize - 1) / batchSize;
+    verify(storageUpdateChannel, times(expectedBatches))
+        .onReconstructedFinalizedStates(captor.capture());
+    final List<SignedBlockAndState> storedStates =
+        captor.getAllValues().stream().flatMap(List::stream).collect(Collectors.toList());
+    assertThat(storedStates)
+        .containsExactlyElementsOf(
+            chainBuilder
+                .streamBlocksAndStates(1, anchorSlot - 1)
+                .collect(Collectors.toList()));
+    verify(storageUpdateChannel, times(1)).onReconstructedFinalizedState(any(), any());
+  }
+
+  @Test
+  void shouldStopBatchesWhenWriteFails(@TempDir final Path tempDir) throws IOException {
+    when(storageUpdateChannel.onReconstructedFinalizedStates(any()))
+        .thenReturn(SafeFuture.failedFuture(new IllegalStateException()));
+    when(chainDataClient.getLatestAvailableFinalizedState(any()))
+        .thenReturn(SafeFuture.completedFuture(Optional.empty()));
+    setUpService(tempDir, getInitialAnchor(), 2);
+
+    final SafeFuture<?> res = service.start();
+    assertThat(res).isCompleted();
+    verify(storageUpdateChannel, times(1)).onReconstructedFinalizedStates(any());
+    verify(statusLogger, times(1)).reconstructHistoricalStatesServiceFailedProcess(any());
+  }
+
   private Checkpoint getInitialAnchor() {
     return chainBuilder.getCurrentCheckpointForEpoch(chainBuilder.getLatestEpoch());
   }
 
   private void setUpService(final Path tempDir, final Checkpoint initialAnchor) throws IOException {
-    createService(createGenesisStateResource(tempDir));
+    setUpService(tempDir, initialAnchor, 1);
+  }
+
+  private void setUpService(
+      final Path tempDir, final Checkpoint initialAnchor, final int batchSize) throws IOException {
+    createService(createGenesisStateResource(tempDir), batchSize);
     when(chainDataClient.getInitialAnchor())
         .thenReturn(SafeFuture.completedFuture(Optional.of(initialAnchor)));
     when(chainDataClient.getBlockAtSlotExact(any()))
@@ -226,6 +280,10 @@ public class ReconstructHistoricalStatesServiceTest {
   }
 
   private void createService(final Optional<String> genesisStateResource) {
+    createService(genesisStateResource, 1);
+  }
+
+  private void createService(final Optional<String> genesisStateResource, final int batchSize) {
     service =
         new ReconstructHistoricalStatesService(
             storageUpdateChannel,
@@ -234,6 +292,7 @@ public class ReconstructHistoricalStatesServiceTest {
             StubTimeProvider.withTimeInSeconds(0),
             metricsSystem,
             genesisStateResource,
-            statusLogger);
+            statusLogger,
+            batchSize);
   }
 }
@@ -21,10 +21,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.BatchImporter.BatchImportResult;
 import tech.pegasys.teku.beacon.sync.forward.multipeer.chains.TargetChain;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.async.eventthread.EventThread;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.networking.eth2.peers.StubSyncSource;
 import tech.pegasys.teku.networking.eth2.peers.SyncSource;
@@ -39,7 +41,7 @@ public class StubBatchFactory extends BatchFactory implements Iterable<Batch> {
   private final boolean enforceEventThread;
 
   public StubBatchFactory(final EventThread eventThread, boolean enforceEventThread) {
-    super(eventThread, null, BlobsSidecarManager.NOOP);
+    super(eventThread, null, BlobsSidecarManager.NOOP, null);
     this.eventThread = eventThread;
     this.enforceEventThread = enforceEventThread;
   }
@@ -124,7 +126,15 @@ public class StubBatchFactory extends BatchFactory implements Iterable<Batch> {
         final UInt64 count) {
       batch =
           new SyncSourceBatch(
-              eventThread, this, this, chain, BlobsSidecarManager.NOOP, start, count);
+              eventThread,
+              this,
+              this,
+              chain,
+              BlobsSidecarManager.NOOP,
+              start,
+              count,
+              new SyncSourcePerformanceTracker(
+                  StubTimeProvider.withTimeInMillis(0), new NoOpMetricsSystem()));
       eventThreadOnlyBatch = new EventThreadOnlyBatch(eventThread, batch);
     }
 
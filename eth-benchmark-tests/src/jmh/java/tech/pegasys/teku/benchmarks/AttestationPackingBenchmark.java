@@ -0,0 +1,154 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.benchmarks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.infrastructure.collections.TekuPair;
+import tech.pegasys.teku.infrastructure.ssz.SszList;
+import tech.pegasys.teku.infrastructure.ssz.collections.SszBitlist;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation.AttestationSchema;
+import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
+import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.logic.common.statetransition.attestation.AttestationWorthinessChecker;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+import tech.pegasys.teku.statetransition.attestation.AggregatingAttestationPool;
+import tech.pegasys.teku.statetransition.attestation.AttestationForkChecker;
+
+/**
+ * Measures the time taken to select attestations for a block from a pool where several attestation
+ * data compete for each committee and aggregates overlap. The number of validators covered by the
+ * selected attestations is printed during setup so the packing quality of different time budgets
+ * can be compared.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class AttestationPackingBenchmark {
+  private static final int SLOT_COUNT = 3;
+  private static final int COMMITTEES_PER_SLOT = 64;
+  private static final int DATA_PER_COMMITTEE = 3;
+  private static final int AGGREGATES_PER_DATA = 8;
+  private static final int COMMITTEE_SIZE = 128;
+
+  private final Spec spec = TestSpecFactory.createMainnetPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+
+  @Param({"0", "50"})
+  int packingTimeBudgetMillis;
+
+  private AggregatingAttestationPool pool;
+  private BeaconState state;
+  private AttestationForkChecker forkChecker;
+
+  @Setup
+  public void setup() {
+    pool =
+        new AggregatingAttestationPool(
+            spec,
+            new NoOpMetricsSystem(),
+            AggregatingAttestationPool.DEFAULT_MAXIMUM_ATTESTATION_COUNT,
+            Duration.ofMillis(packingTimeBudgetMillis));
+    state = dataStructureUtil.randomBeaconState(UInt64.valueOf(100 * 32 + 16));
+    forkChecker = new AttestationForkChecker(spec, state);
+
+    final Random random = new Random(1);
+    final AttestationSchema attestationSchema =
+        spec.getGenesisSchemaDefinitions().getAttestationSchema();
+    final UInt64 currentEpoch = spec.getCurrentEpoch(state);
+    for (int slotOffset = 1; slotOffset <= SLOT_COUNT; slotOffset++) {
+      final UInt64 slot = state.getSlot().minus(slotOffset);
+      final UInt64 epoch = spec.computeEpochAtSlot(slot);
+      final Checkpoint source =
+          epoch.equals(currentEpoch)
+              ? state.getCurrentJustifiedCheckpoint()
+              : state.getPreviousJustifiedCheckpoint();
+      for (int committeeIndex = 0; committeeIndex < COMMITTEES_PER_SLOT; committeeIndex++) {
+        for (int i = 0; i < DATA_PER_COMMITTEE; i++) {
+          final AttestationData data =
+              new AttestationData(
+                  slot,
+                  UInt64.valueOf(committeeIndex),
+                  dataStructureUtil.randomBytes32(),
+                  source,
+                  new Checkpoint(epoch, dataStructureUtil.randomBytes32()));
+          for (int aggregate = 0; aggregate < AGGREGATES_PER_DATA; aggregate++) {
+            final Attestation attestation =
+                attestationSchema.create(
+                    attestationSchema
+                        .getAggregationBitsSchema()
+                        .ofBits(COMMITTEE_SIZE, randomValidators(random)),
+                    data,
+                    dataStructureUtil.randomSignature());
+            final ValidateableAttestation validateableAttestation =
+                ValidateableAttestation.from(spec, attestation);
+            validateableAttestation.saveCommitteeShufflingSeed(state);
+            pool.add(validateableAttestation);
+          }
+        }
+      }
+    }
+
+    System.out.println(
+        "Attestations selected cover "
+            + countCoveredValidators(getAttestationsForBlock())
+            + " validators with a time budget of "
+            + packingTimeBudgetMillis
+            + "ms");
+  }
+
+  private static int[] randomValidators(final Random random) {
+    return random.ints(COMMITTEE_SIZE / 4, 0, COMMITTEE_SIZE).distinct().toArray();
+  }
+
+  private static int countCoveredValidators(final SszList<Attestation> attestations) {
+    final Map<TekuPair<UInt64, UInt64>, SszBitlist> coverageByCommittee = new HashMap<>();
+    attestations.forEach(
+        attestation ->
+            coverageByCommittee.merge(
+                TekuPair.of(attestation.getData().getSlot(), attestation.getData().getIndex()),
+                attestation.getAggregationBits(),
+                SszBitlist::or));
+    return coverageByCommittee.values().stream().mapToInt(SszBitlist::getBitCount).sum();
+  }
+
+  @Benchmark
+  public SszList<Attestation> getAttestationsForBlock() {
+    return pool.getAttestationsForBlock(state, forkChecker, AttestationWorthinessChecker.NOOP);
+  }
+}
@@ -20,10 +20,13 @@ import org.apache.tuweni.bytes.MutableBytes;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 import tech.pegasys.teku.infrastructure.crypto.Hash;
+import tech.pegasys.teku.infrastructure.crypto.Sha256;
+import tech.pegasys.teku.infrastructure.ssz.tree.BatchHasher;
 
 @State(Scope.Thread)
 public class Sha256Benchmark {
@@ -32,6 +35,21 @@ public class Sha256Benchmark {
   private byte[] dataArray = new byte[33];
   private int cnt = 0;
 
+  private static final int PAIRS_COUNT = 1024;
+  private final Sha256 sha256 = new Sha256();
+  private final BatchHasher batchHasher = BatchHasher.createDefault();
+  private final Bytes32[] pairRoots = new Bytes32[PAIRS_COUNT * 2];
+  private final byte[] pairsInput = new byte[PAIRS_COUNT * BatchHasher.PAIR_SIZE];
+  private final byte[] pairsOutput = new byte[PAIRS_COUNT * BatchHasher.HASH_SIZE];
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < pairRoots.length; i++) {
+      pairRoots[i] = Bytes32.random();
+      System.arraycopy(pairRoots[i].toArrayUnsafe(), 0, pairsInput, i * Bytes32.SIZE, Bytes32.SIZE);
+    }
+  }
+
   @Benchmark
   @Warmup(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
   @Measurement(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
@@ -51,4 +69,21 @@ public class Sha256Benchmark {
     byte[] hash = Hash.sha256(dataArray).toArrayUnsafe();
     bh.consume(hash);
   }
+
+  @Benchmark
+  @Warmup(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+  public void sha256of1024PairsOneByOne(Blackhole bh) {
+    for (int i = 0; i < PAIRS_COUNT; i++) {
+      bh.consume(sha256.wrappedDigest(pairRoots[2 * i], pairRoots[2 * i + 1]));
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+  public void sha256of1024PairsBatched(Blackhole bh) {
+    batchHasher.hashPairs(pairsInput, PAIRS_COUNT, pairsOutput);
+    bh.consume(pairsOutput);
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.benchmarks;
+
+import io.netty.buffer.Unpooled;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.pegasys.teku.infrastructure.ssz.SszData;
+import tech.pegasys.teku.infrastructure.ssz.schema.SszSchema;
+import tech.pegasys.teku.networking.eth2.gossip.encoding.DecodingException;
+import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
+import tech.pegasys.teku.networking.eth2.gossip.encoding.SnappyBlockCompressor;
+import tech.pegasys.teku.networking.eth2.rpc.core.RpcException;
+import tech.pegasys.teku.networking.eth2.rpc.core.encodings.RpcByteBufDecoder;
+import tech.pegasys.teku.networking.eth2.rpc.core.encodings.RpcEncoding;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.config.Constants;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+/**
+ * Measures snappy encoding and decoding of gossip and req/resp payloads. Run with {@code -prof gc}
+ * to report the allocation rate alongside throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SnappyEncodingBenchmark {
+
+  private static final Spec spec = TestSpecFactory.createMainnetAltair();
+  private static final DataStructureUtil dataStructureUtil = new DataStructureUtil(0, spec);
+  private static final SignedBeaconBlock block =
+      dataStructureUtil.randomSignedBeaconBlock(100, dataStructureUtil.randomBytes32(), true);
+  private static final Attestation attestation = dataStructureUtil.randomAttestation();
+  private static final SszSchema<SignedBeaconBlock> blockSchema =
+      spec.getGenesisSchemaDefinitions().getSignedBeaconBlockSchema();
+  private static final SszSchema<Attestation> attestationSchema =
+      spec.getGenesisSchemaDefinitions().getAttestationSchema();
+
+  private final GossipEncoding gossipEncoding = GossipEncoding.SSZ_SNAPPY;
+  private final SnappyBlockCompressor blockCompressor = new SnappyBlockCompressor();
+  private final RpcEncoding rpcEncoding =
+      RpcEncoding.createSszSnappyEncoding(Constants.MAX_CHUNK_SIZE);
+
+  private final Bytes gossipBlock = gossipEncoding.encode(block);
+  private final Bytes gossipAttestation = gossipEncoding.encode(attestation);
+  private final Bytes rpcBlock = rpcEncoding.encodePayload(block);
+  private final Bytes rpcAttestation = rpcEncoding.encodePayload(attestation);
+
+  @Benchmark
+  public void gossipEncodeBlock(Blackhole bh) {
+    bh.consume(gossipEncoding.encode(block));
+  }
+
+  @Benchmark
+  public void gossipDecodeBlock(Blackhole bh) throws DecodingException {
+    bh.consume(gossipDecode(gossipBlock, blockSchema));
+  }
+
+  @Benchmark
+  public void gossipEncodeAttestation(Blackhole bh) {
+    bh.consume(gossipEncoding.encode(attestation));
+  }
+
+  @Benchmark
+  public void gossipDecodeAttestation(Blackhole bh) throws DecodingException {
+    bh.consume(gossipDecode(gossipAttestation, attestationSchema));
+  }
+
+  @Benchmark
+  public void rpcEncodeBlock(Blackhole bh) {
+    bh.consume(rpcEncoding.encodePayload(block));
+  }
+
+  @Benchmark
+  public void rpcDecodeBlock(Blackhole bh) throws RpcException {
+    bh.consume(rpcDecode(rpcBlock, blockSchema));
+  }
+
+  @Benchmark
+  public void rpcEncodeAttestation(Blackhole bh) {
+    bh.consume(rpcEncoding.encodePayload(attestation));
+  }
+
+  @Benchmark
+  public void rpcDecodeAttestation(Blackhole bh) throws RpcException {
+    bh.consume(rpcDecode(rpcAttestation, attestationSchema));
+  }
+
+  private <T extends SszData> T gossipDecode(final Bytes data, final SszSchema<T> schema)
+      throws DecodingException {
+    return schema.sszDeserialize(blockCompressor.uncompress(data, schema.getSszLengthBounds()));
+  }
+
+  private <T extends SszData> Optional<T> rpcDecode(final Bytes data, final SszSchema<T> schema)
+      throws RpcException {
+    final RpcByteBufDecoder<T> decoder = rpcEncoding.createDecoder(schema);
+    try {
+      final Optional<T> result =
+          decoder.decodeOneMessage(Unpooled.wrappedBuffer(data.toArrayUnsafe()));
+      decoder.complete();
+      return result;
+    } finally {
+      decoder.close();
+    }
+  }
+}
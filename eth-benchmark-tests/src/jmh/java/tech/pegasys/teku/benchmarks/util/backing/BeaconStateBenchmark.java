@@ -14,9 +14,12 @@
 package tech.pegasys.teku.benchmarks.util.backing;
 
 import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
@@ -84,4 +87,33 @@ public class BeaconStateBenchmark {
             });
     bh.consume(stateW.hashTreeRoot());
   }
+
+  /**
+   * Hashes the whole tree of a freshly deserialized 1M-validator state, i.e. with no cached branch
+   * roots, which is what happens on state load and checkpoint sync.
+   */
+  @Benchmark
+  @Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void hashFreshLargeState(LargeState largeState, Blackhole bh) {
+    bh.consume(largeState.freshState.hashTreeRoot());
+  }
+
+  @State(Scope.Benchmark)
+  public static class LargeState {
+    private static final int VALIDATORS_COUNT = 1_000_000;
+
+    private Bytes stateSsz;
+    private BeaconState freshState;
+
+    @Setup(Level.Trial)
+    public void createState() {
+      stateSsz = dataStructureUtil.randomBeaconState(VALIDATORS_COUNT).sszSerialize();
+    }
+
+    @Setup(Level.Invocation)
+    public void deserializeState() {
+      freshState = beaconState.getBeaconStateSchema().sszDeserialize(stateSsz);
+    }
+  }
 }
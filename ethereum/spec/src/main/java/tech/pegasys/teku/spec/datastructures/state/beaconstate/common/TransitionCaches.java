@@ -179,9 +179,9 @@ public class TransitionCaches {
   /**
    * (validator pub key) -> (validator index) cache
    *
-   * <p>WARNING: May contain mappings for public keys of validators that are not yet registered in
-   * this state (but when registered are guaranteed to be at that index). Check index < total
-   * validator count before looking up the cache
+   * <p>Backed by a table shared with other states, which may contain mappings for validators that
+   * are not yet registered in this state. Lookups are bounded by the validator count of the
+   * supplied state.
    */
   public ValidatorIndexCache getValidatorIndexCache() {
     return validatorIndexCache;
@@ -15,81 +15,132 @@ package tech.pegasys.teku.spec.datastructures.state.beaconstate.common;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.tuweni.bytes.Bytes48;
 import tech.pegasys.teku.bls.BLSPublicKey;
-import tech.pegasys.teku.infrastructure.collections.cache.Cache;
-import tech.pegasys.teku.infrastructure.collections.cache.LRUCache;
-import tech.pegasys.teku.infrastructure.collections.cache.NoOpCache;
 import tech.pegasys.teku.infrastructure.ssz.SszList;
 import tech.pegasys.teku.spec.datastructures.state.Validator;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 
+/**
+ * View of a {@link ValidatorIndexTable} for a lineage of states.
+ *
+ * <p>By default all lineages share a single table so a newly loaded state doesn't need to rebuild
+ * the mapping. Each view tracks how many validators from its states have been checked against the
+ * table. Keys found in the table beyond that point are checked directly against the state. If a
+ * state disagrees with the shared table, e.g. because states from a different chain are in use in
+ * the same process, the view switches to a private table.
+ */
 public class ValidatorIndexCache {
-  private final Cache<BLSPublicKey, Integer> validatorIndices;
-  private final AtomicInteger lastIndex;
-
-  private static final int INDEX_NONE = -1;
   static final ValidatorIndexCache NO_OP_INSTANCE =
-      new ValidatorIndexCache(NoOpCache.getNoOpCache(), INDEX_NONE);
+      new ValidatorIndexCache(new ValidatorIndexTable(), 0) {
+        @Override
+        public Optional<Integer> getValidatorIndex(
+            final BeaconState state, final BLSPublicKey publicKey) {
+          return findIndexWithoutCaching(state.getValidators(), publicKey.toBytesCompressed(), 0);
+        }
+
+        @Override
+        public void invalidateWithNewValue(final BLSPublicKey pubKey, final int updatedIndex) {}
+      };
+
+  private volatile ValidatorIndexTable table;
+  // Number of validators, from index 0, known to match the table for this lineage
+  private final AtomicInteger verifiedCount;
 
   @VisibleForTesting
-  ValidatorIndexCache(final Cache<BLSPublicKey, Integer> validatorIndices, final int lastIndex) {
-    this.validatorIndices = validatorIndices;
-    this.lastIndex = new AtomicInteger(lastIndex);
+  ValidatorIndexCache(final ValidatorIndexTable table, final int verifiedCount) {
+    this.table = table;
+    this.verifiedCount = new AtomicInteger(verifiedCount);
   }
 
   public ValidatorIndexCache() {
-    this.validatorIndices = LRUCache.create(Integer.MAX_VALUE - 1);
-    this.lastIndex = new AtomicInteger(INDEX_NONE);
+    this(ValidatorIndexTable.SHARED, 0);
   }
 
   public Optional<Integer> getValidatorIndex(
       final BeaconState state, final BLSPublicKey publicKey) {
-    // Store lastIndex here in case we need to scan keys from the state.
-    // This ensures we're adding from a point that we're confident the cache is at
-    // when we scan for more keys through the state later.
-    final int lastIndexSnapshot = lastIndex.get();
+    final Bytes48 publicKeyBytes = publicKey.toBytesCompressed();
+    final SszList<Validator> validators = state.getValidators();
+    final int validatorCount = validators.size();
+    // Read the table before the verified count, which is reset before the table is replaced
+    final ValidatorIndexTable currentTable = table;
+    final int verifiedCountSnapshot = verifiedCount.get();
 
-    final Optional<Integer> validatorIndex = validatorIndices.getCached(publicKey);
-    if (validatorIndex.isPresent()) {
-      return validatorIndex.filter(index -> index < state.getValidators().size());
+    final OptionalInt tableIndex = currentTable.getIndex(publicKeyBytes);
+    if (tableIndex.isPresent()) {
+      final int index = tableIndex.getAsInt();
+      if (index < verifiedCountSnapshot) {
+        return index < validatorCount ? Optional.of(index) : Optional.empty();
+      }
+      if (index < validatorCount
+          && validators.get(index).getPubkeyBytes().equals(publicKeyBytes)) {
+        return Optional.of(index);
+      }
     }
-
-    return findIndexFromState(state.getValidators(), publicKey, lastIndexSnapshot);
+    if (verifiedCountSnapshot >= validatorCount) {
+      // Every validator in the state is in the table and the key wasn't found
+      return Optional.empty();
+    }
+    return findIndexFromState(validators, publicKeyBytes);
   }
 
-  private Optional<Integer> findIndexFromState(
-      final SszList<Validator> validatorList,
-      final BLSPublicKey publicKey,
-      final int lastIndexSnapshot) {
-    for (int i = Math.max(lastIndexSnapshot, 0); i < validatorList.size(); i++) {
-      BLSPublicKey pubKey = validatorList.get(i).getPublicKey();
-      validatorIndices.invalidateWithNewValue(pubKey, i);
-      if (pubKey.equals(publicKey)) {
-        updateLastIndex(i);
+  private synchronized Optional<Integer> findIndexFromState(
+      final SszList<Validator> validators, final Bytes48 publicKeyBytes) {
+    final int validatorCount = validators.size();
+    for (int i = verifiedCount.get(); i < validatorCount; i++) {
+      final Bytes48 validatorKey = validators.get(i).getPubkeyBytes();
+      if (!table.append(i, validatorKey)) {
+        if (table != ValidatorIndexTable.SHARED) {
+          // The registry contains a duplicate key so can't be indexed any further
+          return findIndexWithoutCaching(validators, publicKeyBytes, i);
+        }
+        verifiedCount.set(0);
+        table = new ValidatorIndexTable();
+        return findIndexFromState(validators, publicKeyBytes);
+      }
+      verifiedCount.set(i + 1);
+      if (validatorKey.equals(publicKeyBytes)) {
         return Optional.of(i);
       }
     }
-
-    updateLastIndex(validatorList.size());
     return Optional.empty();
   }
 
-  private void updateLastIndex(final int i) {
-    lastIndex.updateAndGet(curr -> Math.max(curr, i));
+  private static Optional<Integer> findIndexWithoutCaching(
+      final SszList<Validator> validators, final Bytes48 publicKeyBytes, final int startIndex) {
+    for (int i = startIndex; i < validators.size(); i++) {
+      if (validators.get(i).getPubkeyBytes().equals(publicKeyBytes)) {
+        return Optional.of(i);
+      }
+    }
+    return Optional.empty();
   }
 
+  /**
+   * Record the index of a validator in this lineage. Only extends the verified range when the
+   * index immediately follows it, as entries must be added to the table in order.
+   */
   public void invalidateWithNewValue(final BLSPublicKey pubKey, final int updatedIndex) {
-    validatorIndices.invalidateWithNewValue(pubKey, updatedIndex);
+    if (updatedIndex != verifiedCount.get()) {
+      return;
+    }
+    synchronized (this) {
+      if (updatedIndex == verifiedCount.get()
+          && table.append(updatedIndex, pubKey.toBytesCompressed())) {
+        verifiedCount.set(updatedIndex + 1);
+      }
+    }
   }
 
   @VisibleForTesting
-  int getLastIndex() {
-    return lastIndex.get();
+  int getVerifiedCount() {
+    return verifiedCount.get();
   }
 
   @VisibleForTesting
-  Cache<BLSPublicKey, Integer> getValidatorIndices() {
-    return validatorIndices;
+  ValidatorIndexTable getTable() {
+    return table;
   }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.spec.datastructures.state.beaconstate.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import org.apache.tuweni.bytes.Bytes48;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/**
+ * Append-only mapping from validator public key to validator index.
+ *
+ * <p>Public keys are stored by index in chunked byte arrays and located through an open addressing
+ * hash table of indices, avoiding an object per validator. Validator indices are assigned in
+ * deposit order so every state on the same chain agrees on the key at each index, allowing a
+ * single table to be shared by all states. Entries must be appended in index order.
+ *
+ * <p>Lookups are lock-free. Appends are synchronized and publish new entries by updating the
+ * volatile size after the key and hash table slot are written.
+ */
+class ValidatorIndexTable {
+  static final ValidatorIndexTable SHARED = new ValidatorIndexTable();
+
+  private static final int KEY_SIZE = BLSPublicKey.SSZ_BLS_PUBKEY_SIZE;
+  private static final int KEYS_PER_CHUNK = 1 << 14;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int EMPTY_SLOT = 0;
+
+  private volatile byte[][] keyChunks = new byte[0][];
+  private volatile int[] slots = new int[INITIAL_CAPACITY];
+  private volatile int size = 0;
+
+  public OptionalInt getIndex(final Bytes48 publicKey) {
+    // Read size first so any index below it is guaranteed to have its key visible
+    final int currentSize = size;
+    final int[] currentSlots = slots;
+    final byte[][] currentKeyChunks = keyChunks;
+    final byte[] key = publicKey.toArrayUnsafe();
+    final int mask = currentSlots.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      final int entry = currentSlots[slot];
+      if (entry == EMPTY_SLOT) {
+        return OptionalInt.empty();
+      }
+      final int index = entry - 1;
+      if (index < currentSize && keyMatches(currentKeyChunks, index, key)) {
+        return OptionalInt.of(index);
+      }
+    }
+  }
+
+  /**
+   * Record the public key at the specified index.
+   *
+   * @param index the validator index, which must be no greater than the current size
+   * @param publicKey the public key of the validator
+   * @return true if the table now maps the index to the public key, false if the index or key
+   *     already has a different mapping
+   */
+  public synchronized boolean append(final int index, final Bytes48 publicKey) {
+    checkArgument(index <= size, "Index %s appended out of order, size %s", index, size);
+    final byte[] key = publicKey.toArrayUnsafe();
+    if (index < size) {
+      return keyMatches(keyChunks, index, key);
+    }
+    if (getIndex(publicKey).isPresent()) {
+      return false;
+    }
+    final byte[] chunk = getOrCreateChunk(index);
+    System.arraycopy(key, 0, chunk, (index % KEYS_PER_CHUNK) * KEY_SIZE, KEY_SIZE);
+    if ((index + 1) * 2L > slots.length) {
+      slots = resize(slots.length * 2, index);
+    }
+    insert(slots, key, index);
+    size = index + 1;
+    return true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private byte[] getOrCreateChunk(final int index) {
+    final int chunkIndex = index / KEYS_PER_CHUNK;
+    if (chunkIndex < keyChunks.length) {
+      return keyChunks[chunkIndex];
+    }
+    final byte[][] updatedChunks = Arrays.copyOf(keyChunks, chunkIndex + 1);
+    updatedChunks[chunkIndex] = new byte[KEYS_PER_CHUNK * KEY_SIZE];
+    keyChunks = updatedChunks;
+    return updatedChunks[chunkIndex];
+  }
+
+  private int[] resize(final int capacity, final int entryCount) {
+    final int[] resized = new int[capacity];
+    final byte[] key = new byte[KEY_SIZE];
+    for (int index = 0; index < entryCount; index++) {
+      System.arraycopy(
+          keyChunks[index / KEYS_PER_CHUNK], (index % KEYS_PER_CHUNK) * KEY_SIZE, key, 0, KEY_SIZE);
+      insert(resized, key, index);
+    }
+    return resized;
+  }
+
+  private static void insert(final int[] targetSlots, final byte[] key, final int index) {
+    final int mask = targetSlots.length - 1;
+    int slot = hash(key) & mask;
+    while (targetSlots[slot] != EMPTY_SLOT) {
+      slot = (slot + 1) & mask;
+    }
+    targetSlots[slot] = index + 1;
+  }
+
+  private static boolean keyMatches(
+      final byte[][] currentKeyChunks, final int index, final byte[] key) {
+    final int offset = (index % KEYS_PER_CHUNK) * KEY_SIZE;
+    return Arrays.equals(
+        currentKeyChunks[index / KEYS_PER_CHUNK], offset, offset + KEY_SIZE, key, 0, KEY_SIZE);
+  }
+
+  private static int hash(final byte[] key) {
+    // Hash every byte as keys aren't necessarily valid, uniformly distributed points in tests
+    long hash = 0;
+    for (int i = 0; i < KEY_SIZE; i += Long.BYTES) {
+      long word = 0;
+      for (int j = i; j < i + Long.BYTES; j++) {
+        word = (word << 8) | (key[j] & 0xFF);
+      }
+      hash = HashCommon.mix(hash ^ word);
+    }
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
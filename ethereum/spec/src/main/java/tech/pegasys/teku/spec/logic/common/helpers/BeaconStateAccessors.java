@@ -24,6 +24,7 @@ import java.util.stream.IntStream;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.bls.BLSPublicKey;
+import tech.pegasys.teku.bls.BLSPublicKeyCache;
 import tech.pegasys.teku.infrastructure.bytes.Bytes4;
 import tech.pegasys.teku.infrastructure.collections.TekuPair;
 import tech.pegasys.teku.infrastructure.crypto.Hash;
@@ -80,12 +81,15 @@ public abstract class BeaconStateAccessors {
             .get(
                 validatorIndex,
                 i -> {
-                  BLSPublicKey pubKey = state.getValidators().get(i.intValue()).getPublicKey();
+                  final int index = i.intValue();
+                  BLSPublicKey pubKey =
+                      BLSPublicKeyCache.getInstance()
+                          .get(index, state.getValidators().get(index).getPubkeyBytes());
 
                   // eagerly pre-cache pubKey => validatorIndex mapping
                   BeaconStateCache.getTransitionCaches(state)
                       .getValidatorIndexCache()
-                      .invalidateWithNewValue(pubKey, i.intValue());
+                      .invalidateWithNewValue(pubKey, index);
                   return pubKey;
                 }));
   }
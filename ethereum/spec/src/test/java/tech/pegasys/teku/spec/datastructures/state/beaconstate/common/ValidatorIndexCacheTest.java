@@ -14,17 +14,10 @@
 package tech.pegasys.teku.spec.datastructures.state.beaconstate.common;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.bls.BLSPublicKey;
-import tech.pegasys.teku.infrastructure.collections.cache.Cache;
 import tech.pegasys.teku.spec.TestSpecFactory;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.spec.util.DataStructureUtil;
@@ -34,65 +27,123 @@ public class ValidatorIndexCacheTest {
       new DataStructureUtil(TestSpecFactory.createDefault());
   final BeaconState state = dataStructureUtil.randomBeaconState();
   final BLSPublicKey missingPublicKey = dataStructureUtil.randomPublicKey();
-
-  @SuppressWarnings("unchecked")
-  final Cache<BLSPublicKey, Integer> cache = mock(Cache.class);
+  final ValidatorIndexTable table = new ValidatorIndexTable();
 
   @Test
   public void shouldNotScanStateIfAlreadyHaveValidators() {
+    populateTable(state);
     final ValidatorIndexCache validatorIndexCache =
-        new ValidatorIndexCache(cache, state.getValidators().size());
+        new ValidatorIndexCache(table, state.getValidators().size());
 
-    when(cache.getCached(missingPublicKey)).thenReturn(Optional.empty());
     final Optional<Integer> index = validatorIndexCache.getValidatorIndex(state, missingPublicKey);
 
-    verify(cache).getCached(missingPublicKey);
-    verify(cache, never()).invalidateWithNewValue(any(), any());
     assertThat(index).isEmpty();
+    assertThat(table.size()).isEqualTo(state.getValidators().size());
   }
 
   @Test
   public void shouldScanNewValidatorsInSuppliedState() {
     final ValidatorIndexCache validatorIndexCache =
-        new ValidatorIndexCache(cache, state.getValidators().size() - 5);
+        new ValidatorIndexCache(table, state.getValidators().size() - 5);
+    populateTable(state, state.getValidators().size() - 5);
 
-    when(cache.getCached(missingPublicKey)).thenReturn(Optional.empty());
     final Optional<Integer> index = validatorIndexCache.getValidatorIndex(state, missingPublicKey);
-    verify(cache).getCached(missingPublicKey);
-    verify(cache, times(5)).invalidateWithNewValue(any(), any());
+
     assertThat(index).isEmpty();
+    assertThat(validatorIndexCache.getVerifiedCount()).isEqualTo(state.getValidators().size());
+    assertThat(table.size()).isEqualTo(state.getValidators().size());
   }
 
   @Test
   public void shouldGetAllValidatorKeysCachedIfMissingKeyPassed() {
-    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache();
+    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache(table, 0);
     final Optional<Integer> index = validatorIndexCache.getValidatorIndex(state, missingPublicKey);
     assertThat(index).isEmpty();
-    assertThat(validatorIndexCache.getValidatorIndices().size())
-        .isEqualTo(state.getValidators().size());
+    assertThat(table.size()).isEqualTo(state.getValidators().size());
   }
 
   @Test
   public void shouldPopulateCacheItemsFromState() {
-    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache();
-    final BLSPublicKey foundKey =
-        BLSPublicKey.fromBytesCompressed(state.getValidators().get(10).getPubkeyBytes());
+    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache(table, 0);
+    final BLSPublicKey foundKey = getPublicKey(state, 10);
 
     final Optional<Integer> index = validatorIndexCache.getValidatorIndex(state, foundKey);
-    assertThat(index.get()).isEqualTo(10);
-    assertThat(validatorIndexCache.getLastIndex()).isEqualTo(10);
-    assertThat(validatorIndexCache.getValidatorIndices().size()).isEqualTo(11);
+    assertThat(index).contains(10);
+    assertThat(validatorIndexCache.getVerifiedCount()).isEqualTo(11);
+    assertThat(table.size()).isEqualTo(11);
   }
 
   @Test
   public void shouldFilterItemsBeyondStateIndex() {
-    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache();
-    validatorIndexCache.invalidateWithNewValue(missingPublicKey, 100);
+    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache(table, 0);
+    final int validatorCount = state.getValidators().size();
+    for (int i = 0; i < validatorCount; i++) {
+      validatorIndexCache.invalidateWithNewValue(getPublicKey(state, i), i);
+    }
+    validatorIndexCache.invalidateWithNewValue(missingPublicKey, validatorCount);
     final Optional<Integer> index = validatorIndexCache.getValidatorIndex(state, missingPublicKey);
 
     assertThat(index).isEmpty();
-    // state didn't get scanned, because we had the index but it was out of bounds
-    assertThat(validatorIndexCache.getLastIndex()).isEqualTo(-1);
-    assertThat(validatorIndexCache.getValidatorIndices().size()).isEqualTo(1);
+    assertThat(validatorIndexCache.getVerifiedCount()).isEqualTo(validatorCount + 1);
+  }
+
+  @Test
+  public void shouldIgnoreValuesAddedOutOfOrder() {
+    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache(table, 0);
+    validatorIndexCache.invalidateWithNewValue(getPublicKey(state, 5), 5);
+
+    assertThat(validatorIndexCache.getVerifiedCount()).isZero();
+    assertThat(table.size()).isZero();
+  }
+
+  @Test
+  public void shouldFindKeysAddedByOtherLineageWithoutScanning() {
+    new ValidatorIndexCache(table, 0).getValidatorIndex(state, missingPublicKey);
+    final ValidatorIndexCache validatorIndexCache = new ValidatorIndexCache(table, 0);
+
+    final Optional<Integer> index =
+        validatorIndexCache.getValidatorIndex(state, getPublicKey(state, 7));
+
+    assertThat(index).contains(7);
+    assertThat(validatorIndexCache.getVerifiedCount()).isZero();
+  }
+
+  @Test
+  public void shouldUsePrivateTableWhenStateDiffersFromSharedTable() {
+    final ValidatorIndexCache otherChainCache =
+        new ValidatorIndexCache(ValidatorIndexTable.SHARED, 0);
+    final BeaconState otherChainState = dataStructureUtil.randomBeaconState();
+    // Ensure the shared table contains a different chain to the one being looked up
+    new ValidatorIndexCache(ValidatorIndexTable.SHARED, 0)
+        .getValidatorIndex(state, missingPublicKey);
+
+    final Optional<Integer> index =
+        otherChainCache.getValidatorIndex(otherChainState, getPublicKey(otherChainState, 3));
+
+    assertThat(index).contains(3);
+    assertThat(otherChainCache.getTable()).isNotSameAs(ValidatorIndexTable.SHARED);
+    assertThat(otherChainCache.getValidatorIndex(otherChainState, missingPublicKey)).isEmpty();
+  }
+
+  @Test
+  public void noOpInstanceShouldFindIndexFromState() {
+    assertThat(ValidatorIndexCache.NO_OP_INSTANCE.getValidatorIndex(state, getPublicKey(state, 4)))
+        .contains(4);
+    assertThat(ValidatorIndexCache.NO_OP_INSTANCE.getValidatorIndex(state, missingPublicKey))
+        .isEmpty();
+  }
+
+  private void populateTable(final BeaconState state) {
+    populateTable(state, state.getValidators().size());
+  }
+
+  private void populateTable(final BeaconState state, final int count) {
+    for (int i = 0; i < count; i++) {
+      table.append(i, state.getValidators().get(i).getPubkeyBytes());
+    }
+  }
+
+  private BLSPublicKey getPublicKey(final BeaconState state, final int index) {
+    return BLSPublicKey.fromBytesCompressed(state.getValidators().get(index).getPubkeyBytes());
   }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.attestation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.infrastructure.ssz.SszList;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation.AttestationSchema;
+import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
+import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.logic.common.statetransition.attestation.AttestationWorthinessChecker;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+/**
+ * Measures block production latency while gossip attestations are added to the pool from other
+ * threads. Run in sample time mode so the report includes the p99 latency of {@link
+ * #getAttestationsForBlock()}. The number of adding threads can be changed with the JMH {@code
+ * -tg} option, e.g. {@code -tg 1,15}.
+ */
+@Fork(1)
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class AggregatingAttestationPoolBenchmark {
+  private static final int SLOT_COUNT = 32;
+  // One attestation data for each subnet
+  private static final int DATA_PER_SLOT = 64;
+  private static final int ATTESTATIONS_PER_DATA = 16;
+  private static final int COMMITTEE_SIZE = 128;
+
+  private final Spec spec = TestSpecFactory.createMainnetPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+  private final List<ValidateableAttestation> attestations = new ArrayList<>();
+  private final AtomicInteger nextAttestation = new AtomicInteger();
+
+  private AggregatingAttestationPool pool;
+  private BeaconState state;
+  private AttestationForkChecker forkChecker;
+
+  @Setup
+  public void setup() {
+    pool =
+        new AggregatingAttestationPool(
+            spec,
+            new NoOpMetricsSystem(),
+            AggregatingAttestationPool.DEFAULT_MAXIMUM_ATTESTATION_COUNT);
+    state = dataStructureUtil.randomBeaconState(UInt64.valueOf(100 * 32 + 16));
+    forkChecker = new AttestationForkChecker(spec, state);
+
+    final AttestationSchema attestationSchema =
+        spec.getGenesisSchemaDefinitions().getAttestationSchema();
+    final UInt64 currentEpoch = spec.getCurrentEpoch(state);
+    for (int slotOffset = 1; slotOffset <= SLOT_COUNT; slotOffset++) {
+      final UInt64 slot = state.getSlot().minus(slotOffset);
+      final UInt64 epoch = spec.computeEpochAtSlot(slot);
+      final Checkpoint source =
+          epoch.equals(currentEpoch)
+              ? state.getCurrentJustifiedCheckpoint()
+              : state.getPreviousJustifiedCheckpoint();
+      for (int i = 0; i < DATA_PER_SLOT; i++) {
+        final AttestationData data =
+            new AttestationData(
+                slot,
+                UInt64.ZERO,
+                dataStructureUtil.randomBytes32(),
+                source,
+                new Checkpoint(epoch, dataStructureUtil.randomBytes32()));
+        for (int validator = 0; validator < ATTESTATIONS_PER_DATA; validator++) {
+          final Attestation attestation =
+              attestationSchema.create(
+                  attestationSchema.getAggregationBitsSchema().ofBits(COMMITTEE_SIZE, validator),
+                  data,
+                  dataStructureUtil.randomSignature());
+          final ValidateableAttestation validateableAttestation =
+              ValidateableAttestation.from(spec, attestation);
+          validateableAttestation.saveCommitteeShufflingSeed(state);
+          attestations.add(validateableAttestation);
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  @Group("blockProduction")
+  @GroupThreads(1)
+  public SszList<Attestation> getAttestationsForBlock() {
+    return pool.getAttestationsForBlock(state, forkChecker, AttestationWorthinessChecker.NOOP);
+  }
+
+  @Benchmark
+  @Group("blockProduction")
+  @GroupThreads(7)
+  public void add() {
+    final int index = nextAttestation.getAndUpdate(i -> (i + 1) % attestations.size());
+    pool.add(attestations.get(index));
+    if (index == attestations.size() - 1) {
+      // Start over with an empty pool so adds keep creating new groups
+      pool.onSlot(state.getSlot().plus(AggregatingAttestationPool.ATTESTATION_RETENTION_SLOTS));
+    }
+  }
+}
@@ -13,17 +13,19 @@
 
 package tech.pegasys.teku.statetransition.attestation;
 
+import java.time.Duration;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.tuweni.bytes.Bytes;
@@ -36,6 +38,7 @@ import tech.pegasys.teku.infrastructure.ssz.SszList;
 import tech.pegasys.teku.infrastructure.ssz.schema.SszListSchema;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.config.Constants;
 import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
 import tech.pegasys.teku.spec.datastructures.operations.Attestation;
 import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
@@ -47,6 +50,13 @@ import tech.pegasys.teku.spec.logic.common.statetransition.attestation.Attestati
  * or as an aggregate to publish as part of the naive attestation aggregation algorithm. In both
  * cases the returned attestations are aggregated to maximise the number of validators that can be
  * included.
+ *
+ * <p>The pool is safe for concurrent use without a global monitor. Attestations are partitioned by
+ * slot and then by {@link AttestationData} root, and each {@link MatchingDataAttestationGroup}
+ * guards its own state, so adding attestations with different data doesn't contend. Adds and other
+ * updates to existing groups share the read side of {@link #pruneLock}; only removing whole slots
+ * takes the write side. Readers take no pool level lock at all and instead see a snapshot of each
+ * group as it is iterated, so producing a block never blocks gossip ingestion.
  */
 public class AggregatingAttestationPool implements SlotEventsChannel {
   /**
@@ -72,16 +82,30 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
   public static final int DEFAULT_MAXIMUM_ATTESTATION_COUNT = 40_000;
 
   private final Map<Bytes, MatchingDataAttestationGroup> attestationGroupByDataHash =
-      new HashMap<>();
-  private final NavigableMap<UInt64, Set<Bytes>> dataHashBySlot = new TreeMap<>();
+      new ConcurrentHashMap<>();
+  private final NavigableMap<UInt64, Set<Bytes>> dataHashBySlot = new ConcurrentSkipListMap<>();
+  private final ReadWriteLock pruneLock = new ReentrantReadWriteLock();
 
   private final Spec spec;
   private final AtomicInteger size = new AtomicInteger(0);
   private final SettableGauge sizeGauge;
   private final int maximumAttestationCount;
+  private final AttestationPacker attestationPacker;
 
   public AggregatingAttestationPool(
       final Spec spec, final MetricsSystem metricsSystem, final int maximumAttestationCount) {
+    this(
+        spec,
+        metricsSystem,
+        maximumAttestationCount,
+        Constants.DEFAULT_ATTESTATION_PACKING_TIME_BUDGET);
+  }
+
+  public AggregatingAttestationPool(
+      final Spec spec,
+      final MetricsSystem metricsSystem,
+      final int maximumAttestationCount,
+      final Duration attestationPackingTimeBudget) {
     this.spec = spec;
     this.sizeGauge =
         SettableGauge.create(
@@ -90,25 +114,43 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
             "attestation_pool_size",
             "The number of attestations available to be included in proposed blocks");
     this.maximumAttestationCount = maximumAttestationCount;
+    this.attestationPacker =
+        new AttestationPacker(spec, metricsSystem, attestationPackingTimeBudget);
   }
 
-  public synchronized void add(final ValidateableAttestation attestation) {
+  public void add(final ValidateableAttestation attestation) {
     final AttestationData attestationData = attestation.getAttestation().getData();
-    final boolean add = getOrCreateAttestationGroup(attestationData).add(attestation);
-    if (add) {
-      updateSize(1);
+    pruneLock.readLock().lock();
+    try {
+      final boolean add = getOrCreateAttestationGroup(attestationData).add(attestation);
+      if (add) {
+        updateSize(1);
+      }
+    } finally {
+      pruneLock.readLock().unlock();
     }
-    // Always keep the latest slot attestations so we don't discard everything
-    while (dataHashBySlot.size() > 1 && size.get() > maximumAttestationCount) {
-      final UInt64 firstSlotToKeep = dataHashBySlot.firstKey().plus(1);
-      removeAttestationsPriorToSlot(firstSlotToKeep);
+    if (size.get() > maximumAttestationCount) {
+      removeOldestSlotsWhileOverCapacity();
+    }
+  }
+
+  private void removeOldestSlotsWhileOverCapacity() {
+    pruneLock.writeLock().lock();
+    try {
+      // Always keep the latest slot attestations so we don't discard everything
+      while (dataHashBySlot.size() > 1 && size.get() > maximumAttestationCount) {
+        final UInt64 firstSlotToKeep = dataHashBySlot.firstKey().plus(1);
+        removeAttestationsPriorToSlot(firstSlotToKeep);
+      }
+    } finally {
+      pruneLock.writeLock().unlock();
     }
   }
 
   private MatchingDataAttestationGroup getOrCreateAttestationGroup(
       final AttestationData attestationData) {
     dataHashBySlot
-        .computeIfAbsent(attestationData.getSlot(), slot -> new HashSet<>())
+        .computeIfAbsent(attestationData.getSlot(), slot -> ConcurrentHashMap.newKeySet())
         .add(attestationData.hashTreeRoot());
     return attestationGroupByDataHash.computeIfAbsent(
         attestationData.hashTreeRoot(),
@@ -116,12 +158,17 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
   }
 
   @Override
-  public synchronized void onSlot(final UInt64 slot) {
+  public void onSlot(final UInt64 slot) {
     if (slot.compareTo(ATTESTATION_RETENTION_SLOTS) <= 0) {
       return;
     }
     final UInt64 firstValidAttestationSlot = slot.minus(ATTESTATION_RETENTION_SLOTS);
-    removeAttestationsPriorToSlot(firstValidAttestationSlot);
+    pruneLock.writeLock().lock();
+    try {
+      removeAttestationsPriorToSlot(firstValidAttestationSlot);
+    } finally {
+      pruneLock.writeLock().unlock();
+    }
   }
 
   private void removeAttestationsPriorToSlot(final UInt64 firstValidAttestationSlot) {
@@ -138,9 +185,14 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
     dataHashesToRemove.clear();
   }
 
-  public synchronized void onAttestationsIncludedInBlock(
+  public void onAttestationsIncludedInBlock(
       final UInt64 slot, final Iterable<Attestation> attestations) {
-    attestations.forEach(attestation -> onAttestationIncludedInBlock(slot, attestation));
+    pruneLock.readLock().lock();
+    try {
+      attestations.forEach(attestation -> onAttestationIncludedInBlock(slot, attestation));
+    } finally {
+      pruneLock.readLock().unlock();
+    }
   }
 
   private void onAttestationIncludedInBlock(final UInt64 slot, final Attestation attestation) {
@@ -155,15 +207,14 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
     sizeGauge.set(currentSize);
   }
 
-  public synchronized int getSize() {
+  public int getSize() {
     return size.get();
   }
 
-  public synchronized SszList<Attestation> getAttestationsForBlock(
+  public SszList<Attestation> getAttestationsForBlock(
       final BeaconState stateAtBlockSlot,
       final AttestationForkChecker forkChecker,
       final AttestationWorthinessChecker worthinessChecker) {
-    final UInt64 currentEpoch = spec.getCurrentEpoch(stateAtBlockSlot);
     final int previousEpochLimit = spec.getPreviousEpochAttestationCapacity(stateAtBlockSlot);
 
     final SszListSchema<Attestation, ?> attestationsSchema =
@@ -172,34 +223,32 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
             .getBeaconBlockBodySchema()
             .getAttestationsSchema();
 
-    final AtomicInteger prevEpochCount = new AtomicInteger(0);
-    return dataHashBySlot
-        // We can immediately skip any attestations from the block slot or later
-        .headMap(stateAtBlockSlot.getSlot(), false)
-        .descendingMap()
-        .values()
+    final List<MatchingDataAttestationGroup> candidateGroups =
+        dataHashBySlot
+            // We can immediately skip any attestations from the block slot or later
+            .headMap(stateAtBlockSlot.getSlot(), false)
+            .descendingMap()
+            .values()
+            .stream()
+            .flatMap(Collection::stream)
+            .map(attestationGroupByDataHash::get)
+            .filter(Objects::nonNull)
+            .filter(group -> isValid(stateAtBlockSlot, group.getAttestationData()))
+            .filter(forkChecker::areAttestationsFromCorrectFork)
+            .filter(group -> worthinessChecker.areAttestationsWorthy(group.getAttestationData()))
+            .collect(Collectors.toList());
+
+    return attestationPacker
+        .pack(
+            stateAtBlockSlot,
+            candidateGroups,
+            Math.toIntExact(attestationsSchema.getMaxLength()),
+            previousEpochLimit)
         .stream()
-        .flatMap(Collection::stream)
-        .map(attestationGroupByDataHash::get)
-        .filter(Objects::nonNull)
-        .filter(group -> isValid(stateAtBlockSlot, group.getAttestationData()))
-        .filter(forkChecker::areAttestationsFromCorrectFork)
-        .filter(group -> worthinessChecker.areAttestationsWorthy(group.getAttestationData()))
-        .flatMap(MatchingDataAttestationGroup::stream)
-        .limit(attestationsSchema.getMaxLength())
-        .map(ValidateableAttestation::getAttestation)
-        .filter(
-            att -> {
-              if (spec.computeEpochAtSlot(att.getData().getSlot()).isLessThan(currentEpoch)) {
-                final int currentCount = prevEpochCount.getAndIncrement();
-                return currentCount < previousEpochLimit;
-              }
-              return true;
-            })
         .collect(attestationsSchema.collector());
   }
 
-  public synchronized List<Attestation> getAttestations(
+  public List<Attestation> getAttestations(
       final Optional<UInt64> maybeSlot, final Optional<UInt64> maybeCommitteeIndex) {
     final Predicate<Map.Entry<UInt64, Set<Bytes>>> filterForSlot =
         (entry) -> maybeSlot.map(slot -> entry.getKey().equals(slot)).orElse(true);
@@ -227,13 +276,18 @@ public class AggregatingAttestationPool implements SlotEventsChannel {
     return spec.validateAttestation(stateAtBlockSlot, attestationData).isEmpty();
   }
 
-  public synchronized Optional<ValidateableAttestation> createAggregateFor(
+  public Optional<ValidateableAttestation> createAggregateFor(
       final Bytes32 attestationHashTreeRoot) {
     return Optional.ofNullable(attestationGroupByDataHash.get(attestationHashTreeRoot))
         .flatMap(attestations -> attestations.stream().findFirst());
   }
 
-  public synchronized void onReorg(final UInt64 commonAncestorSlot) {
-    attestationGroupByDataHash.values().forEach(group -> group.onReorg(commonAncestorSlot));
+  public void onReorg(final UInt64 commonAncestorSlot) {
+    pruneLock.readLock().lock();
+    try {
+      attestationGroupByDataHash.values().forEach(group -> group.onReorg(commonAncestorSlot));
+    } finally {
+      pruneLock.readLock().unlock();
+    }
   }
 }
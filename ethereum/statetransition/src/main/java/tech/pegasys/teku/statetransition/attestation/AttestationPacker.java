@@ -0,0 +1,397 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.attestation;
+
+import static tech.pegasys.teku.spec.logic.versions.altair.helpers.MiscHelpersAltair.PARTICIPATION_FLAG_WEIGHTS;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import tech.pegasys.teku.infrastructure.collections.TekuPair;
+import tech.pegasys.teku.infrastructure.metrics.MetricsHistogram;
+import tech.pegasys.teku.infrastructure.metrics.SettableGauge;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.ssz.SszList;
+import tech.pegasys.teku.infrastructure.ssz.collections.SszBitlist;
+import tech.pegasys.teku.infrastructure.ssz.primitive.SszByte;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.config.SpecConfig;
+import tech.pegasys.teku.spec.constants.ParticipationFlags;
+import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
+import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.versions.altair.BeaconStateAltair;
+
+/**
+ * Selects the aggregates to include in a block so that they earn as much reward as possible.
+ *
+ * <p>Each candidate aggregate is scored by the participation it would add: for every
+ * participation flag the attestation earns, the number of validators in the committee that don't
+ * have that flag yet, either in the state or from an aggregate already selected, weighted by the
+ * flag's reward weight. Prior to Altair there are no participation flags so every newly covered
+ * validator has the same weight.
+ *
+ * <p>Choosing the aggregates is a max-coverage problem. Candidates are selected greedily by score,
+ * looking one step ahead to avoid picking an aggregate whose overlap with the next best choices
+ * would lose more than it gains. Lookahead only happens within the time budget, after which the
+ * remaining slots are filled by plain greedy selection.
+ */
+class AttestationPacker {
+
+  /** The number of best candidates compared with each other when looking ahead. */
+  private static final int LOOKAHEAD_WIDTH = 8;
+
+  private static final long[] PHASE0_FLAG_WEIGHTS = {1};
+  private static final int PHASE0_EARNED_FLAGS = 1;
+  private static final long[] ALTAIR_FLAG_WEIGHTS =
+      PARTICIPATION_FLAG_WEIGHTS.stream().mapToLong(UInt64::longValue).toArray();
+
+  private static final Comparator<Candidate> BEST_CANDIDATE_FIRST =
+      Comparator.<Candidate>comparingLong(candidate -> candidate.gain)
+          .reversed()
+          .thenComparingInt(candidate -> candidate.order);
+
+  private final Spec spec;
+  private final Duration timeBudget;
+  private final MetricsHistogram packingTimeHistogram;
+  private final SettableGauge packedRewardWeightGauge;
+
+  AttestationPacker(final Spec spec, final MetricsSystem metricsSystem, final Duration timeBudget) {
+    this.spec = spec;
+    this.timeBudget = timeBudget;
+    this.packingTimeHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.BEACON,
+            metricsSystem,
+            "attestation_packing_time_micros",
+            "Time taken to select the attestations to include in a block in microseconds",
+            3,
+            List.of());
+    this.packedRewardWeightGauge =
+        SettableGauge.create(
+            metricsSystem,
+            TekuMetricCategory.BEACON,
+            "attestation_packing_reward_weight",
+            "The reward weighted participation added by the attestations selected for the last produced block");
+  }
+
+  /**
+   * Selects the attestations to include in a block.
+   *
+   * @param stateAtBlockSlot the state the block is being built on, processed up to the block slot
+   * @param groups the valid attestation groups to choose from, most recent first
+   * @param maxAttestations the maximum number of attestations to select
+   * @param previousEpochLimit the maximum number of attestations from the previous epoch
+   * @return the selected attestations, best first
+   */
+  List<Attestation> pack(
+      final BeaconState stateAtBlockSlot,
+      final List<MatchingDataAttestationGroup> groups,
+      final int maxAttestations,
+      final int previousEpochLimit) {
+    final long startTime = System.nanoTime();
+    final long lookaheadDeadline = startTime + timeBudget.toNanos();
+    final PackingContext context = new PackingContext(stateAtBlockSlot);
+
+    final PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_CANDIDATE_FIRST);
+    int order = 0;
+    for (MatchingDataAttestationGroup group : groups) {
+      final AttestationData attestationData = group.getAttestationData();
+      final int earnedFlags = context.getEarnedFlags(attestationData);
+      if (earnedFlags == 0) {
+        continue;
+      }
+      final CommitteeCoverage coverage = context.getCommitteeCoverage(attestationData);
+      final boolean previousEpoch = context.isPreviousEpoch(attestationData);
+      for (ValidateableAttestation aggregate : group) {
+        final Candidate candidate =
+            new Candidate(
+                aggregate.getAttestation(),
+                coverage,
+                toBitSet(aggregate.getAttestation().getAggregationBits()),
+                earnedFlags,
+                previousEpoch,
+                order++);
+        if (candidate.refreshGain() > 0) {
+          candidates.add(candidate);
+        }
+      }
+    }
+
+    final List<Attestation> selected = new ArrayList<>();
+    int previousEpochCount = 0;
+    long totalRewardWeight = 0;
+    while (selected.size() < maxAttestations && !candidates.isEmpty()) {
+      final boolean lookahead = System.nanoTime() < lookaheadDeadline;
+      final List<Candidate> best =
+          pollBestCandidates(
+              candidates, lookahead ? LOOKAHEAD_WIDTH : 1, previousEpochCount < previousEpochLimit);
+      if (best.isEmpty()) {
+        break;
+      }
+      final Candidate choice = lookahead ? chooseWithLookahead(best) : best.get(0);
+      best.remove(choice);
+      candidates.addAll(best);
+
+      choice.coverage.add(choice.validators, choice.earnedFlags);
+      selected.add(choice.attestation);
+      totalRewardWeight += choice.gain;
+      if (choice.previousEpoch) {
+        previousEpochCount++;
+      }
+    }
+
+    packingTimeHistogram.recordValue((System.nanoTime() - startTime) / 1_000);
+    packedRewardWeightGauge.set(totalRewardWeight);
+    return selected;
+  }
+
+  /**
+   * Removes and returns at least the {@code count} best candidates with up to date gains. Gains
+   * can only decrease as more aggregates are selected so the gain stored in the queue is an upper
+   * bound and candidates only need to be refreshed until the best refreshed gain is at least as
+   * high as the next stored gain.
+   */
+  private List<Candidate> pollBestCandidates(
+      final PriorityQueue<Candidate> candidates,
+      final int count,
+      final boolean allowPreviousEpoch) {
+    final List<Candidate> best = new ArrayList<>();
+    long bestGain = 0;
+    while (!candidates.isEmpty()) {
+      if (best.size() >= count && bestGain >= candidates.peek().gain) {
+        break;
+      }
+      final Candidate candidate = candidates.poll();
+      if (candidate.previousEpoch && !allowPreviousEpoch) {
+        continue;
+      }
+      final long gain = candidate.refreshGain();
+      if (gain == 0) {
+        // Can never become useful again
+        continue;
+      }
+      best.add(candidate);
+      bestGain = Math.max(bestGain, gain);
+    }
+    best.sort(BEST_CANDIDATE_FIRST);
+    while (best.size() > count) {
+      candidates.add(best.remove(best.size() - 1));
+    }
+    return best;
+  }
+
+  private Candidate chooseWithLookahead(final List<Candidate> best) {
+    Candidate choice = best.get(0);
+    long bestTotalGain = -1;
+    for (Candidate candidate : best) {
+      long bestFollowUpGain = 0;
+      for (Candidate followUp : best) {
+        if (followUp != candidate) {
+          bestFollowUpGain = Math.max(bestFollowUpGain, followUp.computeGainAfter(candidate));
+        }
+      }
+      final long totalGain = candidate.gain + bestFollowUpGain;
+      if (totalGain > bestTotalGain) {
+        bestTotalGain = totalGain;
+        choice = candidate;
+      }
+    }
+    return choice;
+  }
+
+  private static BitSet toBitSet(final SszBitlist aggregationBits) {
+    final BitSet bits = new BitSet(aggregationBits.size());
+    aggregationBits.streamAllSetBits().forEach(bits::set);
+    return bits;
+  }
+
+  private class PackingContext {
+    private final BeaconState state;
+    private final UInt64 currentEpoch;
+    private final boolean participationFlagsEnabled;
+    private final Map<TekuPair<UInt64, UInt64>, CommitteeCoverage> committees = new HashMap<>();
+
+    private PackingContext(final BeaconState state) {
+      this.state = state;
+      this.currentEpoch = spec.getCurrentEpoch(state);
+      this.participationFlagsEnabled = state.toVersionAltair().isPresent();
+    }
+
+    private boolean isPreviousEpoch(final AttestationData attestationData) {
+      return spec.computeEpochAtSlot(attestationData.getSlot()).isLessThan(currentEpoch);
+    }
+
+    /** Equivalent to get_attestation_participation_flag_indices from the Altair spec. */
+    private int getEarnedFlags(final AttestationData data) {
+      if (!participationFlagsEnabled) {
+        return PHASE0_EARNED_FLAGS;
+      }
+      final UInt64 targetEpoch = data.getTarget().getEpoch();
+      final SpecConfig config = spec.getSpecConfig(targetEpoch);
+      final UInt64 inclusionDelay = state.getSlot().minusMinZero(data.getSlot());
+      final Checkpoint justifiedCheckpoint =
+          targetEpoch.equals(currentEpoch)
+              ? state.getCurrentJustifiedCheckpoint()
+              : state.getPreviousJustifiedCheckpoint();
+
+      final boolean isMatchingSource = data.getSource().equals(justifiedCheckpoint);
+      final boolean isMatchingTarget =
+          isMatchingSource
+              && data.getTarget().getRoot().equals(spec.getBlockRoot(state, targetEpoch));
+      final boolean isMatchingHead =
+          isMatchingTarget
+              && data.getBeaconBlockRoot().equals(spec.getBlockRootAtSlot(state, data.getSlot()));
+
+      int earnedFlags = 0;
+      if (isMatchingSource
+          && inclusionDelay.isLessThanOrEqualTo(config.getSquareRootSlotsPerEpoch())) {
+        earnedFlags |= ParticipationFlags.TIMELY_SOURCE_FLAG;
+      }
+      if (isMatchingTarget && inclusionDelay.isLessThanOrEqualTo(config.getSlotsPerEpoch())) {
+        earnedFlags |= ParticipationFlags.TIMELY_TARGET_FLAG;
+      }
+      if (isMatchingHead && inclusionDelay.equals(config.getMinAttestationInclusionDelay())) {
+        earnedFlags |= ParticipationFlags.TIMELY_HEAD_FLAG;
+      }
+      return earnedFlags;
+    }
+
+    private CommitteeCoverage getCommitteeCoverage(final AttestationData data) {
+      return committees.computeIfAbsent(
+          TekuPair.of(data.getSlot(), data.getIndex()), key -> createCommitteeCoverage(data));
+    }
+
+    private CommitteeCoverage createCommitteeCoverage(final AttestationData data) {
+      if (!participationFlagsEnabled) {
+        return new CommitteeCoverage(PHASE0_FLAG_WEIGHTS);
+      }
+      final CommitteeCoverage coverage = new CommitteeCoverage(ALTAIR_FLAG_WEIGHTS);
+      final BeaconStateAltair altairState = BeaconStateAltair.required(state);
+      final SszList<SszByte> participation =
+          data.getTarget().getEpoch().equals(currentEpoch)
+              ? altairState.getCurrentEpochParticipation()
+              : altairState.getPreviousEpochParticipation();
+      final IntList committee = spec.getBeaconCommittee(state, data.getSlot(), data.getIndex());
+      for (int position = 0; position < committee.size(); position++) {
+        final int validatorIndex = committee.getInt(position);
+        if (validatorIndex < participation.size()) {
+          coverage.addParticipation(position, participation.get(validatorIndex).get());
+        }
+      }
+      return coverage;
+    }
+  }
+
+  /** Tracks which validators in a committee already have each participation flag. */
+  private static class CommitteeCoverage {
+    private final long[] flagWeights;
+    private final BitSet[] coveredByFlag;
+
+    private CommitteeCoverage(final long[] flagWeights) {
+      this.flagWeights = flagWeights;
+      this.coveredByFlag = new BitSet[flagWeights.length];
+      for (int flagIndex = 0; flagIndex < flagWeights.length; flagIndex++) {
+        coveredByFlag[flagIndex] = new BitSet();
+      }
+    }
+
+    private void addParticipation(final int position, final byte participationFlags) {
+      for (int flagIndex = 0; flagIndex < flagWeights.length; flagIndex++) {
+        if ((participationFlags & ParticipationFlags.indexToFlag(flagIndex)) != 0) {
+          coveredByFlag[flagIndex].set(position);
+        }
+      }
+    }
+
+    private void add(final BitSet validators, final int earnedFlags) {
+      for (int flagIndex = 0; flagIndex < flagWeights.length; flagIndex++) {
+        if ((earnedFlags & ParticipationFlags.indexToFlag(flagIndex)) != 0) {
+          coveredByFlag[flagIndex].or(validators);
+        }
+      }
+    }
+
+    private long computeGain(
+        final BitSet validators,
+        final int earnedFlags,
+        final BitSet alsoCovered,
+        final int alsoCoveredFlags) {
+      long gain = 0;
+      for (int flagIndex = 0; flagIndex < flagWeights.length; flagIndex++) {
+        final int flag = ParticipationFlags.indexToFlag(flagIndex);
+        if ((earnedFlags & flag) == 0) {
+          continue;
+        }
+        final BitSet newlyCovered = (BitSet) validators.clone();
+        newlyCovered.andNot(coveredByFlag[flagIndex]);
+        if ((alsoCoveredFlags & flag) != 0) {
+          newlyCovered.andNot(alsoCovered);
+        }
+        gain += flagWeights[flagIndex] * newlyCovered.cardinality();
+      }
+      return gain;
+    }
+  }
+
+  private static class Candidate {
+    private static final BitSet NONE = new BitSet();
+
+    private final Attestation attestation;
+    private final CommitteeCoverage coverage;
+    private final BitSet validators;
+    private final int earnedFlags;
+    private final boolean previousEpoch;
+    private final int order;
+    private long gain;
+
+    private Candidate(
+        final Attestation attestation,
+        final CommitteeCoverage coverage,
+        final BitSet validators,
+        final int earnedFlags,
+        final boolean previousEpoch,
+        final int order) {
+      this.attestation = attestation;
+      this.coverage = coverage;
+      this.validators = validators;
+      this.earnedFlags = earnedFlags;
+      this.previousEpoch = previousEpoch;
+      this.order = order;
+    }
+
+    private long refreshGain() {
+      gain = coverage.computeGain(validators, earnedFlags, NONE, 0);
+      return gain;
+    }
+
+    /** Calculates the gain this candidate would have if {@code other} was selected first. */
+    private long computeGainAfter(final Candidate other) {
+      if (other.coverage != coverage) {
+        return gain;
+      }
+      return coverage.computeGain(validators, earnedFlags, other.validators, other.earnedFlags);
+    }
+  }
+}
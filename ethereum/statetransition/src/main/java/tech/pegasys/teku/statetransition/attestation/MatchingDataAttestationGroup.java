@@ -13,10 +13,12 @@
 
 package tech.pegasys.teku.statetransition.attestation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
@@ -42,6 +44,9 @@ import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
  *
  * <p>Note that the resulting aggregate will be invalid if attestations with different
  * AttestationData are added.
+ *
+ * <p>This class is thread-safe. Iteration works on a snapshot of the group taken when the iterator
+ * is created so it is never affected by concurrent updates.
  */
 class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation> {
 
@@ -93,7 +98,7 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
    * @param attestation the attestation to add
    * @return True if the attestation was added, false otherwise
    */
-  public boolean add(final ValidateableAttestation attestation) {
+  public synchronized boolean add(final ValidateableAttestation attestation) {
     if (includedValidators.isSuperSetOf(attestation.getAttestation().getAggregationBits())) {
       // All attestation bits have already been included on chain
       return false;
@@ -119,8 +124,10 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
    * @return an iterator including attestations for every validator included in this group.
    */
   @Override
-  public Iterator<ValidateableAttestation> iterator() {
-    return new AggregatingIterator();
+  public synchronized Iterator<ValidateableAttestation> iterator() {
+    final List<ValidateableAttestation> attestations = new ArrayList<>();
+    attestationsByValidatorCount.values().forEach(attestations::addAll);
+    return new AggregatingIterator(attestations, includedValidators);
   }
 
   public Stream<ValidateableAttestation> stream() {
@@ -132,11 +139,11 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
    *
    * @return true if this group is empty.
    */
-  public boolean isEmpty() {
+  public synchronized boolean isEmpty() {
     return attestationsByValidatorCount.isEmpty();
   }
 
-  public int size() {
+  public synchronized int size() {
     return attestationsByValidatorCount.values().stream().map(Set::size).reduce(0, Integer::sum);
   }
 
@@ -148,7 +155,8 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
    *
    * @param attestation the attestation to logically remove from the pool.
    */
-  public int onAttestationIncludedInBlock(final UInt64 slot, final Attestation attestation) {
+  public synchronized int onAttestationIncludedInBlock(
+      final UInt64 slot, final Attestation attestation) {
     // Record validators in attestation as seen in this slot
     // Important to do even if the attestation is redundant so we handle re-orgs correctly
     includedValidatorsBySlot.merge(slot, attestation.getAggregationBits(), SszBitlist::or);
@@ -179,7 +187,7 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
     return numRemoved;
   }
 
-  public void onReorg(final UInt64 commonAncestorSlot) {
+  public synchronized void onReorg(final UInt64 commonAncestorSlot) {
     final NavigableMap<UInt64, SszBitlist> removedSlots =
         includedValidatorsBySlot.tailMap(commonAncestorSlot, false);
     if (removedSlots.isEmpty()) {
@@ -194,12 +202,19 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
             .reduce(createEmptyAggregationBits(), SszBitlist::or);
   }
 
-  public boolean matchesCommitteeShufflingSeed(final Set<Bytes32> validSeeds) {
+  public synchronized boolean matchesCommitteeShufflingSeed(final Set<Bytes32> validSeeds) {
     return committeeShufflingSeed.map(validSeeds::contains).orElse(false);
   }
 
   private class AggregatingIterator implements Iterator<ValidateableAttestation> {
-    private SszBitlist includedValidators = MatchingDataAttestationGroup.this.includedValidators;
+    private final List<ValidateableAttestation> attestations;
+    private SszBitlist includedValidators;
+
+    private AggregatingIterator(
+        final List<ValidateableAttestation> attestations, final SszBitlist includedValidators) {
+      this.attestations = attestations;
+      this.includedValidators = includedValidators;
+    }
 
     @Override
     public boolean hasNext() {
@@ -224,8 +239,7 @@ class MatchingDataAttestationGroup implements Iterable<ValidateableAttestation>
     }
 
     public Stream<ValidateableAttestation> streamRemainingAttestations() {
-      return attestationsByValidatorCount.values().stream()
-          .flatMap(Set::stream)
+      return attestations.stream()
           .filter(
               candidate ->
                   !includedValidators.isSuperSetOf(
@@ -20,6 +20,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.CheckReturnValue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.logging.EventLogger;
 import tech.pegasys.teku.infrastructure.ssz.SszList;
@@ -33,6 +34,7 @@ import tech.pegasys.teku.spec.datastructures.operations.AttesterSlashing;
 import tech.pegasys.teku.spec.datastructures.operations.ProposerSlashing;
 import tech.pegasys.teku.spec.datastructures.operations.SignedVoluntaryExit;
 import tech.pegasys.teku.spec.datastructures.state.CheckpointState;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.spec.executionlayer.ExecutionLayerChannel;
 import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportResult;
 import tech.pegasys.teku.statetransition.forkchoice.ForkChoice;
@@ -98,8 +100,66 @@ public class BlockImporter {
       return SafeFuture.completedFuture(BlockImportResult.FAILED_WEAK_SUBJECTIVITY_CHECKS);
     }
 
-    return validateWeakSubjectivityPeriod()
-        .thenCompose(__ -> forkChoice.onBlock(block, blockImportPerformance, executionLayer))
+    return handleImportResult(
+        block,
+        validateWeakSubjectivityPeriod()
+            .thenCompose(__ -> forkChoice.onBlock(block, blockImportPerformance, executionLayer)));
+  }
+
+  /**
+   * Import a block as part of a pipeline of consecutive blocks, without waiting for the previous
+   * block to be imported. See {@link ForkChoice#onBlockPipelined}.
+   *
+   * @param block the block to import
+   * @param parentImport the pipelined import of the block's parent or empty if the parent has
+   *     already been imported
+   * @param signatureVerificationRunner the runner to batch verify the block's signatures on
+   * @return the pipelined import of the block
+   */
+  @CheckReturnValue
+  public PipelinedBlockImport importBlockPipelined(
+      final SignedBeaconBlock block,
+      final Optional<PipelinedBlockImport> parentImport,
+      final AsyncRunner signatureVerificationRunner) {
+    final Optional<Boolean> knownOptimistic = recentChainData.isBlockOptimistic(block.getRoot());
+    if (knownOptimistic.isPresent()) {
+      LOG.trace(
+          "Importing known block {}.  Return successful result without re-processing.",
+          block::toLogString);
+      return new PipelinedBlockImport(
+          recentChainData.retrieveBlockState(block.getRoot()),
+          SafeFuture.completedFuture(BlockImportResult.knownBlock(block, knownOptimistic.get())));
+    }
+
+    if (!weakSubjectivityValidator.isBlockValid(block, getForkChoiceStrategy())) {
+      EventLogger.EVENT_LOG.weakSubjectivityFailedEvent(block.getRoot(), block.getSlot());
+      return PipelinedBlockImport.completed(BlockImportResult.FAILED_WEAK_SUBJECTIVITY_CHECKS);
+    }
+
+    final SafeFuture<Optional<BeaconState>> parentPostState =
+        parentImport
+            .map(PipelinedBlockImport::getPostState)
+            .orElseGet(() -> recentChainData.retrieveBlockState(block.getParentRoot()));
+    final SafeFuture<Boolean> parentImported =
+        validateWeakSubjectivityPeriod()
+            .thenCompose(
+                __ ->
+                    parentImport
+                        .map(
+                            parent ->
+                                parent.getImportResult().thenApply(BlockImportResult::isSuccessful))
+                        .orElse(SafeFuture.completedFuture(true)));
+    final PipelinedBlockImport pipelinedImport =
+        forkChoice.onBlockPipelined(
+            block, parentPostState, parentImported, executionLayer, signatureVerificationRunner);
+    return new PipelinedBlockImport(
+        pipelinedImport.getPostState(),
+        handleImportResult(block, pipelinedImport.getImportResult()));
+  }
+
+  private SafeFuture<BlockImportResult> handleImportResult(
+      final SignedBeaconBlock block, final SafeFuture<BlockImportResult> importResult) {
+    return importResult
         .thenApply(
             result -> {
               if (!result.isSuccessful()) {
@@ -0,0 +1,52 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.block;
+
+import java.util.Optional;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportResult;
+
+/**
+ * A block import which may still be waiting for signature verification or for its parent to be
+ * imported.
+ *
+ * <p>The post state becomes available as soon as the state transition completes, so the next block
+ * can be processed without waiting for this block to be imported. The post state is empty if the
+ * state transition failed.
+ */
+public class PipelinedBlockImport {
+  private final SafeFuture<Optional<BeaconState>> postState;
+  private final SafeFuture<BlockImportResult> importResult;
+
+  public PipelinedBlockImport(
+      final SafeFuture<Optional<BeaconState>> postState,
+      final SafeFuture<BlockImportResult> importResult) {
+    this.postState = postState;
+    this.importResult = importResult;
+  }
+
+  public static PipelinedBlockImport completed(final BlockImportResult importResult) {
+    return new PipelinedBlockImport(
+        SafeFuture.completedFuture(Optional.empty()), SafeFuture.completedFuture(importResult));
+  }
+
+  public SafeFuture<Optional<BeaconState>> getPostState() {
+    return postState;
+  }
+
+  public SafeFuture<BlockImportResult> getImportResult() {
+    return importResult;
+  }
+}
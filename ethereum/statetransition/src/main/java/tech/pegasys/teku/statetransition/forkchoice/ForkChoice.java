@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes32;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.async.ExceptionThrowingRunnable;
 import tech.pegasys.teku.infrastructure.async.ExceptionThrowingSupplier;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
@@ -54,6 +55,9 @@ import tech.pegasys.teku.spec.datastructures.util.AttestationProcessingResult.St
 import tech.pegasys.teku.spec.executionlayer.ExecutionLayerChannel;
 import tech.pegasys.teku.spec.executionlayer.ForkChoiceState;
 import tech.pegasys.teku.spec.executionlayer.PayloadStatus;
+import tech.pegasys.teku.spec.logic.common.statetransition.blockvalidator.BatchSignatureVerifier;
+import tech.pegasys.teku.spec.logic.common.statetransition.exceptions.EpochProcessingException;
+import tech.pegasys.teku.spec.logic.common.statetransition.exceptions.SlotProcessingException;
 import tech.pegasys.teku.spec.logic.common.statetransition.exceptions.StateTransitionException;
 import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportResult;
 import tech.pegasys.teku.spec.logic.common.statetransition.results.BlockImportResult.FailureReason;
@@ -64,6 +68,7 @@ import tech.pegasys.teku.spec.logic.versions.eip4844.block.KzgCommitmentsProcess
 import tech.pegasys.teku.statetransition.attestation.DeferredAttestations;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
 import tech.pegasys.teku.statetransition.block.BlockImportPerformance;
+import tech.pegasys.teku.statetransition.block.PipelinedBlockImport;
 import tech.pegasys.teku.statetransition.validation.AttestationStateSelector;
 import tech.pegasys.teku.statetransition.validation.InternalValidationResult;
 import tech.pegasys.teku.storage.client.RecentChainData;
@@ -332,6 +337,136 @@ public class ForkChoice implements ForkChoiceUpdatedResultSubscriber {
             forkChoiceExecutor);
   }
 
+  /**
+   * Import a block whose parent may not have been imported yet, as one step in a pipeline of
+   * blocks being imported in order.
+   *
+   * <p>The state transition is applied to {@code parentPostState} as soon as it is available, with
+   * signatures collected rather than checked. The collected signatures are then batch verified on
+   * {@code signatureVerificationRunner} so the state transition for the next block can proceed in
+   * parallel. The block is only added to the store once its signatures are valid and {@code
+   * parentImported} has completed with {@code true}.
+   */
+  public PipelinedBlockImport onBlockPipelined(
+      final SignedBeaconBlock block,
+      final SafeFuture<Optional<BeaconState>> parentPostState,
+      final SafeFuture<Boolean> parentImported,
+      final ExecutionLayerChannel executionLayer,
+      final AsyncRunner signatureVerificationRunner) {
+    final SafeFuture<DeferredBlockTransition> transition =
+        parentPostState.thenApply(
+            maybeParentState ->
+                maybeParentState
+                    .map(
+                        parentState ->
+                            applyBlockWithDeferredSignatures(
+                                block, parentState, executionLayer, signatureVerificationRunner))
+                    .orElseGet(
+                        () ->
+                            DeferredBlockTransition.failed(
+                                BlockImportResult.FAILED_UNKNOWN_PARENT)));
+    final SafeFuture<BlockImportResult> importResult =
+        transition.thenCompose(
+            blockTransition ->
+                parentImported.thenCompose(
+                    parentSuccessful ->
+                        parentSuccessful
+                            ? importWhenVerified(block, blockTransition)
+                            : SafeFuture.completedFuture(BlockImportResult.FAILED_UNKNOWN_PARENT)));
+    return new PipelinedBlockImport(
+        transition.thenApply(blockTransition -> blockTransition.postState), importResult);
+  }
+
+  private DeferredBlockTransition applyBlockWithDeferredSignatures(
+      final SignedBeaconBlock block,
+      final BeaconState parentState,
+      final ExecutionLayerChannel executionLayer,
+      final AsyncRunner signatureVerificationRunner) {
+    final SpecVersion specVersion = spec.atSlot(block.getSlot());
+    final ForkChoicePayloadExecutor payloadExecutor =
+        ForkChoicePayloadExecutor.create(spec, recentChainData, block, executionLayer);
+    final CapturingIndexedAttestationCache indexedAttestationCache =
+        IndexedAttestationCache.capturing();
+    final BlobsSidecarAvailabilityChecker blobsSidecarAvailabilityChecker =
+        blobsSidecarManager.createAvailabilityChecker(block);
+    final BatchSignatureVerifier signatureVerifier = new BatchSignatureVerifier();
+
+    final BeaconState blockSlotState;
+    final BeaconState postState;
+    try {
+      blockSlotState = spec.processSlots(parentState, block.getSlot());
+      postState =
+          spec.getBlockProcessor(block.getSlot())
+              .processAndValidateBlock(
+                  block,
+                  blockSlotState,
+                  indexedAttestationCache,
+                  signatureVerifier,
+                  Optional.of(payloadExecutor),
+                  KzgCommitmentsProcessor.create(specVersion.miscHelpers()),
+                  blobsSidecarAvailabilityChecker);
+    } catch (final SlotProcessingException
+        | EpochProcessingException
+        | StateTransitionException e) {
+      final BlockImportResult result = BlockImportResult.failedStateTransition(e);
+      reportInvalidBlock(block, result);
+      return DeferredBlockTransition.failed(result);
+    }
+
+    return new DeferredBlockTransition(
+        blockSlotState,
+        postState,
+        indexedAttestationCache,
+        payloadExecutor,
+        blobsSidecarAvailabilityChecker,
+        signatureVerificationRunner.runAsync(signatureVerifier::batchVerify));
+  }
+
+  private SafeFuture<BlockImportResult> importWhenVerified(
+      final SignedBeaconBlock block, final DeferredBlockTransition transition) {
+    if (transition.failure.isPresent()) {
+      return SafeFuture.completedFuture(transition.failure.get());
+    }
+    final BeaconState blockSlotState = transition.blockSlotState;
+    final BeaconState postState = transition.postState.orElseThrow();
+    final ForkChoiceUtil forkChoiceUtil = spec.atSlot(block.getSlot()).getForkChoiceUtil();
+    // The parent is only guaranteed to be in the store now so check the preconditions here
+    final BlockImportResult preconditionCheckResult =
+        forkChoiceUtil.checkOnBlockConditions(block, blockSlotState, recentChainData.getStore());
+    if (!preconditionCheckResult.isSuccessful()) {
+      reportInvalidBlock(block, preconditionCheckResult);
+      return SafeFuture.completedFuture(preconditionCheckResult);
+    }
+
+    return transition.signaturesValid.thenCompose(
+        signaturesValid -> {
+          if (!signaturesValid) {
+            final BlockImportResult result =
+                BlockImportResult.failedStateTransition(
+                    new StateTransitionException(
+                        "Batch signature verification failed for block " + block.toLogString()));
+            reportInvalidBlock(block, result);
+            return SafeFuture.completedFuture(result);
+          }
+          return transition
+              .payloadExecutor
+              .getExecutionResult()
+              .thenCombineAsync(
+                  transition.blobsSidecarAvailabilityChecker.getAvailabilityCheckResult(),
+                  (payloadResult, blobsSidecarAndValidationResult) ->
+                      importBlockAndState(
+                          block,
+                          blockSlotState,
+                          Optional.empty(),
+                          forkChoiceUtil,
+                          transition.indexedAttestationCache,
+                          postState,
+                          payloadResult,
+                          blobsSidecarAndValidationResult),
+                  forkChoiceExecutor);
+        });
+  }
+
   private BlockImportResult importBlockAndState(
       final SignedBeaconBlock block,
       final BeaconState blockSlotState,
@@ -767,4 +902,48 @@ public class ForkChoice implements ForkChoiceUpdatedResultSubscriber {
   public interface OptimisticHeadSubscriber {
     void onOptimisticHeadChanged(boolean isHeadOptimistic);
   }
+
+  /**
+   * The result of a state transition which has not yet had its signatures verified. Only {@code
+   * failure} and {@code postState} are set if the state transition failed.
+   */
+  private static class DeferredBlockTransition {
+    private final Optional<BlockImportResult> failure;
+    private final BeaconState blockSlotState;
+    private final Optional<BeaconState> postState;
+    private final CapturingIndexedAttestationCache indexedAttestationCache;
+    private final ForkChoicePayloadExecutor payloadExecutor;
+    private final BlobsSidecarAvailabilityChecker blobsSidecarAvailabilityChecker;
+    private final SafeFuture<Boolean> signaturesValid;
+
+    private DeferredBlockTransition(
+        final BeaconState blockSlotState,
+        final BeaconState postState,
+        final CapturingIndexedAttestationCache indexedAttestationCache,
+        final ForkChoicePayloadExecutor payloadExecutor,
+        final BlobsSidecarAvailabilityChecker blobsSidecarAvailabilityChecker,
+        final SafeFuture<Boolean> signaturesValid) {
+      this.failure = Optional.empty();
+      this.blockSlotState = blockSlotState;
+      this.postState = Optional.of(postState);
+      this.indexedAttestationCache = indexedAttestationCache;
+      this.payloadExecutor = payloadExecutor;
+      this.blobsSidecarAvailabilityChecker = blobsSidecarAvailabilityChecker;
+      this.signaturesValid = signaturesValid;
+    }
+
+    private DeferredBlockTransition(final BlockImportResult failure) {
+      this.failure = Optional.of(failure);
+      this.blockSlotState = null;
+      this.postState = Optional.empty();
+      this.indexedAttestationCache = null;
+      this.payloadExecutor = null;
+      this.blobsSidecarAvailabilityChecker = null;
+      this.signaturesValid = null;
+    }
+
+    private static DeferredBlockTransition failed(final BlockImportResult failure) {
+      return new DeferredBlockTransition(failure);
+    }
+  }
 }
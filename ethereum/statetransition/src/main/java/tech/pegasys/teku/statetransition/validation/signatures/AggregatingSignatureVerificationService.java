@@ -17,43 +17,66 @@ import static java.util.Collections.singletonList;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
 import tech.pegasys.teku.bls.BLS;
 import tech.pegasys.teku.bls.BLSPublicKey;
 import tech.pegasys.teku.bls.BLSSignature;
-import tech.pegasys.teku.bls.BLSSignatureVerifier;
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.async.AsyncRunnerFactory;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.metrics.MetricsHistogram;
 import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.service.serviceutils.ServiceCapacityExceededException;
+import tech.pegasys.teku.spec.logic.common.util.AsyncBLSSignatureVerifier;
 
+/**
+ * Verifies signatures in batches across a fixed number of threads.
+ *
+ * <p>Tasks are queued in a lane per {@link SignatureVerificationPriority} and each batch is filled
+ * from the highest priority lanes first. Batch sizes adapt to the load: queued tasks are shared
+ * between the verification threads, and the largest batch is limited so that a batch is expected to
+ * complete within {@link #DEFAULT_TARGET_BATCH_DURATION}, based on the observed verification time
+ * per task. When a batch fails it is bisected recursively to find the invalid signatures.
+ */
 public class AggregatingSignatureVerificationService extends SignatureVerificationService {
   private static final Logger LOG = LogManager.getLogger();
 
-  static final int DEFAULT_MIN_BATCH_SIZE_TO_SPLIT = 25;
+  static final Duration DEFAULT_TARGET_BATCH_DURATION = Duration.ofMillis(50);
+
+  /** Signatures verified without specifying a priority are treated as unaggregated attestations. */
+  private static final SignatureVerificationPriority DEFAULT_PRIORITY =
+      SignatureVerificationPriority.UNAGGREGATED;
+
+  /** Don't let the adaptive limit shrink batches to the point they lose the benefit of batching. */
+  static final int MIN_BATCH_SIZE_LIMIT = 8;
+
+  /** Weight given to the latest batch when updating the average verification time per task. */
+  private static final double TASK_DURATION_SMOOTHING_FACTOR = 0.2;
 
   private final AsyncRunner completionRunner;
   private final int numThreads;
   private final int maxBatchSize;
-  private final int minBatchSizeToSplit;
+  private final long targetBatchDurationNanos;
   private final boolean strictThreadLimitEnabled;
 
-  @VisibleForTesting final BlockingQueue<SignatureTask> batchSignatureTasks;
+  @VisibleForTesting final PrioritizedSignatureTaskQueue batchSignatureTasks;
   private final AsyncRunner asyncRunner;
   private final Counter batchCounter;
   private final Counter taskCounter;
   private final MetricsHistogram batchSizeHistogram;
+  private final MetricsHistogram queueTimeHistogram;
+
+  private double averageTaskDurationNanos = 0;
+  private volatile int batchSizeLimit;
 
   @VisibleForTesting
   AggregatingSignatureVerificationService(
@@ -63,21 +86,36 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
       final int numThreads,
       final int queueCapacity,
       final int maxBatchSize,
-      final int minBatchSizeToSplit,
+      final Duration targetBatchDuration,
       final boolean strictThreadLimitEnabled) {
     this.numThreads = Math.min(numThreads, Runtime.getRuntime().availableProcessors());
     this.asyncRunner = asyncRunnerFactory.create(this.getClass().getSimpleName(), this.numThreads);
     this.completionRunner = completionRunner;
     this.maxBatchSize = maxBatchSize;
+    this.batchSizeLimit = maxBatchSize;
+    this.targetBatchDurationNanos = targetBatchDuration.toNanos();
 
-    this.batchSignatureTasks = new ArrayBlockingQueue<>(queueCapacity);
-    this.minBatchSizeToSplit = minBatchSizeToSplit;
+    this.batchSignatureTasks = new PrioritizedSignatureTaskQueue(queueCapacity);
     this.strictThreadLimitEnabled = strictThreadLimitEnabled;
     metricsSystem.createGauge(
         TekuMetricCategory.EXECUTOR,
         "signature_verifications_queue_size",
         "Tracks number of signatures waiting to be batch verified",
         this::getQueueSize);
+    final LabelledGauge laneSizeGauge =
+        metricsSystem.createLabelledGauge(
+            TekuMetricCategory.EXECUTOR,
+            "signature_verifications_queue_size_by_priority",
+            "Tracks number of signatures waiting to be batch verified in each priority lane",
+            "priority");
+    for (SignatureVerificationPriority priority : SignatureVerificationPriority.values()) {
+      laneSizeGauge.labels(() -> batchSignatureTasks.size(priority), priority.getMetricLabel());
+    }
+    metricsSystem.createGauge(
+        TekuMetricCategory.EXECUTOR,
+        "signature_verifications_batch_size_limit",
+        "The current adaptive limit on the size of signature verification batches",
+        () -> batchSizeLimit);
     batchCounter =
         metricsSystem.createCounter(
             TekuMetricCategory.EXECUTOR,
@@ -96,6 +134,14 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
             "Histogram of signature verification batch sizes",
             3,
             List.of());
+    queueTimeHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.EXECUTOR,
+            metricsSystem,
+            "signature_verifications_queue_time",
+            "Histogram of the time in milliseconds signatures wait to be verified in each priority lane",
+            3,
+            List.of("priority"));
   }
 
   public AggregatingSignatureVerificationService(
@@ -113,7 +159,7 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
         maxThreads,
         queueCapacity,
         maxBatchSize,
-        DEFAULT_MIN_BATCH_SIZE_TO_SPLIT,
+        DEFAULT_TARGET_BATCH_DURATION,
         strictThreadLimitEnabled);
   }
 
@@ -136,6 +182,26 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
     return SafeFuture.COMPLETE;
   }
 
+  @Override
+  public AsyncBLSSignatureVerifier withPriority(final SignatureVerificationPriority priority) {
+    return new AsyncBLSSignatureVerifier() {
+      @Override
+      public SafeFuture<Boolean> verify(
+          final List<BLSPublicKey> publicKeys, final Bytes message, final BLSSignature signature) {
+        return verify(singletonList(publicKeys), singletonList(message), singletonList(signature));
+      }
+
+      @Override
+      public SafeFuture<Boolean> verify(
+          final List<List<BLSPublicKey>> publicKeys,
+          final List<Bytes> messages,
+          final List<BLSSignature> signatures) {
+        return AggregatingSignatureVerificationService.this.verify(
+            priority, publicKeys, messages, signatures);
+      }
+    };
+  }
+
   @Override
   public SafeFuture<Boolean> verify(
       final List<BLSPublicKey> publicKeys, final Bytes message, final BLSSignature signature) {
@@ -147,23 +213,36 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
       final List<List<BLSPublicKey>> publicKeys,
       final List<Bytes> messages,
       final List<BLSSignature> signatures) {
+    return verify(DEFAULT_PRIORITY, publicKeys, messages, signatures);
+  }
+
+  private SafeFuture<Boolean> verify(
+      final SignatureVerificationPriority priority,
+      final List<List<BLSPublicKey>> publicKeys,
+      final List<Bytes> messages,
+      final List<BLSSignature> signatures) {
     assertIsRunning("verify");
     final SignatureTask task =
-        new SignatureTask(completionRunner, publicKeys, messages, signatures);
-    if (!batchSignatureTasks.offer(task)) {
-      // Queue is full
-      final Throwable error =
-          new ServiceCapacityExceededException("Failed to process signature, queue is full.");
-      task.result.completeExceptionally(error);
+        new SignatureTask(completionRunner, priority, publicKeys, messages, signatures);
+    if (!batchSignatureTasks.offer(task, this::rejectTask)) {
+      // Queue is full of tasks with the same or higher priority
+      rejectTask(task);
     }
     return task.result;
   }
 
+  private void rejectTask(final SignatureTask task) {
+    task.result.completeExceptionally(
+        new ServiceCapacityExceededException("Failed to process signature, queue is full."));
+  }
+
   private void run() {
     while (isRunning()) {
       final List<SignatureTask> tasks = waitForBatch();
       if (!tasks.isEmpty()) {
+        final long startTime = System.nanoTime();
         batchVerifySignatures(tasks);
+        updateBatchSizeLimit(tasks.size(), System.nanoTime() - startTime);
       }
     }
   }
@@ -171,24 +250,87 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
   private List<SignatureTask> waitForBatch() {
     final List<SignatureTask> tasks = new ArrayList<>();
     try {
-      int batchSize = maxBatchSize;
       final SignatureTask firstTask = batchSignatureTasks.poll(30, TimeUnit.SECONDS);
       if (firstTask != null) {
         tasks.add(firstTask);
-        batchSize -= 1;
+        batchSignatureTasks.drainTo(tasks, getTargetBatchSize() - 1);
       }
-      batchSignatureTasks.drainTo(tasks, batchSize);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
+    final long now = System.nanoTime();
+    for (SignatureTask task : tasks) {
+      queueTimeHistogram.recordValue(
+          TimeUnit.NANOSECONDS.toMillis(now - task.queuedTime), task.priority.getMetricLabel());
+    }
     return tasks;
   }
 
+  /**
+   * Shares the queued tasks between the verification threads so they all make progress while
+   * staying within the adaptive limit, so that a single batch doesn't take too long to complete.
+   */
+  @VisibleForTesting
+  int getTargetBatchSize() {
+    // Include the task that has already been taken from the queue
+    final int queuedTasks = batchSignatureTasks.size() + 1;
+    final int tasksPerThread = (queuedTasks + numThreads - 1) / numThreads;
+    return Math.max(1, Math.min(tasksPerThread, batchSizeLimit));
+  }
+
+  @VisibleForTesting
+  synchronized void updateBatchSizeLimit(final int batchSize, final long batchDurationNanos) {
+    final double taskDurationNanos = (double) batchDurationNanos / batchSize;
+    averageTaskDurationNanos =
+        averageTaskDurationNanos == 0
+            ? taskDurationNanos
+            : TASK_DURATION_SMOOTHING_FACTOR * taskDurationNanos
+                + (1 - TASK_DURATION_SMOOTHING_FACTOR) * averageTaskDurationNanos;
+    final long tasksWithinTarget = (long) (targetBatchDurationNanos / averageTaskDurationNanos);
+    batchSizeLimit =
+        (int) Math.min(maxBatchSize, Math.max(MIN_BATCH_SIZE_LIMIT, tasksWithinTarget));
+  }
+
+  @VisibleForTesting
+  int getBatchSizeLimit() {
+    return batchSizeLimit;
+  }
+
   @VisibleForTesting
   void batchVerifySignatures(final List<SignatureTask> tasks) {
     batchCounter.inc();
     taskCounter.inc(tasks.size());
     batchSizeHistogram.recordValue(tasks.size());
+    verifyOrBisect(tasks, false);
+  }
+
+  /**
+   * Verifies the tasks as a single batch and, if that fails, recursively splits the batch in half
+   * to find the invalid tasks.
+   *
+   * @param tasks the tasks to verify
+   * @param knownInvalid true if the tasks are already known to include an invalid signature
+   * @return true if all tasks were valid
+   */
+  private boolean verifyOrBisect(final List<SignatureTask> tasks, final boolean knownInvalid) {
+    if (!knownInvalid && verifyBatch(tasks)) {
+      for (SignatureTask task : tasks) {
+        task.completeAsync(true);
+      }
+      return true;
+    }
+    if (tasks.size() == 1) {
+      tasks.get(0).completeAsync(false);
+      return false;
+    }
+    final List<List<SignatureTask>> splitTasks = splitTasks(tasks);
+    final boolean firstHalfValid = verifyOrBisect(splitTasks.get(0), false);
+    // If the first half is all valid, the invalid signature must be in the second half
+    verifyOrBisect(splitTasks.get(1), firstHalfValid);
+    return false;
+  }
+
+  private boolean verifyBatch(final List<SignatureTask> tasks) {
     final List<List<BLSPublicKey>> allKeys = new ArrayList<>();
     final List<Bytes> allMessages = new ArrayList<>();
     final List<BLSSignature> allSignatures = new ArrayList<>();
@@ -199,31 +341,9 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
       allSignatures.addAll(task.signatures);
     }
 
-    final boolean batchIsValid =
-        strictThreadLimitEnabled
-            ? BLS.batchVerify(allKeys, allMessages, allSignatures, allKeys.size() > 1, false)
-            : BLS.batchVerify(allKeys, allMessages, allSignatures);
-    if (batchIsValid) {
-      for (SignatureTask task : tasks) {
-        task.completeAsync(true);
-      }
-    } else if (tasks.size() == 1) {
-      // We only had 1 signature, so it must be invalid
-      tasks.get(0).completeAsync(false);
-    } else if (tasks.size() >= minBatchSizeToSplit) {
-      // Split up tasks and try to verify in smaller batches
-      final List<List<SignatureTask>> splitTasks = splitTasks(tasks);
-      for (List<SignatureTask> splitTask : splitTasks) {
-        batchVerifySignatures(splitTask);
-      }
-    } else {
-      // Validate each signature individually
-      for (SignatureTask task : tasks) {
-        final boolean taskIsValid =
-            BLSSignatureVerifier.SIMPLE.verify(task.publicKeys, task.messages, task.signatures);
-        task.completeAsync(taskIsValid);
-      }
-    }
+    return strictThreadLimitEnabled
+        ? BLS.batchVerify(allKeys, allMessages, allSignatures, allKeys.size() > 1, false)
+        : BLS.batchVerify(allKeys, allMessages, allSignatures);
   }
 
   @VisibleForTesting
@@ -240,16 +360,20 @@ public class AggregatingSignatureVerificationService extends SignatureVerificati
   static class SignatureTask {
     final SafeFuture<Boolean> result = new SafeFuture<>();
     private final AsyncRunner asyncRunner;
+    final SignatureVerificationPriority priority;
+    final long queuedTime = System.nanoTime();
     final List<List<BLSPublicKey>> publicKeys;
     final List<Bytes> messages;
     final List<BLSSignature> signatures;
 
     private SignatureTask(
         final AsyncRunner asyncRunner,
+        final SignatureVerificationPriority priority,
         final List<List<BLSPublicKey>> publicKeys,
         final List<Bytes> messages,
         final List<BLSSignature> signatures) {
       this.asyncRunner = asyncRunner;
+      this.priority = priority;
       this.publicKeys = publicKeys;
       this.messages = messages;
       this.signatures = signatures;
@@ -0,0 +1,160 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.validation.signatures;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import tech.pegasys.teku.statetransition.validation.signatures.AggregatingSignatureVerificationService.SignatureTask;
+
+/**
+ * A bounded blocking queue of signature tasks with one FIFO lane per {@link
+ * SignatureVerificationPriority}. Tasks are always taken from the highest priority lane that has
+ * any available. When the queue is full, a new task displaces the most recently queued task from
+ * a lower priority lane rather than being rejected.
+ */
+class PrioritizedSignatureTaskQueue {
+  private static final SignatureVerificationPriority[] PRIORITIES =
+      SignatureVerificationPriority.values();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Deque<SignatureTask>[] lanes;
+  private final int capacity;
+  private int size = 0;
+
+  @SuppressWarnings("unchecked")
+  PrioritizedSignatureTaskQueue(final int capacity) {
+    this.capacity = capacity;
+    this.lanes = new Deque[PRIORITIES.length];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * Adds a task to the queue.
+   *
+   * @param task the task to add
+   * @param displacedTaskHandler called with any lower priority task removed to make space
+   * @return true if the task was queued, false if the queue is full of equal or higher priority
+   *     tasks
+   */
+  boolean offer(final SignatureTask task, final Consumer<SignatureTask> displacedTaskHandler) {
+    SignatureTask displacedTask = null;
+    lock.lock();
+    try {
+      if (size >= capacity) {
+        displacedTask = removeLowerPriorityTask(task.priority);
+        if (displacedTask == null) {
+          return false;
+        }
+      }
+      lanes[task.priority.ordinal()].addLast(task);
+      size++;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+    if (displacedTask != null) {
+      displacedTaskHandler.accept(displacedTask);
+    }
+    return true;
+  }
+
+  private SignatureTask removeLowerPriorityTask(final SignatureVerificationPriority priority) {
+    for (int i = lanes.length - 1; i > priority.ordinal(); i--) {
+      final SignatureTask task = lanes[i].pollLast();
+      if (task != null) {
+        size--;
+        return task;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes the highest priority task, waiting up to the specified time for one to become
+   * available.
+   *
+   * @return the removed task or null if the timeout elapsed before a task was available
+   */
+  SignatureTask poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        if (remainingNanos <= 0) {
+          return null;
+        }
+        remainingNanos = notEmpty.awaitNanos(remainingNanos);
+      }
+      return pollHighestPriority();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Moves up to {@code maxTasks} tasks into {@code target}, highest priority first. */
+  int drainTo(final Collection<SignatureTask> target, final int maxTasks) {
+    lock.lock();
+    try {
+      int drained = 0;
+      while (drained < maxTasks && size > 0) {
+        target.add(pollHighestPriority());
+        drained++;
+      }
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int drainTo(final Collection<SignatureTask> target) {
+    return drainTo(target, Integer.MAX_VALUE);
+  }
+
+  private SignatureTask pollHighestPriority() {
+    for (Deque<SignatureTask> lane : lanes) {
+      final SignatureTask task = lane.pollFirst();
+      if (task != null) {
+        size--;
+        return task;
+      }
+    }
+    throw new IllegalStateException("Queue size is " + size + " but all lanes are empty");
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size(final SignatureVerificationPriority priority) {
+    lock.lock();
+    try {
+      return lanes[priority.ordinal()].size();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
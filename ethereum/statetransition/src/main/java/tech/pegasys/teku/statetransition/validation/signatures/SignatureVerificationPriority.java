@@ -0,0 +1,31 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.validation.signatures;
+
+/**
+ * The priority lane a signature verification is queued in. Higher priority lanes are always drained
+ * first so that signatures gating block import aren't delayed behind floods of gossip attestations.
+ */
+public enum SignatureVerificationPriority {
+  BLOCK,
+  AGGREGATE,
+  SYNC_CONTRIBUTION,
+  UNAGGREGATED,
+  /** Backfilling historical blocks isn't time sensitive so must never delay gossip validation. */
+  HISTORICAL_SYNC;
+
+  String getMetricLabel() {
+    return name().toLowerCase();
+  }
+}
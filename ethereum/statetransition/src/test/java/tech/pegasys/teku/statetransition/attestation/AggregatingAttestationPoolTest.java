@@ -26,6 +26,10 @@ import static tech.pegasys.teku.statetransition.attestation.AggregatorUtil.aggre
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -316,6 +320,52 @@ class AggregatingAttestationPoolTest {
     assertThat(aggregatingPool.getSize()).isEqualTo(2);
   }
 
+  @Test
+  public void getSize_shouldIncludeAttestationsAddedConcurrently() throws Exception {
+    final int threadCount = 4;
+    final List<AttestationData> attestationData = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      attestationData.add(dataStructureUtil.randomAttestationData(UInt64.valueOf(i % 4)));
+    }
+    // Each thread adds an attestation from a different validator for the same data so threads
+    // compete to create and update the same groups
+    final List<List<ValidateableAttestation>> attestationsByThread = new ArrayList<>();
+    for (int thread = 0; thread < threadCount; thread++) {
+      final List<ValidateableAttestation> attestations = new ArrayList<>();
+      for (AttestationData data : attestationData) {
+        attestations.add(ValidateableAttestation.from(spec, createAttestation(data, thread)));
+      }
+      attestationsByThread.add(attestations);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<?>> results = new ArrayList<>();
+      for (List<ValidateableAttestation> attestations : attestationsByThread) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  attestations.forEach(aggregatingPool::add);
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(aggregatingPool.getSize()).isEqualTo(threadCount * attestationData.size());
+    // The attestations from each thread are aggregated into a single attestation per data
+    assertThat(aggregatingPool.getAttestations(Optional.empty(), Optional.empty()))
+        .hasSize(attestationData.size())
+        .allMatch(attestation -> attestation.getAggregationBits().getBitCount() == threadCount);
+  }
+
   @Test
   public void getSize_shouldDecreaseWhenAttestationsRemoved() {
     final AttestationData attestationData = dataStructureUtil.randomAttestationData();
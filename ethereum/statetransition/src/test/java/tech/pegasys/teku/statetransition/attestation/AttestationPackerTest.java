@@ -0,0 +1,145 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.statetransition.attestation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.ssz.collections.SszBitlist;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation.AttestationSchema;
+import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+class AttestationPackerTest {
+  private static final UInt64 SLOT = UInt64.valueOf(20);
+
+  private final Spec spec = TestSpecFactory.createMinimalPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+  private final AttestationSchema attestationSchema =
+      spec.getGenesisSchemaDefinitions().getAttestationSchema();
+  private final BeaconState state = dataStructureUtil.randomBeaconState(SLOT.plus(1));
+
+  private AttestationPacker packer =
+      new AttestationPacker(spec, new NoOpMetricsSystem(), Duration.ofSeconds(10));
+
+  @Test
+  void shouldPreferAttestationsCoveringMoreValidators() {
+    final MatchingDataAttestationGroup group1 = createGroup(randomAttestationData(), 1, 2);
+    final MatchingDataAttestationGroup group2 = createGroup(randomAttestationData(), 3, 4, 5);
+
+    assertThat(pack(1, group1, group2)).containsExactly(getAggregate(group2));
+  }
+
+  @Test
+  void shouldPreferMoreRecentAttestationsWhenCoverageIsEqual() {
+    final MatchingDataAttestationGroup group1 = createGroup(randomAttestationData(), 1, 2);
+    final MatchingDataAttestationGroup group2 = createGroup(randomAttestationData(), 3, 4);
+
+    assertThat(pack(2, group1, group2))
+        .containsExactly(getAggregate(group1), getAggregate(group2));
+  }
+
+  @Test
+  void shouldNotIncludeAttestationsThatOnlyCoverAlreadyCoveredValidators() {
+    final AttestationData data = randomAttestationData();
+    final MatchingDataAttestationGroup group1 = createGroup(data, 1, 2, 3, 4);
+    final MatchingDataAttestationGroup group2 = createGroup(withRandomBlockRoot(data), 2, 3);
+
+    assertThat(pack(2, group1, group2)).containsExactly(getAggregate(group1));
+  }
+
+  @Test
+  void shouldLookAheadToAvoidOverlappingSelections() {
+    final AttestationData data = randomAttestationData();
+    final MatchingDataAttestationGroup groupA = createGroup(data, 2, 3, 4, 5, 6);
+    final MatchingDataAttestationGroup groupB = createGroup(withRandomBlockRoot(data), 1, 2, 3, 4);
+    final MatchingDataAttestationGroup groupC = createGroup(withRandomBlockRoot(data), 5, 6, 7, 8);
+
+    // Greedy selection would take A and then gain only 2 more validators from either B or C
+    assertThat(pack(2, groupA, groupB, groupC))
+        .containsExactlyInAnyOrder(getAggregate(groupB), getAggregate(groupC));
+  }
+
+  @Test
+  void shouldUseGreedySelectionWhenTimeBudgetIsExhausted() {
+    packer = new AttestationPacker(spec, new NoOpMetricsSystem(), Duration.ZERO);
+    final AttestationData data = randomAttestationData();
+    final MatchingDataAttestationGroup groupA = createGroup(data, 2, 3, 4, 5, 6);
+    final MatchingDataAttestationGroup groupB = createGroup(withRandomBlockRoot(data), 1, 2, 3, 4);
+    final MatchingDataAttestationGroup groupC = createGroup(withRandomBlockRoot(data), 5, 6, 7, 8);
+
+    assertThat(pack(2, groupA, groupB, groupC))
+        .containsExactly(getAggregate(groupA), getAggregate(groupC));
+  }
+
+  @Test
+  void shouldLimitPreviousEpochAttestations() {
+    final UInt64 currentEpochStart = spec.computeStartSlotAtEpoch(spec.getCurrentEpoch(state));
+    final MatchingDataAttestationGroup currentEpochGroup =
+        createGroup(dataStructureUtil.randomAttestationData(currentEpochStart), 1);
+    final MatchingDataAttestationGroup previousEpochGroup1 =
+        createGroup(dataStructureUtil.randomAttestationData(currentEpochStart.minus(1)), 1, 2, 3);
+    final MatchingDataAttestationGroup previousEpochGroup2 =
+        createGroup(dataStructureUtil.randomAttestationData(currentEpochStart.minus(2)), 4, 5);
+
+    final List<Attestation> result =
+        packer.pack(
+            state, List.of(currentEpochGroup, previousEpochGroup1, previousEpochGroup2), 10, 1);
+    assertThat(result)
+        .containsExactly(getAggregate(previousEpochGroup1), getAggregate(currentEpochGroup));
+  }
+
+  private List<Attestation> pack(
+      final int maxAttestations, final MatchingDataAttestationGroup... groups) {
+    return packer.pack(state, List.of(groups), maxAttestations, Integer.MAX_VALUE);
+  }
+
+  private AttestationData randomAttestationData() {
+    return dataStructureUtil.randomAttestationData(SLOT);
+  }
+
+  private AttestationData withRandomBlockRoot(final AttestationData data) {
+    return new AttestationData(
+        data.getSlot(),
+        data.getIndex(),
+        dataStructureUtil.randomBytes32(),
+        data.getSource(),
+        data.getTarget());
+  }
+
+  private Attestation getAggregate(final MatchingDataAttestationGroup group) {
+    return group.stream().findFirst().orElseThrow().getAttestation();
+  }
+
+  private MatchingDataAttestationGroup createGroup(
+      final AttestationData data, final int... validators) {
+    final MatchingDataAttestationGroup group = new MatchingDataAttestationGroup(spec, data);
+    final SszBitlist aggregationBits =
+        attestationSchema.getAggregationBitsSchema().ofBits(10, validators);
+    group.add(
+        ValidateableAttestation.from(
+            spec,
+            attestationSchema.create(aggregationBits, data, dataStructureUtil.randomSignature())));
+    return group;
+  }
+}
@@ -52,8 +52,10 @@ import tech.pegasys.infrastructure.logging.LogCaptor;
 import tech.pegasys.teku.bls.BLSKeyPair;
 import tech.pegasys.teku.bls.BLSPublicKey;
 import tech.pegasys.teku.bls.BLSSignature;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.async.SafeFutureAssert;
+import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
 import tech.pegasys.teku.infrastructure.async.eventthread.InlineEventThread;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
@@ -62,6 +64,7 @@ import tech.pegasys.teku.spec.TestSpecFactory;
 import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
 import tech.pegasys.teku.spec.datastructures.blocks.Eth1Data;
 import tech.pegasys.teku.spec.datastructures.blocks.MinimalBeaconBlockSummary;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.execution.ExecutionPayload;
 import tech.pegasys.teku.spec.datastructures.execution.PowBlock;
@@ -86,6 +89,7 @@ import tech.pegasys.teku.spec.logic.versions.eip4844.blobs.BlobsSidecarAvailabil
 import tech.pegasys.teku.spec.logic.versions.eip4844.blobs.BlobsSidecarAvailabilityChecker.BlobsSidecarAndValidationResult;
 import tech.pegasys.teku.spec.util.DataStructureUtil;
 import tech.pegasys.teku.statetransition.blobs.BlobsSidecarManager;
+import tech.pegasys.teku.statetransition.block.PipelinedBlockImport;
 import tech.pegasys.teku.statetransition.forkchoice.ForkChoice.OptimisticHeadSubscriber;
 import tech.pegasys.teku.statetransition.forkchoice.ForkChoiceUpdatedResultSubscriber.ForkChoiceUpdatedResultNotification;
 import tech.pegasys.teku.storage.api.TrackingChainHeadChannel.ReorgEvent;
@@ -691,6 +695,53 @@ class ForkChoiceTest {
     verifyNoMoreInteractions(optimisticSyncStateTracker);
   }
 
+  @Test
+  void onBlockPipelined_shouldProcessNextBlockBeforeSignaturesVerified() {
+    final StubAsyncRunner signatureVerificationRunner = new StubAsyncRunner();
+    final SignedBlockAndState block1 = chainBuilder.generateBlockAtSlot(1);
+    final SignedBlockAndState block2 = chainBuilder.generateBlockAtSlot(2);
+    storageSystem.chainUpdater().advanceCurrentSlotToAtLeast(block2.getSlot());
+
+    final PipelinedBlockImport import1 =
+        importBlockPipelined(block1.getBlock(), Optional.empty(), signatureVerificationRunner);
+    final PipelinedBlockImport import2 =
+        importBlockPipelined(block2.getBlock(), Optional.of(import1), signatureVerificationRunner);
+
+    // State transitions are complete but neither block is imported until signatures are verified
+    assertThat(import2.getPostState()).isCompletedWithValue(Optional.of(block2.getState()));
+    assertThat(import1.getImportResult()).isNotDone();
+    assertThat(import2.getImportResult()).isNotDone();
+    assertThat(recentChainData.containsBlock(block1.getRoot())).isFalse();
+
+    signatureVerificationRunner.executeQueuedActions();
+
+    assertBlockImportedSuccessfully(import1.getImportResult(), false);
+    assertBlockImportedSuccessfully(import2.getImportResult(), false);
+    assertThat(recentChainData.getBestBlockRoot()).contains(block2.getRoot());
+  }
+
+  @Test
+  void onBlockPipelined_shouldNotImportBlocksWhenSignatureIsInvalid() {
+    final StubAsyncRunner signatureVerificationRunner = new StubAsyncRunner();
+    final SignedBlockAndState block1 = chainBuilder.generateBlockAtSlot(1);
+    final SignedBlockAndState block2 = chainBuilder.generateBlockAtSlot(2);
+    storageSystem.chainUpdater().advanceCurrentSlotToAtLeast(block2.getSlot());
+    final SignedBeaconBlock invalidBlock1 =
+        SignedBeaconBlock.create(
+            spec, block1.getBlock().getMessage(), dataStructureUtil.randomSignature());
+
+    final PipelinedBlockImport import1 =
+        importBlockPipelined(invalidBlock1, Optional.empty(), signatureVerificationRunner);
+    final PipelinedBlockImport import2 =
+        importBlockPipelined(block2.getBlock(), Optional.of(import1), signatureVerificationRunner);
+    signatureVerificationRunner.executeQueuedActions();
+
+    assertBlockImportFailure(import1.getImportResult(), FailureReason.FAILED_STATE_TRANSITION);
+    assertBlockImportFailure(import2.getImportResult(), FailureReason.UNKNOWN_PARENT);
+    assertThat(recentChainData.containsBlock(block1.getRoot())).isFalse();
+    assertThat(recentChainData.containsBlock(block2.getRoot())).isFalse();
+  }
+
   @Test
   void applyHead_shouldSendForkChoiceUpdatedNotification() {
     final SignedBlockAndState blockAndState = storageSystem.chainUpdater().advanceChainUntil(1);
@@ -1162,6 +1213,22 @@ class ForkChoiceTest {
     assertBlockImportedSuccessfully(result, true);
   }
 
+  private PipelinedBlockImport importBlockPipelined(
+      final SignedBeaconBlock block,
+      final Optional<PipelinedBlockImport> parentImport,
+      final AsyncRunner signatureVerificationRunner) {
+    return forkChoice.onBlockPipelined(
+        block,
+        parentImport
+            .map(PipelinedBlockImport::getPostState)
+            .orElseGet(() -> recentChainData.retrieveBlockState(block.getParentRoot())),
+        parentImport
+            .map(parent -> parent.getImportResult().thenApply(BlockImportResult::isSuccessful))
+            .orElse(SafeFuture.completedFuture(true)),
+        executionLayer,
+        signatureVerificationRunner);
+  }
+
   private void assertBlockImportFailure(
       final SafeFuture<BlockImportResult> importResult, FailureReason failureReason) {
     assertThat(importResult).isCompleted();
@@ -16,8 +16,11 @@ package tech.pegasys.teku.statetransition.validation;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static tech.pegasys.teku.infrastructure.async.SafeFutureAssert.safeJoin;
 import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ONE;
@@ -156,6 +159,28 @@ class AggregateAttestationValidatorTest {
         .isCompletedWithValue(InternalValidationResult.ACCEPT);
   }
 
+  @Test
+  public void shouldVerifyAllAggregateSignaturesWithAggregateVerifier() {
+    final AsyncBLSSignatureVerifier unaggregatedVerifier = mock(AsyncBLSSignatureVerifier.class);
+    final AsyncBLSSignatureVerifier aggregateVerifier = mock(AsyncBLSSignatureVerifier.class);
+    when(aggregateVerifier.verify(anyList(), anyList(), anyList()))
+        .thenReturn(SafeFuture.completedFuture(true));
+    validator =
+        new AggregateAttestationValidator(
+            spec,
+            new AttestationValidator(spec, storageSystem.recentChainData(), unaggregatedVerifier),
+            aggregateVerifier);
+    final SignedAggregateAndProof aggregate =
+        generator.validAggregateAndProof(storageSystem.getChainHead());
+
+    assertThat(validator.validate(ValidateableAttestation.aggregateFromValidator(spec, aggregate)))
+        .isCompletedWithValue(InternalValidationResult.ACCEPT);
+
+    // The aggregated attestation, selection proof and aggregator signatures are verified together
+    verify(aggregateVerifier).verify(anyList(), anyList(), anyList());
+    verifyNoInteractions(unaggregatedVerifier);
+  }
+
   @Test
   public void shouldRejectWhenAttestationValidatorRejects() {
     final SignedAggregateAndProof aggregate =
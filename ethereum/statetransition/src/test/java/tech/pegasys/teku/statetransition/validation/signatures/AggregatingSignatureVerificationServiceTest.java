@@ -48,7 +48,8 @@ public class AggregatingSignatureVerificationServiceTest {
 
   private final int queueCapacity = 50;
   private final int batchSize = 25;
-  private final int minBatchSizeToSplit = 5;
+  private final int smallBatchSize = 4;
+  private final Duration targetBatchDuration = Duration.ofMillis(50);
   private final int numThreads = 2;
   private final boolean strictThreadLimitEnabled = true;
   private final StubAsyncRunner completionRunner = new StubAsyncRunner();
@@ -62,7 +63,7 @@ public class AggregatingSignatureVerificationServiceTest {
           numThreads,
           queueCapacity,
           batchSize,
-          minBatchSizeToSplit,
+          targetBatchDuration,
           strictThreadLimitEnabled);
 
   @Test
@@ -128,7 +129,7 @@ public class AggregatingSignatureVerificationServiceTest {
 
   @Test
   public void verify_validSignatures_smallBatch() {
-    verifyValidSignatures(minBatchSizeToSplit - 1);
+    verifyValidSignatures(smallBatchSize);
   }
 
   @Test
@@ -208,7 +209,7 @@ public class AggregatingSignatureVerificationServiceTest {
 
   @Test
   public void verify_mixedSignatures_smallBatch() {
-    verifyMixedSignatures(minBatchSizeToSplit - 1);
+    verifyMixedSignatures(smallBatchSize);
   }
 
   private void verifyMixedSignatures(final int batchSize) {
@@ -251,7 +252,7 @@ public class AggregatingSignatureVerificationServiceTest {
             1,
             queueCapacity,
             batchSize,
-            minBatchSizeToSplit,
+            targetBatchDuration,
             strictThreadLimitEnabled);
     startService();
 
@@ -333,6 +334,93 @@ public class AggregatingSignatureVerificationServiceTest {
     assertThat(split.get(0).size()).isEqualTo(1);
   }
 
+  @Test
+  public void verify_shouldTakeHigherPriorityTasksFirst() {
+    startService();
+
+    final SafeFuture<Boolean> unaggregated = executeValidVerify(0, 0);
+    final SafeFuture<Boolean> aggregate =
+        executeValidVerify(SignatureVerificationPriority.AGGREGATE, 0, 1);
+    final SafeFuture<Boolean> block = executeValidVerify(SignatureVerificationPriority.BLOCK, 0, 2);
+
+    final List<SignatureTask> tasks = getPendingTasks();
+    assertThat(tasks)
+        .extracting(task -> task.result)
+        .containsExactly(block, aggregate, unaggregated);
+  }
+
+  @Test
+  public void verify_withFullQueue_shouldDisplaceLowerPriorityTask() {
+    startService();
+
+    final List<SafeFuture<Boolean>> queuedFutures = new ArrayList<>();
+    for (int i = 0; i < queueCapacity; i++) {
+      queuedFutures.add(executeValidVerify(0, i));
+    }
+    final SafeFuture<Boolean> future =
+        executeValidVerify(SignatureVerificationPriority.BLOCK, 0, 0);
+
+    assertThat(future).isNotDone();
+    final SafeFuture<Boolean> displacedFuture = queuedFutures.get(queueCapacity - 1);
+    assertThat(displacedFuture).isCompletedExceptionally();
+    assertThatThrownBy(displacedFuture::get)
+        .hasCauseInstanceOf(ServiceCapacityExceededException.class);
+    assertThat(service.batchSignatureTasks.size()).isEqualTo(queueCapacity);
+  }
+
+  @Test
+  public void verify_withFullQueue_shouldDisplaceHistoricalSyncTasksForAttestations() {
+    startService();
+
+    final List<SafeFuture<Boolean>> queuedFutures = new ArrayList<>();
+    for (int i = 0; i < queueCapacity; i++) {
+      queuedFutures.add(executeValidVerify(SignatureVerificationPriority.HISTORICAL_SYNC, 0, i));
+    }
+    final SafeFuture<Boolean> unaggregated = executeValidVerify(0, 0);
+
+    assertThat(unaggregated).isNotDone();
+    assertThatThrownBy(queuedFutures.get(queueCapacity - 1)::get)
+        .hasCauseInstanceOf(ServiceCapacityExceededException.class);
+    assertThat(getPendingTasks().get(0).result).isSameAs(unaggregated);
+  }
+
+  @Test
+  public void verify_mixedSignatures_shouldBisectFailedBatch() {
+    startService();
+
+    final SafeFuture<Boolean> invalid = executeInvalidVerify(0, 0);
+    final List<SafeFuture<Boolean>> validFutures = new ArrayList<>();
+    for (int i = 1; i < batchSize; i++) {
+      validFutures.add(executeValidVerify(i, i));
+    }
+    runPendingTasks();
+
+    assertThat(invalid).isCompletedWithValue(false);
+    validFutures.forEach(future -> assertThat(future).isCompletedWithValue(true));
+  }
+
+  @Test
+  public void updateBatchSizeLimit_shouldLimitBatchesToTargetDuration() {
+    assertThat(service.getBatchSizeLimit()).isEqualTo(batchSize);
+
+    // 5ms per task allows 10 tasks within the 50ms target
+    service.updateBatchSizeLimit(10, Duration.ofMillis(50).toNanos());
+    assertThat(service.getBatchSizeLimit()).isEqualTo(10);
+
+    // Much faster verification allows up to the maximum batch size
+    for (int i = 0; i < 20; i++) {
+      service.updateBatchSizeLimit(10, Duration.ofMillis(1).toNanos());
+    }
+    assertThat(service.getBatchSizeLimit()).isEqualTo(batchSize);
+  }
+
+  @Test
+  public void updateBatchSizeLimit_shouldNotReduceLimitBelowMinimum() {
+    service.updateBatchSizeLimit(1, Duration.ofSeconds(1).toNanos());
+    assertThat(service.getBatchSizeLimit())
+        .isEqualTo(AggregatingSignatureVerificationService.MIN_BATCH_SIZE_LIMIT);
+  }
+
   private void startService() {
     try {
       service.start().get(500, TimeUnit.MILLISECONDS);
@@ -364,6 +452,15 @@ public class AggregatingSignatureVerificationServiceTest {
     return executeVerify(keypairIndex, data, false);
   }
 
+  private SafeFuture<Boolean> executeValidVerify(
+      final SignatureVerificationPriority priority, final int keypairIndex, final int data) {
+    final BLSKeyPair keypair = keys.get(keypairIndex);
+    final Bytes message = Bytes.of(data);
+    return service
+        .withPriority(priority)
+        .verify(keypair.getPublicKey(), message, BLS.sign(keypair.getSecretKey(), message));
+  }
+
   private SafeFuture<Boolean> executeVerify(
       final int keypairIndex, final int data, final boolean useValidSignature) {
     final BLSKeyPair keypair = keys.get(keypairIndex);
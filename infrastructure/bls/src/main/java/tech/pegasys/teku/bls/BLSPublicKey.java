@@ -120,7 +120,7 @@ public final class BLSPublicKey {
         () -> bytesCompressed);
   }
 
-  private BLSPublicKey(Supplier<PublicKey> publicKey, Supplier<Bytes48> bytesCompressed) {
+  BLSPublicKey(Supplier<PublicKey> publicKey, Supplier<Bytes48> bytesCompressed) {
     this.publicKey = publicKey;
     this.bytesCompressed = bytesCompressed;
   }
@@ -0,0 +1,317 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.bls;
+
+import static tech.pegasys.teku.bls.BLSConstants.BLS_PUBKEY_SIZE;
+import static tech.pegasys.teku.bls.BLSConstants.BLS_PUBKEY_UNCOMPRESSED_SIZE;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes48;
+import tech.pegasys.teku.bls.impl.BlsException;
+import tech.pegasys.teku.bls.impl.PublicKey;
+
+/**
+ * Global cache of decompressed public keys, keyed by validator index.
+ *
+ * <p>Decompressing a public key requires a square root and a subgroup check, which dominates the
+ * cost of rebuilding the per-state public key caches after a restart or when a state is
+ * regenerated. Validator indices are stable, so the result is stored once in off-heap memory,
+ * shared by every state and optionally backed by a memory-mapped file so it survives restarts.
+ *
+ * <p>Each entry holds a version, a checksum, the compressed key and its uncompressed serialization.
+ * The compressed key is compared on every lookup so an index that maps to a different key (e.g. on
+ * a different fork before finalization) is never served the wrong point. The uncompressed point is
+ * loaded without validation, so the checksum covers both keys to detect entries left partially
+ * written by a crash. Readers are lock-free; the version acts as a sequence lock so a torn read is
+ * treated as a miss.
+ */
+public class BLSPublicKeyCache {
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final int VERSION_SIZE = Integer.BYTES;
+  static final int CHECKSUM_SIZE = Integer.BYTES;
+  static final int KEYS_OFFSET = VERSION_SIZE + CHECKSUM_SIZE;
+  static final int ENTRY_SIZE = KEYS_OFFSET + BLS_PUBKEY_SIZE + BLS_PUBKEY_UNCOMPRESSED_SIZE;
+  static final int ENTRIES_PER_CHUNK = 1 << 16;
+  static final long CHUNK_SIZE = (long) ENTRIES_PER_CHUNK * ENTRY_SIZE;
+  public static final String CACHE_FILE_NAME = "pubkey-cache-v2.bin";
+
+  private static final VarHandle VERSION =
+      MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+  private static final int EMPTY_VERSION = 0;
+
+  private static volatile BLSPublicKeyCache instance = inMemory();
+
+  private final Optional<FileChannel> channel;
+  private final AtomicLong entryCount = new AtomicLong();
+  private volatile ByteBuffer[] chunks;
+  private final Duration loadDuration;
+
+  private BLSPublicKeyCache(final Optional<FileChannel> channel) throws IOException {
+    final long start = System.nanoTime();
+    this.channel = channel;
+    this.chunks = mapExistingChunks();
+    this.loadDuration = Duration.ofNanos(System.nanoTime() - start);
+  }
+
+  public static BLSPublicKeyCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the global cache with one persisted in the specified directory, loading any entries
+   * already stored there. Should be called once on startup, before states are loaded.
+   *
+   * @param directory the directory to store the cache file in
+   * @return the new global cache
+   */
+  public static synchronized BLSPublicKeyCache enablePersistence(final Path directory) {
+    final BLSPublicKeyCache cache = persistent(directory.resolve(CACHE_FILE_NAME));
+    final BLSPublicKeyCache previous = instance;
+    instance = cache;
+    previous.close();
+    LOG.debug(
+        "Loaded {} public keys from {} in {} ms",
+        cache.getEntryCount(),
+        directory,
+        cache.getLoadDuration().toMillis());
+    return cache;
+  }
+
+  public static BLSPublicKeyCache inMemory() {
+    try {
+      return new BLSPublicKeyCache(Optional.empty());
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static BLSPublicKeyCache persistent(final Path file) {
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      return new BLSPublicKeyCache(
+          Optional.of(
+              FileChannel.open(
+                  file,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.READ,
+                  StandardOpenOption.WRITE)));
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to open public key cache " + file, e);
+    }
+  }
+
+  /**
+   * Create a public key for the validator at the specified index. As with {@link
+   * BLSPublicKey#fromBytesCompressed(Bytes48)} the key is decompressed lazily, but the cache is
+   * checked first and valid keys are stored once decompressed.
+   *
+   * @param validatorIndex the index of the validator in the registry
+   * @param bytesCompressed the compressed public key of that validator
+   * @return the public key
+   */
+  public BLSPublicKey get(final int validatorIndex, final Bytes48 bytesCompressed) {
+    return new BLSPublicKey(
+        Suppliers.memoize(() -> loadPublicKey(validatorIndex, bytesCompressed)),
+        () -> bytesCompressed);
+  }
+
+  public long getEntryCount() {
+    return entryCount.get();
+  }
+
+  public long getOffHeapSizeBytes() {
+    return Arrays.stream(chunks).filter(chunk -> chunk != null).count() * CHUNK_SIZE;
+  }
+
+  public Duration getLoadDuration() {
+    return loadDuration;
+  }
+
+  public boolean isPersistent() {
+    return channel.isPresent();
+  }
+
+  public void close() {
+    channel.ifPresent(
+        fileChannel -> {
+          try {
+            fileChannel.close();
+          } catch (final IOException e) {
+            LOG.warn("Failed to close public key cache", e);
+          }
+        });
+  }
+
+  private PublicKey loadPublicKey(final int validatorIndex, final Bytes48 bytesCompressed) {
+    final Optional<PublicKey> cached = read(validatorIndex, bytesCompressed);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    final PublicKey publicKey = BLS.getBlsImpl().publicKeyFromCompressed(bytesCompressed);
+    if (validatorIndex >= 0 && publicKey.isValid()) {
+      write(validatorIndex, bytesCompressed, publicKey.toBytesUncompressed());
+    }
+    return publicKey;
+  }
+
+  @VisibleForTesting
+  Optional<PublicKey> read(final int validatorIndex, final Bytes48 bytesCompressed) {
+    final ByteBuffer chunk = getChunk(validatorIndex);
+    if (chunk == null) {
+      return Optional.empty();
+    }
+    final int offset = entryOffset(validatorIndex);
+    final int version = (int) VERSION.getAcquire(chunk, offset);
+    if (version == EMPTY_VERSION || isWriting(version)) {
+      return Optional.empty();
+    }
+    final byte[] compressed = new byte[BLS_PUBKEY_SIZE];
+    final byte[] uncompressed = new byte[BLS_PUBKEY_UNCOMPRESSED_SIZE];
+    final ByteBuffer entry = chunk.duplicate().order(ByteOrder.BIG_ENDIAN);
+    entry.position(offset + VERSION_SIZE);
+    final int checksum = entry.getInt();
+    entry.get(compressed).get(uncompressed);
+    VarHandle.loadLoadFence();
+    if ((int) VERSION.getOpaque(chunk, offset) != version
+        || !bytesCompressed.equals(Bytes48.wrap(compressed))) {
+      return Optional.empty();
+    }
+    if (checksum != checksum(compressed, uncompressed)) {
+      LOG.debug("Ignoring corrupt public key cache entry for validator {}", validatorIndex);
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(
+          BLS.getBlsImpl().publicKeyFromValidatedUncompressed(Bytes.wrap(uncompressed)));
+    } catch (final BlsException e) {
+      LOG.debug("Ignoring corrupt public key cache entry for validator {}", validatorIndex, e);
+      return Optional.empty();
+    }
+  }
+
+  private synchronized void write(
+      final int validatorIndex, final Bytes48 bytesCompressed, final Bytes uncompressed) {
+    final ByteBuffer chunk;
+    try {
+      chunk = getOrCreateChunk(validatorIndex);
+    } catch (final IOException e) {
+      LOG.warn("Unable to extend public key cache", e);
+      return;
+    }
+    final int offset = entryOffset(validatorIndex);
+    final int previousVersion = (int) VERSION.getOpaque(chunk, offset);
+    // An odd version means a previous write was interrupted, e.g. by the process being killed
+    final int writingVersion = previousVersion | 1;
+    VERSION.setOpaque(chunk, offset, writingVersion);
+    VarHandle.storeStoreFence();
+    final byte[] compressed = bytesCompressed.toArrayUnsafe();
+    final byte[] uncompressedBytes = uncompressed.toArrayUnsafe();
+    final ByteBuffer entry = chunk.duplicate().order(ByteOrder.BIG_ENDIAN);
+    entry.position(offset + VERSION_SIZE);
+    entry
+        .putInt(checksum(compressed, uncompressedBytes))
+        .put(compressed)
+        .put(uncompressedBytes);
+    VERSION.setRelease(chunk, offset, writingVersion + 1);
+    if (previousVersion == EMPTY_VERSION || isWriting(previousVersion)) {
+      entryCount.incrementAndGet();
+    }
+  }
+
+  private ByteBuffer getChunk(final int validatorIndex) {
+    if (validatorIndex < 0) {
+      return null;
+    }
+    final ByteBuffer[] currentChunks = chunks;
+    final int chunkIndex = validatorIndex / ENTRIES_PER_CHUNK;
+    return chunkIndex < currentChunks.length ? currentChunks[chunkIndex] : null;
+  }
+
+  private ByteBuffer getOrCreateChunk(final int validatorIndex) throws IOException {
+    final ByteBuffer existing = getChunk(validatorIndex);
+    if (existing != null) {
+      return existing;
+    }
+    final int chunkIndex = validatorIndex / ENTRIES_PER_CHUNK;
+    final ByteBuffer[] updatedChunks =
+        Arrays.copyOf(chunks, Math.max(chunks.length, chunkIndex + 1));
+    final ByteBuffer chunk = createChunk(chunkIndex);
+    updatedChunks[chunkIndex] = chunk;
+    chunks = updatedChunks;
+    return chunk;
+  }
+
+  private ByteBuffer createChunk(final int chunkIndex) throws IOException {
+    if (channel.isEmpty()) {
+      return ByteBuffer.allocateDirect(Math.toIntExact(CHUNK_SIZE));
+    }
+    return channel
+        .get()
+        .map(FileChannel.MapMode.READ_WRITE, chunkIndex * CHUNK_SIZE, CHUNK_SIZE);
+  }
+
+  private ByteBuffer[] mapExistingChunks() throws IOException {
+    if (channel.isEmpty()) {
+      return new ByteBuffer[0];
+    }
+    final int chunkCount = Math.toIntExact((channel.get().size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    final ByteBuffer[] existingChunks = new ByteBuffer[chunkCount];
+    for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+      final ByteBuffer chunk = createChunk(chunkIndex);
+      for (int i = 0; i < ENTRIES_PER_CHUNK; i++) {
+        final int version = (int) VERSION.getOpaque(chunk, i * ENTRY_SIZE);
+        if (version != EMPTY_VERSION && !isWriting(version)) {
+          entryCount.incrementAndGet();
+        }
+      }
+      existingChunks[chunkIndex] = chunk;
+    }
+    return existingChunks;
+  }
+
+  private static int checksum(final byte[] compressed, final byte[] uncompressed) {
+    final CRC32C crc = new CRC32C();
+    crc.update(compressed);
+    crc.update(uncompressed);
+    return (int) crc.getValue();
+  }
+
+  private static int entryOffset(final int validatorIndex) {
+    return (validatorIndex % ENTRIES_PER_CHUNK) * ENTRY_SIZE;
+  }
+
+  private static boolean isWriting(final int version) {
+    return (version & 1) != 0;
+  }
+}
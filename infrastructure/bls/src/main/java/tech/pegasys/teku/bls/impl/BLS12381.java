@@ -69,6 +69,17 @@ public interface BLS12381 {
    */
   PublicKey publicKeyFromCompressed(Bytes48 compressedPublicKeyBytes) throws BlsException;
 
+  /**
+   * Create a PublicKey from the uncompressed bytes of a public key that has already been validated
+   *
+   * @param uncompressedPublicKeyBytes 96 bytes from {@link PublicKey#toBytesUncompressed()} of a
+   *     public key which was valid
+   * @return a public key which is assumed to be valid without repeating the group membership check
+   * @throws BlsException If the supplied bytes are not a point on the curve
+   */
+  PublicKey publicKeyFromValidatedUncompressed(Bytes uncompressedPublicKeyBytes)
+      throws BlsException;
+
   /**
    * Decode a signature from its <em>compressed</em> form serialized representation.
    *
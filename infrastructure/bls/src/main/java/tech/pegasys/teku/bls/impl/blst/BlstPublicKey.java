@@ -19,6 +19,7 @@ import com.google.common.base.Suppliers;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes48;
 import supranational.blst.P1;
 import supranational.blst.P1_Affine;
@@ -44,6 +45,16 @@ class BlstPublicKey implements PublicKey {
     }
   }
 
+  static BlstPublicKey fromValidatedUncompressedBytes(final Bytes uncompressed) {
+    try {
+      // Validity was established when the key was first decompressed
+      return new BlstPublicKey(
+          new P1_Affine(uncompressed.toArrayUnsafe()), () -> false, () -> true);
+    } catch (Exception e) {
+      throw new BlsException("Deserialization of public key bytes failed: " + uncompressed, e);
+    }
+  }
+
   static BlstPublicKey fromPublicKey(PublicKey publicKey) {
     if (publicKey instanceof BlstPublicKey) {
       return (BlstPublicKey) publicKey;
@@ -71,11 +82,22 @@ class BlstPublicKey implements PublicKey {
   }
 
   final P1_Affine ecPoint;
-  private final Supplier<Boolean> isInfinity = Suppliers.memoize(this::checkForInfinity);
-  private final Supplier<Boolean> isInGroup = Suppliers.memoize(this::checkGroupMembership);
+  private final Supplier<Boolean> isInfinity;
+  private final Supplier<Boolean> isInGroup;
 
   public BlstPublicKey(P1_Affine ecPoint) {
     this.ecPoint = ecPoint;
+    this.isInfinity = Suppliers.memoize(this::checkForInfinity);
+    this.isInGroup = Suppliers.memoize(this::checkGroupMembership);
+  }
+
+  private BlstPublicKey(
+      final P1_Affine ecPoint,
+      final Supplier<Boolean> isInfinity,
+      final Supplier<Boolean> isInGroup) {
+    this.ecPoint = ecPoint;
+    this.isInfinity = isInfinity;
+    this.isInGroup = isInGroup;
   }
 
   @Override
@@ -112,6 +134,11 @@ class BlstPublicKey implements PublicKey {
     return Bytes48.wrap(ecPoint.compress());
   }
 
+  @Override
+  public Bytes toBytesUncompressed() {
+    return Bytes.wrap(ecPoint.serialize());
+  }
+
   @Override
   public int hashCode() {
     return toBytesCompressed().hashCode();
@@ -0,0 +1,136 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.bls;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.tuweni.bytes.Bytes48;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.impl.blst.BlstLoader;
+
+public class BLSPublicKeyCacheTest {
+
+  private final BLSKeyPair keyPair1 = BLSTestUtil.randomKeyPair(1);
+  private final BLSKeyPair keyPair2 = BLSTestUtil.randomKeyPair(2);
+  private final Bytes48 publicKey1 = keyPair1.getPublicKey().toBytesCompressed();
+  private final Bytes48 publicKey2 = keyPair2.getPublicKey().toBytesCompressed();
+
+  @BeforeAll
+  public static void init() {
+    BLS.setBlsImplementation(BlstLoader.INSTANCE.orElseThrow());
+  }
+
+  @AfterAll
+  public static void cleanup() {
+    BLS.resetBlsImplementation();
+  }
+
+  @Test
+  void shouldStoreValidKeyOnceDecompressed() {
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.inMemory();
+    final BLSPublicKey publicKey = cache.get(3, publicKey1);
+    assertThat(cache.read(3, publicKey1)).isEmpty();
+
+    assertThat(publicKey.isValid()).isTrue();
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+    assertThat(cache.getOffHeapSizeBytes()).isEqualTo(BLSPublicKeyCache.CHUNK_SIZE);
+    assertThat(cache.read(3, publicKey1))
+        .hasValueSatisfying(key -> assertThat(key.toBytesCompressed()).isEqualTo(publicKey1));
+  }
+
+  @Test
+  void shouldVerifySignaturesWithCachedKey() {
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.inMemory();
+    cache.get(0, publicKey1).isValid();
+
+    final BLSPublicKey cachedKey = cache.get(0, publicKey1);
+    final Bytes48 message = Bytes48.ZERO;
+    final BLSSignature signature = BLS.sign(keyPair1.getSecretKey(), message);
+    assertThat(BLS.verify(cachedKey, message, signature)).isTrue();
+  }
+
+  @Test
+  void shouldNotReturnEntryForDifferentKeyAtSameIndex() {
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.inMemory();
+    cache.get(5, publicKey1).isValid();
+
+    assertThat(cache.read(5, publicKey2)).isEmpty();
+    final BLSPublicKey publicKey = cache.get(5, publicKey2);
+    assertThat(publicKey.isValid()).isTrue();
+    assertThat(publicKey.toBytesCompressed()).isEqualTo(publicKey2);
+
+    // Entry is replaced with the most recent key
+    assertThat(cache.read(5, publicKey1)).isEmpty();
+    assertThat(cache.read(5, publicKey2)).isPresent();
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotStoreInvalidKeys() {
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.inMemory();
+    final Bytes48 infinity = Bytes48.fromHexString("0xc0" + "00".repeat(47));
+    assertThat(cache.get(1, infinity).isValid()).isFalse();
+
+    assertThat(cache.getEntryCount()).isZero();
+  }
+
+  @Test
+  void shouldLoadPersistedEntries(@TempDir final Path tempDir) {
+    final Path file = tempDir.resolve(BLSPublicKeyCache.CACHE_FILE_NAME);
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.persistent(file);
+    cache.get(2, publicKey1).isValid();
+    cache.get(BLSPublicKeyCache.ENTRIES_PER_CHUNK + 7, publicKey2).isValid();
+    cache.close();
+
+    final BLSPublicKeyCache reloaded = BLSPublicKeyCache.persistent(file);
+    assertThat(reloaded.getEntryCount()).isEqualTo(2);
+    assertThat(reloaded.getOffHeapSizeBytes()).isEqualTo(2 * BLSPublicKeyCache.CHUNK_SIZE);
+    assertThat(reloaded.read(2, publicKey1)).isPresent();
+    assertThat(reloaded.read(BLSPublicKeyCache.ENTRIES_PER_CHUNK + 7, publicKey2)).isPresent();
+    assertThat(reloaded.read(3, publicKey1)).isEmpty();
+    reloaded.close();
+  }
+
+  @Test
+  void shouldIgnorePersistedEntryWithCorruptUncompressedKey(@TempDir final Path tempDir)
+      throws IOException {
+    final Path file = tempDir.resolve(BLSPublicKeyCache.CACHE_FILE_NAME);
+    final BLSPublicKeyCache cache = BLSPublicKeyCache.persistent(file);
+    cache.get(2, publicKey1).isValid();
+    cache.close();
+
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      final long uncompressedOffset =
+          2L * BLSPublicKeyCache.ENTRY_SIZE
+              + BLSPublicKeyCache.KEYS_OFFSET
+              + BLSConstants.BLS_PUBKEY_SIZE;
+      channel.write(ByteBuffer.wrap(new byte[] {0x01, 0x02}), uncompressedOffset + 10);
+    }
+
+    final BLSPublicKeyCache reloaded = BLSPublicKeyCache.persistent(file);
+    assertThat(reloaded.read(2, publicKey1)).isEmpty();
+    final BLSPublicKey publicKey = reloaded.get(2, publicKey1);
+    assertThat(publicKey.isValid()).isTrue();
+    assertThat(reloaded.read(2, publicKey1)).isPresent();
+    reloaded.close();
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.infrastructure.ssz.tree;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import tech.pegasys.teku.infrastructure.crypto.MessageDigestFactory;
+
+/**
+ * Computes SHA-256 over a batch of 64-byte (left root, right root) pairs in a single call.
+ *
+ * <p>This is the extension point for multi-buffer or natively accelerated SHA-256
+ * implementations: the whole level of dirty branch nodes is handed over at once so an
+ * implementation is free to hash several pairs in parallel lanes. The {@link #createDefault()}
+ * implementation is a pure-Java fallback which reuses a single {@link MessageDigest} and avoids
+ * the intermediate {@link org.apache.tuweni.bytes.Bytes} allocations of the per-node path.
+ *
+ * <p>Instances are not required to be thread safe. A new instance is obtained for every {@link
+ * BatchTreeHasher} run.
+ */
+public interface BatchHasher {
+
+  int PAIR_SIZE = 64;
+  int HASH_SIZE = 32;
+
+  /**
+   * Hashes {@code count} consecutive 64-byte chunks of {@code input} and writes the resulting
+   * 32-byte hashes consecutively into {@code output}
+   */
+  void hashPairs(byte[] input, int count, byte[] output);
+
+  static BatchHasher createDefault() {
+    return new MessageDigestBatchHasher(MessageDigestFactory.createSha256());
+  }
+
+  class MessageDigestBatchHasher implements BatchHasher {
+    private final MessageDigest messageDigest;
+
+    public MessageDigestBatchHasher(final MessageDigest messageDigest) {
+      this.messageDigest = messageDigest;
+    }
+
+    @Override
+    public void hashPairs(final byte[] input, final int count, final byte[] output) {
+      try {
+        for (int i = 0; i < count; i++) {
+          messageDigest.update(input, i * PAIR_SIZE, PAIR_SIZE);
+          messageDigest.digest(output, i * HASH_SIZE, HASH_SIZE);
+        }
+      } catch (final DigestException e) {
+        throw new IllegalStateException("Failed to compute SHA-256 digest", e);
+      }
+    }
+  }
+}
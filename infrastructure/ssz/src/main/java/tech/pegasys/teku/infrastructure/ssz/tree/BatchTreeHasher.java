@@ -0,0 +1,190 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.infrastructure.ssz.tree;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * Calculates the hash tree root of a tree level-by-level rather than depth-first.
+ *
+ * <p>All branch nodes without a cached hash are first collected and grouped by their height above
+ * the topmost nodes with already known roots. Each group is then hashed in batches of up to {@link
+ * #MAX_BATCH_SIZE} pairs via a {@link BatchHasher} and the results are stored in the nodes' lazy
+ * hash fields. Since all nodes of a group only depend on nodes of lower groups, every batch can be
+ * hashed in one go.
+ *
+ * <p>When the number of nodes to hash exceeds the configured threshold, each level is partitioned
+ * into ranges which are hashed on a {@link ForkJoinPool}. Levels rather than subtrees are
+ * partitioned since SSZ lists are sparse trees: splitting at a fixed depth would leave e.g. the
+ * whole validator registry within a single subtree.
+ */
+public class BatchTreeHasher {
+
+  static final int MAX_BATCH_SIZE = 1024;
+  static final int PARALLEL_TASK_SIZE = 16 * MAX_BATCH_SIZE;
+  public static final int DEFAULT_PARALLEL_HASHING_THRESHOLD = 4 * PARALLEL_TASK_SIZE;
+
+  private static volatile Supplier<BatchHasher> batchHasherFactory = BatchHasher::createDefault;
+  private static volatile ForkJoinPool parallelHashingPool = ForkJoinPool.commonPool();
+  private static volatile int parallelHashingThreshold = DEFAULT_PARALLEL_HASHING_THRESHOLD;
+
+  /**
+   * Replaces the {@link BatchHasher} implementation used for all subsequent hash tree root
+   * calculations.
+   */
+  @VisibleForTesting
+  static void setBatchHasherFactory(final Supplier<BatchHasher> batchHasherFactory) {
+    checkNotNull(batchHasherFactory);
+    BatchTreeHasher.batchHasherFactory = batchHasherFactory;
+  }
+
+  /**
+   * Configures parallel hashing of large trees (e.g. a freshly loaded {@code BeaconState}).
+   *
+   * @param pool the pool to run hashing tasks on
+   * @param minDirtyNodes the minimal number of branch nodes without a cached hash for the tree to
+   *     be hashed in parallel. Use {@link Integer#MAX_VALUE} to disable parallel hashing
+   */
+  public static void configureParallelHashing(final ForkJoinPool pool, final int minDirtyNodes) {
+    checkNotNull(pool);
+    checkArgument(minDirtyNodes > 0, "minDirtyNodes should be positive");
+    BatchTreeHasher.parallelHashingPool = pool;
+    BatchTreeHasher.parallelHashingThreshold = minDirtyNodes;
+  }
+
+  static Bytes32 hashTreeRoot(final SimpleBranchNode root) {
+    final List<List<SimpleBranchNode>> levels = new ArrayList<>();
+    collectDirtyNodes(root, levels);
+    if (!levels.isEmpty()) {
+      hashLevels(levels);
+    }
+    return root.hashTreeRoot();
+  }
+
+  /**
+   * Collects the branch nodes which don't have a cached hash yet
+   *
+   * @return the height of the node above its topmost descendants with known roots or 0 if the
+   *     node root is already known (or is cheap to calculate by the node itself)
+   */
+  @SuppressWarnings("ReferenceComparison")
+  private static int collectDirtyNodes(
+      final TreeNode node, final List<List<SimpleBranchNode>> levels) {
+    if (!(node instanceof SimpleBranchNode)) {
+      return 0;
+    }
+    final SimpleBranchNode branchNode = (SimpleBranchNode) node;
+    if (branchNode.isHashCached()) {
+      return 0;
+    }
+    final TreeNode left = branchNode.left();
+    final TreeNode right = branchNode.right();
+    final int leftHeight = collectDirtyNodes(left, levels);
+    // default subtrees commonly reference the very same child twice
+    final int rightHeight = left == right ? leftHeight : collectDirtyNodes(right, levels);
+    final int height = Math.max(leftHeight, rightHeight) + 1;
+    while (levels.size() < height) {
+      levels.add(new ArrayList<>());
+    }
+    levels.get(height - 1).add(branchNode);
+    return height;
+  }
+
+  private static void hashLevels(final List<List<SimpleBranchNode>> levels) {
+    final int dirtyNodesCount = levels.stream().mapToInt(List::size).sum();
+    final ForkJoinPool pool = parallelHashingPool;
+    final boolean parallel = dirtyNodesCount >= parallelHashingThreshold;
+    final int maxLevelSize = levels.stream().mapToInt(List::size).max().orElse(0);
+    final BatchHashingBuffers buffers = new BatchHashingBuffers(maxLevelSize);
+    for (List<SimpleBranchNode> level : levels) {
+      if (parallel && level.size() > PARALLEL_TASK_SIZE) {
+        pool.invoke(new HashLevelTask(level, 0, level.size()));
+      } else {
+        buffers.hashNodes(level, 0, level.size());
+      }
+    }
+  }
+
+  /**
+   * Hashes a range of a single level. All nodes of a level are independent of each other so the
+   * range is recursively split and hashed concurrently
+   */
+  private static class HashLevelTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<SimpleBranchNode> level;
+    private final int from;
+    private final int to;
+
+    private HashLevelTask(final List<SimpleBranchNode> level, final int from, final int to) {
+      this.level = level;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_TASK_SIZE) {
+        new BatchHashingBuffers(to - from).hashNodes(level, from, to);
+      } else {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new HashLevelTask(level, from, middle), new HashLevelTask(level, middle, to));
+      }
+    }
+  }
+
+  private static class BatchHashingBuffers {
+    private final BatchHasher batchHasher = batchHasherFactory.get();
+    private final int batchSize;
+    private final byte[] input;
+    private final byte[] output;
+    private final MutableBytes inputBytes;
+
+    private BatchHashingBuffers(final int maxNodesCount) {
+      this.batchSize = Math.min(maxNodesCount, MAX_BATCH_SIZE);
+      this.input = new byte[batchSize * BatchHasher.PAIR_SIZE];
+      this.output = new byte[batchSize * BatchHasher.HASH_SIZE];
+      this.inputBytes = MutableBytes.wrap(input);
+    }
+
+    void hashNodes(final List<SimpleBranchNode> nodes, final int from, final int to) {
+      for (int batchStart = from; batchStart < to; batchStart += batchSize) {
+        final int count = Math.min(batchSize, to - batchStart);
+        for (int i = 0; i < count; i++) {
+          final SimpleBranchNode node = nodes.get(batchStart + i);
+          final int offset = i * BatchHasher.PAIR_SIZE;
+          node.left().hashTreeRoot().copyTo(inputBytes, offset);
+          node.right().hashTreeRoot().copyTo(inputBytes, offset + Bytes32.SIZE);
+        }
+        batchHasher.hashPairs(input, count, output);
+        for (int i = 0; i < count; i++) {
+          final int offset = i * BatchHasher.HASH_SIZE;
+          final byte[] hash = Arrays.copyOfRange(output, offset, offset + Bytes32.SIZE);
+          nodes.get(batchStart + i).setCachedHash(Bytes32.wrap(hash));
+        }
+      }
+    }
+  }
+}
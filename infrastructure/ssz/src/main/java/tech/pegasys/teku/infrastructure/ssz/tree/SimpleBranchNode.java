@@ -60,8 +60,7 @@ class SimpleBranchNode implements BranchNode, TreeNode {
   public Bytes32 hashTreeRoot() {
     Bytes32 cachedHash = this.cachedHash;
     if (cachedHash == null) {
-      cachedHash = BranchNode.super.hashTreeRoot();
-      this.cachedHash = cachedHash;
+      cachedHash = BatchTreeHasher.hashTreeRoot(this);
     }
     return cachedHash;
   }
@@ -76,6 +75,14 @@ class SimpleBranchNode implements BranchNode, TreeNode {
     return cachedHash;
   }
 
+  boolean isHashCached() {
+    return cachedHash != null;
+  }
+
+  void setCachedHash(final Bytes32 hash) {
+    this.cachedHash = hash;
+  }
+
   @Override
   @SuppressWarnings("ReferenceComparison")
   public String toString() {
@@ -0,0 +1,117 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.infrastructure.ssz.tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.crypto.MessageDigestFactory;
+
+public class BatchTreeHasherTest {
+
+  @Test
+  void hashTreeRoot_shouldMatchDepthFirstHashing() {
+    final int leafCount = BatchTreeHasher.MAX_BATCH_SIZE * 3 + 17;
+    final TreeNode batchHashed = createTree(leafCount);
+    final TreeNode depthFirstHashed = createTree(leafCount);
+
+    assertThat(batchHashed.hashTreeRoot())
+        .isEqualTo(depthFirstHashed.hashTreeRoot(MessageDigestFactory.createSha256()));
+  }
+
+  @Test
+  void hashTreeRoot_shouldCacheHashesOfAllBranchNodes() {
+    final TreeNode tree = createTree(33);
+    tree.hashTreeRoot();
+
+    tree.iterateAll(
+        node -> {
+          if (node instanceof SimpleBranchNode) {
+            assertThat(((SimpleBranchNode) node).isHashCached()).isTrue();
+          }
+        });
+  }
+
+  @Test
+  void hashTreeRoot_shouldOnlyRehashUpdatedPath() {
+    final TreeNode tree = createTree(64);
+    tree.hashTreeRoot();
+
+    final TreeNode updated = tree.updated(64 + 5, TreeTest.newTestLeaf(1000));
+    final TreeNode expected = createTree(64).updated(64 + 5, TreeTest.newTestLeaf(1000));
+
+    assertThat(updated.hashTreeRoot())
+        .isEqualTo(expected.hashTreeRoot(MessageDigestFactory.createSha256()));
+  }
+
+  @Test
+  void hashTreeRoot_shouldHandleSharedDefaultSubtrees() {
+    final TreeNode defaultElement = createTree(3);
+    final TreeNode batchHashed = TreeUtil.createDefaultTree(1 << 20, defaultElement);
+    final TreeNode depthFirstHashed = TreeUtil.createDefaultTree(1 << 20, createTree(3));
+
+    assertThat(batchHashed.hashTreeRoot())
+        .isEqualTo(depthFirstHashed.hashTreeRoot(MessageDigestFactory.createSha256()));
+  }
+
+  @Test
+  void hashTreeRoot_shouldUsePluggedBatchHasher() {
+    final Bytes32 expected = createTree(8).hashTreeRoot();
+    final int[] hashedPairs = new int[1];
+    try {
+      BatchTreeHasher.setBatchHasherFactory(
+          () -> {
+            final BatchHasher delegate = BatchHasher.createDefault();
+            return (input, count, output) -> {
+              hashedPairs[0] += count;
+              delegate.hashPairs(input, count, output);
+            };
+          });
+
+      assertThat(createTree(8).hashTreeRoot()).isEqualTo(expected);
+      assertThat(hashedPairs[0]).isEqualTo(7);
+    } finally {
+      BatchTreeHasher.setBatchHasherFactory(BatchHasher::createDefault);
+    }
+  }
+
+  @Test
+  void hashTreeRoot_shouldMatchDepthFirstHashingWhenHashedInParallel() {
+    final int leafCount = BatchTreeHasher.PARALLEL_TASK_SIZE * 4 + 5;
+    final TreeNode batchHashed = createTree(leafCount);
+    final TreeNode depthFirstHashed = createTree(leafCount);
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BatchTreeHasher.configureParallelHashing(pool, 1);
+
+      assertThat(batchHashed.hashTreeRoot())
+          .isEqualTo(depthFirstHashed.hashTreeRoot(MessageDigestFactory.createSha256()));
+    } finally {
+      BatchTreeHasher.configureParallelHashing(
+          ForkJoinPool.commonPool(), BatchTreeHasher.DEFAULT_PARALLEL_HASHING_THRESHOLD);
+      pool.shutdown();
+    }
+  }
+
+  private static TreeNode createTree(final int leafCount) {
+    final List<LeafNode> leaves =
+        IntStream.range(0, leafCount).mapToObj(TreeTest::newTestLeaf).collect(Collectors.toList());
+    return TreeUtil.createTree(leaves);
+  }
+}
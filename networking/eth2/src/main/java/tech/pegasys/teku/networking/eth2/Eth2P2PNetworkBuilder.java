@@ -32,6 +32,7 @@ import tech.pegasys.teku.infrastructure.events.EventChannels;
 import tech.pegasys.teku.infrastructure.metrics.SettableLabelledGauge;
 import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.infrastructure.time.TimeProvider;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
 import tech.pegasys.teku.networking.eth2.gossip.forks.GossipForkManager;
 import tech.pegasys.teku.networking.eth2.gossip.forks.GossipForkSubscriptions;
@@ -164,7 +165,14 @@ public class Eth2P2PNetworkBuilder {
     // Build core network and inject eth2 handlers
     final DiscoveryNetwork<?> network = buildNetwork(gossipEncoding, syncCommitteeSubnetService);
 
-    final GossipForkManager gossipForkManager = buildGossipForkManager(gossipEncoding, network);
+    final GossipScheduler gossipScheduler =
+        new GossipScheduler(
+            metricsSystem,
+            asyncRunner,
+            timeProvider,
+            GossipScheduler.DEFAULT_MAX_CONCURRENT_TASKS);
+    final GossipForkManager gossipForkManager =
+        buildGossipForkManager(gossipEncoding, network, gossipScheduler);
 
     return new ActiveEth2P2PNetwork(
         config.getSpec(),
@@ -182,13 +190,16 @@ public class Eth2P2PNetworkBuilder {
   }
 
   private GossipForkManager buildGossipForkManager(
-      final GossipEncoding gossipEncoding, final DiscoveryNetwork<?> network) {
+      final GossipEncoding gossipEncoding,
+      final DiscoveryNetwork<?> network,
+      final GossipScheduler gossipScheduler) {
     final GossipForkManager.Builder gossipForkManagerBuilder =
         GossipForkManager.builder().spec(spec).recentChainData(recentChainData);
     spec.getEnabledMilestones().stream()
         .map(
             forkAndSpecMilestone ->
-                createSubscriptions(forkAndSpecMilestone, network, gossipEncoding))
+                createSubscriptions(
+                    forkAndSpecMilestone, network, gossipEncoding, gossipScheduler))
         .forEach(gossipForkManagerBuilder::fork);
     return gossipForkManagerBuilder.build();
   }
@@ -196,13 +207,14 @@ public class Eth2P2PNetworkBuilder {
   private GossipForkSubscriptions createSubscriptions(
       final ForkAndSpecMilestone forkAndSpecMilestone,
       final DiscoveryNetwork<?> network,
-      final GossipEncoding gossipEncoding) {
+      final GossipEncoding gossipEncoding,
+      final GossipScheduler gossipScheduler) {
     switch (forkAndSpecMilestone.getSpecMilestone()) {
       case PHASE0:
         return new GossipForkSubscriptionsPhase0(
             forkAndSpecMilestone.getFork(),
             spec,
-            asyncRunner,
+            gossipScheduler,
             metricsSystem,
             network,
             recentChainData,
@@ -217,7 +229,7 @@ public class Eth2P2PNetworkBuilder {
         return new GossipForkSubscriptionsAltair(
             forkAndSpecMilestone.getFork(),
             spec,
-            asyncRunner,
+            gossipScheduler,
             metricsSystem,
             network,
             recentChainData,
@@ -234,7 +246,7 @@ public class Eth2P2PNetworkBuilder {
         return new GossipForkSubscriptionsBellatrix(
             forkAndSpecMilestone.getFork(),
             spec,
-            asyncRunner,
+            gossipScheduler,
             metricsSystem,
             network,
             recentChainData,
@@ -251,7 +263,7 @@ public class Eth2P2PNetworkBuilder {
         return new GossipForkSubscriptionsCapella(
             forkAndSpecMilestone.getFork(),
             spec,
-            asyncRunner,
+            gossipScheduler,
             metricsSystem,
             network,
             recentChainData,
@@ -269,7 +281,7 @@ public class Eth2P2PNetworkBuilder {
         return new GossipForkSubscriptionsEip4844(
             forkAndSpecMilestone.getFork(),
             spec,
-            asyncRunner,
+            gossipScheduler,
             metricsSystem,
             network,
             recentChainData,
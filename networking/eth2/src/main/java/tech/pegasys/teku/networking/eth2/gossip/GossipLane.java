@@ -0,0 +1,54 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.networking.eth2.gossip;
+
+/**
+ * The queue a gossip message waits in before being processed by {@link GossipScheduler}. Lanes
+ * are served in proportion to their weight so that a flood of messages on one topic can't starve
+ * the others.
+ */
+public enum GossipLane {
+  BLOCK(16, 1_024, false),
+  AGGREGATE(8, 4_096, false),
+  SYNC_COMMITTEE(4, 4_096, false),
+  // Unaggregated attestations are only useful while recent so shed the oldest when full
+  ATTESTATION(4, 16_384, true),
+  OPERATION(1, 1_024, false);
+
+  private final int weight;
+  private final int capacity;
+  private final boolean dropOldestWhenFull;
+
+  GossipLane(final int weight, final int capacity, final boolean dropOldestWhenFull) {
+    this.weight = weight;
+    this.capacity = capacity;
+    this.dropOldestWhenFull = dropOldestWhenFull;
+  }
+
+  int getWeight() {
+    return weight;
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  boolean isDropOldestWhenFull() {
+    return dropOldestWhenFull;
+  }
+
+  String getMetricLabel() {
+    return name().toLowerCase();
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.networking.eth2.gossip;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.infrastructure.async.ExceptionThrowingFutureSupplier;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.metrics.MetricsHistogram;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.TimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+
+/**
+ * Admits gossip messages for processing through a bounded queue per {@link GossipLane}.
+ *
+ * <p>At most {@code maxConcurrentTasks} messages are being handed off to the underlying {@link
+ * AsyncRunner} at a time. A slot is freed once the processing task has returned its future, so
+ * work that continues asynchronously, such as batched signature verification, doesn't hold it.
+ * Queued messages are taken using smooth weighted round robin across the non-empty lanes. When a
+ * lane is full the new message is dropped, or for lanes that prefer fresh messages the oldest
+ * queued message is dropped instead. Dropped messages fail with {@link GossipQueueFullException}.
+ */
+public class GossipScheduler {
+  public static final int DEFAULT_MAX_CONCURRENT_TASKS = 16;
+  private static final GossipLane[] LANES = GossipLane.values();
+
+  private final AsyncRunner asyncRunner;
+  private final TimeProvider timeProvider;
+  private final int maxConcurrentTasks;
+  private final Deque<QueuedTask<?>>[] queues;
+  private final int[] currentWeights = new int[LANES.length];
+  private final LabelledMetric<Counter> droppedCounter;
+  private final MetricsHistogram waitTimeHistogram;
+
+  private int inflightTaskCount = 0;
+  private boolean processing = false;
+
+  @SuppressWarnings("unchecked")
+  public GossipScheduler(
+      final MetricsSystem metricsSystem,
+      final AsyncRunner asyncRunner,
+      final TimeProvider timeProvider,
+      final int maxConcurrentTasks) {
+    this.asyncRunner = asyncRunner;
+    this.timeProvider = timeProvider;
+    this.maxConcurrentTasks = maxConcurrentTasks;
+    this.queues = new Deque[LANES.length];
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new ArrayDeque<>();
+    }
+    final LabelledGauge queueSizeGauge =
+        metricsSystem.createLabelledGauge(
+            TekuMetricCategory.NETWORK,
+            "gossip_queue_size",
+            "Number of gossip messages waiting to be processed in each lane",
+            "lane");
+    for (GossipLane lane : LANES) {
+      queueSizeGauge.labels(() -> getQueueSize(lane), lane.getMetricLabel());
+    }
+    droppedCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.NETWORK,
+            "gossip_queue_dropped_total",
+            "Total number of gossip messages dropped because their lane was full",
+            "lane");
+    waitTimeHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.NETWORK,
+            metricsSystem,
+            "gossip_queue_wait_time",
+            "Histogram of the time in milliseconds gossip messages wait in each lane",
+            3,
+            List.of("lane"));
+  }
+
+  /**
+   * Returns an {@link AsyncRunner} that schedules tasks passed to {@code runAsync} in the specified
+   * lane. Delayed tasks are passed directly to the underlying runner and shutting down the returned
+   * runner has no effect.
+   */
+  public AsyncRunner getAsyncRunner(final GossipLane lane) {
+    return new LaneAsyncRunner(lane);
+  }
+
+  public <U> SafeFuture<U> schedule(
+      final GossipLane lane, final ExceptionThrowingFutureSupplier<U> action) {
+    final QueuedTask<U> task = new QueuedTask<>(action, timeProvider.getTimeInMillis());
+    final QueuedTask<?> droppedTask;
+    synchronized (this) {
+      final Deque<QueuedTask<?>> queue = queues[lane.ordinal()];
+      if (queue.size() < lane.getCapacity()) {
+        queue.addLast(task);
+        droppedTask = null;
+      } else if (lane.isDropOldestWhenFull()) {
+        droppedTask = queue.pollFirst();
+        queue.addLast(task);
+      } else {
+        droppedTask = task;
+      }
+    }
+    if (droppedTask != null) {
+      droppedCounter.labels(lane.getMetricLabel()).inc();
+      droppedTask.result.completeExceptionally(new GossipQueueFullException(lane));
+    }
+    processQueuedTasks();
+    return task.result;
+  }
+
+  synchronized int getQueueSize(final GossipLane lane) {
+    return queues[lane.ordinal()].size();
+  }
+
+  /**
+   * Hands queued tasks to the async runner until the concurrency limit is reached or the queues are
+   * empty. Only one caller runs the loop at a time and any other call returns immediately, leaving
+   * the active loop to pick up the freed slot or new task. This keeps tasks that fail
+   * synchronously, such as when the executor rejects them, from recursing back in here via {@link
+   * #release}.
+   */
+  private void processQueuedTasks() {
+    synchronized (this) {
+      if (processing) {
+        return;
+      }
+      processing = true;
+    }
+    while (true) {
+      final GossipLane lane;
+      final QueuedTask<?> task;
+      synchronized (this) {
+        final int laneIndex = inflightTaskCount < maxConcurrentTasks ? selectNextLane() : -1;
+        if (laneIndex < 0) {
+          processing = false;
+          return;
+        }
+        lane = LANES[laneIndex];
+        task = queues[laneIndex].removeFirst();
+        inflightTaskCount++;
+      }
+      try {
+        waitTimeHistogram.recordValue(
+            timeProvider.getTimeInMillis().minusMinZero(task.queuedAtMillis).longValue(),
+            lane.getMetricLabel());
+        run(task);
+      } catch (final RuntimeException e) {
+        synchronized (this) {
+          processing = false;
+        }
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Selects the lane to take the next task from using smooth weighted round robin. Each non-empty
+   * lane accumulates its weight and the lane with the highest total is selected and has the total
+   * weight of all non-empty lanes subtracted.
+   *
+   * @return the index of the selected lane or -1 if all lanes are empty
+   */
+  private int selectNextLane() {
+    int selected = -1;
+    int totalWeight = 0;
+    for (int i = 0; i < LANES.length; i++) {
+      if (queues[i].isEmpty()) {
+        currentWeights[i] = 0;
+        continue;
+      }
+      currentWeights[i] += LANES[i].getWeight();
+      totalWeight += LANES[i].getWeight();
+      if (selected < 0 || currentWeights[i] > currentWeights[selected]) {
+        selected = i;
+      }
+    }
+    if (selected >= 0) {
+      currentWeights[selected] -= totalWeight;
+    }
+    return selected;
+  }
+
+  private <U> void run(final QueuedTask<U> task) {
+    final AtomicBoolean released = new AtomicBoolean(false);
+    asyncRunner
+        .runAsync(
+            () -> {
+              try {
+                return task.action.get();
+              } finally {
+                release(released);
+              }
+            })
+        // Also release if the task failed without running, e.g. because the executor is full
+        .alwaysRun(() -> release(released))
+        .propagateTo(task.result);
+  }
+
+  private void release(final AtomicBoolean released) {
+    if (released.compareAndSet(false, true)) {
+      synchronized (this) {
+        inflightTaskCount--;
+      }
+      processQueuedTasks();
+    }
+  }
+
+  private static class QueuedTask<U> {
+    private final ExceptionThrowingFutureSupplier<U> action;
+    private final UInt64 queuedAtMillis;
+    private final SafeFuture<U> result = new SafeFuture<>();
+
+    private QueuedTask(
+        final ExceptionThrowingFutureSupplier<U> action, final UInt64 queuedAtMillis) {
+      this.action = action;
+      this.queuedAtMillis = queuedAtMillis;
+    }
+  }
+
+  private class LaneAsyncRunner implements AsyncRunner {
+    private final GossipLane lane;
+
+    private LaneAsyncRunner(final GossipLane lane) {
+      this.lane = lane;
+    }
+
+    @Override
+    public <U> SafeFuture<U> runAsync(final ExceptionThrowingFutureSupplier<U> action) {
+      return schedule(lane, action);
+    }
+
+    @Override
+    public <U> SafeFuture<U> runAfterDelay(
+        final ExceptionThrowingFutureSupplier<U> action, final Duration delay) {
+      return asyncRunner.runAfterDelay(action, delay);
+    }
+
+    @Override
+    public void shutdown() {
+      // The underlying runner is shared by all lanes and shut down by its owner
+    }
+  }
+}
@@ -13,7 +13,11 @@
 
 package tech.pegasys.teku.networking.eth2.gossip.encoding;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.tuweni.bytes.Bytes;
 import org.xerial.snappy.Snappy;
 import tech.pegasys.teku.infrastructure.ssz.sos.SszLengthBounds;
@@ -21,26 +25,63 @@ import tech.pegasys.teku.infrastructure.ssz.sos.SszLengthBounds;
 /**
  * Implements snappy compression using the "block" format. See:
  * https://github.com/google/snappy/blob/master/format_description.txt
+ *
+ * <p>The {@link ByteBuf} methods compress and uncompress natively between direct buffers taken from
+ * a pooled allocator, so working buffers are reused through the allocator's per-thread caches
+ * rather than allocated on the heap for every message. The {@link Bytes} methods work directly on
+ * heap arrays, since copying heap data into and out of direct buffers would cost more than it
+ * saves.
  */
 public class SnappyBlockCompressor {
+  private final ByteBufAllocator allocator;
+
+  public SnappyBlockCompressor() {
+    this(PooledByteBufAllocator.DEFAULT);
+  }
+
+  public SnappyBlockCompressor(final ByteBufAllocator allocator) {
+    this.allocator = allocator;
+  }
 
   public Bytes uncompress(final Bytes compressedData, final SszLengthBounds lengthBounds)
       throws DecodingException {
-
+    // Heap data is uncompressed directly into the result array rather than via direct buffers
     try {
       final int actualLength = Snappy.uncompressedLength(compressedData.toArrayUnsafe());
-      if (!lengthBounds.isWithinBounds(actualLength)) {
-        throw new DecodingException(
-            String.format(
-                "Uncompressed length %d is not within expected bounds %s",
-                actualLength, lengthBounds.toString()));
-      }
+      checkLengthBounds(actualLength, lengthBounds);
       return Bytes.wrap(Snappy.uncompress(compressedData.toArrayUnsafe()));
     } catch (IOException e) {
       throw new DecodingException("Failed to uncompress", e);
     }
   }
 
+  /**
+   * Uncompresses the readable bytes of {@code compressedData} into a new direct buffer, which the
+   * caller is responsible for releasing.
+   */
+  public ByteBuf uncompress(final ByteBuf compressedData, final SszLengthBounds lengthBounds)
+      throws DecodingException {
+    final ByteBuf source = asDirect(compressedData);
+    try {
+      final ByteBuffer sourceBuffer = source.nioBuffer();
+      final int actualLength = Snappy.uncompressedLength(sourceBuffer);
+      checkLengthBounds(actualLength, lengthBounds);
+      final ByteBuf uncompressed = allocator.directBuffer(actualLength, actualLength);
+      try {
+        final int length = Snappy.uncompress(sourceBuffer, uncompressed.nioBuffer(0, actualLength));
+        uncompressed.writerIndex(length);
+        compressedData.skipBytes(compressedData.readableBytes());
+        return uncompressed.retain();
+      } finally {
+        uncompressed.release();
+      }
+    } catch (IOException e) {
+      throw new DecodingException("Failed to uncompress", e);
+    } finally {
+      source.release();
+    }
+  }
+
   public Bytes compress(final Bytes data) {
     try {
       return Bytes.wrap(Snappy.compress(data.toArrayUnsafe()));
@@ -48,4 +89,52 @@ public class SnappyBlockCompressor {
       throw new RuntimeException("Unable to compress data", e);
     }
   }
+
+  /** Compresses the readable bytes of {@code data} and appends the result to {@code out}. */
+  public void compress(final ByteBuf data, final ByteBuf out) {
+    final ByteBuf source = asDirect(data);
+    final int maxLength = Snappy.maxCompressedLength(source.readableBytes());
+    final ByteBuf target = isSingleDirectBuffer(out) ? out : allocator.directBuffer(maxLength);
+    try {
+      target.ensureWritable(maxLength);
+      final int length =
+          Snappy.compress(source.nioBuffer(), target.nioBuffer(target.writerIndex(), maxLength));
+      target.writerIndex(target.writerIndex() + length);
+      data.skipBytes(data.readableBytes());
+      if (target != out) {
+        out.writeBytes(target);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Unable to compress data", e);
+    } finally {
+      source.release();
+      if (target != out) {
+        target.release();
+      }
+    }
+  }
+
+  private static void checkLengthBounds(final int actualLength, final SszLengthBounds lengthBounds)
+      throws DecodingException {
+    if (!lengthBounds.isWithinBounds(actualLength)) {
+      throw new DecodingException(
+          String.format(
+              "Uncompressed length %d is not within expected bounds %s",
+              actualLength, lengthBounds.toString()));
+    }
+  }
+
+  /** Returns a retained direct view of the readable bytes, copying only if necessary. */
+  private ByteBuf asDirect(final ByteBuf data) {
+    return isSingleDirectBuffer(data) ? data.retainedSlice() : copyToDirect(data);
+  }
+
+  private ByteBuf copyToDirect(final ByteBuf data) {
+    final int length = data.readableBytes();
+    return allocator.directBuffer(length, length).writeBytes(data, data.readerIndex(), length);
+  }
+
+  private static boolean isSingleDirectBuffer(final ByteBuf buf) {
+    return buf.isDirect() && buf.nioBufferCount() == 1;
+  }
 }
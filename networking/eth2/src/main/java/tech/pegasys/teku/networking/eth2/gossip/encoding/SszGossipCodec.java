@@ -20,10 +20,6 @@ import tech.pegasys.teku.infrastructure.ssz.schema.SszSchema;
 
 class SszGossipCodec {
 
-  public <T extends SszData> Bytes encode(final T value) {
-    return value.sszSerialize();
-  }
-
   public <T extends SszData> T decode(final Bytes data, final SszSchema<T> valueType)
       throws DecodingException {
     try {
@@ -13,7 +13,11 @@
 
 package tech.pegasys.teku.networking.eth2.gossip.encoding;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.tuweni.bytes.Bytes;
+import org.xerial.snappy.Snappy;
 import tech.pegasys.teku.infrastructure.ssz.SszData;
 import tech.pegasys.teku.infrastructure.ssz.schema.SszSchema;
 import tech.pegasys.teku.networking.p2p.gossip.PreparedGossipMessage;
@@ -35,7 +39,23 @@ class SszSnappyEncoding implements GossipEncoding {
 
   @Override
   public <T extends SszData> Bytes encode(final T value) {
-    return snappyCompressor.compress(sszCodec.encode(value));
+    final ByteBuf serialized =
+        PooledByteBufAllocator.DEFAULT.directBuffer(
+            value.getSchema().getSszSize(value.getBackingNode()));
+    try {
+      value.sszSerialize(serialized::writeBytes);
+      final ByteBuf compressed =
+          PooledByteBufAllocator.DEFAULT.directBuffer(
+              Snappy.maxCompressedLength(serialized.readableBytes()));
+      try {
+        snappyCompressor.compress(serialized, compressed);
+        return Bytes.wrap(ByteBufUtil.getBytes(compressed));
+      } finally {
+        compressed.release();
+      }
+    } finally {
+      serialized.release();
+    }
   }
 
   @Override
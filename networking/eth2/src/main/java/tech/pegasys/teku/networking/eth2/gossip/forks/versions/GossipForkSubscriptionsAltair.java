@@ -14,7 +14,8 @@
 package tech.pegasys.teku.networking.eth2.gossip.forks.versions;
 
 import org.hyperledger.besu.plugin.services.MetricsSystem;
-import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.networking.eth2.gossip.GossipLane;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.SignedContributionAndProofGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.SyncCommitteeMessageGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
@@ -47,7 +48,7 @@ public class GossipForkSubscriptionsAltair extends GossipForkSubscriptionsPhase0
   public GossipForkSubscriptionsAltair(
       final Fork fork,
       final Spec spec,
-      final AsyncRunner asyncRunner,
+      final GossipScheduler gossipScheduler,
       final MetricsSystem metricsSystem,
       final DiscoveryNetwork<?> discoveryNetwork,
       final RecentChainData recentChainData,
@@ -65,7 +66,7 @@ public class GossipForkSubscriptionsAltair extends GossipForkSubscriptionsPhase0
     super(
         fork,
         spec,
-        asyncRunner,
+        gossipScheduler,
         metricsSystem,
         discoveryNetwork,
         recentChainData,
@@ -88,7 +89,7 @@ public class GossipForkSubscriptionsAltair extends GossipForkSubscriptionsPhase0
         new SignedContributionAndProofGossipManager(
             recentChainData,
             schemaDefinitions,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.SYNC_COMMITTEE),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
@@ -107,7 +108,7 @@ public class GossipForkSubscriptionsAltair extends GossipForkSubscriptionsPhase0
             discoveryNetwork,
             gossipEncoding,
             schemaDefinitions,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.SYNC_COMMITTEE),
             syncCommitteeMessageOperationProcessor,
             forkInfo,
             getMessageMaxSize());
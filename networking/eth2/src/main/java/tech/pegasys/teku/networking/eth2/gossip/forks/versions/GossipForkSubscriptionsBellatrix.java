@@ -16,7 +16,7 @@ package tech.pegasys.teku.networking.eth2.gossip.forks.versions;
 import static tech.pegasys.teku.spec.config.Constants.GOSSIP_MAX_SIZE_BELLATRIX;
 
 import org.hyperledger.besu.plugin.services.MetricsSystem;
-import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationProcessor;
 import tech.pegasys.teku.networking.p2p.discovery.DiscoveryNetwork;
@@ -36,7 +36,7 @@ public class GossipForkSubscriptionsBellatrix extends GossipForkSubscriptionsAlt
   public GossipForkSubscriptionsBellatrix(
       final Fork fork,
       final Spec spec,
-      final AsyncRunner asyncRunner,
+      final GossipScheduler gossipScheduler,
       final MetricsSystem metricsSystem,
       final DiscoveryNetwork<?> discoveryNetwork,
       final RecentChainData recentChainData,
@@ -54,7 +54,7 @@ public class GossipForkSubscriptionsBellatrix extends GossipForkSubscriptionsAlt
     super(
         fork,
         spec,
-        asyncRunner,
+        gossipScheduler,
         metricsSystem,
         discoveryNetwork,
         recentChainData,
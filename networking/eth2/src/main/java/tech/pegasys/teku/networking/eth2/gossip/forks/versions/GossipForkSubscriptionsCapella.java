@@ -14,7 +14,8 @@
 package tech.pegasys.teku.networking.eth2.gossip.forks.versions;
 
 import org.hyperledger.besu.plugin.services.MetricsSystem;
-import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.networking.eth2.gossip.GossipLane;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.SignedBlsToExecutionChangeGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationProcessor;
@@ -43,7 +44,7 @@ public class GossipForkSubscriptionsCapella extends GossipForkSubscriptionsBella
   public GossipForkSubscriptionsCapella(
       final Fork fork,
       final Spec spec,
-      final AsyncRunner asyncRunner,
+      final GossipScheduler gossipScheduler,
       final MetricsSystem metricsSystem,
       final DiscoveryNetwork<?> discoveryNetwork,
       final RecentChainData recentChainData,
@@ -63,7 +64,7 @@ public class GossipForkSubscriptionsCapella extends GossipForkSubscriptionsBella
     super(
         fork,
         spec,
-        asyncRunner,
+        gossipScheduler,
         metricsSystem,
         discoveryNetwork,
         recentChainData,
@@ -89,7 +90,7 @@ public class GossipForkSubscriptionsCapella extends GossipForkSubscriptionsBella
         new SignedBlsToExecutionChangeGossipManager(
             recentChainData,
             schemaDefinitions,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.OPERATION),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
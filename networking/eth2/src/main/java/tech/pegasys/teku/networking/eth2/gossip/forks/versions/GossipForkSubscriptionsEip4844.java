@@ -14,8 +14,9 @@
 package tech.pegasys.teku.networking.eth2.gossip.forks.versions;
 
 import org.hyperledger.besu.plugin.services.MetricsSystem;
-import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.networking.eth2.gossip.BlockAndBlobsSidecarGossipManager;
+import tech.pegasys.teku.networking.eth2.gossip.GossipLane;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationProcessor;
 import tech.pegasys.teku.networking.p2p.discovery.DiscoveryNetwork;
@@ -42,7 +43,7 @@ public class GossipForkSubscriptionsEip4844 extends GossipForkSubscriptionsCapel
   public GossipForkSubscriptionsEip4844(
       final Fork fork,
       final Spec spec,
-      final AsyncRunner asyncRunner,
+      final GossipScheduler gossipScheduler,
       final MetricsSystem metricsSystem,
       final DiscoveryNetwork<?> discoveryNetwork,
       final RecentChainData recentChainData,
@@ -63,7 +64,7 @@ public class GossipForkSubscriptionsEip4844 extends GossipForkSubscriptionsCapel
     super(
         fork,
         spec,
-        asyncRunner,
+        gossipScheduler,
         metricsSystem,
         discoveryNetwork,
         recentChainData,
@@ -106,7 +107,7 @@ public class GossipForkSubscriptionsEip4844 extends GossipForkSubscriptionsCapel
         new BlockAndBlobsSidecarGossipManager(
             recentChainData,
             spec,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.BLOCK),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
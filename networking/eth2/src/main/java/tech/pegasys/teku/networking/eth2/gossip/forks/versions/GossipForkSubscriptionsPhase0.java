@@ -19,13 +19,14 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
-import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.networking.eth2.gossip.AggregateGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.AttestationGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.AttesterSlashingGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.BlockGossipManager;
+import tech.pegasys.teku.networking.eth2.gossip.GossipLane;
 import tech.pegasys.teku.networking.eth2.gossip.GossipManager;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.ProposerSlashingGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.VoluntaryExitGossipManager;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
@@ -47,7 +48,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
   private final List<GossipManager> gossipManagers = new ArrayList<>();
   private final Fork fork;
   protected final Spec spec;
-  protected final AsyncRunner asyncRunner;
+  protected final GossipScheduler gossipScheduler;
   protected final MetricsSystem metricsSystem;
   protected final DiscoveryNetwork<?> discoveryNetwork;
   protected final RecentChainData recentChainData;
@@ -71,7 +72,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
   public GossipForkSubscriptionsPhase0(
       final Fork fork,
       final Spec spec,
-      final AsyncRunner asyncRunner,
+      final GossipScheduler gossipScheduler,
       final MetricsSystem metricsSystem,
       final DiscoveryNetwork<?> discoveryNetwork,
       final RecentChainData recentChainData,
@@ -84,7 +85,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
       final OperationProcessor<SignedVoluntaryExit> voluntaryExitProcessor) {
     this.fork = fork;
     this.spec = spec;
-    this.asyncRunner = asyncRunner;
+    this.gossipScheduler = gossipScheduler;
     this.metricsSystem = metricsSystem;
     this.discoveryNetwork = discoveryNetwork;
     this.recentChainData = recentChainData;
@@ -117,8 +118,9 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
   void addAttestationGossipManager(final ForkInfo forkInfo) {
     AttestationSubnetSubscriptions attestationSubnetSubscriptions =
         new AttestationSubnetSubscriptions(
+            metricsSystem,
             spec,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.ATTESTATION),
             discoveryNetwork,
             gossipEncoding,
             recentChainData,
@@ -136,7 +138,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
         new BlockGossipManager(
             recentChainData,
             spec,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.BLOCK),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
@@ -150,7 +152,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
         new AggregateGossipManager(
             spec,
             recentChainData,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.AGGREGATE),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
@@ -163,7 +165,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
     voluntaryExitGossipManager =
         new VoluntaryExitGossipManager(
             recentChainData,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.OPERATION),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
@@ -176,7 +178,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
     proposerSlashingGossipManager =
         new ProposerSlashingGossipManager(
             recentChainData,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.OPERATION),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
@@ -190,7 +192,7 @@ public class GossipForkSubscriptionsPhase0 implements GossipForkSubscriptions {
         new AttesterSlashingGossipManager(
             spec,
             recentChainData,
-            asyncRunner,
+            gossipScheduler.getAsyncRunner(GossipLane.OPERATION),
             discoveryNetwork,
             gossipEncoding,
             forkInfo,
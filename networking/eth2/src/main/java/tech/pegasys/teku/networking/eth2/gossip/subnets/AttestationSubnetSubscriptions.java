@@ -15,9 +15,11 @@ package tech.pegasys.teku.networking.eth2.gossip.subnets;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Optional;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
+import tech.pegasys.teku.networking.eth2.gossip.topics.AttestationGossipPreValidator;
 import tech.pegasys.teku.networking.eth2.gossip.topics.GossipTopicName;
 import tech.pegasys.teku.networking.eth2.gossip.topics.GossipTopics;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationProcessor;
@@ -41,8 +43,10 @@ public class AttestationSubnetSubscriptions extends CommitteeSubnetSubscriptions
   private final ForkInfo forkInfo;
   private final int maxMessageSize;
   private final AttestationSchema attestationSchema;
+  private final AttestationGossipPreValidator preValidator;
 
   public AttestationSubnetSubscriptions(
+      final MetricsSystem metricsSystem,
       final Spec spec,
       final AsyncRunner asyncRunner,
       final GossipNetwork gossipNetwork,
@@ -60,6 +64,7 @@ public class AttestationSubnetSubscriptions extends CommitteeSubnetSubscriptions
     this.maxMessageSize = maxMessageSize;
     attestationSchema =
         spec.atEpoch(forkInfo.getFork().getEpoch()).getSchemaDefinitions().getAttestationSchema();
+    preValidator = new AttestationGossipPreValidator(spec, recentChainData, metricsSystem);
   }
 
   public SafeFuture<?> gossip(final Attestation attestation) {
@@ -97,7 +102,8 @@ public class AttestationSubnetSubscriptions extends CommitteeSubnetSubscriptions
         topicName,
         attestationSchema,
         subnetId,
-        maxMessageSize);
+        maxMessageSize,
+        preValidator.forTopic(topicName));
   }
 
   private SafeFuture<Optional<Integer>> computeSubnetForAttestation(final Attestation attestation) {
@@ -0,0 +1,155 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.networking.eth2.gossip.topics;
+
+import static tech.pegasys.teku.spec.config.Constants.ATTESTATION_PROPAGATION_SLOT_RANGE;
+
+import java.nio.ByteOrder;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import tech.pegasys.teku.bls.BLSSignature;
+import tech.pegasys.teku.infrastructure.collections.LimitedSet;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.datastructures.forkchoice.ReadOnlyStore;
+import tech.pegasys.teku.storage.client.RecentChainData;
+
+/**
+ * Ignores single attestations that are outside the propagation window or from a validator that
+ * already has a valid attestation for the same target, reading only fixed offsets of the SSZ.
+ *
+ * <p>An attester is identified by the slot, committee index and aggregation bit of its
+ * attestation together with the target checkpoint. The target fixes the committee shuffling, so
+ * the same position always maps to the same validator.
+ */
+public class AttestationGossipPreValidator {
+  // Attestation is the offset of the aggregation_bits, AttestationData and signature, which are
+  // followed by the aggregation_bits. AttestationData is slot, index, beacon_block_root, source and
+  // target.
+  private static final int SLOT_OFFSET = Integer.BYTES;
+  private static final int CHECKPOINT_SIZE = Long.BYTES + Bytes32.SIZE;
+  private static final int TARGET_OFFSET =
+      SLOT_OFFSET + 2 * Long.BYTES + Bytes32.SIZE + CHECKPOINT_SIZE;
+  private static final int AGGREGATION_BITS_OFFSET =
+      TARGET_OFFSET + CHECKPOINT_SIZE + BLSSignature.SSZ_BLS_SIGNATURE_SIZE;
+
+  private static final UInt64 MAX_FUTURE_SLOT_ALLOWANCE = UInt64.valueOf(3);
+  private static final int SEEN_ATTESTERS_CACHE_SIZE = 65_536;
+
+  private final Spec spec;
+  private final RecentChainData recentChainData;
+  private final Set<Bytes> seenAttesters = LimitedSet.createSynchronized(SEEN_ATTESTERS_CACHE_SIZE);
+  private final LabelledMetric<Counter> ignoredCounter;
+
+  public AttestationGossipPreValidator(
+      final Spec spec, final RecentChainData recentChainData, final MetricsSystem metricsSystem) {
+    this.spec = spec;
+    this.recentChainData = recentChainData;
+    this.ignoredCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.NETWORK,
+            "gossip_fast_rejected_total",
+            "Total number of gossip messages ignored before being deserialized",
+            "topic",
+            "reason");
+  }
+
+  public GossipPreValidator forTopic(final String topicName) {
+    return new TopicPreValidator(topicName);
+  }
+
+  private Optional<String> getIgnoreReason(final Bytes message) {
+    if (!isWellFormed(message) || recentChainData.isPreGenesis()) {
+      return Optional.empty();
+    }
+    final ReadOnlyStore store = recentChainData.getStore();
+    final UInt64 currentSlot =
+        spec.getCurrentSlotForMillis(store.getTimeMillis(), store.getGenesisTimeMillis());
+    final UInt64 slot = readUInt64(message, SLOT_OFFSET);
+    // Both checks allow a little more leeway than AttestationValidator to avoid needing the
+    // exact clock disparity
+    if (slot.isGreaterThan(currentSlot.plus(MAX_FUTURE_SLOT_ALLOWANCE))) {
+      return Optional.of("future_slot");
+    }
+    if (slot.plus(ATTESTATION_PROPAGATION_SLOT_RANGE).plus(1).isLessThan(currentSlot)) {
+      return Optional.of("stale_slot");
+    }
+    if (getAttesterKey(message).map(seenAttesters::contains).orElse(false)) {
+      return Optional.of("duplicate");
+    }
+    return Optional.empty();
+  }
+
+  private static boolean isWellFormed(final Bytes message) {
+    return message.size() > AGGREGATION_BITS_OFFSET
+        && message.getInt(0, ByteOrder.LITTLE_ENDIAN) == AGGREGATION_BITS_OFFSET
+        && message.get(message.size() - 1) != 0;
+  }
+
+  private static Optional<Bytes> getAttesterKey(final Bytes message) {
+    if (!isWellFormed(message)) {
+      return Optional.empty();
+    }
+    // The highest set bit is the bitlist length marker so exactly one other bit must be set
+    int setBits = 0;
+    int attesterBit = -1;
+    for (int i = AGGREGATION_BITS_OFFSET; i < message.size(); i++) {
+      final int value = message.get(i) & 0xFF;
+      if (value != 0 && attesterBit < 0) {
+        attesterBit =
+            (i - AGGREGATION_BITS_OFFSET) * Byte.SIZE + Integer.numberOfTrailingZeros(value);
+      }
+      setBits += Integer.bitCount(value);
+    }
+    if (setBits != 2) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        Bytes.concatenate(
+                message.slice(SLOT_OFFSET, Long.BYTES * 2),
+                message.slice(TARGET_OFFSET, CHECKPOINT_SIZE),
+                Bytes.ofUnsignedInt(attesterBit))
+            .copy());
+  }
+
+  private static UInt64 readUInt64(final Bytes message, final int offset) {
+    return UInt64.fromLongBits(message.getLong(offset, ByteOrder.LITTLE_ENDIAN));
+  }
+
+  private class TopicPreValidator implements GossipPreValidator {
+    private final String topicName;
+
+    private TopicPreValidator(final String topicName) {
+      this.topicName = topicName;
+    }
+
+    @Override
+    public boolean shouldIgnore(final Bytes message) {
+      final Optional<String> reason = getIgnoreReason(message);
+      reason.ifPresent(ignoreReason -> ignoredCounter.labels(topicName, ignoreReason).inc());
+      return reason.isPresent();
+    }
+
+    @Override
+    public void onAccepted(final Bytes message) {
+      getAttesterKey(message).ifPresent(seenAttesters::add);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.networking.eth2.gossip.topics;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Inspects the uncompressed SSZ of a gossip message before it is deserialized so that messages
+ * which would obviously be ignored by full validation can be dropped without building the object.
+ */
+public interface GossipPreValidator {
+  GossipPreValidator NOOP = message -> false;
+
+  /**
+   * Determine if the message can be ignored without deserializing it.
+   *
+   * <p>Implementations must be conservative. Messages that can't be parsed or that would be
+   * rejected rather than ignored by full validation should be left for full validation.
+   *
+   * @param message the uncompressed SSZ of the message
+   * @return true if the message should be ignored
+   */
+  boolean shouldIgnore(Bytes message);
+
+  /**
+   * Called with the uncompressed SSZ of each message that passed full validation.
+   *
+   * @param message the uncompressed SSZ of the message
+   */
+  default void onAccepted(final Bytes message) {}
+}
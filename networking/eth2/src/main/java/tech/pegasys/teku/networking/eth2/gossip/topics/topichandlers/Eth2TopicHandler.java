@@ -16,6 +16,7 @@ package tech.pegasys.teku.networking.eth2.gossip.topics.topichandlers;
 import static tech.pegasys.teku.infrastructure.logging.P2PLogger.P2P_LOG;
 
 import io.libp2p.core.pubsub.ValidationResult;
+import java.util.Optional;
 import java.util.concurrent.RejectedExecutionException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,9 +27,11 @@ import tech.pegasys.teku.infrastructure.bytes.Bytes4;
 import tech.pegasys.teku.infrastructure.exceptions.ExceptionUtil;
 import tech.pegasys.teku.infrastructure.ssz.SszData;
 import tech.pegasys.teku.infrastructure.ssz.schema.SszSchema;
+import tech.pegasys.teku.networking.eth2.gossip.GossipQueueFullException;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.DecodingException;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.Eth2PreparedGossipMessageFactory;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
+import tech.pegasys.teku.networking.eth2.gossip.topics.GossipPreValidator;
 import tech.pegasys.teku.networking.eth2.gossip.topics.GossipSubValidationUtil;
 import tech.pegasys.teku.networking.eth2.gossip.topics.GossipTopicName;
 import tech.pegasys.teku.networking.eth2.gossip.topics.GossipTopics;
@@ -51,6 +54,7 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
   private final Eth2PreparedGossipMessageFactory preparedGossipMessageFactory;
   private final int maxMessageSize;
   private final OperationMilestoneValidator<MessageT> forkValidator;
+  private final GossipPreValidator preValidator;
 
   public Eth2TopicHandler(
       final RecentChainData recentChainData,
@@ -61,7 +65,8 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
       final String topicName,
       final OperationMilestoneValidator<MessageT> forkValidator,
       final SszSchema<MessageT> messageType,
-      final int maxMessageSize) {
+      final int maxMessageSize,
+      final GossipPreValidator preValidator) {
     this.asyncRunner = asyncRunner;
     this.processor = processor;
     this.gossipEncoding = gossipEncoding;
@@ -70,11 +75,35 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
     this.messageType = messageType;
     this.maxMessageSize = maxMessageSize;
     this.forkValidator = forkValidator;
+    this.preValidator = preValidator;
     this.preparedGossipMessageFactory =
         gossipEncoding.createPreparedGossipMessageFactory(
             recentChainData::getMilestoneByForkDigest);
   }
 
+  public Eth2TopicHandler(
+      final RecentChainData recentChainData,
+      final AsyncRunner asyncRunner,
+      final OperationProcessor<MessageT> processor,
+      final GossipEncoding gossipEncoding,
+      final Bytes4 forkDigest,
+      final String topicName,
+      final OperationMilestoneValidator<MessageT> forkValidator,
+      final SszSchema<MessageT> messageType,
+      final int maxMessageSize) {
+    this(
+        recentChainData,
+        asyncRunner,
+        processor,
+        gossipEncoding,
+        forkDigest,
+        topicName,
+        forkValidator,
+        messageType,
+        maxMessageSize,
+        GossipPreValidator.NOOP);
+  }
+
   public Eth2TopicHandler(
       final RecentChainData recentChainData,
       final AsyncRunner asyncRunner,
@@ -99,6 +128,11 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
 
   @Override
   public SafeFuture<ValidationResult> handleMessage(PreparedGossipMessage message) {
+    final Optional<Bytes> uncompressed = message.getDecodedMessage().getDecodedMessage();
+    if (uncompressed.isPresent() && preValidator.shouldIgnore(uncompressed.get())) {
+      LOG.trace("Ignoring message for topic {} before deserialization", this::getTopic);
+      return SafeFuture.completedFuture(ValidationResult.Ignore);
+    }
     return SafeFuture.of(() -> deserialize(message))
         .thenCompose(
             deserialized -> {
@@ -114,6 +148,9 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
                           .thenApply(
                               internalValidation -> {
                                 processMessage(internalValidation, message);
+                                if (internalValidation.isAccept()) {
+                                  uncompressed.ifPresent(preValidator::onAccepted);
+                                }
                                 return GossipSubValidationUtil.fromInternalValidationResult(
                                     internalValidation);
                               }));
@@ -159,6 +196,10 @@ public class Eth2TopicHandler<MessageT extends SszData> implements TopicHandler
     if (ExceptionUtil.hasCause(err, DecodingException.class)) {
       P2P_LOG.onGossipMessageDecodingError(getTopic(), message.getOriginalMessage(), err);
       response = ValidationResult.Invalid;
+    } else if (ExceptionUtil.hasCause(err, GossipQueueFullException.class)) {
+      // Already counted by the scheduler and expected under load so don't log each one
+      LOG.trace("Discarding gossip message for topic {} because its queue is full", this::getTopic);
+      response = ValidationResult.Ignore;
     } else if (ExceptionUtil.hasCause(err, RejectedExecutionException.class)) {
       LOG.warn(
           "Discarding gossip message for topic {} because the executor queue is full", getTopic());
@@ -15,6 +15,7 @@ package tech.pegasys.teku.networking.eth2.gossip.topics.topichandlers;
 
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
+import tech.pegasys.teku.networking.eth2.gossip.topics.GossipPreValidator;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationMilestoneValidator;
 import tech.pegasys.teku.networking.eth2.gossip.topics.OperationProcessor;
 import tech.pegasys.teku.spec.Spec;
@@ -35,7 +36,8 @@ public class SingleAttestationTopicHandler {
       final String topicName,
       final AttestationSchema attestationSchema,
       final int subnetId,
-      final int maxMessageSize) {
+      final int maxMessageSize,
+      final GossipPreValidator preValidator) {
 
     final Spec spec = recentChainData.getSpec();
     OperationProcessor<Attestation> convertingProcessor =
@@ -55,6 +57,7 @@ public class SingleAttestationTopicHandler {
             forkInfo.getFork(),
             message -> spec.computeEpochAtSlot(message.getData().getSlot())),
         attestationSchema,
-        maxMessageSize);
+        maxMessageSize,
+        preValidator);
   }
 }
@@ -13,11 +13,23 @@
 
 package tech.pegasys.teku.networking.eth2.rpc.core;
 
+import org.apache.tuweni.bytes.Bytes;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 
 public interface ResponseCallback<T> {
   SafeFuture<Void> respond(T data);
 
+  /**
+   * Respond with a payload which is already SSZ serialized, such as a block read from storage,
+   * without deserializing it.
+   *
+   * @param slot the slot the payload applies to, which determines its fork context
+   * @param sszPayload the serialized payload, which must be a valid serialization of {@code T}
+   * @return a future which completes when the response has been written
+   */
+  SafeFuture<Void> respondSerialized(UInt64 slot, Bytes sszPayload);
+
   void respondAndCompleteSuccessfully(T data);
 
   void completeSuccessfully();
@@ -13,7 +13,11 @@
 
 package tech.pegasys.teku.networking.eth2.rpc.core.encodings;
 
+import io.libp2p.etc.types.ByteBufExtKt;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import java.util.Optional;
 import org.apache.tuweni.bytes.Bytes;
 import tech.pegasys.teku.infrastructure.ssz.SszData;
@@ -26,6 +30,8 @@ import tech.pegasys.teku.spec.datastructures.networking.libp2p.rpc.EmptyMessage;
  * the length of the uncompressed payload
  */
 public class LengthPrefixedEncoding implements RpcEncoding {
+  // Maximum length of the protobuf varint encoding of an int
+  private static final int MAX_HEADER_LENGTH = 5;
   private static final RpcByteBufDecoder<EmptyMessage> EMPTY_MESSAGE_DECODER =
       new RpcByteBufDecoder<>() {
         @Override
@@ -76,6 +82,14 @@ public class LengthPrefixedEncoding implements RpcEncoding {
     return encodeMessageWithLength(payload);
   }
 
+  @Override
+  public Bytes encodeSerializedPayload(final Bytes sszPayload) {
+    if (sszPayload.isEmpty()) {
+      return sszPayload;
+    }
+    return encodeMessageWithLength(sszPayload);
+  }
+
   @Override
   public <T extends SszData> RpcByteBufDecoder<T> createDecoder(SszSchema<T> payloadType) {
     if (payloadType.equals(EmptyMessage.SSZ_SCHEMA)) {
@@ -87,9 +101,16 @@ public class LengthPrefixedEncoding implements RpcEncoding {
   }
 
   private Bytes encodeMessageWithLength(final Bytes payload) {
-    final Bytes header = ProtobufEncoder.encodeVarInt(payload.size());
-    final Bytes compressedPayload = compressor.compress(payload);
-    return Bytes.concatenate(header, compressedPayload);
+    final ByteBuf encoded =
+        PooledByteBufAllocator.DEFAULT.directBuffer(
+            MAX_HEADER_LENGTH + compressor.getMaxCompressedLength(payload.size()));
+    try {
+      ByteBufExtKt.writeUvarint(encoded, payload.size());
+      compressor.compress(Unpooled.wrappedBuffer(payload.toArrayUnsafe()), encoded);
+      return Bytes.wrap(ByteBufUtil.getBytes(encoded));
+    } finally {
+      encoded.release();
+    }
   }
 
   @Override
@@ -36,6 +36,14 @@ public interface RpcEncoding {
    */
   <T extends SszData> Bytes encodePayload(T payload);
 
+  /**
+   * Encodes a payload which is already SSZ serialized with its encoding-dependent header
+   *
+   * @param sszPayload The serialized payload
+   * @return The encoded header and payload bytes
+   */
+  Bytes encodeSerializedPayload(Bytes sszPayload);
+
   /**
    * Creates a brand new disposable {@link RpcByteBufDecoder} instance for decoding a payload with
    * it's encoding-dependent header
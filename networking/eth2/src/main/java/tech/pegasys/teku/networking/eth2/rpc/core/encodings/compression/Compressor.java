@@ -35,6 +35,14 @@ public interface Compressor {
    */
   Bytes compress(final Bytes data);
 
+  /**
+   * Compresses the readable bytes of {@code data} and writes the result to {@code out}
+   *
+   * @param data The data to compress
+   * @param out The buffer to append the compressed data to
+   */
+  void compress(final ByteBuf data, final ByteBuf out);
+
   /**
    * Creates a Decompressor instance which would return only a single decompressed data of size
    * {@code uncompressedPayloadSize}
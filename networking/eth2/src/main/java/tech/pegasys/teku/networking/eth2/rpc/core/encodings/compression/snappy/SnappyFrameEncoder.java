@@ -16,6 +16,8 @@ package tech.pegasys.teku.networking.eth2.rpc.core.encodings.compression.snappy;
 import static tech.pegasys.teku.networking.eth2.rpc.core.encodings.compression.snappy.SnappyUtil.calculateChecksum;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.compression.Snappy;
 import org.apache.tuweni.bytes.Bytes;
@@ -49,12 +51,10 @@ public class SnappyFrameEncoder {
 
   public Bytes encode(Bytes in) {
     ByteBuf inBuf = Unpooled.wrappedBuffer(in.toArrayUnsafe());
-    ByteBuf outBuf = Unpooled.buffer(in.size() / 2);
+    ByteBuf outBuf = PooledByteBufAllocator.DEFAULT.directBuffer(in.size() / 2);
     try {
       encode(inBuf, outBuf);
-      byte[] bytes = new byte[outBuf.readableBytes()];
-      outBuf.readBytes(bytes);
-      return Bytes.wrap(bytes);
+      return Bytes.wrap(ByteBufUtil.getBytes(outBuf));
     } finally {
       inBuf.release();
       outBuf.release();
@@ -15,19 +15,31 @@ package tech.pegasys.teku.networking.eth2.rpc.core.encodings.compression.snappy;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.compression.DecompressionException;
+import io.netty.util.concurrent.FastThreadLocal;
 import java.util.zip.CRC32C;
 
 class SnappyUtil {
+  private static final FastThreadLocal<CRC32C> CRC32C_INSTANCE =
+      new FastThreadLocal<>() {
+        @Override
+        protected CRC32C initialValue() {
+          return new CRC32C();
+        }
+      };
 
   static int calculateChecksum(ByteBuf data) {
     return calculateChecksum(data, data.readerIndex(), data.readableBytes());
   }
 
   static int calculateChecksum(ByteBuf data, int offset, int length) {
-    CRC32C crc32 = new CRC32C();
+    final CRC32C crc32 = CRC32C_INSTANCE.get();
     try {
-      for (int i = offset; i < offset + length; i++) {
-        crc32.update(data.getByte(i));
+      if (data.nioBufferCount() == 1) {
+        crc32.update(data.nioBuffer(offset, length));
+      } else {
+        for (int i = offset; i < offset + length; i++) {
+          crc32.update(data.getByte(i));
+        }
       }
       return maskChecksum((int) crc32.getValue());
     } finally {
@@ -64,6 +64,7 @@ public class AttestationGossipManagerTest {
       new ForkInfo(spec.fork(UInt64.ZERO), dataStructureUtil.randomBytes32());
   private final AttestationSubnetSubscriptions attestationSubnetSubscriptions =
       new AttestationSubnetSubscriptions(
+          metricsSystem,
           spec,
           asyncRunner,
           gossipNetwork,
@@ -0,0 +1,218 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.networking.eth2.gossip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.teku.infrastructure.async.SafeFutureAssert.assertThatSafeFuture;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.infrastructure.async.ExceptionThrowingFutureSupplier;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
+
+class GossipSchedulerTest {
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final StubAsyncRunner asyncRunner = new StubAsyncRunner();
+  private final StubTimeProvider timeProvider = StubTimeProvider.withTimeInMillis(1000);
+  private final List<GossipLane> processedLanes = new ArrayList<>();
+
+  @Test
+  void shouldLimitTasksHandedToAsyncRunner() {
+    final GossipScheduler scheduler = createScheduler(2);
+    final List<SafeFuture<GossipLane>> results =
+        IntStream.range(0, 3)
+            .mapToObj(__ -> schedule(scheduler, GossipLane.BLOCK))
+            .collect(Collectors.toList());
+
+    assertThat(asyncRunner.countDelayedActions()).isEqualTo(2);
+    assertThat(scheduler.getQueueSize(GossipLane.BLOCK)).isEqualTo(1);
+
+    asyncRunner.executeQueuedActions();
+    assertThatSafeFuture(results.get(0)).isCompletedWithValue(GossipLane.BLOCK);
+    assertThatSafeFuture(results.get(1)).isCompletedWithValue(GossipLane.BLOCK);
+    assertThat(scheduler.getQueueSize(GossipLane.BLOCK)).isZero();
+    assertThat(asyncRunner.countDelayedActions()).isEqualTo(1);
+
+    asyncRunner.executeQueuedActions();
+    assertThatSafeFuture(results.get(2)).isCompletedWithValue(GossipLane.BLOCK);
+  }
+
+  @Test
+  void shouldReleaseSlotWhenTaskReturnsRatherThanWhenItsResultCompletes() {
+    final GossipScheduler scheduler = createScheduler(1);
+    final SafeFuture<Void> pendingResult = new SafeFuture<>();
+    final SafeFuture<Void> first = scheduler.schedule(GossipLane.BLOCK, () -> pendingResult);
+    schedule(scheduler, GossipLane.BLOCK);
+
+    asyncRunner.executeQueuedActions();
+    assertThat(first).isNotDone();
+    assertThat(asyncRunner.countDelayedActions()).isEqualTo(1);
+
+    pendingResult.complete(null);
+    assertThat(first).isCompleted();
+  }
+
+  @Test
+  void shouldReleaseSlotWhenTaskFails() {
+    final GossipScheduler scheduler = createScheduler(1);
+    final SafeFuture<Void> failed =
+        scheduler.schedule(
+            GossipLane.BLOCK,
+            () -> {
+              throw new IllegalStateException("Oops");
+            });
+    final SafeFuture<GossipLane> next = schedule(scheduler, GossipLane.BLOCK);
+
+    asyncRunner.executeQueuedActions();
+    assertThatSafeFuture(failed).isCompletedExceptionallyWith(IllegalStateException.class);
+    asyncRunner.executeQueuedActions();
+    assertThatSafeFuture(next).isCompletedWithValue(GossipLane.BLOCK);
+  }
+
+  @Test
+  void shouldFailQueuedTasksWithoutRecursingWhenExecutorRejectsThem() {
+    final AtomicBoolean rejecting = new AtomicBoolean(false);
+    final AsyncRunner rejectingRunner =
+        new AsyncRunner() {
+          @Override
+          public <U> SafeFuture<U> runAsync(final ExceptionThrowingFutureSupplier<U> action) {
+            return rejecting.get()
+                ? SafeFuture.failedFuture(new RejectedExecutionException("Full"))
+                : asyncRunner.runAsync(action);
+          }
+
+          @Override
+          public <U> SafeFuture<U> runAfterDelay(
+              final ExceptionThrowingFutureSupplier<U> action, final Duration delay) {
+            return asyncRunner.runAfterDelay(action, delay);
+          }
+
+          @Override
+          public void shutdown() {}
+        };
+    final GossipScheduler scheduler =
+        new GossipScheduler(metricsSystem, rejectingRunner, timeProvider, 1);
+    // Occupy the only slot so the remaining tasks are queued
+    final SafeFuture<GossipLane> first = schedule(scheduler, GossipLane.BLOCK);
+    final List<SafeFuture<GossipLane>> queued =
+        IntStream.range(0, GossipLane.ATTESTATION.getCapacity())
+            .mapToObj(__ -> schedule(scheduler, GossipLane.ATTESTATION))
+            .collect(Collectors.toList());
+
+    rejecting.set(true);
+    asyncRunner.executeQueuedActions();
+
+    assertThatSafeFuture(first).isCompletedWithValue(GossipLane.BLOCK);
+    assertThat(scheduler.getQueueSize(GossipLane.ATTESTATION)).isZero();
+    queued.forEach(
+        result ->
+            assertThatSafeFuture(result)
+                .isCompletedExceptionallyWith(RejectedExecutionException.class));
+  }
+
+  @Test
+  void shouldServeLanesInProportionToTheirWeight() {
+    final GossipScheduler scheduler = createScheduler(1);
+    // Occupy the only slot so the remaining tasks are queued
+    schedule(scheduler, GossipLane.OPERATION);
+    for (int i = 0; i < 40; i++) {
+      schedule(scheduler, GossipLane.BLOCK);
+      schedule(scheduler, GossipLane.ATTESTATION);
+    }
+    asyncRunner.executeQueuedActions();
+    processedLanes.clear();
+
+    for (int i = 0; i < 20; i++) {
+      asyncRunner.executeQueuedActions();
+    }
+
+    // Blocks have four times the weight of attestations
+    assertThat(processedLanes).filteredOn(lane -> lane == GossipLane.BLOCK).hasSize(16);
+    assertThat(processedLanes).filteredOn(lane -> lane == GossipLane.ATTESTATION).hasSize(4);
+  }
+
+  @Test
+  void shouldDropNewTasksWhenLaneIsFull() {
+    final GossipScheduler scheduler = createScheduler(0);
+    final List<SafeFuture<GossipLane>> results =
+        IntStream.rangeClosed(0, GossipLane.BLOCK.getCapacity())
+            .mapToObj(__ -> schedule(scheduler, GossipLane.BLOCK))
+            .collect(Collectors.toList());
+
+    assertThat(results.get(0)).isNotDone();
+    assertThatSafeFuture(results.get(results.size() - 1))
+        .isCompletedExceptionallyWith(GossipQueueFullException.class);
+    assertThat(scheduler.getQueueSize(GossipLane.BLOCK)).isEqualTo(GossipLane.BLOCK.getCapacity());
+    assertThat(getDroppedCount(GossipLane.BLOCK)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldDropOldestAttestationsWhenLaneIsFull() {
+    final GossipScheduler scheduler = createScheduler(0);
+    final List<SafeFuture<GossipLane>> results =
+        IntStream.rangeClosed(0, GossipLane.ATTESTATION.getCapacity())
+            .mapToObj(__ -> schedule(scheduler, GossipLane.ATTESTATION))
+            .collect(Collectors.toList());
+
+    assertThatSafeFuture(results.get(0))
+        .isCompletedExceptionallyWith(GossipQueueFullException.class);
+    assertThat(results.get(results.size() - 1)).isNotDone();
+    assertThat(scheduler.getQueueSize(GossipLane.ATTESTATION))
+        .isEqualTo(GossipLane.ATTESTATION.getCapacity());
+    assertThat(getDroppedCount(GossipLane.ATTESTATION)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportQueueSize() {
+    final GossipScheduler scheduler = createScheduler(0);
+    schedule(scheduler, GossipLane.AGGREGATE);
+    schedule(scheduler, GossipLane.AGGREGATE);
+
+    assertThat(
+            metricsSystem
+                .getLabelledGauge(TekuMetricCategory.NETWORK, "gossip_queue_size")
+                .getValue(GossipLane.AGGREGATE.getMetricLabel()))
+        .hasValue(2);
+  }
+
+  private GossipScheduler createScheduler(final int maxConcurrentTasks) {
+    return new GossipScheduler(metricsSystem, asyncRunner, timeProvider, maxConcurrentTasks);
+  }
+
+  private SafeFuture<GossipLane> schedule(final GossipScheduler scheduler, final GossipLane lane) {
+    return scheduler.schedule(
+        lane,
+        () -> {
+          processedLanes.add(lane);
+          return SafeFuture.completedFuture(lane);
+        });
+  }
+
+  private long getDroppedCount(final GossipLane lane) {
+    return metricsSystem
+        .getCounter(TekuMetricCategory.NETWORK, "gossip_queue_dropped_total")
+        .getValue(lane.getMetricLabel());
+  }
+}
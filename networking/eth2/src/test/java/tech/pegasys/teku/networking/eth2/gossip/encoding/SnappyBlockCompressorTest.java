@@ -16,6 +16,8 @@ package tech.pegasys.teku.networking.eth2.gossip.encoding;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.infrastructure.ssz.sos.SszLengthBounds;
@@ -34,6 +36,45 @@ public class SnappyBlockCompressorTest {
     assertThat(uncompressed).isEqualTo(original);
   }
 
+  @Test
+  public void roundTrip_byteBufs() throws DecodingException {
+    final Bytes original = Bytes.fromHexString("0x010203040506");
+    final ByteBuf input = Unpooled.wrappedBuffer(original.toArrayUnsafe());
+    final ByteBuf compressed = Unpooled.buffer();
+
+    compressor.compress(input, compressed);
+    assertThat(input.isReadable()).isFalse();
+    assertThat(Bytes.wrapByteBuf(compressed)).isEqualTo(compressor.compress(original));
+
+    final ByteBuf uncompressed =
+        compressor.uncompress(compressed, SszLengthBounds.ofBytes(0, 1000));
+    try {
+      assertThat(uncompressed.isDirect()).isTrue();
+      assertThat(Bytes.wrapByteBuf(uncompressed)).isEqualTo(original);
+      assertThat(compressed.isReadable()).isFalse();
+    } finally {
+      uncompressed.release();
+      compressed.release();
+    }
+  }
+
+  @Test
+  public void compress_directBuffers() throws DecodingException {
+    final Bytes original = Bytes.random(1000);
+    final ByteBuf input = Unpooled.directBuffer().writeBytes(original.toArrayUnsafe());
+    final ByteBuf compressed = Unpooled.directBuffer();
+    try {
+      compressor.compress(input, compressed);
+
+      final Bytes compressedBytes = Bytes.wrapByteBuf(compressed);
+      assertThat(compressor.uncompress(compressedBytes, SszLengthBounds.ofBytes(0, 1000)))
+          .isEqualTo(original);
+    } finally {
+      input.release();
+      compressed.release();
+    }
+  }
+
   @Test
   public void uncompress_randomData() {
     final Bytes data = Bytes.fromHexString("0x0102");
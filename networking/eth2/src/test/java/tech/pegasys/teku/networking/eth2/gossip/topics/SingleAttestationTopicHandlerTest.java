@@ -14,6 +14,9 @@
 package tech.pegasys.teku.networking.eth2.gossip.topics;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static tech.pegasys.teku.spec.config.Constants.GOSSIP_MAX_SIZE;
@@ -25,10 +28,14 @@ import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.bls.BLSKeyGenerator;
 import tech.pegasys.teku.bls.BLSKeyPair;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.networking.eth2.gossip.topics.topichandlers.Eth2TopicHandler;
 import tech.pegasys.teku.networking.eth2.gossip.topics.topichandlers.SingleAttestationTopicHandler;
 import tech.pegasys.teku.spec.datastructures.attestation.ValidateableAttestation;
 import tech.pegasys.teku.spec.datastructures.blocks.StateAndBlockSummary;
+import tech.pegasys.teku.spec.datastructures.operations.Attestation;
+import tech.pegasys.teku.spec.datastructures.operations.AttestationData;
 import tech.pegasys.teku.spec.generator.AttestationGenerator;
 import tech.pegasys.teku.statetransition.validation.InternalValidationResult;
 
@@ -36,7 +43,9 @@ public class SingleAttestationTopicHandlerTest
     extends AbstractTopicHandlerTest<ValidateableAttestation> {
 
   private static final int SUBNET_ID = 1;
+  private static final String TOPIC_NAME = GossipTopicName.getAttestationSubnetTopicName(SUBNET_ID);
   private final List<BLSKeyPair> validatorKeys = BLSKeyGenerator.generateKeyPairs(12);
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
 
   @Override
   protected Eth2TopicHandler<?> createHandler() {
@@ -46,10 +55,12 @@ public class SingleAttestationTopicHandlerTest
         processor,
         gossipEncoding,
         forkInfo,
-        GossipTopicName.getAttestationSubnetTopicName(SUBNET_ID),
+        TOPIC_NAME,
         spec.getGenesisSchemaDefinitions().getAttestationSchema(),
         SUBNET_ID,
-        GOSSIP_MAX_SIZE);
+        GOSSIP_MAX_SIZE,
+        new AttestationGossipPreValidator(spec, recentChainData, metricsSystem)
+            .forTopic(TOPIC_NAME));
   }
 
   @Test
@@ -137,6 +148,79 @@ public class SingleAttestationTopicHandlerTest
     assertThat(result).isCompletedWithValue(ValidationResult.Invalid);
   }
 
+  @Test
+  public void handleMessage_ignoredBeforeDeserialization_staleSlot() {
+    final AttestationGenerator attestationGenerator = new AttestationGenerator(spec, validatorKeys);
+    final Attestation attestation = attestationGenerator.validAttestation(getChainHead());
+    storageSystem.chainUpdater().setCurrentSlot(validSlot.plus(100));
+    final Bytes serialized = gossipEncoding.encode(attestation);
+
+    final SafeFuture<ValidationResult> result =
+        topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+    assertThat(result).isCompletedWithValue(ValidationResult.Ignore);
+    assertThat(getFastRejectedCount("stale_slot")).isEqualTo(1);
+    verifyNoInteractions(processor);
+  }
+
+  @Test
+  public void handleMessage_ignoredBeforeDeserialization_futureSlot() {
+    final AttestationGenerator attestationGenerator = new AttestationGenerator(spec, validatorKeys);
+    final Attestation attestation = attestationGenerator.validAttestation(getChainHead());
+    final Attestation futureAttestation =
+        attestation
+            .getSchema()
+            .create(
+                attestation.getAggregationBits(),
+                new AttestationData(validSlot.plus(4), attestation.getData()),
+                attestation.getAggregateSignature());
+    final Bytes serialized = gossipEncoding.encode(futureAttestation);
+
+    final SafeFuture<ValidationResult> result =
+        topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+    assertThat(result).isCompletedWithValue(ValidationResult.Ignore);
+    assertThat(getFastRejectedCount("future_slot")).isEqualTo(1);
+    verifyNoInteractions(processor);
+  }
+
+  @Test
+  public void handleMessage_ignoredBeforeDeserialization_alreadySeenAttester() {
+    final AttestationGenerator attestationGenerator = new AttestationGenerator(spec, validatorKeys);
+    final Attestation attestation = attestationGenerator.validAttestation(getChainHead());
+    when(processor.process(any()))
+        .thenReturn(SafeFuture.completedFuture(InternalValidationResult.ACCEPT));
+    final Bytes serialized = gossipEncoding.encode(attestation);
+
+    final SafeFuture<ValidationResult> firstResult =
+        topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+    assertThat(firstResult).isCompletedWithValue(ValidationResult.Valid);
+
+    final SafeFuture<ValidationResult> secondResult =
+        topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+    assertThat(secondResult).isCompletedWithValue(ValidationResult.Ignore);
+    assertThat(getFastRejectedCount("duplicate")).isEqualTo(1);
+    verify(processor, times(1)).process(any());
+  }
+
+  @Test
+  public void handleMessage_notIgnoredBeforeDeserialization_whenNotAccepted() {
+    final AttestationGenerator attestationGenerator = new AttestationGenerator(spec, validatorKeys);
+    final Attestation attestation = attestationGenerator.validAttestation(getChainHead());
+    when(processor.process(any()))
+        .thenReturn(SafeFuture.completedFuture(InternalValidationResult.IGNORE));
+    final Bytes serialized = gossipEncoding.encode(attestation);
+
+    topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+    topicHandler.handleMessage(topicHandler.prepareMessage(serialized));
+    asyncRunner.executeQueuedActions();
+
+    verify(processor, times(2)).process(any());
+  }
+
   @Test
   public void handleMessage_invalidAttestation_invalidSSZ() {
     final Bytes serialized = Bytes.fromHexString("0x3456");
@@ -147,6 +231,12 @@ public class SingleAttestationTopicHandlerTest
     assertThat(result).isCompletedWithValue(ValidationResult.Invalid);
   }
 
+  private long getFastRejectedCount(final String reason) {
+    return metricsSystem
+        .getCounter(TekuMetricCategory.NETWORK, "gossip_fast_rejected_total")
+        .getValue(TOPIC_NAME, reason);
+  }
+
   @Test
   public void returnProperTopicName() {
     assertThat(topicHandler.getTopic())
@@ -28,9 +28,11 @@ import static tech.pegasys.teku.networking.eth2.rpc.core.RpcResponseStatus.INVAL
 import static tech.pegasys.teku.spec.config.Constants.MAX_CHUNK_SIZE;
 import static tech.pegasys.teku.spec.config.Constants.MAX_REQUEST_BLOCKS;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -80,6 +82,8 @@ class BeaconBlocksByRangeMessageHandlerTest {
           .flatMap(Optional::stream)
           .collect(Collectors.toList());
 
+  private final Set<UInt64> finalizedSlots = new HashSet<>();
+
   private final Eth2Peer peer = mock(Eth2Peer.class);
 
   @SuppressWarnings("unchecked")
@@ -408,6 +412,22 @@ class BeaconBlocksByRangeMessageHandlerTest {
 
     verifyBlocksReturned(1, 2, 3, 4, 5);
     verify(combinedChainDataClient, never()).getAncestorRoots(any(), any(), any());
+    verify(combinedChainDataClient, never()).getBlockAtSlotExact(any());
+  }
+
+  @Test
+  void shouldSkipEmptyFinalizedSlots() {
+    final int startBlock = 1;
+    final int count = 5;
+    final int skip = 1;
+    withCanonicalHeadBlock(blocksWStates.get(8));
+    withFinalizedBlocks(0, 1, 2, 4, 5, 6, 7);
+    when(combinedChainDataClient.getFinalizedBlockSszAtSlot(UInt64.valueOf(3)))
+        .thenReturn(completedFuture(Optional.empty()));
+
+    requestBlocks(startBlock, count, skip);
+
+    verifyBlocksReturned(1, 2, 4, 5);
   }
 
   @Test
@@ -441,7 +461,12 @@ class BeaconBlocksByRangeMessageHandlerTest {
   private void verifyBlocksReturned(final int... slots) {
     final InOrder inOrder = Mockito.inOrder(listener);
     for (int slot : slots) {
-      inOrder.verify(listener).respond(blocks.get(slot));
+      final SignedBeaconBlock block = blocks.get(slot);
+      if (finalizedSlots.contains(block.getSlot())) {
+        inOrder.verify(listener).respondSerialized(block.getSlot(), block.sszSerialize());
+      } else {
+        inOrder.verify(listener).respond(block);
+      }
     }
     inOrder.verify(listener).completeSuccessfully();
     verifyNoMoreInteractions(listener);
@@ -481,8 +506,10 @@ class BeaconBlocksByRangeMessageHandlerTest {
               final SignedBeaconBlock block = blocks.get(slot);
               final SafeFuture<Optional<SignedBeaconBlock>> result =
                   completedFuture(Optional.of(block));
+              finalizedSlots.add(block.getSlot());
               when(combinedChainDataClient.getBlockByBlockRoot(block.getRoot())).thenReturn(result);
-              when(combinedChainDataClient.getBlockAtSlotExact(block.getSlot())).thenReturn(result);
+              when(combinedChainDataClient.getFinalizedBlockSszAtSlot(block.getSlot()))
+                  .thenReturn(completedFuture(Optional.of(block.sszSerialize())));
               when(combinedChainDataClient.isFinalized(block.getSlot())).thenReturn(true);
             });
   }
@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.util.ReferenceCounted;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,6 +47,21 @@ public class SnappyCompressorTest {
       new DataStructureUtil(TestSpecFactory.createDefault());
   private final Compressor compressor = new SnappyFramedCompressor();
 
+  @Test
+  public void compress_byteBufMatchesBytes() {
+    final Bytes serializedState = dataStructureUtil.randomBeaconState(0).sszSerialize();
+    final ByteBuf input = Unpooled.wrappedBuffer(serializedState.toArrayUnsafe());
+    final ByteBuf output = Unpooled.directBuffer();
+    try {
+      compressor.compress(input, output);
+
+      assertThat(input.isReadable()).isFalse();
+      assertThat(Bytes.wrapByteBuf(output)).isEqualTo(compressor.compress(serializedState));
+    } finally {
+      output.release();
+    }
+  }
+
   @Test
   public void roundTrip() throws Exception {
     final BeaconState state = dataStructureUtil.randomBeaconState(0);
@@ -46,6 +46,7 @@ import tech.pegasys.teku.infrastructure.subscribers.Subscribers;
 import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.network.p2p.jvmlibp2p.PrivateKeyGenerator;
+import tech.pegasys.teku.networking.eth2.gossip.GossipScheduler;
 import tech.pegasys.teku.networking.eth2.gossip.config.GossipConfigurator;
 import tech.pegasys.teku.networking.eth2.gossip.encoding.GossipEncoding;
 import tech.pegasys.teku.networking.eth2.gossip.forks.GossipForkManager;
@@ -276,6 +277,12 @@ public class Eth2P2PNetworkFactory {
                 .currentSchemaDefinitionsSupplier(currentSchemaDefinitions)
                 .build();
 
+        final GossipScheduler gossipScheduler =
+            new GossipScheduler(
+                metricsSystem,
+                asyncRunner,
+                StubTimeProvider.withTimeInSeconds(1000),
+                GossipScheduler.DEFAULT_MAX_CONCURRENT_TASKS);
         final GossipForkManager.Builder gossipForkManagerBuilder =
             GossipForkManager.builder().spec(spec).recentChainData(recentChainData);
 
@@ -284,7 +291,7 @@ public class Eth2P2PNetworkFactory {
               new GossipForkSubscriptionsCapella(
                   spec.getForkSchedule().getFork(UInt64.ZERO),
                   spec,
-                  asyncRunner,
+                  gossipScheduler,
                   metricsSystem,
                   network,
                   recentChainData,
@@ -303,7 +310,7 @@ public class Eth2P2PNetworkFactory {
               new GossipForkSubscriptionsPhase0(
                   spec.getForkSchedule().getFork(UInt64.ZERO),
                   spec,
-                  asyncRunner,
+                  gossipScheduler,
                   metricsSystem,
                   network,
                   recentChainData,
@@ -30,6 +30,7 @@ import java.time.Duration;
 import java.util.Comparator;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
 import org.apache.logging.log4j.LogManager;
@@ -45,6 +46,7 @@ import tech.pegasys.teku.beacon.sync.SyncServiceFactory;
 import tech.pegasys.teku.beacon.sync.events.CoalescingChainHeadChannel;
 import tech.pegasys.teku.beaconrestapi.BeaconRestApi;
 import tech.pegasys.teku.beaconrestapi.JsonTypeDefinitionBeaconRestApi;
+import tech.pegasys.teku.bls.BLSPublicKeyCache;
 import tech.pegasys.teku.ethereum.events.SlotEventsChannel;
 import tech.pegasys.teku.ethereum.execution.types.Eth1Address;
 import tech.pegasys.teku.ethereum.executionclient.events.ExecutionClientEventsChannel;
@@ -57,6 +59,7 @@ import tech.pegasys.teku.infrastructure.events.EventChannels;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
 import tech.pegasys.teku.infrastructure.io.PortAvailability;
 import tech.pegasys.teku.infrastructure.metrics.SettableLabelledGauge;
+import tech.pegasys.teku.infrastructure.ssz.tree.BatchTreeHasher;
 import tech.pegasys.teku.infrastructure.time.TimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.infrastructure.version.VersionProvider;
@@ -135,6 +138,7 @@ import tech.pegasys.teku.statetransition.validation.ProposerSlashingValidator;
 import tech.pegasys.teku.statetransition.validation.SignedBlsToExecutionChangeValidator;
 import tech.pegasys.teku.statetransition.validation.VoluntaryExitValidator;
 import tech.pegasys.teku.statetransition.validation.signatures.AggregatingSignatureVerificationService;
+import tech.pegasys.teku.statetransition.validation.signatures.SignatureVerificationPriority;
 import tech.pegasys.teku.statetransition.validation.signatures.SignatureVerificationService;
 import tech.pegasys.teku.statetransition.validatorcache.ActiveValidatorCache;
 import tech.pegasys.teku.statetransition.validatorcache.ActiveValidatorChannel;
@@ -349,6 +353,8 @@ public class BeaconChainController extends Service implements BeaconChainControl
     storageQueryChannel = combinedStorageChannel;
     storageUpdateChannel = combinedStorageChannel;
     final VoteUpdateChannel voteUpdateChannel = eventChannels.getPublisher(VoteUpdateChannel.class);
+    initPublicKeyCache(storeConfig);
+    initTreeHashing(storeConfig);
     // Init other services
     return initWeakSubjectivity(storageQueryChannel, storageUpdateChannel)
         .thenCompose(
@@ -384,6 +390,33 @@ public class BeaconChainController extends Service implements BeaconChainControl
         .thenCompose(__ -> timerService.start());
   }
 
+  protected void initPublicKeyCache(final StoreConfig storeConfig) {
+    if (storeConfig.isPublicKeyCachePersistenceEnabled()) {
+      BLSPublicKeyCache.enablePersistence(beaconDataDirectory);
+    }
+    metricsSystem.createGauge(
+        BEACON,
+        "public_key_cache_entries",
+        "Number of decompressed validator public keys held in the public key cache",
+        () -> BLSPublicKeyCache.getInstance().getEntryCount());
+    metricsSystem.createGauge(
+        BEACON,
+        "public_key_cache_off_heap_bytes",
+        "Off-heap memory allocated or mapped by the public key cache",
+        () -> BLSPublicKeyCache.getInstance().getOffHeapSizeBytes());
+    metricsSystem.createGauge(
+        BEACON,
+        "public_key_cache_load_time_millis",
+        "Time taken to load the persisted public key cache on startup",
+        () -> BLSPublicKeyCache.getInstance().getLoadDuration().toMillis());
+  }
+
+  protected void initTreeHashing(final StoreConfig storeConfig) {
+    final int threshold = storeConfig.getParallelHashingThreshold();
+    BatchTreeHasher.configureParallelHashing(
+        ForkJoinPool.commonPool(), threshold > 0 ? threshold : Integer.MAX_VALUE);
+  }
+
   public void initAll() {
     initKeyValueStore();
     initExecutionLayer();
@@ -765,9 +798,15 @@ public class BeaconChainController extends Service implements BeaconChainControl
             futureItemsMetric,
             "attestations");
     AttestationValidator attestationValidator =
-        new AttestationValidator(spec, recentChainData, signatureVerificationService);
+        new AttestationValidator(
+            spec,
+            recentChainData,
+            signatureVerificationService.withPriority(SignatureVerificationPriority.UNAGGREGATED));
     AggregateAttestationValidator aggregateValidator =
-        new AggregateAttestationValidator(spec, attestationValidator, signatureVerificationService);
+        new AggregateAttestationValidator(
+            spec,
+            attestationValidator,
+            signatureVerificationService.withPriority(SignatureVerificationPriority.AGGREGATE));
     blockImporter.subscribeToVerifiedBlockAttestations(
         (slot, attestations) ->
             attestations.forEach(
@@ -802,7 +841,8 @@ public class BeaconChainController extends Service implements BeaconChainControl
                 recentChainData,
                 syncCommitteeStateUtils,
                 timeProvider,
-                signatureVerificationService));
+                signatureVerificationService.withPriority(
+                    SignatureVerificationPriority.SYNC_CONTRIBUTION)));
 
     syncCommitteeMessagePool =
         new SyncCommitteeMessagePool(
@@ -811,7 +851,8 @@ public class BeaconChainController extends Service implements BeaconChainControl
                 spec,
                 recentChainData,
                 syncCommitteeStateUtils,
-                signatureVerificationService,
+                signatureVerificationService.withPriority(
+                    SignatureVerificationPriority.UNAGGREGATED),
                 timeProvider));
     eventChannels
         .subscribe(SlotEventsChannel.class, syncCommitteeContributionPool)
@@ -894,7 +935,11 @@ public class BeaconChainController extends Service implements BeaconChainControl
   public void initAttestationPool() {
     LOG.debug("BeaconChainController.initAttestationPool()");
     attestationPool =
-        new AggregatingAttestationPool(spec, metricsSystem, DEFAULT_MAXIMUM_ATTESTATION_COUNT);
+        new AggregatingAttestationPool(
+            spec,
+            metricsSystem,
+            DEFAULT_MAXIMUM_ATTESTATION_COUNT,
+            beaconConfig.validatorConfig().getAttestationPackingTimeBudget());
     eventChannels.subscribe(SlotEventsChannel.class, attestationPool);
     blockImporter.subscribeToVerifiedBlockAttestations(
         attestationPool::onAttestationsIncludedInBlock);
@@ -992,7 +1037,7 @@ public class BeaconChainController extends Service implements BeaconChainControl
         blobsSidecarManager,
         pendingBlocks,
         beaconConfig.eth2NetworkConfig().getStartupTargetPeerCount(),
-        signatureVerificationService,
+        signatureVerificationService.withPriority(SignatureVerificationPriority.HISTORICAL_SYNC),
         Duration.ofSeconds(beaconConfig.eth2NetworkConfig().getStartupTimeoutSeconds()),
         spec);
   }
@@ -28,17 +28,21 @@ import tech.pegasys.teku.spec.SpecMilestone;
 import tech.pegasys.teku.storage.api.CombinedStorageChannel;
 import tech.pegasys.teku.storage.api.Eth1DepositStorageChannel;
 import tech.pegasys.teku.storage.api.FinalizedCheckpointChannel;
+import tech.pegasys.teku.storage.api.StorageUpdateChannel;
 import tech.pegasys.teku.storage.api.VoteUpdateChannel;
 import tech.pegasys.teku.storage.server.BatchingVoteUpdateChannel;
 import tech.pegasys.teku.storage.server.ChainStorage;
 import tech.pegasys.teku.storage.server.CombinedStorageChannelSplitter;
 import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.DepositStorage;
+import tech.pegasys.teku.storage.server.GroupCommitStorageUpdateChannel;
 import tech.pegasys.teku.storage.server.RetryingStorageUpdateChannel;
 import tech.pegasys.teku.storage.server.StorageConfiguration;
 import tech.pegasys.teku.storage.server.VersionedDatabaseFactory;
+import tech.pegasys.teku.storage.server.era.EraBlockArchiver;
 import tech.pegasys.teku.storage.server.pruner.BlobsPruner;
 import tech.pegasys.teku.storage.server.pruner.BlockPruner;
+import tech.pegasys.teku.storage.server.pruner.StorageMaintenanceScheduler;
 
 public class StorageService extends Service implements StorageServiceFacade {
   private final StorageConfiguration config;
@@ -46,8 +50,11 @@ public class StorageService extends Service implements StorageServiceFacade {
   private final ServiceConfig serviceConfig;
   private volatile Database database;
   private volatile BatchingVoteUpdateChannel batchingVoteUpdateChannel;
+  private volatile GroupCommitStorageUpdateChannel groupCommitStorageUpdateChannel;
   private volatile Optional<BlockPruner> blockPruner = Optional.empty();
   private volatile Optional<BlobsPruner> blobsPruner = Optional.empty();
+  private volatile Optional<StorageMaintenanceScheduler> maintenanceScheduler = Optional.empty();
+  private volatile Optional<EraBlockArchiver> blockArchiver = Optional.empty();
   private final boolean depositSnapshotStorageEnabled;
 
   public StorageService(
@@ -78,6 +85,15 @@ public class StorageService extends Service implements StorageServiceFacade {
 
               database.migrate();
 
+              maintenanceScheduler =
+                  Optional.of(
+                      new StorageMaintenanceScheduler(
+                          config.getSpec(),
+                          database,
+                          storagePrunerAsyncRunner,
+                          serviceConfig.getTimeProvider(),
+                          serviceConfig.getMetricsSystem(),
+                          config.getMaintenanceIoBudget()));
               if (!config.getDataStorageMode().storesAllBlocks()) {
                 blockPruner =
                     Optional.of(
@@ -85,7 +101,16 @@ public class StorageService extends Service implements StorageServiceFacade {
                             config.getSpec(),
                             database,
                             storagePrunerAsyncRunner,
-                            config.getBlockPruningInterval()));
+                            config.getBlockPruningInterval(),
+                            maintenanceScheduler));
+              }
+              if (config.isEraBlockStoreEnabled()) {
+                blockArchiver =
+                    Optional.of(
+                        new EraBlockArchiver(
+                            database,
+                            storagePrunerAsyncRunner,
+                            config.getBlockArchivingInterval()));
               }
               if (config.getSpec().isMilestoneSupported(SpecMilestone.EIP4844)) {
                 blobsPruner =
@@ -96,38 +121,68 @@ public class StorageService extends Service implements StorageServiceFacade {
                             storagePrunerAsyncRunner,
                             serviceConfig.getTimeProvider(),
                             config.getBlobsPruningInterval(),
-                            config.getBlobsPruningLimit()));
+                            config.getBlobsPruningLimit(),
+                            maintenanceScheduler));
               }
               final EventChannels eventChannels = serviceConfig.getEventChannels();
-              chainStorage = ChainStorage.create(database, config.getSpec());
+              chainStorage =
+                  ChainStorage.create(
+                      serviceConfig.getMetricsSystem(),
+                      database,
+                      config.getSpec(),
+                      config.getFinalizedStateCacheMaxBytes());
               final DepositStorage depositStorage =
                   DepositStorage.create(
                       eventChannels.getPublisher(Eth1EventsChannel.class),
                       database,
                       depositSnapshotStorageEnabled);
 
-              batchingVoteUpdateChannel =
-                  new BatchingVoteUpdateChannel(
-                      chainStorage,
-                      new AsyncRunnerEventThread(
-                          "batch-vote-updater", serviceConfig.getAsyncRunnerFactory()));
+              final StorageUpdateChannel storageUpdateChannel;
+              final VoteUpdateChannel voteUpdateChannel;
+              final RetryingStorageUpdateChannel retryingStorageUpdateChannel =
+                  new RetryingStorageUpdateChannel(chainStorage, serviceConfig.getTimeProvider());
+              if (config.isGroupCommitEnabled()) {
+                groupCommitStorageUpdateChannel =
+                    new GroupCommitStorageUpdateChannel(
+                        retryingStorageUpdateChannel,
+                        new AsyncRunnerEventThread(
+                            "storage-group-commit", serviceConfig.getAsyncRunnerFactory()),
+                        serviceConfig.getTimeProvider(),
+                        serviceConfig.getMetricsSystem(),
+                        config.getGroupCommitMaxSize());
+                groupCommitStorageUpdateChannel.start();
+                storageUpdateChannel = groupCommitStorageUpdateChannel;
+                voteUpdateChannel = groupCommitStorageUpdateChannel;
+              } else {
+                batchingVoteUpdateChannel =
+                    new BatchingVoteUpdateChannel(
+                        chainStorage,
+                        new AsyncRunnerEventThread(
+                            "batch-vote-updater", serviceConfig.getAsyncRunnerFactory()));
+                storageUpdateChannel = retryingStorageUpdateChannel;
+                voteUpdateChannel = batchingVoteUpdateChannel;
+              }
 
               eventChannels.subscribe(
                   CombinedStorageChannel.class,
                   new CombinedStorageChannelSplitter(
                       serviceConfig.createAsyncRunner(
                           "storage_query", STORAGE_QUERY_CHANNEL_PARALLELISM),
-                      new RetryingStorageUpdateChannel(
-                          chainStorage, serviceConfig.getTimeProvider()),
+                      storageUpdateChannel,
                       chainStorage));
 
               eventChannels
                   .subscribe(Eth1DepositStorageChannel.class, depositStorage)
                   .subscribe(Eth1EventsChannel.class, depositStorage)
-                  .subscribe(VoteUpdateChannel.class, batchingVoteUpdateChannel);
+                  .subscribe(VoteUpdateChannel.class, voteUpdateChannel);
               blobsPruner.ifPresent(
                   pruner -> eventChannels.subscribe(FinalizedCheckpointChannel.class, pruner));
             })
+        .thenCompose(
+            __ ->
+                maintenanceScheduler
+                    .map(StorageMaintenanceScheduler::start)
+                    .orElseGet(() -> SafeFuture.completedFuture(null)))
         .thenCompose(
             __ ->
                 blockPruner
@@ -137,6 +192,11 @@ public class StorageService extends Service implements StorageServiceFacade {
             __ ->
                 blobsPruner
                     .map(BlobsPruner::start)
+                    .orElseGet(() -> SafeFuture.completedFuture(null)))
+        .thenCompose(
+            __ ->
+                blockArchiver
+                    .map(EraBlockArchiver::start)
                     .orElseGet(() -> SafeFuture.completedFuture(null)));
   }
 
@@ -145,7 +205,25 @@ public class StorageService extends Service implements StorageServiceFacade {
     return blockPruner
         .map(BlockPruner::stop)
         .orElseGet(() -> SafeFuture.completedFuture(null))
-        .thenCompose(__ -> SafeFuture.fromRunnable(database::close));
+        .thenCompose(
+            __ ->
+                blockArchiver
+                    .map(EraBlockArchiver::stop)
+                    .orElseGet(() -> SafeFuture.completedFuture(null)))
+        .thenCompose(
+            __ ->
+                maintenanceScheduler
+                    .map(StorageMaintenanceScheduler::stop)
+                    .orElseGet(() -> SafeFuture.completedFuture(null)))
+        .thenCompose(
+            __ ->
+                SafeFuture.fromRunnable(
+                    () -> {
+                      if (groupCommitStorageUpdateChannel != null) {
+                        groupCommitStorageUpdateChannel.stop();
+                      }
+                      database.close();
+                    }));
   }
 
   @Override
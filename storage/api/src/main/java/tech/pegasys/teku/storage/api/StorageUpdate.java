@@ -88,6 +88,14 @@ public class StorageUpdate {
     return isEmpty;
   }
 
+  /**
+   * Returns true if applying this update finalizes new data, in which case it must not be grouped
+   * with other updates.
+   */
+  public boolean hasFinalizedData() {
+    return finalizedChainData.isPresent() || optimisticTransitionBlockRootSet;
+  }
+
   public Optional<UInt64> getGenesisTime() {
     return genesisTime;
   }
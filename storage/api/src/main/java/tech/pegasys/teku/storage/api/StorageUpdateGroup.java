@@ -0,0 +1,64 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.api;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Map;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+
+/**
+ * A group of writes to the hot portion of the database which are committed together.
+ *
+ * <p>Unconfirmed blobs sidecars are written first, followed by each update in order and then the
+ * votes. Updates which finalize data can't be grouped.
+ */
+public class StorageUpdateGroup {
+  private final List<BlobsSidecar> blobsSidecars;
+  private final List<StorageUpdate> updates;
+  private final Map<UInt64, VoteTracker> votes;
+
+  public StorageUpdateGroup(
+      final List<BlobsSidecar> blobsSidecars,
+      final List<StorageUpdate> updates,
+      final Map<UInt64, VoteTracker> votes) {
+    checkArgument(
+        updates.stream().noneMatch(StorageUpdate::hasFinalizedData),
+        "Updates with finalized data can't be grouped");
+    this.blobsSidecars = blobsSidecars;
+    this.updates = updates;
+    this.votes = votes;
+  }
+
+  public List<BlobsSidecar> getBlobsSidecars() {
+    return blobsSidecars;
+  }
+
+  public List<StorageUpdate> getUpdates() {
+    return updates;
+  }
+
+  public Map<UInt64, VoteTracker> getVotes() {
+    return votes;
+  }
+
+  public boolean isEmpty() {
+    return blobsSidecars.isEmpty()
+        && votes.isEmpty()
+        && updates.stream().allMatch(StorageUpdate::isEmpty);
+  }
+}
@@ -84,6 +84,8 @@ import tech.pegasys.teku.storage.server.DatabaseContext;
 import tech.pegasys.teku.storage.server.ShuttingDownException;
 import tech.pegasys.teku.storage.server.StateStorageMode;
 import tech.pegasys.teku.storage.server.TestDatabaseContext;
+import tech.pegasys.teku.storage.server.era.EraBlockStore;
+import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.FinalizedUpdater;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.HotUpdater;
 import tech.pegasys.teku.storage.storageSystem.StorageSystem;
@@ -119,6 +121,7 @@ public class DatabaseTest {
   private Database database;
   private RecentChainData recentChainData;
   private UpdatableStore store;
+  private Path eraDirectory;
   private final List<StorageSystem> storageSystems = new ArrayList<>();
 
   @BeforeEach
@@ -1856,6 +1859,86 @@ public class DatabaseTest {
     assertThat(database.getFinalizedBlockAtSlot(UInt64.valueOf(6))).isPresent();
   }
 
+  @TestTemplate
+  public void getFinalizedBlockSszAtSlot_shouldReturnSerializedBlock(final DatabaseContext context)
+      throws Exception {
+    initialize(context, StateStorageMode.ARCHIVE);
+    final List<SignedBlockAndState> blockAndStates = chainBuilder.generateBlocksUpToSlot(6);
+    addBlocks(blockAndStates);
+    final SignedBlockAndState finalizedBlock = chainBuilder.generateBlockAtSlot(8);
+    addBlocks(finalizedBlock);
+    justifyAndFinalizeEpoch(
+        spec.computeEpochAtSlot(finalizedBlock.getSlot()).plus(1), finalizedBlock);
+
+    final SignedBeaconBlock block = blockAndStates.get(3).getBlock();
+    assertThat(database.getFinalizedBlockSszAtSlot(block.getSlot()))
+        .contains(block.sszSerialize());
+    assertThat(database.getFinalizedBlockSszAtSlot(UInt64.valueOf(7))).isEmpty();
+  }
+
+  @TestTemplate
+  public void archiveFinalizedBlocks_shouldMoveFinalizedSegmentOutOfKvStore(
+      final DatabaseContext context) throws IOException {
+    initializeWithEraBlockStore(context);
+    final List<SignedBeaconBlock> blocks = finalizeFirstEraSegment();
+    final SignedBeaconBlock archivedBlock = blocks.get(2);
+    final SignedBeaconBlock unarchivedBlock = blocks.get(blocks.size() - 1);
+
+    assertThat(database.archiveFinalizedBlocks()).isTrue();
+    // The next segment isn't finalized yet
+    assertThat(database.archiveFinalizedBlocks()).isFalse();
+
+    final KvStoreCombinedDao dao = ((KvStoreDatabase) database).dao;
+    assertThat(dao.getFinalizedBlockAtSlot(archivedBlock.getSlot())).isEmpty();
+    assertThat(dao.getSlotForFinalizedBlockRoot(archivedBlock.getRoot()))
+        .contains(archivedBlock.getSlot());
+    assertThat(dao.getFinalizedBlockAtSlot(unarchivedBlock.getSlot())).contains(unarchivedBlock);
+  }
+
+  @TestTemplate
+  public void archiveFinalizedBlocks_shouldKeepArchivedBlocksReadable(final DatabaseContext context)
+      throws IOException {
+    initializeWithEraBlockStore(context);
+    final List<SignedBeaconBlock> blocks = finalizeFirstEraSegment();
+    final int lastSlot = blocks.get(blocks.size() - 1).getSlot().intValue();
+
+    assertThat(database.archiveFinalizedBlocks()).isTrue();
+
+    assertBlocksFinalized(blocks);
+    assertBlocksAvailableByRoot(blocks);
+    // Spans the archived segment and the blocks still in the key-value store
+    assertFinalizedBlocksAvailableViaStream(1, lastSlot, blocks.toArray(SignedBeaconBlock[]::new));
+
+    restartStorage();
+    assertBlocksAvailableByRoot(blocks);
+    assertFinalizedBlocksAvailableViaStream(1, lastSlot, blocks.toArray(SignedBeaconBlock[]::new));
+  }
+
+  @TestTemplate
+  public void archiveFinalizedBlocks_shouldRemoveBlocksLeftInKvStoreAfterRestart(
+      final DatabaseContext context) throws IOException {
+    initializeWithEraBlockStore(context);
+    final List<SignedBeaconBlock> blocks = finalizeFirstEraSegment();
+    final SignedBeaconBlock archivedBlock = blocks.get(2);
+
+    // Write the segment without removing the blocks, as if the node stopped between the two
+    final UInt64 segmentEnd = UInt64.valueOf(EraBlockStore.SLOTS_PER_SEGMENT - 1);
+    try (final EraBlockStore eraBlockStore = EraBlockStore.open(eraDirectory, spec);
+        final Stream<SignedBeaconBlock> segmentBlocks =
+            database.streamFinalizedBlocks(ZERO, segmentEnd)) {
+      eraBlockStore.writeSegment(ZERO, segmentBlocks.iterator());
+    }
+    restartStorage();
+    final KvStoreCombinedDao dao = ((KvStoreDatabase) database).dao;
+    assertThat(dao.getFinalizedBlockAtSlot(archivedBlock.getSlot())).contains(archivedBlock);
+
+    assertThat(database.archiveFinalizedBlocks()).isTrue();
+    assertThat(dao.getFinalizedBlockAtSlot(archivedBlock.getSlot())).isEmpty();
+    assertThat(database.archiveFinalizedBlocks()).isFalse();
+    assertBlocksFinalized(blocks);
+    assertBlocksAvailableByRoot(blocks);
+  }
+
   private List<Map.Entry<Bytes32, UInt64>> getFinalizedStateRootsList() {
     try (final Stream<Map.Entry<Bytes32, UInt64>> roots = database.getFinalizedStateRoots()) {
       return roots.map(entry -> Map.entry(entry.getKey(), entry.getValue())).collect(toList());
@@ -2214,6 +2297,33 @@ public class DatabaseTest {
     return valA.compareTo(valB) == 0;
   }
 
+  private void initializeWithEraBlockStore(final DatabaseContext context) throws IOException {
+    storageMode = StateStorageMode.ARCHIVE;
+    final Path tmpDir = Files.createTempDirectory("storageTest");
+    tmpDirectories.add(tmpDir.toFile());
+    eraDirectory = tmpDir.resolve("era");
+    setDefaultStorage(
+        context.createStorageWithEraBlockStore(
+            spec, tmpDir, storageMode, StoreConfig.createDefault()));
+    initGenesis();
+  }
+
+  /**
+   * Finalize blocks in the first segment and the start of the next one.
+   *
+   * @return the finalized blocks, excluding genesis
+   */
+  private List<SignedBeaconBlock> finalizeFirstEraSegment() {
+    final List<SignedBlockAndState> blocks =
+        new ArrayList<>(chainBuilder.generateBlocksUpToSlot(6));
+    blocks.add(chainBuilder.generateBlockAtSlot(EraBlockStore.SLOTS_PER_SEGMENT + 1));
+    addBlocks(blocks);
+    final SignedBlockAndState finalizedBlock = blocks.get(blocks.size() - 1);
+    justifyAndFinalizeEpoch(
+        spec.computeEpochAtSlot(finalizedBlock.getSlot()).plus(1), finalizedBlock);
+    return blocks.stream().map(SignedBlockAndState::getBlock).collect(toList());
+  }
+
   private void initGenesis() {
     recentChainData.initializeFromGenesis(genesisBlockAndState.getState(), UInt64.ZERO);
     store = recentChainData.getStore();
@@ -0,0 +1,117 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.protoarray;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.config.ProgressiveBalancesMode;
+import tech.pegasys.teku.spec.datastructures.blocks.BlockCheckpoints;
+import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
+
+/**
+ * Simulates a long period of non-finality where the proto array holds many thousands of nodes but
+ * each batch of attestations only moves votes between a few blocks close to the chain head.
+ */
+@Fork(1)
+@State(Scope.Thread)
+public class ProtoArrayBenchmark {
+  private static final Checkpoint GENESIS_CHECKPOINT = new Checkpoint(UInt64.ZERO, Bytes32.ZERO);
+  private static final UInt64 CURRENT_EPOCH = UInt64.valueOf(400);
+  private static final int FORK_INTERVAL = 32;
+  private static final int CHANGED_NODES_PER_BATCH = 16;
+
+  @Param({"10000", "50000"})
+  int nodeCount;
+
+  @Param({"true", "false"})
+  boolean incremental;
+
+  private final Random random = new Random(12498);
+  private ProtoArray protoArray;
+  private boolean addWeight;
+
+  @Setup
+  public void setup() {
+    protoArray =
+        new ProtoArrayBuilder()
+            .currentEpoch(CURRENT_EPOCH)
+            .justifiedCheckpoint(GENESIS_CHECKPOINT)
+            .finalizedCheckpoint(GENESIS_CHECKPOINT)
+            .progressiveBalancesMode(ProgressiveBalancesMode.FULL)
+            .pruneThreshold(Integer.MAX_VALUE)
+            .build();
+    protoArray.setIncrementalScoreChangesEnabled(incremental);
+    addBlock(UInt64.ZERO, Bytes32.ZERO, Bytes32.ZERO);
+
+    // A canonical chain with a short-lived fork branching off every FORK_INTERVAL blocks
+    Bytes32 parentRoot = Bytes32.ZERO;
+    for (int i = 1; i < nodeCount; i++) {
+      final Bytes32 blockRoot = Bytes32.random(random);
+      if (i % FORK_INTERVAL == 0) {
+        addBlock(UInt64.valueOf(i), blockRoot, protoArray.getNodes().get(i - 2).getBlockRoot());
+      } else {
+        addBlock(UInt64.valueOf(i), blockRoot, parentRoot);
+        parentRoot = blockRoot;
+      }
+    }
+    applyScoreChanges(new LongArrayList(Collections.nCopies(nodeCount, 0L)));
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void applyAttestationBatch(Blackhole bh) {
+    // Alternate between adding and removing weight so node weights stay bounded
+    addWeight = !addWeight;
+    final LongList deltas = new LongArrayList(Collections.nCopies(nodeCount, 0L));
+    for (int i = 0; i < CHANGED_NODES_PER_BATCH; i++) {
+      deltas.set(nodeCount - 1 - i, addWeight ? 32_000_000_000L : -32_000_000_000L);
+    }
+    applyScoreChanges(deltas);
+    bh.consume(
+        protoArray.findOptimisticHead(CURRENT_EPOCH, GENESIS_CHECKPOINT, GENESIS_CHECKPOINT));
+  }
+
+  private void applyScoreChanges(final LongList deltas) {
+    protoArray.applyScoreChanges(deltas, CURRENT_EPOCH, GENESIS_CHECKPOINT, GENESIS_CHECKPOINT);
+  }
+
+  private void addBlock(final UInt64 slot, final Bytes32 blockRoot, final Bytes32 parentRoot) {
+    protoArray.onBlock(
+        slot,
+        blockRoot,
+        parentRoot,
+        Bytes32.ZERO,
+        new BlockCheckpoints(
+            GENESIS_CHECKPOINT, GENESIS_CHECKPOINT, GENESIS_CHECKPOINT, GENESIS_CHECKPOINT),
+        Bytes32.ZERO,
+        false);
+  }
+}
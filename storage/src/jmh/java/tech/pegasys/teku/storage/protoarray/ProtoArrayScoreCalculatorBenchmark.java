@@ -0,0 +1,118 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.protoarray;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.forkchoice.StubVoteUpdater;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+
+/**
+ * Compares fork choice delta computation over {@link VoteTracker} objects with the columnar {@link
+ * VoteTrackerColumns} storage. Balances differ between runs so every vote produces a score change
+ * on each invocation.
+ */
+@Fork(1)
+@State(Scope.Thread)
+public class ProtoArrayScoreCalculatorBenchmark {
+  private static final int BLOCK_COUNT = 64;
+
+  @Param({"1000000", "2000000"})
+  int validatorCount;
+
+  private final Map<Bytes32, Integer> blockIndices = new HashMap<>();
+  private final List<UInt64> balances1 = new ArrayList<>();
+  private final List<UInt64> balances2 = new ArrayList<>();
+  private StubVoteUpdater voteUpdater;
+  private VoteTrackerColumns voteColumns;
+  private boolean flip;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < BLOCK_COUNT; i++) {
+      blockIndices.put(Bytes32.random(), i);
+    }
+    final List<Bytes32> blockRoots = new ArrayList<>(blockIndices.keySet());
+    voteUpdater = new StubVoteUpdater();
+    voteColumns = new VoteTrackerColumns(validatorCount, 1000);
+    for (int i = 0; i < validatorCount; i++) {
+      // Use distinct Bytes32 instances as votes decoded from separate attestations would be
+      final Bytes32 root = blockRoots.get(i % BLOCK_COUNT).copy();
+      final VoteTracker vote = new VoteTracker(Bytes32.ZERO, root, UInt64.ONE);
+      voteUpdater.putVote(UInt64.valueOf(i), vote);
+      voteColumns.set(i, vote);
+      balances1.add(UInt64.valueOf(32_000_000_000L));
+      balances2.add(UInt64.valueOf(31_000_000_000L));
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void computeDeltasVoteUpdater(Blackhole bh) {
+    flip = !flip;
+    bh.consume(
+        ProtoArrayScoreCalculator.computeDeltas(
+            voteUpdater,
+            BLOCK_COUNT,
+            this::getIndexByRoot,
+            flip ? balances1 : balances2,
+            flip ? balances2 : balances1,
+            Optional.empty(),
+            Optional.empty(),
+            UInt64.ZERO,
+            UInt64.ZERO));
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void computeDeltasColumnar(Blackhole bh) {
+    flip = !flip;
+    bh.consume(
+        ProtoArrayScoreCalculator.computeDeltas(
+            voteColumns,
+            bh::consume,
+            BLOCK_COUNT,
+            this::getIndexByRoot,
+            flip ? balances1 : balances2,
+            flip ? balances2 : balances1,
+            Optional.empty(),
+            Optional.empty(),
+            UInt64.ZERO,
+            UInt64.ZERO));
+  }
+
+  private Optional<Integer> getIndexByRoot(final Bytes32 root) {
+    return Optional.ofNullable(blockIndices.get(root));
+  }
+}
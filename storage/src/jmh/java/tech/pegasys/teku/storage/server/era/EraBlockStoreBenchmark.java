@@ -0,0 +1,96 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.era;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+@Fork(1)
+@State(Scope.Thread)
+public class EraBlockStoreBenchmark {
+  private static final int SEGMENT_COUNT = 4;
+  private static final int SLOTS = SEGMENT_COUNT * EraBlockStore.SLOTS_PER_SEGMENT;
+
+  private final Spec spec = TestSpecFactory.createMinimalAltair();
+  private final Random random = new Random(1);
+  private EraBlockStore store;
+  private Path tempDirectory;
+
+  @Setup
+  public void setup() throws Exception {
+    tempDirectory = Files.createTempDirectory(getClass().getSimpleName());
+    store = EraBlockStore.open(tempDirectory, spec);
+    final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+    for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+      final long startSlot = (long) segment * EraBlockStore.SLOTS_PER_SEGMENT;
+      store.writeSegment(
+          UInt64.valueOf(startSlot),
+          LongStream.range(startSlot, startSlot + EraBlockStore.SLOTS_PER_SEGMENT)
+              .mapToObj(dataStructureUtil::randomSignedBeaconBlock)
+              .iterator());
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    store.close();
+    FileUtils.deleteDirectory(tempDirectory.toFile());
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void streamAllBlocks(final Blackhole bh) {
+    try (final Stream<SignedBeaconBlock> blocks =
+        store.streamBlocks(
+            UInt64.ZERO, UInt64.valueOf(SLOTS - 1), (start, end) -> Stream.empty())) {
+      blocks.forEach(bh::consume);
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void readRandomBlock(final Blackhole bh) {
+    bh.consume(store.getBlockAtSlot(UInt64.valueOf(random.nextInt(SLOTS))));
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void readRandomBlockSsz(final Blackhole bh) {
+    final Bytes ssz = store.getBlockSszAtSlot(UInt64.valueOf(random.nextInt(SLOTS))).orElseThrow();
+    bh.consume(ssz);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore;
+
+import static tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory.STORAGE;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
+import tech.pegasys.teku.spec.generator.ChainBuilder;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor.KvStoreTransaction;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
+import tech.pegasys.teku.storage.server.leveldb.LevelDbInstanceFactory;
+import tech.pegasys.teku.storage.server.rocksdb.RocksDbInstanceFactory;
+
+/**
+ * Compares the on-disk size and read latency of finalized blocks and states stored with each value
+ * codec. The database size is printed once the data has been written and the database closed.
+ */
+@Fork(1)
+@State(Scope.Thread)
+public class ValueCodecBenchmark {
+  private static final int SLOTS = 128;
+
+  @Param({"NONE", "SNAPPY", "DEFLATE"})
+  private ValueCodec codec;
+
+  @Param({"ROCKSDB", "LEVELDB"})
+  private String engine;
+
+  private final Spec spec = TestSpecFactory.createMinimalAltair();
+  private final Random random = new Random(1);
+  private V6SchemaCombinedSnapshot schema;
+  private KvStoreConfiguration configuration;
+  private KvStoreAccessor db;
+  private Path tempDirectory;
+
+  @Setup
+  public void setup() throws Exception {
+    tempDirectory = Files.createTempDirectory(getClass().getSimpleName());
+    schema = V6SchemaCombinedSnapshot.createV6(spec, codec);
+    configuration = KvStoreConfiguration.v6SingleDefaults(codec).withDatabaseDir(tempDirectory);
+
+    final ChainBuilder chainBuilder = ChainBuilder.create(spec);
+    chainBuilder.generateGenesis();
+    final List<SignedBlockAndState> chain = chainBuilder.generateBlocksUpToSlot(SLOTS);
+    try (final KvStoreAccessor writeDb = open();
+        final KvStoreTransaction transaction = writeDb.startTransaction()) {
+      for (SignedBlockAndState blockAndState : chain) {
+        transaction.put(
+            schema.getColumnFinalizedBlocksBySlot(),
+            blockAndState.getSlot(),
+            blockAndState.getBlock());
+        transaction.put(
+            schema.getColumnFinalizedStatesBySlot(),
+            blockAndState.getSlot(),
+            blockAndState.getState());
+      }
+      transaction.commit();
+    }
+    System.out.printf(
+        "%n%s database size with %s values: %d bytes%n", engine, codec, getDatabaseSize());
+    db = open();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    db.close();
+    FileUtils.deleteDirectory(tempDirectory.toFile());
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void readRandomBlock(final Blackhole bh) {
+    bh.consume(db.get(schema.getColumnFinalizedBlocksBySlot(), randomSlot()));
+  }
+
+  @Benchmark
+  @Warmup(iterations = 3, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+  public void readRandomState(final Blackhole bh) {
+    bh.consume(db.get(schema.getColumnFinalizedStatesBySlot(), randomSlot()));
+  }
+
+  private UInt64 randomSlot() {
+    return UInt64.valueOf(random.nextInt(SLOTS) + 1);
+  }
+
+  private KvStoreAccessor open() {
+    if (engine.equals("LEVELDB")) {
+      return LevelDbInstanceFactory.create(
+          new NoOpMetricsSystem(), STORAGE, configuration, schema.getAllColumns());
+    }
+    return RocksDbInstanceFactory.create(
+        new NoOpMetricsSystem(),
+        STORAGE,
+        configuration,
+        schema.getAllColumns(),
+        schema.getDeletedColumnIds());
+  }
+
+  private long getDatabaseSize() throws IOException {
+    try (final Stream<Path> files = Files.walk(tempDirectory)) {
+      return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+    }
+  }
+}
@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
@@ -136,6 +137,17 @@ public class CombinedChainDataClient {
     return historicalChainData.getLatestFinalizedBlockAtSlot(slot);
   }
 
+  /**
+   * Returns the SSZ serialization of the finalized block proposed at the requested slot, without
+   * deserializing it. If the slot was empty or isn't finalized, nothing is returned.
+   *
+   * @param slot the slot to get the block for
+   * @return the serialized block at the requested slot or empty if there is no finalized block
+   */
+  public SafeFuture<Optional<Bytes>> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return historicalChainData.getFinalizedBlockSszAtSlot(slot);
+  }
+
   public SafeFuture<Optional<SignedBeaconBlock>> getFinalizedBlockInEffectAtSlot(
       final UInt64 slot) {
     return historicalChainData.getLatestFinalizedBlockAtSlot(slot);
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -107,21 +108,78 @@ public class ForkChoiceStrategy implements BlockMetadataStore, ReadOnlyForkChoic
       final Checkpoint justifiedCheckpoint,
       final List<UInt64> justifiedStateEffectiveBalances,
       final UInt64 proposerBoostAmount) {
+    return applyScoreChanges(
+        (previousBalances, previousProposerBoostRoot, previousProposerBoostAmount) ->
+            ProtoArrayScoreCalculator.computeDeltas(
+                voteUpdater,
+                getTotalTrackedNodeCount(),
+                protoArray::getIndexByRoot,
+                previousBalances,
+                justifiedStateEffectiveBalances,
+                previousProposerBoostRoot,
+                proposerBoostRoot,
+                previousProposerBoostAmount,
+                proposerBoostAmount),
+        proposerBoostRoot,
+        currentEpoch,
+        finalizedCheckpoint,
+        justifiedCheckpoint,
+        justifiedStateEffectiveBalances,
+        proposerBoostAmount);
+  }
+
+  /**
+   * The same as {@link #applyPendingVotes(VoteUpdater, Optional, UInt64, Checkpoint, Checkpoint,
+   * List, UInt64)} but working directly on the columnar vote storage
+   *
+   * @param votes the votes to apply. Votes are updated in place
+   * @param onVoteUpdated receives the index of every validator whose vote was updated
+   */
+  public Bytes32 applyPendingVotes(
+      final VoteTrackerColumns votes,
+      final IntConsumer onVoteUpdated,
+      final Optional<Bytes32> proposerBoostRoot,
+      final UInt64 currentEpoch,
+      final Checkpoint finalizedCheckpoint,
+      final Checkpoint justifiedCheckpoint,
+      final List<UInt64> justifiedStateEffectiveBalances,
+      final UInt64 proposerBoostAmount) {
+    return applyScoreChanges(
+        (previousBalances, previousProposerBoostRoot, previousProposerBoostAmount) ->
+            ProtoArrayScoreCalculator.computeDeltas(
+                votes,
+                onVoteUpdated,
+                getTotalTrackedNodeCount(),
+                protoArray::getIndexByRoot,
+                previousBalances,
+                justifiedStateEffectiveBalances,
+                previousProposerBoostRoot,
+                proposerBoostRoot,
+                previousProposerBoostAmount,
+                proposerBoostAmount),
+        proposerBoostRoot,
+        currentEpoch,
+        finalizedCheckpoint,
+        justifiedCheckpoint,
+        justifiedStateEffectiveBalances,
+        proposerBoostAmount);
+  }
+
+  private Bytes32 applyScoreChanges(
+      final DeltasCalculator deltasCalculator,
+      final Optional<Bytes32> proposerBoostRoot,
+      final UInt64 currentEpoch,
+      final Checkpoint finalizedCheckpoint,
+      final Checkpoint justifiedCheckpoint,
+      final List<UInt64> justifiedStateEffectiveBalances,
+      final UInt64 proposerBoostAmount) {
     protoArrayLock.writeLock().lock();
     votesLock.writeLock().lock();
     balancesLock.writeLock().lock();
     try {
       LongList deltas =
-          ProtoArrayScoreCalculator.computeDeltas(
-              voteUpdater,
-              getTotalTrackedNodeCount(),
-              protoArray::getIndexByRoot,
-              balances,
-              justifiedStateEffectiveBalances,
-              this.proposerBoostRoot,
-              proposerBoostRoot,
-              this.proposerBoostAmount,
-              proposerBoostAmount);
+          deltasCalculator.computeDeltas(
+              balances, this.proposerBoostRoot, this.proposerBoostAmount);
 
       protoArray.applyScoreChanges(deltas, currentEpoch, justifiedCheckpoint, finalizedCheckpoint);
       balances = justifiedStateEffectiveBalances;
@@ -568,4 +626,12 @@ public class ForkChoiceStrategy implements BlockMetadataStore, ReadOnlyForkChoic
       protoArrayLock.writeLock().unlock();
     }
   }
+
+  @FunctionalInterface
+  private interface DeltasCalculator {
+    LongList computeDeltas(
+        List<UInt64> previousBalances,
+        Optional<Bytes32> previousProposerBoostRoot,
+        UInt64 previousProposerBoostAmount);
+  }
 }
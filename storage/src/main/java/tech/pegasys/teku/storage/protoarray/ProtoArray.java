@@ -20,12 +20,17 @@ import static tech.pegasys.teku.spec.datastructures.forkchoice.ProtoNodeValidati
 import static tech.pegasys.teku.spec.datastructures.forkchoice.ProtoNodeValidationStatus.OPTIMISTIC;
 import static tech.pegasys.teku.spec.datastructures.forkchoice.ProtoNodeValidationStatus.VALID;
 
+import com.google.common.annotations.VisibleForTesting;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -72,6 +77,22 @@ public class ProtoArray {
    */
   private final ProtoArrayIndices indices = new ProtoArrayIndices();
 
+  /**
+   * The indices of the children of each node, kept in the same order as {@link #nodes}. Allows
+   * incremental score updates to re-evaluate the best child of a node without scanning the whole
+   * array.
+   */
+  private final List<IntList> childIndices = new ArrayList<>();
+
+  /**
+   * Indices of nodes which have been added or had their checkpoints changed since best descendants
+   * were last updated. Their ancestors have to be revisited on the next score update even when they
+   * receive no weight changes.
+   */
+  private final IntSet dirtyNodeIndices = new IntOpenHashSet();
+
+  private boolean incrementalScoreChangesEnabled = true;
+
   ProtoArray(
       final int pruneThreshold,
       final UInt64 currentEpoch,
@@ -121,6 +142,11 @@ public class ProtoArray {
     this.pruneThreshold = pruneThreshold;
   }
 
+  @VisibleForTesting
+  void setIncrementalScoreChangesEnabled(final boolean incrementalScoreChangesEnabled) {
+    this.incrementalScoreChangesEnabled = incrementalScoreChangesEnabled;
+  }
+
   /**
    * Register a block with the fork choice. It is only sane to supply a `None` parent for the
    * genesis block.
@@ -155,6 +181,11 @@ public class ProtoArray {
 
     indices.add(blockRoot, nodeIndex);
     nodes.add(node);
+    childIndices.add(new IntArrayList(1));
+    node.getParentIndex()
+        .filter(parentIndex -> parentIndex < nodeIndex)
+        .ifPresent(parentIndex -> childIndices.get(parentIndex).add(nodeIndex));
+    dirtyNodeIndices.add(nodeIndex);
 
     updateBestDescendantOfParent(node, nodeIndex);
   }
@@ -216,6 +247,7 @@ public class ProtoArray {
       this.finalizedCheckpoint = finalizedCheckpoint;
       // Justified or finalized epoch changed so we have to re-evaluate all best descendants.
       applyToNodes(this::updateBestDescendantOfParent);
+      dirtyNodeIndices.clear();
     }
     int justifiedIndex =
         indices
@@ -420,11 +452,21 @@ public class ProtoArray {
         getTotalTrackedNodeCount(),
         deltas.size());
 
+    // Changes to the checkpoints can change the viability of any node, so every best descendant
+    // needs to be re-evaluated, not just those on the chains that received weight changes.
+    final boolean viabilityMayHaveChanged =
+        !this.currentEpoch.equals(currentEpoch)
+            || !this.justifiedCheckpoint.equals(justifiedCheckpoint)
+            || !this.finalizedCheckpoint.equals(finalizedCheckpoint);
     this.currentEpoch = currentEpoch;
     this.justifiedCheckpoint = justifiedCheckpoint;
     this.finalizedCheckpoint = finalizedCheckpoint;
 
-    applyDeltas(deltas);
+    if (incrementalScoreChangesEnabled && !viabilityMayHaveChanged) {
+      applyDeltasIncrementally(deltas);
+    } else {
+      applyDeltas(deltas);
+    }
   }
 
   public int getTotalTrackedNodeCount() {
@@ -462,6 +504,24 @@ public class ProtoArray {
 
     // Drop all the nodes prior to finalization.
     nodes.subList(0, finalizedIndex).clear();
+    childIndices.subList(0, finalizedIndex).clear();
+
+    // Children are always after their parent so all children of the remaining nodes remain too.
+    for (IntList children : childIndices) {
+      for (int i = 0; i < children.size(); i++) {
+        children.set(i, children.getInt(i) - finalizedIndex);
+      }
+    }
+
+    final IntList remainingDirtyNodeIndices = new IntArrayList(dirtyNodeIndices.size());
+    dirtyNodeIndices.forEach(
+        (int dirtyNodeIndex) -> {
+          if (dirtyNodeIndex >= finalizedIndex) {
+            remainingDirtyNodeIndices.add(dirtyNodeIndex - finalizedIndex);
+          }
+        });
+    dirtyNodeIndices.clear();
+    dirtyNodeIndices.addAll(remainingDirtyNodeIndices);
 
     indices.offsetIndices(finalizedIndex);
 
@@ -671,12 +731,85 @@ public class ProtoArray {
   }
 
   public void pullUpBlockCheckpoints(final Bytes32 blockRoot) {
-    getProtoNode(blockRoot).ifPresent(ProtoNode::pullUpCheckpoints);
+    indices
+        .get(blockRoot)
+        .filter(blockIndex -> blockIndex < getTotalTrackedNodeCount())
+        .ifPresent(
+            blockIndex -> {
+              getNodeByIndex(blockIndex).pullUpCheckpoints();
+              dirtyNodeIndices.add((int) blockIndex);
+            });
   }
 
   private void applyDeltas(final LongList deltas) {
     applyToNodes((node, nodeIndex) -> applyDelta(deltas, node, nodeIndex));
     applyToNodes(this::updateBestDescendantOfParent);
+    dirtyNodeIndices.clear();
+  }
+
+  /**
+   * Equivalent to {@link #applyDeltas(LongList)} but only visits the nodes which received a
+   * non-zero delta or were marked dirty, plus their ancestors. The best child of each visited node
+   * is re-evaluated against all of its children, which gives the same result as the full pass
+   * provided the viability of nodes hasn't changed since the last update.
+   */
+  private void applyDeltasIncrementally(final LongList deltas) {
+    final int[] affectedNodeIndices = collectAffectedNodeIndices(deltas);
+    if (affectedNodeIndices.length > getTotalTrackedNodeCount() / 2) {
+      // Most of the tree is affected, a linear pass is cheaper than sorting the affected nodes
+      applyDeltas(deltas);
+      return;
+    }
+
+    // Iterate in descending order so children are always processed before their parents
+    Arrays.sort(affectedNodeIndices);
+    for (int i = affectedNodeIndices.length - 1; i >= 0; i--) {
+      final int nodeIndex = affectedNodeIndices[i];
+      final ProtoNode node = getNodeByIndex(nodeIndex);
+      // No point processing the genesis block.
+      if (!node.getBlockRoot().equals(Bytes32.ZERO)) {
+        applyDelta(deltas, node, nodeIndex);
+      }
+    }
+    for (int i = affectedNodeIndices.length - 1; i >= 0; i--) {
+      updateBestChildAndDescendant(affectedNodeIndices[i]);
+    }
+    dirtyNodeIndices.clear();
+  }
+
+  private int[] collectAffectedNodeIndices(final LongList deltas) {
+    final IntSet affectedNodeIndices = new IntOpenHashSet(dirtyNodeIndices);
+    for (int nodeIndex = 0; nodeIndex < deltas.size(); nodeIndex++) {
+      if (deltas.getLong(nodeIndex) != 0) {
+        affectedNodeIndices.add(nodeIndex);
+      }
+    }
+    final IntList result = new IntArrayList(affectedNodeIndices.size());
+    final IntIterator iterator = affectedNodeIndices.iterator();
+    while (iterator.hasNext()) {
+      result.add(iterator.nextInt());
+    }
+    // Walk up the ancestors of each changed node, stopping as soon as we reach a node that is
+    // already included since its ancestors will be (or already have been) added from there.
+    for (int i = 0; i < result.size(); i++) {
+      Optional<Integer> parentIndex = getNodeByIndex(result.getInt(i)).getParentIndex();
+      while (parentIndex.isPresent() && affectedNodeIndices.add((int) parentIndex.get())) {
+        result.add((int) parentIndex.get());
+        parentIndex = getNodeByIndex(parentIndex.get()).getParentIndex();
+      }
+    }
+    return result.toIntArray();
+  }
+
+  private void updateBestChildAndDescendant(final int parentIndex) {
+    // Visit children in the same order as the full pass through the array would
+    final IntList children = childIndices.get(parentIndex);
+    for (int i = children.size() - 1; i >= 0; i--) {
+      final int childIndex = children.getInt(i);
+      if (!getNodeByIndex(childIndex).getBlockRoot().equals(Bytes32.ZERO)) {
+        maybeUpdateBestChildAndDescendant(parentIndex, childIndex);
+      }
+    }
   }
 
   private void updateBestDescendantOfParent(final ProtoNode node, final int nodeIndex) {
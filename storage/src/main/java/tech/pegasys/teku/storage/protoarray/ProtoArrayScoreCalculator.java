@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
@@ -70,6 +71,80 @@ class ProtoArrayScoreCalculator {
     return deltas;
   }
 
+  /**
+   * Same as {@link #computeDeltas(VoteUpdater, int, Function, List, List, Optional, Optional,
+   * UInt64, UInt64)} but reads votes directly from the columnar vote storage without materializing
+   * {@link VoteTracker} instances. Updated votes are written straight back to {@code votes} and
+   * their validator indices are reported to {@code onVoteUpdated}.
+   */
+  static LongList computeDeltas(
+      final VoteTrackerColumns votes,
+      final IntConsumer onVoteUpdated,
+      final int protoArraySize,
+      final Function<Bytes32, Optional<Integer>> getIndexByRoot,
+      final List<UInt64> oldBalances,
+      final List<UInt64> newBalances,
+      final Optional<Bytes32> previousProposerBoostRoot,
+      final Optional<Bytes32> newProposerBoostRoot,
+      final UInt64 previousBoostAmount,
+      final UInt64 newBoostAmount) {
+    final LongList deltas = new LongArrayList(Collections.nCopies(protoArraySize, 0L));
+
+    // Resolve every distinct voted root once rather than once per validator
+    final int[] deltaIndices = new int[votes.getRootCount()];
+    for (int rootIndex = 0; rootIndex < deltaIndices.length; rootIndex++) {
+      final int deltaIndex = getIndexByRoot.apply(votes.getRoot(rootIndex)).orElse(-1);
+      checkState(deltaIndex < deltas.size(), "ProtoArrayForkChoice: Invalid node delta index");
+      deltaIndices[rootIndex] = deltaIndex;
+    }
+
+    final int oldBalancesSize = oldBalances.size();
+    final int newBalancesSize = newBalances.size();
+    final int voteCount = votes.getVoteCount();
+    for (int validatorIndex = 0; validatorIndex < voteCount; validatorIndex++) {
+      final int currentRootIndex = votes.getCurrentRootIndex(validatorIndex);
+      final int nextRootIndex = votes.getNextRootIndex(validatorIndex);
+
+      // There is no need to create a score change if the validator has never voted
+      // or both their votes are for the zero hash (alias to the genesis block).
+      if (currentRootIndex == VoteTrackerColumns.ZERO_ROOT_INDEX
+          && nextRootIndex == VoteTrackerColumns.ZERO_ROOT_INDEX) {
+        continue;
+      }
+      // If vote is already count as equivocated, we don't need to do anything more
+      if (votes.isCurrentEquivocating(validatorIndex)) {
+        continue;
+      }
+
+      final long oldBalance =
+          oldBalancesSize > validatorIndex ? oldBalances.get(validatorIndex).longValue() : 0;
+      final long newBalance =
+          newBalancesSize > validatorIndex && !votes.isNextEquivocating(validatorIndex)
+              ? newBalances.get(validatorIndex).longValue()
+              : 0;
+
+      if (currentRootIndex != nextRootIndex || oldBalance != newBalance) {
+        final int currentDeltaIndex = deltaIndices[currentRootIndex];
+        if (currentDeltaIndex >= 0) {
+          deltas.set(
+              currentDeltaIndex, subtractExact(deltas.getLong(currentDeltaIndex), oldBalance));
+        }
+        final int nextDeltaIndex = deltaIndices[nextRootIndex];
+        if (nextDeltaIndex >= 0) {
+          deltas.set(nextDeltaIndex, addExact(deltas.getLong(nextDeltaIndex), newBalance));
+        }
+        votes.applyNextVote(validatorIndex);
+        onVoteUpdated.accept(validatorIndex);
+      }
+    }
+
+    previousProposerBoostRoot.ifPresent(
+        root -> subtractBalance(getIndexByRoot, deltas, root, previousBoostAmount));
+    newProposerBoostRoot.ifPresent(
+        root -> addBalance(getIndexByRoot, deltas, root, newBoostAmount));
+    return deltas;
+  }
+
   private static void computeDelta(
       final VoteUpdater store,
       final Function<Bytes32, Optional<Integer>> getIndexByRoot,
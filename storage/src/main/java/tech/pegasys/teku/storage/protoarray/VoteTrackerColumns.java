@@ -0,0 +1,226 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.protoarray;
+
+import com.google.common.base.MoreObjects;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.tuweni.bytes.Bytes32;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+
+/**
+ * Columnar storage of {@link VoteTracker}s indexed by validator index.
+ *
+ * <p>Instead of one {@link VoteTracker} object per validator, votes are kept in parallel primitive
+ * arrays. Block roots are interned into a root table and referenced by their index in that table,
+ * so the vast majority of validators voting for the same few blocks share a single {@link Bytes32}
+ * instance and delta computation can work with plain int comparisons.
+ *
+ * <p>Root index {@link #ZERO_ROOT_INDEX} always refers to {@link Bytes32#ZERO} so the default
+ * (all zero) column values correspond to {@link VoteTracker#DEFAULT}.
+ *
+ * <p>This class is not thread safe and should be guarded by the store votes lock.
+ */
+public class VoteTrackerColumns {
+  public static final int ZERO_ROOT_INDEX = 0;
+  static final int MIN_ROOT_COUNT_FOR_COMPACTION = 1024;
+
+  private static final byte NEXT_EQUIVOCATING_FLAG = 1;
+  private static final byte CURRENT_EQUIVOCATING_FLAG = 2;
+
+  private final int spareCapacity;
+  private final List<Bytes32> roots = new ObjectArrayList<>();
+  private final Object2IntMap<Bytes32> rootIndices = new Object2IntOpenHashMap<>();
+  private int rootCountForCompaction = MIN_ROOT_COUNT_FOR_COMPACTION;
+
+  private int[] currentRootIndices;
+  private int[] nextRootIndices;
+  private long[] nextEpochs;
+  private byte[] flags;
+  private int highestVotedValidatorIndex = 0;
+
+  public VoteTrackerColumns(final int initialCapacity, final int spareCapacity) {
+    this.spareCapacity = spareCapacity;
+    this.currentRootIndices = new int[initialCapacity];
+    this.nextRootIndices = new int[initialCapacity];
+    this.nextEpochs = new long[initialCapacity];
+    this.flags = new byte[initialCapacity];
+    rootIndices.defaultReturnValue(-1);
+    internRoot(Bytes32.ZERO);
+  }
+
+  public int getHighestVotedValidatorIndex() {
+    return highestVotedValidatorIndex;
+  }
+
+  public VoteTracker get(final int validatorIndex) {
+    if (validatorIndex >= capacity()) {
+      return VoteTracker.DEFAULT;
+    }
+    return new VoteTracker(
+        roots.get(currentRootIndices[validatorIndex]),
+        roots.get(nextRootIndices[validatorIndex]),
+        UInt64.fromLongBits(nextEpochs[validatorIndex]),
+        isNextEquivocating(validatorIndex),
+        isCurrentEquivocating(validatorIndex));
+  }
+
+  public void set(final int validatorIndex, final VoteTracker vote) {
+    ensureCapacity(validatorIndex);
+    currentRootIndices[validatorIndex] = internRoot(vote.getCurrentRoot());
+    nextRootIndices[validatorIndex] = internRoot(vote.getNextRoot());
+    nextEpochs[validatorIndex] = vote.getNextEpoch().longValue();
+    flags[validatorIndex] =
+        (byte)
+            ((vote.isNextEquivocating() ? NEXT_EQUIVOCATING_FLAG : 0)
+                | (vote.isCurrentEquivocating() ? CURRENT_EQUIVOCATING_FLAG : 0));
+    highestVotedValidatorIndex = Math.max(highestVotedValidatorIndex, validatorIndex);
+    if (roots.size() >= rootCountForCompaction) {
+      compactRoots();
+    }
+  }
+
+  int getCurrentRootIndex(final int validatorIndex) {
+    return currentRootIndices[validatorIndex];
+  }
+
+  int getNextRootIndex(final int validatorIndex) {
+    return nextRootIndices[validatorIndex];
+  }
+
+  boolean isNextEquivocating(final int validatorIndex) {
+    return (flags[validatorIndex] & NEXT_EQUIVOCATING_FLAG) != 0;
+  }
+
+  boolean isCurrentEquivocating(final int validatorIndex) {
+    return (flags[validatorIndex] & CURRENT_EQUIVOCATING_FLAG) != 0;
+  }
+
+  /** Returns the number of validator entries which are safe to access with primitive getters */
+  int getVoteCount() {
+    return Math.min(highestVotedValidatorIndex + 1, capacity());
+  }
+
+  int getRootCount() {
+    return roots.size();
+  }
+
+  Bytes32 getRoot(final int rootIndex) {
+    return roots.get(rootIndex);
+  }
+
+  /**
+   * Marks the next vote of the validator as counted, i.e. the current root and equivocation flag
+   * are replaced by the next ones
+   */
+  void applyNextVote(final int validatorIndex) {
+    currentRootIndices[validatorIndex] = nextRootIndices[validatorIndex];
+    final byte flag = flags[validatorIndex];
+    flags[validatorIndex] =
+        (flag & NEXT_EQUIVOCATING_FLAG) != 0
+            ? (byte) (flag | CURRENT_EQUIVOCATING_FLAG)
+            : (byte) (flag & ~CURRENT_EQUIVOCATING_FLAG);
+  }
+
+  private int capacity() {
+    return flags.length;
+  }
+
+  private void ensureCapacity(final int validatorIndex) {
+    if (validatorIndex < capacity()) {
+      return;
+    }
+    final int newCapacity = validatorIndex + spareCapacity;
+    currentRootIndices = Arrays.copyOf(currentRootIndices, newCapacity);
+    nextRootIndices = Arrays.copyOf(nextRootIndices, newCapacity);
+    nextEpochs = Arrays.copyOf(nextEpochs, newCapacity);
+    flags = Arrays.copyOf(flags, newCapacity);
+  }
+
+  private int internRoot(final Bytes32 root) {
+    final int existingIndex = rootIndices.getInt(root);
+    if (existingIndex >= 0) {
+      return existingIndex;
+    }
+    final int newIndex = roots.size();
+    roots.add(root);
+    rootIndices.put(root, newIndex);
+    return newIndex;
+  }
+
+  /** Drops roots which are no longer referenced by any vote from the root table */
+  private void compactRoots() {
+    final int[] newIndices = new int[roots.size()];
+    Arrays.fill(newIndices, -1);
+    final List<Bytes32> oldRoots = new ObjectArrayList<>(roots);
+    roots.clear();
+    rootIndices.clear();
+    internRoot(Bytes32.ZERO);
+    newIndices[ZERO_ROOT_INDEX] = ZERO_ROOT_INDEX;
+    final int voteCount = getVoteCount();
+    for (int i = 0; i < voteCount; i++) {
+      currentRootIndices[i] = remapRoot(oldRoots, newIndices, currentRootIndices[i]);
+      nextRootIndices[i] = remapRoot(oldRoots, newIndices, nextRootIndices[i]);
+    }
+    rootCountForCompaction = Math.max(MIN_ROOT_COUNT_FOR_COMPACTION, roots.size() * 2);
+  }
+
+  private int remapRoot(final List<Bytes32> oldRoots, final int[] newIndices, final int oldIndex) {
+    if (newIndices[oldIndex] < 0) {
+      newIndices[oldIndex] = internRoot(oldRoots.get(oldIndex));
+    }
+    return newIndices[oldIndex];
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final VoteTrackerColumns that = (VoteTrackerColumns) o;
+    if (highestVotedValidatorIndex != that.highestVotedValidatorIndex) {
+      return false;
+    }
+    for (int i = 0; i <= highestVotedValidatorIndex; i++) {
+      if (!get(i).equals(that.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = highestVotedValidatorIndex;
+    for (int i = 0; i <= highestVotedValidatorIndex; i++) {
+      result = 31 * result + get(i).hashCode();
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("highestVotedValidatorIndex", highestVotedValidatorIndex)
+        .add("rootCount", roots.size())
+        .toString();
+  }
+}
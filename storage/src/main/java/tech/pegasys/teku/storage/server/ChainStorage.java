@@ -18,7 +18,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 import tech.pegasys.teku.ethereum.pow.api.DepositTreeSnapshot;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
@@ -40,6 +42,7 @@ import tech.pegasys.teku.storage.api.OnDiskStoreData;
 import tech.pegasys.teku.storage.api.StorageQueryChannel;
 import tech.pegasys.teku.storage.api.StorageUpdate;
 import tech.pegasys.teku.storage.api.StorageUpdateChannel;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
 import tech.pegasys.teku.storage.api.UpdateResult;
 import tech.pegasys.teku.storage.api.VoteUpdateChannel;
 import tech.pegasys.teku.storage.api.WeakSubjectivityState;
@@ -59,10 +62,16 @@ public class ChainStorage
     this.finalizedStateCache = finalizedStateCache;
   }
 
-  public static ChainStorage create(final Database database, final Spec spec) {
+  public static ChainStorage create(
+      final MetricsSystem metricsSystem,
+      final Database database,
+      final Spec spec,
+      final long finalizedStateCacheMaxBytes) {
     final int finalizedStateCacheSize = spec.getSlotsPerEpoch(SpecConfig.GENESIS_EPOCH) * 3;
     return new ChainStorage(
-        database, new FinalizedStateCache(spec, database, finalizedStateCacheSize, true));
+        database,
+        new FinalizedStateCache(
+            metricsSystem, spec, database, finalizedStateCacheSize, finalizedStateCacheMaxBytes));
   }
 
   private synchronized Optional<OnDiskStoreData> getStore() {
@@ -102,6 +111,15 @@ public class ChainStorage
         });
   }
 
+  @Override
+  public SafeFuture<Void> onStorageUpdateGroup(final StorageUpdateGroup group) {
+    return SafeFuture.fromRunnable(
+        () -> {
+          database.updateGroup(group);
+          handleStoreUpdate();
+        });
+  }
+
   @Override
   public SafeFuture<Void> onFinalizedBlocks(final Collection<SignedBeaconBlock> finalizedBlocks) {
     return SafeFuture.fromRunnable(() -> database.storeFinalizedBlocks(finalizedBlocks));
@@ -119,6 +137,13 @@ public class ChainStorage
         () -> database.storeReconstructedFinalizedState(finalizedState, blockRoot));
   }
 
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedStates(
+      final List<SignedBlockAndState> blocksAndStates) {
+    return SafeFuture.fromRunnable(
+        () -> database.storeReconstructedFinalizedStates(blocksAndStates));
+  }
+
   @Override
   public void onChainInitialized(final AnchorPoint initialAnchor) {
     database.storeInitialAnchor(initialAnchor);
@@ -151,6 +176,11 @@ public class ChainStorage
     return SafeFuture.of(() -> database.getFinalizedBlockAtSlot(slot));
   }
 
+  @Override
+  public SafeFuture<Optional<Bytes>> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return SafeFuture.of(() -> database.getFinalizedBlockSszAtSlot(slot));
+  }
+
   @Override
   public SafeFuture<Void> onBlobsSidecar(final BlobsSidecar blobsSidecar) {
     return SafeFuture.fromRunnable(() -> database.storeUnconfirmedBlobsSidecar(blobsSidecar));
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.ethereum.pow.api.DepositTreeSnapshot;
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
@@ -36,6 +37,7 @@ import tech.pegasys.teku.storage.api.OnDiskStoreData;
 import tech.pegasys.teku.storage.api.StorageQueryChannel;
 import tech.pegasys.teku.storage.api.StorageUpdate;
 import tech.pegasys.teku.storage.api.StorageUpdateChannel;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
 import tech.pegasys.teku.storage.api.UpdateResult;
 import tech.pegasys.teku.storage.api.WeakSubjectivityState;
 import tech.pegasys.teku.storage.api.WeakSubjectivityUpdate;
@@ -67,6 +69,11 @@ public class CombinedStorageChannelSplitter implements CombinedStorageChannel {
     return updateDelegate.onStorageUpdate(event);
   }
 
+  @Override
+  public SafeFuture<Void> onStorageUpdateGroup(final StorageUpdateGroup group) {
+    return updateDelegate.onStorageUpdateGroup(group);
+  }
+
   @Override
   public SafeFuture<Void> onFinalizedBlocks(final Collection<SignedBeaconBlock> finalizedBlocks) {
     return updateDelegate.onFinalizedBlocks(finalizedBlocks);
@@ -84,6 +91,12 @@ public class CombinedStorageChannelSplitter implements CombinedStorageChannel {
     return updateDelegate.onReconstructedFinalizedState(finalizedState, blockRoot);
   }
 
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedStates(
+      final List<SignedBlockAndState> blocksAndStates) {
+    return updateDelegate.onReconstructedFinalizedStates(blocksAndStates);
+  }
+
   @Override
   public SafeFuture<Void> onWeakSubjectivityUpdate(
       final WeakSubjectivityUpdate weakSubjectivityUpdate) {
@@ -136,6 +149,11 @@ public class CombinedStorageChannelSplitter implements CombinedStorageChannel {
     return asyncRunner.runAsync(() -> queryDelegate.getFinalizedBlockAtSlot(slot));
   }
 
+  @Override
+  public SafeFuture<Optional<Bytes>> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return asyncRunner.runAsync(() -> queryDelegate.getFinalizedBlockSszAtSlot(slot));
+  }
+
   @Override
   public SafeFuture<Optional<SignedBeaconBlock>> getLatestFinalizedBlockAtSlot(final UInt64 slot) {
     return asyncRunner.runAsync(() -> queryDelegate.getLatestFinalizedBlockAtSlot(slot));
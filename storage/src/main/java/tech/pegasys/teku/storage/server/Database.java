@@ -28,6 +28,7 @@ import tech.pegasys.teku.ethereum.pow.api.MinGenesisTimeBlockEvent;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.datastructures.blocks.BlockCheckpoints;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
 import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
@@ -36,6 +37,7 @@ import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.api.OnDiskStoreData;
 import tech.pegasys.teku.storage.api.StorageUpdate;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
 import tech.pegasys.teku.storage.api.UpdateResult;
 import tech.pegasys.teku.storage.api.WeakSubjectivityState;
 import tech.pegasys.teku.storage.api.WeakSubjectivityUpdate;
@@ -48,12 +50,26 @@ public interface Database extends AutoCloseable {
 
   UpdateResult update(StorageUpdate event);
 
+  /**
+   * Apply a group of updates which don't finalize any data, committing them together.
+   *
+   * @param group the updates to apply
+   */
+  void updateGroup(StorageUpdateGroup group);
+
   void storeFinalizedBlocks(Collection<SignedBeaconBlock> blocks);
 
   void storeFinalizedState(BeaconState state, Bytes32 blockRoot);
 
   void storeReconstructedFinalizedState(BeaconState state, Bytes32 blockRoot);
 
+  /**
+   * Store a sequence of reconstructed finalized states in a single transaction.
+   *
+   * @param blocksAndStates the reconstructed states and their blocks, in slot order
+   */
+  void storeReconstructedFinalizedStates(List<SignedBlockAndState> blocksAndStates);
+
   void updateWeakSubjectivityState(WeakSubjectivityUpdate weakSubjectivityUpdate);
 
   void storeUnconfirmedBlobsSidecar(BlobsSidecar blobsSidecar);
@@ -115,6 +131,15 @@ public interface Database extends AutoCloseable {
    */
   Optional<SignedBeaconBlock> getFinalizedBlockAtSlot(UInt64 slot);
 
+  /**
+   * Return the SSZ serialization of the finalized block at this slot if such a block exists,
+   * without deserializing it.
+   *
+   * @param slot The slot to query
+   * @return Returns the serialized finalized block proposed at this slot, if such a block exists
+   */
+  Optional<Bytes> getFinalizedBlockSszAtSlot(UInt64 slot);
+
   /** @return The earliest available finalized block's slot */
   Optional<UInt64> getEarliestAvailableBlockSlot();
 
@@ -213,4 +238,18 @@ public interface Database extends AutoCloseable {
   void setFinalizedDepositSnapshot(DepositTreeSnapshot finalizedDepositSnapshot);
 
   void pruneFinalizedBlocks(UInt64 lastSlotToPrune);
+
+  /**
+   * Compact the storage used by finalized blocks and blobs sidecars between the given slots
+   * inclusive, reclaiming the space left by entries that have been pruned.
+   */
+  void compactFinalizedRange(UInt64 firstSlot, UInt64 lastSlot);
+
+  /**
+   * Move the next range of finalized blocks out of the key-value store into an immutable segment
+   * file, if segment storage is enabled.
+   *
+   * @return true if a range was archived and more may be ready, false otherwise
+   */
+  boolean archiveFinalizedBlocks();
 }
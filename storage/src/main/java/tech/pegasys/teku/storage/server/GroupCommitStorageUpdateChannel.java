@@ -0,0 +1,358 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes32;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import tech.pegasys.teku.ethereum.pow.api.DepositTreeSnapshot;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.async.eventthread.EventThread;
+import tech.pegasys.teku.infrastructure.metrics.MetricsHistogram;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.TimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
+import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
+import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+import tech.pegasys.teku.spec.datastructures.state.AnchorPoint;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.storage.api.StorageUpdate;
+import tech.pegasys.teku.storage.api.StorageUpdateChannel;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
+import tech.pegasys.teku.storage.api.UpdateResult;
+import tech.pegasys.teku.storage.api.VoteUpdateChannel;
+import tech.pegasys.teku.storage.api.WeakSubjectivityUpdate;
+
+/**
+ * Queues storage writes and applies them on a dedicated thread, coalescing consecutive updates to
+ * the hot database into a single commit.
+ *
+ * <p>Hot block and state updates, unconfirmed blobs sidecars and votes which arrive while the
+ * previous commit is in progress are grouped into the next commit, up to a maximum group size so
+ * the latency of any one write stays bounded. Writes are applied in the order they were received.
+ * Any other write, including updates which finalize data, acts as a barrier: it is only applied
+ * once all earlier writes have been committed and is never grouped, so finalized checkpoints are
+ * persisted in order and the returned future only completes once the write is durable.
+ */
+public class GroupCommitStorageUpdateChannel implements StorageUpdateChannel, VoteUpdateChannel {
+  private static final Logger LOG = LogManager.getLogger();
+
+  public static final int DEFAULT_MAX_GROUP_SIZE = 64;
+
+  private final StorageUpdateChannel delegate;
+  private final EventThread eventThread;
+  private final TimeProvider timeProvider;
+  private final int maxGroupSize;
+  private final MetricsHistogram groupSizeHistogram;
+  private final MetricsHistogram commitLatencyHistogram;
+
+  private final Deque<PendingWrite> pendingWrites = new ArrayDeque<>();
+  private boolean nextExecutionScheduled = false;
+
+  public GroupCommitStorageUpdateChannel(
+      final StorageUpdateChannel delegate,
+      final EventThread eventThread,
+      final TimeProvider timeProvider,
+      final MetricsSystem metricsSystem,
+      final int maxGroupSize) {
+    this.delegate = delegate;
+    this.eventThread = eventThread;
+    this.timeProvider = timeProvider;
+    this.maxGroupSize = maxGroupSize;
+    metricsSystem.createGauge(
+        TekuMetricCategory.STORAGE,
+        "write_queue_depth",
+        "Number of storage writes waiting to be committed",
+        this::getQueueDepth);
+    this.groupSizeHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.STORAGE,
+            metricsSystem,
+            "group_commit_size",
+            "Histogram of the number of writes applied in each storage commit",
+            3,
+            List.of());
+    this.commitLatencyHistogram =
+        MetricsHistogram.create(
+            TekuMetricCategory.STORAGE,
+            metricsSystem,
+            "group_commit_latency",
+            "Histogram of the time in milliseconds taken to apply each storage commit",
+            3,
+            List.of());
+  }
+
+  @Override
+  public SafeFuture<UpdateResult> onStorageUpdate(final StorageUpdate event) {
+    if (event.hasFinalizedData()) {
+      return addBarrier(() -> delegate.onStorageUpdate(event));
+    }
+    final SafeFuture<UpdateResult> result = new SafeFuture<>();
+    addPendingWrite(
+        new PendingWrite(
+            Optional.of(event),
+            Optional.empty(),
+            Map.of(),
+            Optional.empty(),
+            () -> result.complete(UpdateResult.EMPTY),
+            result::completeExceptionally));
+    return result;
+  }
+
+  @Override
+  public SafeFuture<Void> onStorageUpdateGroup(final StorageUpdateGroup group) {
+    return addBarrier(() -> delegate.onStorageUpdateGroup(group));
+  }
+
+  @Override
+  public SafeFuture<Void> onBlobsSidecar(final BlobsSidecar blobsSidecar) {
+    final SafeFuture<Void> result = new SafeFuture<>();
+    addPendingWrite(
+        new PendingWrite(
+            Optional.empty(),
+            Optional.of(blobsSidecar),
+            Map.of(),
+            Optional.empty(),
+            () -> result.complete(null),
+            result::completeExceptionally));
+    return result;
+  }
+
+  @Override
+  public synchronized void onVotesUpdated(final Map<UInt64, VoteTracker> votes) {
+    final PendingWrite lastWrite = pendingWrites.peekLast();
+    if (lastWrite != null && lastWrite.isVotes()) {
+      // Nothing is queued after the last votes so merging into them keeps writes in order
+      lastWrite.votes.putAll(votes);
+      return;
+    }
+    addPendingWrite(
+        new PendingWrite(
+            Optional.empty(),
+            Optional.empty(),
+            new HashMap<>(votes),
+            Optional.empty(),
+            () -> {},
+            error -> LOG.error("Failed to store votes", error)));
+  }
+
+  @Override
+  public SafeFuture<Void> onFinalizedBlocks(final Collection<SignedBeaconBlock> finalizedBlocks) {
+    return addBarrier(() -> delegate.onFinalizedBlocks(finalizedBlocks));
+  }
+
+  @Override
+  public SafeFuture<Void> onFinalizedState(
+      final BeaconState finalizedState, final Bytes32 blockRoot) {
+    return addBarrier(() -> delegate.onFinalizedState(finalizedState, blockRoot));
+  }
+
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedState(
+      final BeaconState finalizedState, final Bytes32 blockRoot) {
+    return addBarrier(() -> delegate.onReconstructedFinalizedState(finalizedState, blockRoot));
+  }
+
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedStates(
+      final List<SignedBlockAndState> blocksAndStates) {
+    return addBarrier(() -> delegate.onReconstructedFinalizedStates(blocksAndStates));
+  }
+
+  @Override
+  public SafeFuture<Void> onWeakSubjectivityUpdate(
+      final WeakSubjectivityUpdate weakSubjectivityUpdate) {
+    return addBarrier(() -> delegate.onWeakSubjectivityUpdate(weakSubjectivityUpdate));
+  }
+
+  @Override
+  public SafeFuture<Void> onFinalizedDepositSnapshot(
+      final DepositTreeSnapshot depositTreeSnapshot) {
+    return addBarrier(() -> delegate.onFinalizedDepositSnapshot(depositTreeSnapshot));
+  }
+
+  @Override
+  public SafeFuture<Void> onBlobsSidecarRemoval(final SlotAndBlockRoot blobsSidecarKey) {
+    return addBarrier(() -> delegate.onBlobsSidecarRemoval(blobsSidecarKey));
+  }
+
+  @Override
+  public void onChainInitialized(final AnchorPoint initialAnchor) {
+    addBarrier(
+            () -> {
+              delegate.onChainInitialized(initialAnchor);
+              return SafeFuture.COMPLETE;
+            })
+        .ifExceptionGetsHereRaiseABug();
+  }
+
+  public void start() {
+    eventThread.start();
+  }
+
+  /** Applies any writes already queued and then stops processing writes. */
+  public void stop() {
+    awaitCompletion();
+    eventThread.stop();
+  }
+
+  @VisibleForTesting
+  public void awaitCompletion() {
+    eventThread.executeFuture(() -> SafeFuture.COMPLETE).join();
+  }
+
+  private <T> SafeFuture<T> addBarrier(final Supplier<SafeFuture<T>> action) {
+    final SafeFuture<T> result = new SafeFuture<>();
+    addPendingWrite(
+        new PendingWrite(
+            Optional.empty(),
+            Optional.empty(),
+            Map.of(),
+            Optional.of(
+                () -> {
+                  final SafeFuture<T> actionResult = action.get();
+                  actionResult.propagateTo(result);
+                  return actionResult;
+                }),
+            () -> {},
+            result::completeExceptionally));
+    return result;
+  }
+
+  private synchronized void addPendingWrite(final PendingWrite pendingWrite) {
+    pendingWrites.add(pendingWrite);
+    scheduleExecution();
+  }
+
+  private synchronized void scheduleExecution() {
+    if (!nextExecutionScheduled) {
+      nextExecutionScheduled = true;
+      eventThread.execute(this::processPendingWrites);
+    }
+  }
+
+  private synchronized double getQueueDepth() {
+    return pendingWrites.size();
+  }
+
+  private void processPendingWrites() {
+    eventThread.checkOnEventThread();
+    while (true) {
+      final List<PendingWrite> group = new ArrayList<>();
+      final Optional<PendingWrite> barrier;
+      synchronized (this) {
+        int groupedUpdates = 0;
+        // Votes don't count towards the group size but are only taken in queue order so they are
+        // never committed ahead of an earlier barrier
+        while (!pendingWrites.isEmpty()
+            && pendingWrites.peek().isGroupable()
+            && (pendingWrites.peek().isVotes() || groupedUpdates < maxGroupSize)) {
+          final PendingWrite pendingWrite = pendingWrites.remove();
+          if (!pendingWrite.isVotes()) {
+            groupedUpdates++;
+          }
+          group.add(pendingWrite);
+        }
+        barrier = group.isEmpty() ? Optional.ofNullable(pendingWrites.poll()) : Optional.empty();
+        if (group.isEmpty() && barrier.isEmpty()) {
+          nextExecutionScheduled = false;
+          return;
+        }
+      }
+      if (barrier.isPresent()) {
+        applyBarrier(barrier.get());
+      } else {
+        commitGroup(group);
+      }
+    }
+  }
+
+  private void commitGroup(final List<PendingWrite> group) {
+    final List<BlobsSidecar> blobsSidecars = new ArrayList<>();
+    final List<StorageUpdate> updates = new ArrayList<>();
+    final Map<UInt64, VoteTracker> votes = new HashMap<>();
+    for (PendingWrite pendingWrite : group) {
+      pendingWrite.blobsSidecar.ifPresent(blobsSidecars::add);
+      pendingWrite.update.ifPresent(updates::add);
+      // Later votes for the same validator replace earlier ones
+      votes.putAll(pendingWrite.votes);
+    }
+    final UInt64 startTime = timeProvider.getTimeInMillis();
+    try {
+      delegate.onStorageUpdateGroup(new StorageUpdateGroup(blobsSidecars, updates, votes)).join();
+    } catch (final Throwable t) {
+      group.forEach(pendingWrite -> pendingWrite.onFailure.accept(t));
+      return;
+    }
+    groupSizeHistogram.recordValue(group.size());
+    commitLatencyHistogram.recordValue(
+        timeProvider.getTimeInMillis().minusMinZero(startTime).longValue());
+    group.forEach(pendingWrite -> pendingWrite.onCommitted.run());
+  }
+
+  private void applyBarrier(final PendingWrite barrier) {
+    try {
+      barrier.barrierAction.orElseThrow().get().join();
+    } catch (final Throwable t) {
+      barrier.onFailure.accept(t);
+    }
+  }
+
+  private static class PendingWrite {
+    private final Optional<StorageUpdate> update;
+    private final Optional<BlobsSidecar> blobsSidecar;
+    private final Map<UInt64, VoteTracker> votes;
+    private final Optional<Supplier<SafeFuture<?>>> barrierAction;
+    private final Runnable onCommitted;
+    private final Consumer<Throwable> onFailure;
+
+    private PendingWrite(
+        final Optional<StorageUpdate> update,
+        final Optional<BlobsSidecar> blobsSidecar,
+        final Map<UInt64, VoteTracker> votes,
+        final Optional<Supplier<SafeFuture<?>>> barrierAction,
+        final Runnable onCommitted,
+        final Consumer<Throwable> onFailure) {
+      this.update = update;
+      this.blobsSidecar = blobsSidecar;
+      this.votes = votes;
+      this.barrierAction = barrierAction;
+      this.onCommitted = onCommitted;
+      this.onFailure = onFailure;
+    }
+
+    public boolean isGroupable() {
+      return barrierAction.isEmpty();
+    }
+
+    public boolean isVotes() {
+      return update.isEmpty() && blobsSidecar.isEmpty() && barrierAction.isEmpty();
+    }
+  }
+}
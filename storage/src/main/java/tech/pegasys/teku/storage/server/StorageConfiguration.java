@@ -17,6 +17,7 @@ import java.time.Duration;
 import tech.pegasys.teku.ethereum.execution.types.Eth1Address;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
 import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public class StorageConfiguration {
 
@@ -27,6 +28,14 @@ public class StorageConfiguration {
   public static final Duration DEFAULT_BLOCK_PRUNING_INTERVAL = Duration.ofHours(1);
   public static final Duration DEFAULT_BLOBS_PRUNING_INTERVAL = Duration.ofMinutes(1);
   public static final int DEFAULT_BLOBS_PRUNING_LIMIT = 32;
+  public static final boolean DEFAULT_ERA_BLOCK_STORE_ENABLED = false;
+  public static final Duration DEFAULT_BLOCK_ARCHIVING_INTERVAL = Duration.ofMinutes(5);
+  public static final int DEFAULT_GROUP_COMMIT_MAX_SIZE =
+      GroupCommitStorageUpdateChannel.DEFAULT_MAX_GROUP_SIZE;
+  public static final int DEFAULT_MAINTENANCE_IO_BUDGET = 0;
+  public static final ValueCodec DEFAULT_VALUE_CODEC = ValueCodec.NONE;
+  public static final long DEFAULT_FINALIZED_STATE_CACHE_MAX_BYTES =
+      Runtime.getRuntime().maxMemory() / 16;
 
   private final Eth1Address eth1DepositContract;
 
@@ -39,6 +48,12 @@ public class StorageConfiguration {
   private final Duration blockPruningInterval;
   private final Duration blobsPruningInterval;
   private final int blobsPruningLimit;
+  private final boolean eraBlockStoreEnabled;
+  private final Duration blockArchivingInterval;
+  private final int groupCommitMaxSize;
+  private final int maintenanceIoBudget;
+  private final ValueCodec dataStorageValueCodec;
+  private final long finalizedStateCacheMaxBytes;
 
   private StorageConfiguration(
       final Eth1Address eth1DepositContract,
@@ -50,6 +65,12 @@ public class StorageConfiguration {
       final Duration blockPruningInterval,
       final Duration blobsPruningInterval,
       final int blobsPruningLimit,
+      final boolean eraBlockStoreEnabled,
+      final Duration blockArchivingInterval,
+      final int groupCommitMaxSize,
+      final int maintenanceIoBudget,
+      final ValueCodec dataStorageValueCodec,
+      final long finalizedStateCacheMaxBytes,
       final Spec spec) {
     this.eth1DepositContract = eth1DepositContract;
     this.dataStorageMode = dataStorageMode;
@@ -60,6 +81,12 @@ public class StorageConfiguration {
     this.blockPruningInterval = blockPruningInterval;
     this.blobsPruningInterval = blobsPruningInterval;
     this.blobsPruningLimit = blobsPruningLimit;
+    this.eraBlockStoreEnabled = eraBlockStoreEnabled;
+    this.blockArchivingInterval = blockArchivingInterval;
+    this.groupCommitMaxSize = groupCommitMaxSize;
+    this.maintenanceIoBudget = maintenanceIoBudget;
+    this.dataStorageValueCodec = dataStorageValueCodec;
+    this.finalizedStateCacheMaxBytes = finalizedStateCacheMaxBytes;
     this.spec = spec;
   }
 
@@ -103,6 +130,34 @@ public class StorageConfiguration {
     return blobsPruningLimit;
   }
 
+  public boolean isEraBlockStoreEnabled() {
+    return eraBlockStoreEnabled;
+  }
+
+  public Duration getBlockArchivingInterval() {
+    return blockArchivingInterval;
+  }
+
+  public boolean isGroupCommitEnabled() {
+    return groupCommitMaxSize > 0;
+  }
+
+  public int getGroupCommitMaxSize() {
+    return groupCommitMaxSize;
+  }
+
+  public int getMaintenanceIoBudget() {
+    return maintenanceIoBudget;
+  }
+
+  public ValueCodec getDataStorageValueCodec() {
+    return dataStorageValueCodec;
+  }
+
+  public long getFinalizedStateCacheMaxBytes() {
+    return finalizedStateCacheMaxBytes;
+  }
+
   public Spec getSpec() {
     return spec;
   }
@@ -119,6 +174,12 @@ public class StorageConfiguration {
     private Duration blockPruningInterval = DEFAULT_BLOCK_PRUNING_INTERVAL;
     private Duration blobsPruningInterval = DEFAULT_BLOBS_PRUNING_INTERVAL;
     private int blobsPruningLimit = DEFAULT_BLOBS_PRUNING_LIMIT;
+    private boolean eraBlockStoreEnabled = DEFAULT_ERA_BLOCK_STORE_ENABLED;
+    private Duration blockArchivingInterval = DEFAULT_BLOCK_ARCHIVING_INTERVAL;
+    private int groupCommitMaxSize = DEFAULT_GROUP_COMMIT_MAX_SIZE;
+    private int maintenanceIoBudget = DEFAULT_MAINTENANCE_IO_BUDGET;
+    private ValueCodec dataStorageValueCodec = DEFAULT_VALUE_CODEC;
+    private long finalizedStateCacheMaxBytes = DEFAULT_FINALIZED_STATE_CACHE_MAX_BYTES;
 
     private Builder() {}
 
@@ -197,6 +258,51 @@ public class StorageConfiguration {
       return this;
     }
 
+    public Builder eraBlockStoreEnabled(final boolean eraBlockStoreEnabled) {
+      this.eraBlockStoreEnabled = eraBlockStoreEnabled;
+      return this;
+    }
+
+    public Builder blockArchivingInterval(final Duration blockArchivingInterval) {
+      if (blockArchivingInterval.isNegative() || blockArchivingInterval.isZero()) {
+        throw new InvalidConfigurationException("Block archiving interval must be positive");
+      }
+      this.blockArchivingInterval = blockArchivingInterval;
+      return this;
+    }
+
+    public Builder groupCommitMaxSize(final int groupCommitMaxSize) {
+      if (groupCommitMaxSize < 0) {
+        throw new InvalidConfigurationException(
+            String.format("Invalid groupCommitMaxSize: %d", groupCommitMaxSize));
+      }
+      this.groupCommitMaxSize = groupCommitMaxSize;
+      return this;
+    }
+
+    public Builder maintenanceIoBudget(final int maintenanceIoBudget) {
+      if (maintenanceIoBudget < 0) {
+        throw new InvalidConfigurationException(
+            String.format("Invalid maintenanceIoBudget: %d", maintenanceIoBudget));
+      }
+      this.maintenanceIoBudget = maintenanceIoBudget;
+      return this;
+    }
+
+    public Builder dataStorageValueCodec(final ValueCodec dataStorageValueCodec) {
+      this.dataStorageValueCodec = dataStorageValueCodec;
+      return this;
+    }
+
+    public Builder finalizedStateCacheMaxBytes(final long finalizedStateCacheMaxBytes) {
+      if (finalizedStateCacheMaxBytes < 0) {
+        throw new InvalidConfigurationException(
+            String.format("Invalid finalizedStateCacheMaxBytes: %d", finalizedStateCacheMaxBytes));
+      }
+      this.finalizedStateCacheMaxBytes = finalizedStateCacheMaxBytes;
+      return this;
+    }
+
     public StorageConfiguration build() {
       return new StorageConfiguration(
           eth1DepositContract,
@@ -208,6 +314,12 @@ public class StorageConfiguration {
           blockPruningInterval,
           blobsPruningInterval,
           blobsPruningLimit,
+          eraBlockStoreEnabled,
+          blockArchivingInterval,
+          groupCommitMaxSize,
+          maintenanceIoBudget,
+          dataStorageValueCodec,
+          finalizedStateCacheMaxBytes,
           spec);
     }
   }
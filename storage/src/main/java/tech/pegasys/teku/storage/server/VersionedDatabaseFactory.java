@@ -24,8 +24,11 @@ import org.apache.logging.log4j.Logger;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import tech.pegasys.teku.ethereum.execution.types.Eth1Address;
 import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.storage.server.era.EraBlockStore;
 import tech.pegasys.teku.storage.server.kvstore.KvStoreConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreDatabase;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 import tech.pegasys.teku.storage.server.leveldb.LevelDbDatabaseFactory;
 import tech.pegasys.teku.storage.server.metadata.V5DatabaseMetadata;
 import tech.pegasys.teku.storage.server.metadata.V6DatabaseMetadata;
@@ -39,6 +42,7 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
   @VisibleForTesting static final String DB_PATH = "db";
   @VisibleForTesting static final String ARCHIVE_PATH = "archive";
   @VisibleForTesting static final String DB_VERSION_PATH = "db.version";
+  @VisibleForTesting static final String ERA_PATH = "era";
   @VisibleForTesting static final String METADATA_FILENAME = "metadata.yml";
   @VisibleForTesting static final String NETWORK_FILENAME = "network.yml";
 
@@ -54,6 +58,8 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
   private final Eth1Address eth1Address;
   private final Spec spec;
   private final boolean storeNonCanonicalBlocks;
+  private final boolean eraBlockStoreEnabled;
+  private final ValueCodec valueCodec;
 
   public VersionedDatabaseFactory(
       final MetricsSystem metricsSystem, final Path dataPath, final StorageConfiguration config) {
@@ -67,6 +73,8 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
     this.stateStorageFrequency = config.getDataStorageFrequency();
     this.eth1Address = config.getEth1DepositContract();
     this.storeNonCanonicalBlocks = config.isStoreNonCanonicalBlocksEnabled();
+    this.eraBlockStoreEnabled = config.isEraBlockStoreEnabled();
+    this.valueCodec = config.getDataStorageValueCodec();
     this.spec = config.getSpec();
 
     this.dbDirectory = this.dataDirectory.toPath().resolve(DB_PATH).toFile();
@@ -142,10 +150,38 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
             dbVersion.getValue(),
             dbDirectory.getAbsolutePath());
         break;
+      case LEVELDB_DIFF:
+        database = createLevelDbDiffDatabase();
+        LOG.info(
+            "Created leveldb_diff Hot and Finalized database ({}) at {}",
+            dbVersion.getValue(),
+            dbDirectory.getAbsolutePath());
+        break;
       default:
         throw new UnsupportedOperationException("Unhandled database version " + dbVersion);
     }
-    return database;
+    return attachEraBlockStore(database);
+  }
+
+  private Database attachEraBlockStore(final Database database) {
+    if (!(database instanceof KvStoreDatabase)) {
+      return database;
+    }
+    final Path eraDirectory = dataDirectory.toPath().resolve(ERA_PATH);
+    // Blocks already moved into segment files remain readable even if archiving is disabled
+    if (!eraBlockStoreEnabled && !eraDirectory.toFile().exists()) {
+      return database;
+    }
+    final EraBlockStore eraBlockStore = EraBlockStore.open(eraDirectory, spec);
+    if (!eraBlockStoreEnabled && eraBlockStore.isEmpty()) {
+      eraBlockStore.close();
+      return database;
+    }
+    LOG.info(
+        "Finalized block segment files ({} existing) at {}",
+        eraBlockStore.getSegmentCount(),
+        eraDirectory.toAbsolutePath());
+    return ((KvStoreDatabase) database).withEraBlockStore(eraBlockStore, eraBlockStoreEnabled);
   }
 
   private Database createV4Database() {
@@ -194,7 +230,8 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
 
       final KvStoreConfiguration dbConfiguration = initV6Configuration();
 
-      final V6SchemaCombinedSnapshot schema = V6SchemaCombinedSnapshot.createV6(spec);
+      final V6SchemaCombinedSnapshot schema =
+          V6SchemaCombinedSnapshot.createV6(spec, dbConfiguration.getValueCodec());
       return RocksDbDatabaseFactory.createV6(
           metricsSystem,
           dbConfiguration.withDatabaseDir(dbDirectory.toPath()),
@@ -264,9 +301,25 @@ public class VersionedDatabaseFactory implements DatabaseFactory {
     }
   }
 
+  private Database createLevelDbDiffDatabase() {
+    try {
+      final KvStoreConfiguration dbConfiguration = initV6Configuration();
+
+      return LevelDbDatabaseFactory.createLevelDbDiff(
+          metricsSystem,
+          dbConfiguration.withDatabaseDir(dbDirectory.toPath()),
+          stateStorageMode,
+          stateStorageFrequency,
+          storeNonCanonicalBlocks,
+          spec);
+    } catch (final IOException e) {
+      throw DatabaseStorageException.unrecoverable("Failed to read metadata", e);
+    }
+  }
+
   private KvStoreConfiguration initV6Configuration() throws IOException {
     final V6DatabaseMetadata metaData =
-        V6DatabaseMetadata.init(getMetadataFile(), V6DatabaseMetadata.singleDBDefault());
+        V6DatabaseMetadata.init(getMetadataFile(), V6DatabaseMetadata.singleDBDefault(valueCodec));
 
     DatabaseNetwork.init(
         getNetworkFile(), spec.getGenesisSpecConfig().getGenesisForkVersion(), eth1Address);
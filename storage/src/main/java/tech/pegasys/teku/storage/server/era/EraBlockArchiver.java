@@ -0,0 +1,79 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.era;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.infrastructure.async.Cancellable;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.service.serviceutils.Service;
+import tech.pegasys.teku.storage.server.Database;
+import tech.pegasys.teku.storage.server.ShuttingDownException;
+
+/**
+ * Periodically moves finalized blocks into segment files. Archiving runs in the background, well
+ * behind finalization, so block import never waits on a segment being written.
+ */
+public class EraBlockArchiver extends Service {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final Database database;
+  private final AsyncRunner asyncRunner;
+  private final Duration archiveInterval;
+
+  private Optional<Cancellable> scheduledArchiver = Optional.empty();
+
+  public EraBlockArchiver(
+      final Database database, final AsyncRunner asyncRunner, final Duration archiveInterval) {
+    this.database = database;
+    this.asyncRunner = asyncRunner;
+    this.archiveInterval = archiveInterval;
+  }
+
+  @Override
+  protected synchronized SafeFuture<?> doStart() {
+    scheduledArchiver =
+        Optional.of(
+            asyncRunner.runWithFixedDelay(
+                this::archiveBlocks,
+                Duration.ZERO,
+                archiveInterval,
+                error -> LOG.error("Failed to archive finalized blocks", error)));
+    return SafeFuture.COMPLETE;
+  }
+
+  @Override
+  protected synchronized SafeFuture<?> doStop() {
+    scheduledArchiver.ifPresent(Cancellable::cancel);
+    return SafeFuture.COMPLETE;
+  }
+
+  private void archiveBlocks() {
+    try {
+      int archivedSegments = 0;
+      while (isRunning() && database.archiveFinalizedBlocks()) {
+        archivedSegments++;
+      }
+      if (archivedSegments > 0) {
+        LOG.info("Moved {} segments of finalized blocks into segment files", archivedSegments);
+      }
+    } catch (ShuttingDownException | RejectedExecutionException ex) {
+      LOG.debug("Shutting down", ex);
+    }
+  }
+}
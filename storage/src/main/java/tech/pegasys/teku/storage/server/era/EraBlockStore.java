@@ -0,0 +1,255 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.era;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.storage.server.DatabaseStorageException;
+
+/**
+ * Store for finalized blocks in immutable, slot-indexed segment files.
+ *
+ * <p>Each segment covers {@link #SLOTS_PER_SEGMENT} slots aligned to a multiple of that size, and
+ * is only written once every block in its range is finalized and known, so segments never change
+ * after being written. Reads are served from memory-mapped files, avoiding the key-value store's
+ * block cache and compaction for historical blocks.
+ *
+ * <p>Segments may not be contiguous. Slots outside any segment are not covered by this store and
+ * are expected to be found in the key-value store.
+ */
+public class EraBlockStore implements AutoCloseable {
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** Sized so that even segments of large blocks remain within the limit for a single mapping. */
+  public static final int SLOTS_PER_SEGMENT = 2048;
+
+  private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("blocks-(\\d{12})\\.era");
+
+  private final Path directory;
+  private final Spec spec;
+  private final NavigableMap<UInt64, EraSegment> segments = new ConcurrentSkipListMap<>();
+
+  private EraBlockStore(final Path directory, final Spec spec) {
+    this.directory = directory;
+    this.spec = spec;
+  }
+
+  /**
+   * Open the segments stored in the specified directory. The directory is created when the first
+   * segment is written.
+   *
+   * @param directory the directory holding the segment files
+   * @param spec the spec used to deserialize blocks
+   * @return the store
+   */
+  public static EraBlockStore open(final Path directory, final Spec spec) {
+    final EraBlockStore store = new EraBlockStore(directory, spec);
+    if (!Files.isDirectory(directory)) {
+      return store;
+    }
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        final String fileName = file.getFileName().toString();
+        if (fileName.endsWith(".tmp")) {
+          // Left behind by a segment which wasn't completely written
+          Files.delete(file);
+          continue;
+        }
+        if (SEGMENT_FILE_NAME.matcher(fileName).matches()) {
+          final EraSegment segment = EraSegment.open(file);
+          store.segments.put(segment.getStartSlot(), segment);
+        }
+      }
+    } catch (final IOException e) {
+      throw DatabaseStorageException.unrecoverable(
+          "Failed to open finalized block segments in " + directory, e);
+    }
+    LOG.debug("Opened {} finalized block segments from {}", store.segments.size(), directory);
+    return store;
+  }
+
+  public static UInt64 getSegmentStartSlot(final UInt64 slot) {
+    return slot.minus(slot.mod(SLOTS_PER_SEGMENT));
+  }
+
+  public boolean isEmpty() {
+    return segments.isEmpty();
+  }
+
+  public int getSegmentCount() {
+    return segments.size();
+  }
+
+  public boolean hasSegment(final UInt64 startSlot) {
+    return segments.containsKey(startSlot);
+  }
+
+  public boolean containsSlot(final UInt64 slot) {
+    return getSegment(slot).isPresent();
+  }
+
+  public Optional<SignedBeaconBlock> getBlockAtSlot(final UInt64 slot) {
+    return getBlockSszAtSlot(slot).map(spec::deserializeSignedBeaconBlock);
+  }
+
+  public Optional<Bytes> getBlockSszAtSlot(final UInt64 slot) {
+    return getSegment(slot).flatMap(segment -> segment.getBlockSsz(slot));
+  }
+
+  /** Get the latest block stored in a segment at or before the specified slot. */
+  public Optional<SignedBeaconBlock> getLatestBlockAtSlot(final UInt64 slot) {
+    for (EraSegment segment : segments.headMap(slot, true).descendingMap().values()) {
+      final Optional<UInt64> blockSlot = segment.getLatestBlockSlot(slot);
+      if (blockSlot.isPresent()) {
+        return getBlockAtSlot(blockSlot.get());
+      }
+    }
+    return Optional.empty();
+  }
+
+  public Optional<UInt64> getEarliestBlockSlot() {
+    return segments.values().stream()
+        .flatMap(segment -> segment.getEarliestBlockSlot().stream())
+        .findFirst();
+  }
+
+  public Optional<SignedBeaconBlock> getEarliestBlock() {
+    return getEarliestBlockSlot().flatMap(this::getBlockAtSlot);
+  }
+
+  /**
+   * Stream blocks in the specified range, reading slots covered by a segment from that segment and
+   * other slots from the supplied source, in slot order.
+   *
+   * @param startSlot the first slot to include
+   * @param endSlot the last slot to include
+   * @param uncoveredBlocks provides the blocks for an inclusive range of slots with no segment
+   * @return the blocks in the range
+   */
+  public Stream<SignedBeaconBlock> streamBlocks(
+      final UInt64 startSlot,
+      final UInt64 endSlot,
+      final BiFunction<UInt64, UInt64, Stream<SignedBeaconBlock>> uncoveredBlocks) {
+    final List<Supplier<Stream<SignedBeaconBlock>>> ranges = new ArrayList<>();
+    UInt64 rangeStart = startSlot;
+    while (rangeStart.isLessThanOrEqualTo(endSlot)) {
+      final Optional<EraSegment> segment = getSegment(rangeStart);
+      final UInt64 rangeEnd;
+      if (segment.isPresent()) {
+        rangeEnd = segment.get().getLastSlot().min(endSlot);
+        final UInt64 first = rangeStart;
+        ranges.add(
+            () ->
+                segment
+                    .get()
+                    .streamBlockSsz(first, rangeEnd)
+                    .map(spec::deserializeSignedBeaconBlock));
+      } else {
+        rangeEnd =
+            Optional.ofNullable(segments.higherKey(rangeStart))
+                .map(nextSegmentStart -> nextSegmentStart.decrement().min(endSlot))
+                .orElse(endSlot);
+        final UInt64 first = rangeStart;
+        ranges.add(() -> uncoveredBlocks.apply(first, rangeEnd));
+      }
+      if (rangeEnd.equals(endSlot)) {
+        break;
+      }
+      rangeStart = rangeEnd.increment();
+    }
+    // Ranges are opened lazily and each is closed once consumed
+    return ranges.stream().flatMap(Supplier::get);
+  }
+
+  /**
+   * Write a segment containing the blocks in its range. The blocks must be finalized and include
+   * every block in the range, as the segment can't be changed once written.
+   *
+   * @param startSlot the first slot of the segment, which must be aligned to the segment size
+   * @param blocks the blocks in the segment, in slot order
+   * @throws IOException if the segment could not be written
+   */
+  public void writeSegment(final UInt64 startSlot, final Iterator<SignedBeaconBlock> blocks)
+      throws IOException {
+    checkArgument(
+        startSlot.mod(SLOTS_PER_SEGMENT).isZero(), "Segment start slot %s not aligned", startSlot);
+    checkArgument(!segments.containsKey(startSlot), "Segment %s already exists", startSlot);
+    Files.createDirectories(directory);
+    final EraSegment segment =
+        EraSegment.write(getSegmentFile(startSlot), startSlot, SLOTS_PER_SEGMENT, blocks);
+    segments.put(startSlot, segment);
+  }
+
+  /**
+   * Delete segments which only contain slots at or before the specified slot. A segment which also
+   * covers later slots is retained.
+   *
+   * @param lastSlotToPrune the last slot which may be removed
+   */
+  public void pruneSegments(final UInt64 lastSlotToPrune) {
+    for (Map.Entry<UInt64, EraSegment> entry :
+        segments.headMap(lastSlotToPrune, true).entrySet()) {
+      final EraSegment segment = entry.getValue();
+      if (segment.getLastSlot().isGreaterThan(lastSlotToPrune)) {
+        continue;
+      }
+      // Existing readers continue to use the mapping after the file is deleted
+      segments.remove(entry.getKey());
+      try {
+        Files.deleteIfExists(segment.getPath());
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Failed to delete " + segment.getPath(), e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    segments.clear();
+  }
+
+  @VisibleForTesting
+  Path getSegmentFile(final UInt64 startSlot) {
+    return directory.resolve(String.format("blocks-%012d.era", startSlot.longValue()));
+  }
+
+  private Optional<EraSegment> getSegment(final UInt64 slot) {
+    return Optional.ofNullable(segments.floorEntry(slot))
+        .map(Map.Entry::getValue)
+        .filter(segment -> segment.containsSlot(slot));
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.era;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.tuweni.bytes.Bytes;
+import org.xerial.snappy.Snappy;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+
+/**
+ * An immutable file holding the snappy compressed SSZ of the blocks in a contiguous range of slots.
+ *
+ * <p>The file consists of a header giving the first slot and number of slots, the compressed
+ * blocks, then an index with the offset and length of the block at each slot, where a length of
+ * zero indicates an empty slot. A trailer gives the position of the index.
+ *
+ * <p>The whole file is memory-mapped, so reads are served directly from the page cache and the
+ * compressed data is never copied onto the heap.
+ */
+class EraSegment {
+  static final long MAGIC = 0x74656b752d657261L; // "teku-era"
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+  static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+  static final int TRAILER_SIZE = Long.BYTES + Long.BYTES;
+
+  private static final int INITIAL_DECOMPRESSION_BUFFER_SIZE = 1 << 20;
+  private static final ThreadLocal<ByteBuffer> DECOMPRESSION_BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_DECOMPRESSION_BUFFER_SIZE));
+
+  private final Path path;
+  private final UInt64 startSlot;
+  private final int slotCount;
+  private final ByteBuffer data;
+  private final int indexOffset;
+
+  private EraSegment(
+      final Path path,
+      final UInt64 startSlot,
+      final int slotCount,
+      final ByteBuffer data,
+      final int indexOffset) {
+    this.path = path;
+    this.startSlot = startSlot;
+    this.slotCount = slotCount;
+    this.data = data;
+    this.indexOffset = indexOffset;
+  }
+
+  static EraSegment open(final Path path) throws IOException {
+    final MappedByteBuffer data;
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("Invalid era segment size " + size + " for " + path);
+      }
+      // The mapping remains valid after the channel is closed
+      data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    final int trailerOffset = data.capacity() - TRAILER_SIZE;
+    if (data.getLong(0) != MAGIC || data.getLong(trailerOffset + Long.BYTES) != MAGIC) {
+      throw new IOException("Era segment " + path + " is incomplete or corrupt");
+    }
+    final int version = data.getInt(Long.BYTES);
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported era segment version " + version + " in " + path);
+    }
+    final UInt64 startSlot = UInt64.fromLongBits(data.getLong(Long.BYTES + Integer.BYTES));
+    final int slotCount = data.getInt(Long.BYTES + Integer.BYTES + Long.BYTES);
+    final long indexOffset = data.getLong(trailerOffset);
+    if (slotCount <= 0
+        || indexOffset < HEADER_SIZE
+        || indexOffset + (long) slotCount * INDEX_ENTRY_SIZE != trailerOffset) {
+      throw new IOException("Era segment " + path + " has an invalid index");
+    }
+    return new EraSegment(path, startSlot, slotCount, data, (int) indexOffset);
+  }
+
+  /**
+   * Write a new segment, replacing any existing file atomically once it is complete.
+   *
+   * @param path the file to create
+   * @param startSlot the first slot covered by the segment
+   * @param slotCount the number of slots covered by the segment
+   * @param blocks the blocks in the range, in slot order
+   * @return the opened segment
+   * @throws IOException if the file could not be written, or would be too large to map
+   */
+  static EraSegment write(
+      final Path path,
+      final UInt64 startSlot,
+      final int slotCount,
+      final Iterator<SignedBeaconBlock> blocks)
+      throws IOException {
+    final Path tempFile = getTempFile(path);
+    final long[] offsets = new long[slotCount];
+    final int[] lengths = new int[slotCount];
+    try (final FileChannel channel =
+            FileChannel.open(
+                tempFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        final DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+      out.writeLong(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(startSlot.longValue());
+      out.writeInt(slotCount);
+      long position = HEADER_SIZE;
+      int previousSlotIndex = -1;
+      while (blocks.hasNext()) {
+        final SignedBeaconBlock block = blocks.next();
+        final int slotIndex = getSlotIndex(startSlot, slotCount, block.getSlot());
+        if (slotIndex <= previousSlotIndex) {
+          throw new IllegalArgumentException("Blocks must be in increasing slot order");
+        }
+        previousSlotIndex = slotIndex;
+        final byte[] compressed = Snappy.compress(block.sszSerialize().toArrayUnsafe());
+        out.write(compressed);
+        offsets[slotIndex] = position;
+        lengths[slotIndex] = compressed.length;
+        position += compressed.length;
+      }
+      final long indexOffset = position;
+      for (int i = 0; i < slotCount; i++) {
+        out.writeLong(offsets[i]);
+        out.writeInt(lengths[i]);
+      }
+      out.writeLong(indexOffset);
+      out.writeLong(MAGIC);
+      out.flush();
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Era segment " + path + " exceeds the maximum mappable size");
+      }
+      channel.force(true);
+    } catch (final IOException | RuntimeException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+    Files.move(
+        tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    return open(path);
+  }
+
+  static Path getTempFile(final Path path) {
+    return path.resolveSibling(path.getFileName() + ".tmp");
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  UInt64 getStartSlot() {
+    return startSlot;
+  }
+
+  UInt64 getLastSlot() {
+    return startSlot.plus(slotCount - 1);
+  }
+
+  boolean containsSlot(final UInt64 slot) {
+    return slot.isGreaterThanOrEqualTo(startSlot) && slot.isLessThanOrEqualTo(getLastSlot());
+  }
+
+  Optional<Bytes> getBlockSsz(final UInt64 slot) {
+    if (!containsSlot(slot)) {
+      return Optional.empty();
+    }
+    return getBlockSsz(slot.minus(startSlot).intValue());
+  }
+
+  /** Find the slot of the last block at or before the specified slot within this segment. */
+  Optional<UInt64> getLatestBlockSlot(final UInt64 maxSlot) {
+    if (maxSlot.isLessThan(startSlot)) {
+      return Optional.empty();
+    }
+    final int maxSlotIndex = maxSlot.min(getLastSlot()).minus(startSlot).intValue();
+    for (int slotIndex = maxSlotIndex; slotIndex >= 0; slotIndex--) {
+      if (hasBlock(slotIndex)) {
+        return Optional.of(startSlot.plus(slotIndex));
+      }
+    }
+    return Optional.empty();
+  }
+
+  Optional<UInt64> getEarliestBlockSlot() {
+    for (int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+      if (hasBlock(slotIndex)) {
+        return Optional.of(startSlot.plus(slotIndex));
+      }
+    }
+    return Optional.empty();
+  }
+
+  Stream<Bytes> streamBlockSsz(final UInt64 firstSlot, final UInt64 lastSlot) {
+    if (lastSlot.isLessThan(startSlot) || firstSlot.isGreaterThan(getLastSlot())) {
+      return Stream.empty();
+    }
+    final int firstIndex = firstSlot.max(startSlot).minus(startSlot).intValue();
+    final int lastIndex = lastSlot.min(getLastSlot()).minus(startSlot).intValue();
+    return IntStream.rangeClosed(firstIndex, lastIndex)
+        .filter(this::hasBlock)
+        .mapToObj(slotIndex -> getBlockSsz(slotIndex).orElseThrow());
+  }
+
+  private boolean hasBlock(final int slotIndex) {
+    return data.getInt(indexOffset + slotIndex * INDEX_ENTRY_SIZE + Long.BYTES) > 0;
+  }
+
+  private Optional<Bytes> getBlockSsz(final int slotIndex) {
+    final int entryOffset = indexOffset + slotIndex * INDEX_ENTRY_SIZE;
+    final int length = data.getInt(entryOffset + Long.BYTES);
+    if (length == 0) {
+      return Optional.empty();
+    }
+    final int offset = (int) data.getLong(entryOffset);
+    final ByteBuffer compressed = data.duplicate();
+    compressed.position(offset).limit(offset + length);
+    return Optional.of(uncompress(compressed));
+  }
+
+  private Bytes uncompress(final ByteBuffer compressed) {
+    try {
+      final int length = Snappy.uncompressedLength(compressed);
+      ByteBuffer buffer = DECOMPRESSION_BUFFER.get();
+      if (buffer.capacity() < length) {
+        buffer = ByteBuffer.allocateDirect(length);
+        DECOMPRESSION_BUFFER.set(buffer);
+      }
+      buffer.clear();
+      Snappy.uncompress(compressed, buffer);
+      final byte[] result = new byte[length];
+      buffer.get(result);
+      return Bytes.wrap(result);
+    } catch (final IOException e) {
+      throw new IllegalStateException("Corrupt block in era segment " + path, e);
+    }
+  }
+
+  private static int getSlotIndex(final UInt64 startSlot, final int slotCount, final UInt64 slot) {
+    if (slot.isLessThan(startSlot) || slot.minus(startSlot).isGreaterThanOrEqualTo(slotCount)) {
+      throw new IllegalArgumentException(
+          "Slot " + slot + " is outside the segment starting at " + startSlot);
+    }
+    return slot.minus(startSlot).intValue();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe bloom filter of keys which grows as keys are added.
+ *
+ * <p>Each key sets all its bits within a single 512 bit block so checking a key touches one cache
+ * line. Once the filter holds as many keys as it was sized for, a new filter twice the size is
+ * added for subsequent keys and lookups check every filter, keeping the false positive rate close
+ * to the target without needing to re-add existing keys. Keys cannot be removed.
+ */
+class BlockedBloomFilter {
+  static final int BITS_PER_KEY = 10;
+  private static final int HASH_FUNCTIONS = 7;
+  private static final int BITS_PER_BLOCK = 512;
+  private static final int LONGS_PER_BLOCK = BITS_PER_BLOCK / Long.SIZE;
+  private static final int BIT_INDEX_SIZE = 9;
+
+  private volatile List<Layer> layers;
+
+  BlockedBloomFilter(final int expectedKeys) {
+    checkArgument(expectedKeys > 0, "Expected keys must be positive");
+    this.layers = List.of(new Layer(expectedKeys));
+  }
+
+  public boolean mightContain(final byte[] key) {
+    final long hash = hash(key);
+    for (Layer layer : layers) {
+      if (layer.mightContain(hash)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public void add(final byte[] key) {
+    addHash(hash(key));
+  }
+
+  /** Add a key by its {@link #hash(byte[])}, avoiding the need to keep the key itself. */
+  synchronized void addHash(final long hash) {
+    Layer current = layers.get(layers.size() - 1);
+    if (current.isFull()) {
+      final List<Layer> updatedLayers = new ArrayList<>(layers);
+      current = new Layer(Math.toIntExact(Math.min(current.capacity * 2L, Integer.MAX_VALUE)));
+      updatedLayers.add(current);
+      layers = List.copyOf(updatedLayers);
+    }
+    current.add(hash);
+  }
+
+  int getLayerCount() {
+    return layers.size();
+  }
+
+  static long hash(final byte[] key) {
+    long hash = key.length;
+    for (int i = 0; i < key.length; i += Long.BYTES) {
+      long word = 0;
+      for (int j = i; j < Math.min(i + Long.BYTES, key.length); j++) {
+        word = (word << 8) | (key[j] & 0xFF);
+      }
+      hash = mix(hash ^ word);
+    }
+    return hash;
+  }
+
+  // Finalisation step of MurmurHash3
+  private static long mix(final long value) {
+    long h = value;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static class Layer {
+    private final int capacity;
+    private final int blockCount;
+    private final AtomicLongArray bits;
+    private int size = 0;
+
+    private Layer(final int capacity) {
+      this.capacity = capacity;
+      this.blockCount =
+          Math.toIntExact(
+              Math.max(1, ((long) capacity * BITS_PER_KEY + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK));
+      this.bits = new AtomicLongArray(Math.multiplyExact(blockCount, LONGS_PER_BLOCK));
+    }
+
+    private boolean isFull() {
+      return size >= capacity;
+    }
+
+    private void add(final long hash) {
+      final int blockStart = getBlockStart(hash);
+      final long bitHash = mix(hash);
+      for (int i = 0; i < HASH_FUNCTIONS; i++) {
+        final int bit = (int) (bitHash >>> (i * BIT_INDEX_SIZE)) & (BITS_PER_BLOCK - 1);
+        final int index = blockStart + (bit >>> 6);
+        final long mask = 1L << (bit & 63);
+        if ((bits.get(index) & mask) == 0) {
+          bits.getAndAccumulate(index, mask, (current, update) -> current | update);
+        }
+      }
+      size++;
+    }
+
+    private boolean mightContain(final long hash) {
+      final int blockStart = getBlockStart(hash);
+      final long bitHash = mix(hash);
+      for (int i = 0; i < HASH_FUNCTIONS; i++) {
+        final int bit = (int) (bitHash >>> (i * BIT_INDEX_SIZE)) & (BITS_PER_BLOCK - 1);
+        if ((bits.get(blockStart + (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int getBlockStart(final long hash) {
+      // Map the upper 32 bits of the hash onto the block range without a division
+      return (int) (((hash >>> 32) * blockCount) >>> 32) * LONGS_PER_BLOCK;
+    }
+  }
+}
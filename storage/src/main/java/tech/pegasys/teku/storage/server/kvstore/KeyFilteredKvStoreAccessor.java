@@ -0,0 +1,328 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore;
+
+import com.google.errorprone.annotations.MustBeClosed;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreVariable;
+
+/**
+ * Keeps an in-memory bloom filter of the keys in selected columns so that lookups of keys which
+ * don't exist return without reading the underlying store.
+ *
+ * <p>The filters are built from the stored keys when created and every key written through a
+ * transaction is added before the transaction commits, so a key that is present is never filtered
+ * out. Deleted keys remain in the filters until the next restart, only increasing the false
+ * positive rate.
+ */
+public class KeyFilteredKvStoreAccessor implements KvStoreAccessor {
+  private static final Logger LOG = LogManager.getLogger();
+  static final int MIN_EXPECTED_KEYS = 1 << 16;
+
+  private final KvStoreAccessor delegate;
+  private final Map<KvStoreColumn<?, ?>, FilteredColumn> filters;
+
+  private KeyFilteredKvStoreAccessor(
+      final KvStoreAccessor delegate, final Map<KvStoreColumn<?, ?>, FilteredColumn> filters) {
+    this.delegate = delegate;
+    this.filters = filters;
+  }
+
+  /**
+   * Create an accessor which filters lookups in the specified columns.
+   *
+   * @param metricsSystem the metrics system to report lookup results to
+   * @param delegate the underlying store, which must only be written to via the new accessor
+   * @param columns the columns to filter, keyed by the name used in metrics
+   * @return the filtered accessor
+   */
+  public static KvStoreAccessor create(
+      final MetricsSystem metricsSystem,
+      final KvStoreAccessor delegate,
+      final Map<String, KvStoreColumn<?, ?>> columns) {
+    final LabelledMetric<Counter> lookupCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.STORAGE,
+            "key_filter_lookups_total",
+            "Number of filtered key lookups by result. The false positive rate is "
+                + "false_positive / (false_positive + filtered)",
+            "column",
+            "result");
+    final Map<KvStoreColumn<?, ?>, FilteredColumn> filters = new HashMap<>();
+    columns.forEach(
+        (name, column) ->
+            filters.put(
+                column, new FilteredColumn(loadFilter(delegate, column), lookupCounter, name)));
+    return new KeyFilteredKvStoreAccessor(delegate, filters);
+  }
+
+  private static <K, V> BlockedBloomFilter loadFilter(
+      final KvStoreAccessor db, final KvStoreColumn<K, V> column) {
+    final long start = System.currentTimeMillis();
+    // Collect the key hashes in a single pass so the filter can be sized before adding them
+    long[] hashes = new long[1024];
+    int keyCount = 0;
+    try (final Stream<K> keys = db.streamKeys(column)) {
+      final Iterator<K> iterator = keys.iterator();
+      while (iterator.hasNext()) {
+        if (keyCount == hashes.length) {
+          hashes = Arrays.copyOf(hashes, Math.multiplyExact(hashes.length, 2));
+        }
+        hashes[keyCount++] =
+            BlockedBloomFilter.hash(column.getKeySerializer().serialize(iterator.next()));
+      }
+    }
+    final int expectedKeys =
+        Math.toIntExact(Math.min(Math.max(keyCount * 2L, MIN_EXPECTED_KEYS), Integer.MAX_VALUE));
+    final BlockedBloomFilter filter = new BlockedBloomFilter(expectedKeys);
+    for (int i = 0; i < keyCount; i++) {
+      filter.addHash(hashes[i]);
+    }
+    LOG.debug(
+        "Loaded key filter for {} keys in {} ms", keyCount, System.currentTimeMillis() - start);
+    return filter;
+  }
+
+  @Override
+  public <T> Optional<T> get(final KvStoreVariable<T> variable) {
+    return delegate.get(variable);
+  }
+
+  @Override
+  public Optional<Bytes> getRaw(final KvStoreVariable<?> variable) {
+    return delegate.getRaw(variable);
+  }
+
+  @Override
+  public <K, V> Optional<V> get(final KvStoreColumn<K, V> column, final K key) {
+    final FilteredColumn filter = filters.get(column);
+    if (filter == null) {
+      return delegate.get(column, key);
+    }
+    if (!filter.mightContain(column.getKeySerializer().serialize(key))) {
+      return Optional.empty();
+    }
+    return filter.recordResult(delegate.get(column, key));
+  }
+
+  @Override
+  public long size(final KvStoreColumn<?, ?> column) {
+    return delegate.size(column);
+  }
+
+  @Override
+  public <K, V> Map<K, V> getAll(final KvStoreColumn<K, V> column) {
+    return delegate.getAll(column);
+  }
+
+  @Override
+  public <K, V> Optional<ColumnEntry<K, V>> getFloorEntry(
+      final KvStoreColumn<K, V> column, final K key) {
+    return delegate.getFloorEntry(column, key);
+  }
+
+  @Override
+  public <K, V> Optional<ColumnEntry<K, V>> getFirstEntry(final KvStoreColumn<K, V> column) {
+    return delegate.getFirstEntry(column);
+  }
+
+  @Override
+  public <K, V> Optional<K> getLastKey(final KvStoreColumn<K, V> column) {
+    return delegate.getLastKey(column);
+  }
+
+  @Override
+  @MustBeClosed
+  public <K, V> Stream<ColumnEntry<K, V>> stream(final KvStoreColumn<K, V> column) {
+    return delegate.stream(column);
+  }
+
+  @Override
+  @MustBeClosed
+  public <K, V> Stream<K> streamKeys(final KvStoreColumn<K, V> column) {
+    return delegate.streamKeys(column);
+  }
+
+  @Override
+  @MustBeClosed
+  public Stream<ColumnEntry<Bytes, Bytes>> streamRaw(final KvStoreColumn<?, ?> column) {
+    return delegate.streamRaw(column);
+  }
+
+  @Override
+  public <K, V> Optional<Bytes> getRaw(final KvStoreColumn<K, V> column, final K key) {
+    final FilteredColumn filter = filters.get(column);
+    if (filter == null) {
+      return delegate.getRaw(column, key);
+    }
+    if (!filter.mightContain(column.getKeySerializer().serialize(key))) {
+      return Optional.empty();
+    }
+    return filter.recordResult(delegate.getRaw(column, key));
+  }
+
+  @Override
+  @MustBeClosed
+  public <K extends Comparable<K>, V> Stream<ColumnEntry<K, V>> stream(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    return delegate.stream(column, from, to);
+  }
+
+  @Override
+  @MustBeClosed
+  public <K extends Comparable<K>, V> Stream<K> streamKeys(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    return delegate.streamKeys(column, from, to);
+  }
+
+  @Override
+  public <K extends Comparable<K>, V> void compactRange(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    delegate.compactRange(column, from, to);
+  }
+
+  @Override
+  @MustBeClosed
+  public KvStoreTransaction startTransaction() {
+    return new KeyFilteredTransaction(delegate.startTransaction());
+  }
+
+  @Override
+  public void close() throws Exception {
+    delegate.close();
+  }
+
+  private static class FilteredColumn {
+    private final BlockedBloomFilter filter;
+    private final Counter filteredCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter presentCounter;
+
+    private FilteredColumn(
+        final BlockedBloomFilter filter,
+        final LabelledMetric<Counter> lookupCounter,
+        final String name) {
+      this.filter = filter;
+      this.filteredCounter = lookupCounter.labels(name, "filtered");
+      this.falsePositiveCounter = lookupCounter.labels(name, "false_positive");
+      this.presentCounter = lookupCounter.labels(name, "present");
+    }
+
+    private boolean mightContain(final byte[] key) {
+      if (filter.mightContain(key)) {
+        return true;
+      }
+      filteredCounter.inc();
+      return false;
+    }
+
+    private <T> Optional<T> recordResult(final Optional<T> result) {
+      if (result.isPresent()) {
+        presentCounter.inc();
+      } else {
+        falsePositiveCounter.inc();
+      }
+      return result;
+    }
+
+    private void add(final byte[] key) {
+      filter.add(key);
+    }
+  }
+
+  private class KeyFilteredTransaction implements KvStoreTransaction {
+    private final KvStoreTransaction delegate;
+
+    private KeyFilteredTransaction(final KvStoreTransaction delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public <T> void put(final KvStoreVariable<T> variable, final T value) {
+      delegate.put(variable, value);
+    }
+
+    @Override
+    public <T> void putRaw(final KvStoreVariable<T> variable, final Bytes value) {
+      delegate.putRaw(variable, value);
+    }
+
+    @Override
+    public <K, V> void put(final KvStoreColumn<K, V> column, final K key, final V value) {
+      addKey(column, key);
+      delegate.put(column, key, value);
+    }
+
+    @Override
+    public <K, V> void putRaw(
+        final KvStoreColumn<K, V> column, final Bytes key, final Bytes value) {
+      final FilteredColumn filter = filters.get(column);
+      if (filter != null) {
+        filter.add(key.toArrayUnsafe());
+      }
+      delegate.putRaw(column, key, value);
+    }
+
+    @Override
+    public <K, V> void put(final KvStoreColumn<K, V> column, final Map<K, V> data) {
+      data.keySet().forEach(key -> addKey(column, key));
+      delegate.put(column, data);
+    }
+
+    @Override
+    public <K, V> void delete(final KvStoreColumn<K, V> column, final K key) {
+      delegate.delete(column, key);
+    }
+
+    @Override
+    public <T> void delete(final KvStoreVariable<T> variable) {
+      delegate.delete(variable);
+    }
+
+    @Override
+    public void commit() {
+      delegate.commit();
+    }
+
+    @Override
+    public void rollback() {
+      delegate.rollback();
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+
+    private <K, V> void addKey(final KvStoreColumn<K, V> column, final K key) {
+      final FilteredColumn filter = filters.get(column);
+      if (filter != null) {
+        filter.add(column.getKeySerializer().serialize(key));
+      }
+    }
+  }
+}
@@ -105,6 +105,20 @@ public interface KvStoreAccessor extends AutoCloseable {
   @MustBeClosed
   <K extends Comparable<K>, V> Stream<K> streamKeys(KvStoreColumn<K, V> column, K from, K to);
 
+  /**
+   * Compact the underlying storage for keys in a column between from and to fully inclusive.
+   *
+   * <p>Deleted entries are only removed from disk when compacted, so compacting a range after
+   * pruning it reclaims space and avoids later iterators skipping over the deleted entries.
+   *
+   * @param column the column to compact
+   * @param from the first key in the range to compact
+   * @param to the last key in the range to compact
+   * @param <K> the key type of the column
+   * @param <V> the value type of the column
+   */
+  <K extends Comparable<K>, V> void compactRange(KvStoreColumn<K, V> column, K from, K to);
+
   KvStoreTransaction startTransaction();
 
   interface KvStoreTransaction extends AutoCloseable {
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import com.google.common.base.MoreObjects;
 import java.nio.file.Path;
 import org.rocksdb.CompressionType;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 /**
  * Defines the configuration for a RocksDB database. The configuration used when a database is
@@ -54,6 +55,9 @@ public class KvStoreConfiguration {
   public static final long DEFAULT_CACHE_CAPACITY = 8 << 20;
   public static final long DEFAULT_WRITE_BUFFER_CAPACITY = 128 << 20;
   private static final boolean DEFAULT_OPTIMISE_FOR_SMALL_DB = false;
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
+  public static final boolean DEFAULT_PARTITIONED_INDEX_AND_FILTERS_ENABLED = true;
+  public static final int DEFAULT_COMPRESSION_DICTIONARY_SIZE = 0;
 
   /* --------------- Safe to Change Properties ------------ */
 
@@ -81,6 +85,18 @@ public class KvStoreConfiguration {
   @JsonProperty(value = "writeBufferCapacity", access = Access.WRITE_ONLY)
   private long writeBufferCapacity = DEFAULT_WRITE_BUFFER_CAPACITY;
 
+  // Table options only apply to newly written files so can be changed for existing databases
+
+  @JsonProperty(value = "bloomFilterBitsPerKey", access = Access.WRITE_ONLY)
+  private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+
+  @JsonProperty(value = "partitionedIndexAndFilters", access = Access.WRITE_ONLY)
+  private boolean partitionedIndexAndFilters = DEFAULT_PARTITIONED_INDEX_AND_FILTERS_ENABLED;
+
+  // Only used when the compression type supports dictionaries, e.g. ZSTD
+  @JsonProperty(value = "compressionDictionarySize", access = Access.WRITE_ONLY)
+  private int compressionDictionarySize = DEFAULT_COMPRESSION_DICTIONARY_SIZE;
+
   // Safe to change but written to file as we need different defaults for hot and finalized
   @JsonProperty(value = "optimizeForSmallDb")
   private boolean optimizeForSmallDb = DEFAULT_OPTIMISE_FOR_SMALL_DB;
@@ -93,6 +109,10 @@ public class KvStoreConfiguration {
   @JsonProperty("bottomMostCompressionType")
   private CompressionType bottomMostCompressionType = CompressionType.NO_COMPRESSION;
 
+  // Compression applied to block and state values before they are passed to the database
+  @JsonProperty("valueCodec")
+  private ValueCodec valueCodec = ValueCodec.NONE;
+
   @JsonIgnore private Path databaseDir;
 
   public static KvStoreConfiguration v4Settings(final Path databaseDir) {
@@ -113,6 +133,12 @@ public class KvStoreConfiguration {
     return new KvStoreConfiguration();
   }
 
+  public static KvStoreConfiguration v6SingleDefaults(final ValueCodec valueCodec) {
+    final KvStoreConfiguration config = new KvStoreConfiguration();
+    config.valueCodec = valueCodec;
+    return config;
+  }
+
   public KvStoreConfiguration withDatabaseDir(final Path databaseDir) {
     this.databaseDir = databaseDir;
     return this;
@@ -154,6 +180,18 @@ public class KvStoreConfiguration {
     return writeBufferCapacity;
   }
 
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public boolean isPartitionedIndexAndFiltersEnabled() {
+    return partitionedIndexAndFilters;
+  }
+
+  public int getCompressionDictionarySize() {
+    return compressionDictionarySize;
+  }
+
   public CompressionType getCompressionType() {
     return compressionType;
   }
@@ -162,6 +200,10 @@ public class KvStoreConfiguration {
     return bottomMostCompressionType;
   }
 
+  public ValueCodec getValueCodec() {
+    return valueCodec;
+  }
+
   public boolean optimizeForSmallDb() {
     return optimizeForSmallDb;
   }
@@ -174,8 +216,12 @@ public class KvStoreConfiguration {
         .add("backgroundThreadCount", backgroundThreadCount)
         .add("cacheCapacity", cacheCapacity)
         .add("writeBufferCapacity", writeBufferCapacity)
+        .add("bloomFilterBitsPerKey", bloomFilterBitsPerKey)
+        .add("partitionedIndexAndFilters", partitionedIndexAndFilters)
+        .add("compressionDictionarySize", compressionDictionarySize)
         .add("compressionType", compressionType)
         .add("bottomMostCompressionType", bottomMostCompressionType)
+        .add("valueCodec", valueCodec)
         .add("databaseDir", databaseDir)
         .toString();
   }
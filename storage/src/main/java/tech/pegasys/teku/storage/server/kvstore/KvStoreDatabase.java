@@ -20,6 +20,7 @@ import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ONE;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.errorprone.annotations.MustBeClosed;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -52,6 +53,7 @@ import tech.pegasys.teku.spec.datastructures.blocks.BeaconBlockSummary;
 import tech.pegasys.teku.spec.datastructures.blocks.BlockAndCheckpoints;
 import tech.pegasys.teku.spec.datastructures.blocks.BlockCheckpoints;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.blocks.StateAndBlockSummary;
 import tech.pegasys.teku.spec.datastructures.execution.ExecutionPayload;
@@ -64,12 +66,14 @@ import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.api.OnDiskStoreData;
 import tech.pegasys.teku.storage.api.StorageUpdate;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
 import tech.pegasys.teku.storage.api.StoredBlockMetadata;
 import tech.pegasys.teku.storage.api.UpdateResult;
 import tech.pegasys.teku.storage.api.WeakSubjectivityState;
 import tech.pegasys.teku.storage.api.WeakSubjectivityUpdate;
 import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.StateStorageMode;
+import tech.pegasys.teku.storage.server.era.EraBlockStore;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.CombinedKvStoreDao;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.CombinedUpdater;
@@ -77,15 +81,18 @@ import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.Fi
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.HotUpdater;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDaoAdapter;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedKvStoreDao;
+import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedStateDiffStorageLogic;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedStateSnapshotStorageLogic;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedStateStorageLogic;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedStateTreeStorageLogic;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4HotKvStoreDao;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombined;
+import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombinedDiffState;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombinedSnapshotState;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombinedTreeState;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaFinalizedSnapshotStateAdapter;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaHotAdapter;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 import tech.pegasys.teku.storage.server.state.StateRootRecorder;
 
 public class KvStoreDatabase implements Database {
@@ -96,20 +103,53 @@ public class KvStoreDatabase implements Database {
   protected final boolean storeNonCanonicalBlocks;
   @VisibleForTesting final KvStoreCombinedDao dao;
   private final StateStorageMode stateStorageMode;
+  private final Optional<EraBlockStore> eraBlockStore;
+  private final boolean archiveFinalizedBlocks;
 
   KvStoreDatabase(
       final KvStoreCombinedDao dao,
       final StateStorageMode stateStorageMode,
       final boolean storeNonCanonicalBlocks,
       final Spec spec) {
+    this(dao, stateStorageMode, storeNonCanonicalBlocks, spec, Optional.empty(), false);
+  }
+
+  private KvStoreDatabase(
+      final KvStoreCombinedDao dao,
+      final StateStorageMode stateStorageMode,
+      final boolean storeNonCanonicalBlocks,
+      final Spec spec,
+      final Optional<EraBlockStore> eraBlockStore,
+      final boolean archiveFinalizedBlocks) {
     this.dao = dao;
     checkNotNull(spec);
     this.stateStorageMode = stateStorageMode;
     this.storeNonCanonicalBlocks = storeNonCanonicalBlocks;
     this.spec = spec;
+    this.eraBlockStore = eraBlockStore;
+    this.archiveFinalizedBlocks = archiveFinalizedBlocks;
+  }
+
+  /**
+   * Create a database which also reads finalized blocks from the specified segment store.
+   *
+   * @param eraBlockStore the store holding finalized blocks moved out of the key-value store
+   * @param archiveFinalizedBlocks whether newly finalized blocks should be moved into the store
+   * @return the new database, which takes ownership of the underlying key-value store
+   */
+  public KvStoreDatabase withEraBlockStore(
+      final EraBlockStore eraBlockStore, final boolean archiveFinalizedBlocks) {
+    return new KvStoreDatabase(
+        dao,
+        stateStorageMode,
+        storeNonCanonicalBlocks,
+        spec,
+        Optional.of(eraBlockStore),
+        archiveFinalizedBlocks);
   }
 
   public static Database createV4(
+      final MetricsSystem metricsSystem,
       final KvStoreAccessor hotDb,
       final KvStoreAccessor finalizedDb,
       final SchemaHotAdapter schemaHot,
@@ -121,15 +161,32 @@ public class KvStoreDatabase implements Database {
     final V4FinalizedStateSnapshotStorageLogic<SchemaFinalizedSnapshotStateAdapter>
         finalizedStateStorageLogic =
             new V4FinalizedStateSnapshotStorageLogic<>(stateStorageFrequency);
-    final V4HotKvStoreDao hotDao = new V4HotKvStoreDao(hotDb, schemaHot);
+    final KvStoreAccessor filteredHotDb =
+        KeyFilteredKvStoreAccessor.create(
+            metricsSystem,
+            hotDb,
+            Map.of(
+                "hot_blocks", schemaHot.getColumnHotBlocksByRoot(),
+                "hot_state_roots", schemaHot.getColumnStateRootToSlotAndBlockRoot()));
+    final KvStoreAccessor filteredFinalizedDb =
+        KeyFilteredKvStoreAccessor.create(
+            metricsSystem,
+            finalizedDb,
+            Map.of(
+                "finalized_blocks", schemaFinalized.getColumnSlotsByFinalizedRoot(),
+                "finalized_state_roots", schemaFinalized.getColumnSlotsByFinalizedStateRoot(),
+                "non_canonical_blocks", schemaFinalized.getColumnNonCanonicalBlocksByRoot()));
+    final V4HotKvStoreDao hotDao = new V4HotKvStoreDao(filteredHotDb, schemaHot);
     final KvStoreCombinedDaoAdapter dao =
         new KvStoreCombinedDaoAdapter(
             hotDao,
-            new V4FinalizedKvStoreDao(finalizedDb, schemaFinalized, finalizedStateStorageLogic));
+            new V4FinalizedKvStoreDao(
+                filteredFinalizedDb, schemaFinalized, finalizedStateStorageLogic));
     return new KvStoreDatabase(dao, stateStorageMode, storeNonCanonicalBlocks, spec);
   }
 
   public static Database createWithStateSnapshots(
+      final MetricsSystem metricsSystem,
       final KvStoreAccessor db,
       final SchemaCombinedSnapshotState schema,
       final StateStorageMode stateStorageMode,
@@ -140,7 +197,13 @@ public class KvStoreDatabase implements Database {
         finalizedStateStorageLogic =
             new V4FinalizedStateSnapshotStorageLogic<>(stateStorageFrequency);
     return create(
-        db, schema, stateStorageMode, storeNonCanonicalBlocks, spec, finalizedStateStorageLogic);
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        storeNonCanonicalBlocks,
+        spec,
+        finalizedStateStorageLogic);
   }
 
   public static Database createWithStateTree(
@@ -154,18 +217,55 @@ public class KvStoreDatabase implements Database {
     final V4FinalizedStateStorageLogic<SchemaCombinedTreeState> finalizedStateStorageLogic =
         new V4FinalizedStateTreeStorageLogic(metricsSystem, spec, maxKnownNodeCacheSize);
     return create(
-        db, schema, stateStorageMode, storeNonCanonicalBlocks, spec, finalizedStateStorageLogic);
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        storeNonCanonicalBlocks,
+        spec,
+        finalizedStateStorageLogic);
+  }
+
+  public static Database createWithStateDiffs(
+      final MetricsSystem metricsSystem,
+      final KvStoreAccessor db,
+      final SchemaCombinedDiffState schema,
+      final StateStorageMode stateStorageMode,
+      final long stateStorageFrequency,
+      final boolean storeNonCanonicalBlocks,
+      final Spec spec) {
+    final V4FinalizedStateStorageLogic<SchemaCombinedDiffState> finalizedStateStorageLogic =
+        new V4FinalizedStateDiffStorageLogic<>(metricsSystem, spec, stateStorageFrequency);
+    return create(
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        storeNonCanonicalBlocks,
+        spec,
+        finalizedStateStorageLogic);
   }
 
   private static <S extends SchemaCombined> KvStoreDatabase create(
+      final MetricsSystem metricsSystem,
       final KvStoreAccessor db,
       final S schema,
       final StateStorageMode stateStorageMode,
       final boolean storeNonCanonicalBlocks,
       final Spec spec,
       final V4FinalizedStateStorageLogic<S> finalizedStateStorageLogic) {
+    final KvStoreAccessor filteredDb =
+        KeyFilteredKvStoreAccessor.create(
+            metricsSystem,
+            db,
+            Map.of(
+                "hot_blocks", schema.getColumnHotBlocksByRoot(),
+                "hot_state_roots", schema.getColumnStateRootToSlotAndBlockRoot(),
+                "finalized_blocks", schema.getColumnSlotsByFinalizedRoot(),
+                "finalized_state_roots", schema.getColumnSlotsByFinalizedStateRoot(),
+                "non_canonical_blocks", schema.getColumnNonCanonicalBlocksByRoot()));
     final CombinedKvStoreDao<S> dao =
-        new CombinedKvStoreDao<>(db, schema, finalizedStateStorageLogic);
+        new CombinedKvStoreDao<>(filteredDb, schema, finalizedStateStorageLogic);
     return new KvStoreDatabase(dao, stateStorageMode, storeNonCanonicalBlocks, spec);
   }
 
@@ -196,17 +296,35 @@ public class KvStoreDatabase implements Database {
 
   @Override
   public Optional<SignedBeaconBlock> getFinalizedBlockAtSlot(final UInt64 slot) {
-    return dao.getFinalizedBlockAtSlot(slot);
+    return eraBlockStore
+        .filter(store -> store.containsSlot(slot))
+        .map(store -> store.getBlockAtSlot(slot))
+        .orElseGet(() -> dao.getFinalizedBlockAtSlot(slot));
+  }
+
+  @Override
+  public Optional<Bytes> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return eraBlockStore
+        .filter(store -> store.containsSlot(slot))
+        .map(store -> store.getBlockSszAtSlot(slot))
+        .orElseGet(() -> dao.getFinalizedBlockSszAtSlot(slot));
   }
 
   @Override
   public Optional<UInt64> getEarliestAvailableBlockSlot() {
-    return dao.getEarliestFinalizedBlockSlot();
+    final Optional<UInt64> earliestSlot = dao.getEarliestFinalizedBlockSlot();
+    return eraBlockStore
+        .flatMap(EraBlockStore::getEarliestBlockSlot)
+        .map(eraSlot -> earliestSlot.map(eraSlot::min).orElse(eraSlot))
+        .or(() -> earliestSlot);
   }
 
   @Override
   public Optional<SignedBeaconBlock> getEarliestAvailableBlock() {
-    return dao.getEarliestFinalizedBlock();
+    if (eraBlockStore.isEmpty()) {
+      return dao.getEarliestFinalizedBlock();
+    }
+    return getEarliestAvailableBlockSlot().flatMap(this::getFinalizedBlockAtSlot);
   }
 
   @Override
@@ -218,21 +336,39 @@ public class KvStoreDatabase implements Database {
 
   @Override
   public Optional<Bytes32> getFinalizedBlockRootBySlot(final UInt64 slot) {
-    return dao.getFinalizedBlockAtSlot(slot).map(SignedBeaconBlock::getRoot);
+    return getFinalizedBlockAtSlot(slot).map(SignedBeaconBlock::getRoot);
   }
 
   @Override
   public Optional<SignedBeaconBlock> getLatestFinalizedBlockAtSlot(final UInt64 slot) {
-    return dao.getLatestFinalizedBlockAtSlot(slot);
+    final Optional<SignedBeaconBlock> latestBlock = dao.getLatestFinalizedBlockAtSlot(slot);
+    final Optional<SignedBeaconBlock> latestArchivedBlock =
+        eraBlockStore.flatMap(store -> store.getLatestBlockAtSlot(slot));
+    if (latestArchivedBlock.isEmpty()) {
+      return latestBlock;
+    }
+    if (latestBlock.isEmpty()) {
+      return latestArchivedBlock;
+    }
+    return latestBlock.get().getSlot().isGreaterThan(latestArchivedBlock.get().getSlot())
+        ? latestBlock
+        : latestArchivedBlock;
   }
 
   @Override
   public Optional<SignedBeaconBlock> getSignedBlock(final Bytes32 root) {
     return dao.getHotBlock(root)
-        .or(() -> dao.getFinalizedBlock(root))
+        .or(() -> getCanonicalFinalizedBlock(root))
         .or(() -> dao.getNonCanonicalBlock(root));
   }
 
+  private Optional<SignedBeaconBlock> getCanonicalFinalizedBlock(final Bytes32 root) {
+    if (eraBlockStore.isEmpty()) {
+      return dao.getFinalizedBlock(root);
+    }
+    return dao.getSlotForFinalizedBlockRoot(root).flatMap(this::getFinalizedBlockAtSlot);
+  }
+
   @Override
   public Map<Bytes32, SignedBeaconBlock> getHotBlocks(final Set<Bytes32> blockRoots) {
     return blockRoots.stream()
@@ -252,9 +388,14 @@ public class KvStoreDatabase implements Database {
 
   @Override
   @MustBeClosed
+  @SuppressWarnings("MustBeClosedChecker")
   public Stream<SignedBeaconBlock> streamFinalizedBlocks(
       final UInt64 startSlot, final UInt64 endSlot) {
-    return dao.streamFinalizedBlocks(startSlot, endSlot);
+    if (eraBlockStore.isEmpty()) {
+      return dao.streamFinalizedBlocks(startSlot, endSlot);
+    }
+    // Key-value store ranges are opened lazily and closed once consumed
+    return eraBlockStore.get().streamBlocks(startSlot, endSlot, dao::streamFinalizedBlocks);
   }
 
   protected Map<Bytes32, StoredBlockMetadata> buildHotBlockMetadata() {
@@ -329,8 +470,7 @@ public class KvStoreDatabase implements Database {
 
   @Override
   public void pruneFinalizedBlocks(final UInt64 lastSlotToPrune) {
-    final Optional<UInt64> earliestBlockSlot =
-        dao.getEarliestFinalizedBlock().map(SignedBeaconBlock::getSlot);
+    final Optional<UInt64> earliestBlockSlot = getEarliestAvailableBlockSlot();
     for (UInt64 batchStart = earliestBlockSlot.orElse(lastSlotToPrune);
         batchStart.isLessThanOrEqualTo(lastSlotToPrune);
         batchStart = batchStart.plus(PRUNE_BATCH_SIZE)) {
@@ -340,6 +480,73 @@ public class KvStoreDatabase implements Database {
         updater.commit();
       }
     }
+    eraBlockStore.ifPresent(store -> store.pruneSegments(lastSlotToPrune));
+  }
+
+  @Override
+  public void compactFinalizedRange(final UInt64 firstSlot, final UInt64 lastSlot) {
+    dao.compactFinalizedRange(firstSlot, lastSlot);
+  }
+
+  @Override
+  public boolean archiveFinalizedBlocks() {
+    if (eraBlockStore.isEmpty() || !archiveFinalizedBlocks) {
+      return false;
+    }
+    final EraBlockStore store = eraBlockStore.get();
+    final Optional<Checkpoint> finalizedCheckpoint = dao.getFinalizedCheckpoint();
+    final Optional<UInt64> earliestUnarchivedSlot = dao.getEarliestFinalizedBlockSlot();
+    final Optional<UInt64> earliestSlot = getEarliestAvailableBlockSlot();
+    if (finalizedCheckpoint.isEmpty()
+        || earliestUnarchivedSlot.isEmpty()
+        || earliestSlot.isEmpty()) {
+      return false;
+    }
+
+    if (store.containsSlot(earliestUnarchivedSlot.get())) {
+      // Left behind if the node stopped before the archived blocks were removed
+      deleteArchivedBlocks(EraBlockStore.getSegmentStartSlot(earliestUnarchivedSlot.get()));
+      return true;
+    }
+
+    // Blocks may still be added before the earliest block by historic sync, so only archive
+    // segments starting at or after it, where every block is already known
+    UInt64 segmentStart = EraBlockStore.getSegmentStartSlot(earliestUnarchivedSlot.get());
+    if (segmentStart.isLessThan(earliestSlot.get())) {
+      segmentStart = segmentStart.plus(EraBlockStore.SLOTS_PER_SEGMENT);
+    }
+    while (store.hasSegment(segmentStart)) {
+      segmentStart = segmentStart.plus(EraBlockStore.SLOTS_PER_SEGMENT);
+    }
+    final UInt64 segmentEnd = segmentStart.plus(EraBlockStore.SLOTS_PER_SEGMENT - 1);
+    if (segmentEnd.isGreaterThanOrEqualTo(finalizedCheckpoint.get().getEpochStartSlot(spec))) {
+      return false;
+    }
+
+    try (final Stream<SignedBeaconBlock> blocks =
+        dao.streamFinalizedBlocks(segmentStart, segmentEnd)) {
+      store.writeSegment(segmentStart, blocks.iterator());
+    } catch (final IOException e) {
+      LOG.warn("Failed to archive finalized blocks from slot {}", segmentStart, e);
+      return false;
+    }
+    LOG.debug("Archived finalized blocks from slot {} to {}", segmentStart, segmentEnd);
+    deleteArchivedBlocks(segmentStart);
+    return true;
+  }
+
+  private void deleteArchivedBlocks(final UInt64 segmentStart) {
+    // Blocks are now read from the segment so only the root to slot mapping is still required
+    final List<UInt64> archivedSlots;
+    try (final Stream<SignedBeaconBlock> blocks =
+        dao.streamFinalizedBlocks(
+            segmentStart, segmentStart.plus(EraBlockStore.SLOTS_PER_SEGMENT - 1))) {
+      archivedSlots = blocks.map(SignedBeaconBlock::getSlot).collect(Collectors.toList());
+    }
+    try (final FinalizedUpdater updater = finalizedUpdater()) {
+      archivedSlots.forEach(updater::deleteFinalizedBlockOnly);
+      updater.commit();
+    }
   }
 
   protected void updateHotBlocks(
@@ -421,7 +628,19 @@ public class KvStoreDatabase implements Database {
     if (maybeSlotAndBlockRoot.isPresent()) {
       return maybeSlotAndBlockRoot;
     }
-    return dao.getSlotAndBlockRootForFinalizedStateRoot(stateRoot);
+    return dao.getSlotAndBlockRootForFinalizedStateRoot(stateRoot)
+        .or(() -> getArchivedSlotAndBlockRoot(stateRoot));
+  }
+
+  private Optional<SlotAndBlockRoot> getArchivedSlotAndBlockRoot(final Bytes32 stateRoot) {
+    return eraBlockStore.flatMap(
+        store ->
+            dao.getSlotForFinalizedStateRoot(stateRoot)
+                .flatMap(
+                    slot ->
+                        store
+                            .getBlockAtSlot(slot)
+                            .map(block -> new SlotAndBlockRoot(slot, block.getRoot()))));
   }
 
   @Override
@@ -432,6 +651,33 @@ public class KvStoreDatabase implements Database {
     return doUpdate(event);
   }
 
+  @Override
+  public void updateGroup(final StorageUpdateGroup group) {
+    if (group.isEmpty()) {
+      return;
+    }
+    final long startTime = System.nanoTime();
+    try (final CombinedUpdater updater = combinedUpdater()) {
+      group
+          .getBlobsSidecars()
+          .forEach(
+              blobsSidecar -> {
+                updater.addBlobsSidecar(blobsSidecar);
+                updater.addUnconfirmedBlobsSidecar(blobsSidecar);
+              });
+      for (StorageUpdate update : group.getUpdates()) {
+        if (update.isBlobsSidecarEnabled()) {
+          updateBlobsSidecars(updater, update.getHotBlocks(), update.getDeletedHotBlocks());
+        }
+        update.getGenesisTime().ifPresent(updater::setGenesisTime);
+        addHotData(updater, update);
+      }
+      updater.addVotes(group.getVotes());
+      updater.commit();
+    }
+    DB_LOGGER.onDbOpAlertThreshold("Group Commit", startTime, System.nanoTime());
+  }
+
   public void ingestDatabase(
       final KvStoreDatabase kvStoreDatabase, final int batchSize, final Consumer<String> logger) {
     dao.ingest(kvStoreDatabase.dao, batchSize, logger);
@@ -492,6 +738,28 @@ public class KvStoreDatabase implements Database {
     }
   }
 
+  @Override
+  public void storeReconstructedFinalizedStates(final List<SignedBlockAndState> blocksAndStates) {
+    if (blocksAndStates.isEmpty()) {
+      return;
+    }
+    final BeaconState firstState = blocksAndStates.get(0).getState();
+    // Only the first state needs the previously stored state, later ones follow on from the batch
+    final UInt64 firstRecordedSlot =
+        getLatestAvailableFinalizedState(firstState.getSlot().minusMinZero(ONE))
+            .map(lastState -> lastState.getSlot().increment())
+            .orElse(firstState.getSlot());
+    try (final FinalizedUpdater updater = finalizedUpdater()) {
+      final StateRootRecorder recorder =
+          new StateRootRecorder(firstRecordedSlot, updater::addFinalizedStateRoot, spec);
+      for (SignedBlockAndState blockAndState : blocksAndStates) {
+        updater.addReconstructedFinalizedState(blockAndState.getRoot(), blockAndState.getState());
+        recorder.acceptNextState(blockAndState.getState());
+      }
+      updater.commit();
+    }
+  }
+
   private void handleAddFinalizedStateRoot(BeaconState state, FinalizedUpdater updater) {
     final Optional<BeaconState> maybeLastState =
         getLatestAvailableFinalizedState(state.getSlot().minusMinZero(ONE));
@@ -816,7 +1084,9 @@ public class KvStoreDatabase implements Database {
 
   @Override
   public void close() throws Exception {
+    eraBlockStore.ifPresent(EraBlockStore::close);
     dao.close();
+    ValueCodec.releaseResources();
   }
 
   private UpdateResult doUpdate(final StorageUpdate update) {
@@ -832,7 +1102,10 @@ public class KvStoreDatabase implements Database {
             update.getOptimisticTransitionBlockRoot());
 
     if (update.isBlobsSidecarEnabled()) {
-      updateBlobsSidecars(update.getHotBlocks(), update.getDeletedHotBlocks());
+      try (final FinalizedUpdater updater = finalizedUpdater()) {
+        updateBlobsSidecars(updater, update.getHotBlocks(), update.getDeletedHotBlocks());
+        updater.commit();
+      }
     }
 
     LOG.trace("Applying hot updates");
@@ -851,16 +1124,7 @@ public class KvStoreDatabase implements Database {
                 updater.deleteHotState(checkpoint.getRoot());
               });
 
-      update.getJustifiedCheckpoint().ifPresent(updater::setJustifiedCheckpoint);
-      update.getBestJustifiedCheckpoint().ifPresent(updater::setBestJustifiedCheckpoint);
-      update.getLatestFinalizedState().ifPresent(updater::setLatestFinalizedState);
-
-      updateHotBlocks(updater, update.getHotBlocks(), update.getDeletedHotBlocks().keySet());
-      updater.addHotStates(update.getHotStates());
-
-      if (update.getStateRoots().size() > 0) {
-        updater.addHotStateRoots(update.getStateRoots());
-      }
+      addHotData(updater, update);
 
       // Delete finalized data from hot db
 
@@ -873,6 +1137,19 @@ public class KvStoreDatabase implements Database {
     return new UpdateResult(finalizedOptimisticExecutionPayload);
   }
 
+  private void addHotData(final HotUpdater updater, final StorageUpdate update) {
+    update.getJustifiedCheckpoint().ifPresent(updater::setJustifiedCheckpoint);
+    update.getBestJustifiedCheckpoint().ifPresent(updater::setBestJustifiedCheckpoint);
+    update.getLatestFinalizedState().ifPresent(updater::setLatestFinalizedState);
+
+    updateHotBlocks(updater, update.getHotBlocks(), update.getDeletedHotBlocks().keySet());
+    updater.addHotStates(update.getHotStates());
+
+    if (update.getStateRoots().size() > 0) {
+      updater.addHotStateRoots(update.getStateRoots());
+    }
+  }
+
   private Optional<SlotAndExecutionPayloadSummary> updateFinalizedData(
       Map<Bytes32, Bytes32> finalizedChildToParentMap,
       final Map<Bytes32, SignedBeaconBlock> finalizedBlocks,
@@ -916,24 +1193,20 @@ public class KvStoreDatabase implements Database {
   }
 
   private void updateBlobsSidecars(
+      final FinalizedUpdater updater,
       final Map<Bytes32, BlockAndCheckpoints> hotBlocks,
       final Map<Bytes32, UInt64> deletedHotBlocks) {
-    try (final FinalizedUpdater updater = finalizedUpdater()) {
-      LOG.trace("Confirming blobs sidecars for new hot blocks");
-      hotBlocks.values().stream()
-          .map(
-              blockAndCheckpoints ->
-                  new SlotAndBlockRoot(
-                      blockAndCheckpoints.getSlot(), blockAndCheckpoints.getRoot()))
-          .forEach(updater::confirmBlobsSidecar);
-
-      LOG.trace("Removing blobs sidecars for deleted hot blocks");
-      deletedHotBlocks.entrySet().stream()
-          .map(entry -> new SlotAndBlockRoot(entry.getValue(), entry.getKey()))
-          .forEach(updater::removeBlobsSidecar);
-
-      updater.commit();
-    }
+    LOG.trace("Confirming blobs sidecars for new hot blocks");
+    hotBlocks.values().stream()
+        .map(
+            blockAndCheckpoints ->
+                new SlotAndBlockRoot(blockAndCheckpoints.getSlot(), blockAndCheckpoints.getRoot()))
+        .forEach(updater::confirmBlobsSidecar);
+
+    LOG.trace("Removing blobs sidecars for deleted hot blocks");
+    deletedHotBlocks.entrySet().stream()
+        .map(entry -> new SlotAndBlockRoot(entry.getValue(), entry.getKey()))
+        .forEach(updater::removeBlobsSidecar);
   }
 
   private void updateFinalizedDataArchiveMode(
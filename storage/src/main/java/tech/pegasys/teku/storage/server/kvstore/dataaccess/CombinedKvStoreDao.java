@@ -114,7 +114,9 @@ public class CombinedKvStoreDao<S extends SchemaCombined>
   @Override
   @MustBeClosed
   public Stream<Map.Entry<Bytes, Bytes>> streamHotBlocksAsSsz() {
-    return db.streamRaw(schema.getColumnHotBlocksByRoot()).map(entry -> entry);
+    final KvStoreColumn<Bytes32, SignedBeaconBlock> column = schema.getColumnHotBlocksByRoot();
+    return db.streamRaw(column)
+        .map(entry -> Map.entry(entry.getKey(), decodeRaw(column, entry.getValue())));
   }
 
   @Override
@@ -214,15 +216,35 @@ public class CombinedKvStoreDao<S extends SchemaCombined>
           "Cannot migrate database as source and target formats do not use the same columns");
       for (String key : newColumns.keySet()) {
         final Optional<UInt64> maybeCount = displayCopyColumnMessage(key, oldColumns, dao, logger);
+        final KvStoreColumn<?, ?> oldColumn = oldColumns.get(key);
+        final KvStoreColumn<?, ?> newColumn = newColumns.get(key);
         try (final Stream<ColumnEntry<Bytes, Bytes>> oldEntryStream =
-                dao.streamRawColumn(oldColumns.get(key));
+                dao.streamRawColumn(oldColumn);
             BatchWriter batchWriter = new BatchWriter(batchSize, logger, db, maybeCount)) {
-          oldEntryStream.forEach(entry -> batchWriter.add(newColumns.get(key), entry));
+          oldEntryStream.forEach(
+              entry -> batchWriter.add(newColumn, recode(oldColumn, newColumn, entry)));
         }
       }
     }
   }
 
+  // Values may be compressed differently in the source and target databases
+  private static ColumnEntry<Bytes, Bytes> recode(
+      final KvStoreColumn<?, ?> oldColumn,
+      final KvStoreColumn<?, ?> newColumn,
+      final ColumnEntry<Bytes, Bytes> entry) {
+    if (oldColumn.getValueSerializer().equals(newColumn.getValueSerializer())) {
+      return entry;
+    }
+    final byte[] serialized = decodeRaw(oldColumn, entry.getValue()).toArrayUnsafe();
+    return ColumnEntry.create(
+        entry.getKey(), Bytes.wrap(newColumn.getValueSerializer().encode(serialized)));
+  }
+
+  private static Bytes decodeRaw(final KvStoreColumn<?, ?> column, final Bytes raw) {
+    return Bytes.wrap(column.getValueSerializer().decode(raw.toArrayUnsafe()));
+  }
+
   @Override
   public Map<String, KvStoreColumn<?, ?>> getColumnMap() {
     return schema.getColumnMap();
@@ -260,6 +282,12 @@ public class CombinedKvStoreDao<S extends SchemaCombined>
     return db.get(schema.getColumnFinalizedBlocksBySlot(), slot);
   }
 
+  @Override
+  public Optional<Bytes> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    final KvStoreColumn<UInt64, SignedBeaconBlock> column = schema.getColumnFinalizedBlocksBySlot();
+    return db.getRaw(column, slot).map(raw -> decodeRaw(column, raw));
+  }
+
   @Override
   public Optional<UInt64> getEarliestFinalizedBlockSlot() {
     return db.getFirstEntry(schema.getColumnFinalizedBlocksBySlot()).map(ColumnEntry::getKey);
@@ -371,6 +399,15 @@ public class CombinedKvStoreDao<S extends SchemaCombined>
         .map(entry -> entry.getKey().getSlot());
   }
 
+  @Override
+  public void compactFinalizedRange(final UInt64 startSlot, final UInt64 endSlot) {
+    db.compactRange(schema.getColumnFinalizedBlocksBySlot(), startSlot, endSlot);
+    final SlotAndBlockRoot start = new SlotAndBlockRoot(startSlot, MIN_BLOCK_ROOT);
+    final SlotAndBlockRoot end = new SlotAndBlockRoot(endSlot, MAX_BLOCK_ROOT);
+    db.compactRange(schema.getColumnBlobsSidecarBySlotAndBlockRoot(), start, end);
+    db.compactRange(schema.getColumnUnconfirmedBlobsSidecarBySlotAndBlockRoot(), start, end);
+  }
+
   @Override
   public Map<String, Long> getColumnCounts() {
     final Map<String, Long> columnCounts = new LinkedHashMap<>();
@@ -605,6 +642,11 @@ public class CombinedKvStoreDao<S extends SchemaCombined>
       transaction.delete(schema.getColumnSlotsByFinalizedRoot(), blockRoot);
     }
 
+    @Override
+    public void deleteFinalizedBlockOnly(final UInt64 slot) {
+      transaction.delete(schema.getColumnFinalizedBlocksBySlot(), slot);
+    }
+
     @Override
     public void deleteNonCanonicalBlockOnly(final Bytes32 blockRoot) {
       transaction.delete(schema.getColumnNonCanonicalBlocksByRoot(), blockRoot);
@@ -61,6 +61,9 @@ public interface KvStoreCombinedDao extends AutoCloseable {
 
   Optional<SignedBeaconBlock> getFinalizedBlockAtSlot(UInt64 slot);
 
+  /** Get the SSZ of the finalized block at the slot, without deserializing it. */
+  Optional<Bytes> getFinalizedBlockSszAtSlot(UInt64 slot);
+
   Optional<UInt64> getEarliestFinalizedBlockSlot();
 
   Optional<SignedBeaconBlock> getEarliestFinalizedBlock();
@@ -139,6 +142,12 @@ public interface KvStoreCombinedDao extends AutoCloseable {
 
   Map<String, Long> getColumnCounts();
 
+  /**
+   * Compact the slot indexed finalized block and blobs sidecar data between startSlot and endSlot
+   * inclusive, typically after it has been pruned.
+   */
+  void compactFinalizedRange(UInt64 startSlot, UInt64 endSlot);
+
   @MustBeClosed
   Stream<UInt64> streamFinalizedStateSlots(final UInt64 startSlot, final UInt64 endSlot);
 
@@ -211,6 +220,9 @@ public interface KvStoreCombinedDao extends AutoCloseable {
 
     void deleteFinalizedBlock(final UInt64 slot, final Bytes32 blockRoot);
 
+    /** Delete the finalized block at the slot, retaining the mapping from its root to slot. */
+    void deleteFinalizedBlockOnly(final UInt64 slot);
+
     void deleteNonCanonicalBlockOnly(final Bytes32 blockRoot);
 
     void pruneFinalizedBlocks(UInt64 firstSlotToPrune, UInt64 lastSlotToPrune);
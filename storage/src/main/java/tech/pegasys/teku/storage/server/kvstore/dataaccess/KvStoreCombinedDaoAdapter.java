@@ -151,6 +151,11 @@ public class KvStoreCombinedDaoAdapter implements KvStoreCombinedDao, V4Migratab
     return finalizedDao.getFinalizedBlockAtSlot(slot);
   }
 
+  @Override
+  public Optional<Bytes> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return finalizedDao.getFinalizedBlockSszAtSlot(slot);
+  }
+
   @Override
   public Optional<UInt64> getEarliestFinalizedBlockSlot() {
     return finalizedDao.getEarliestFinalizedBlockSlot();
@@ -209,6 +214,11 @@ public class KvStoreCombinedDaoAdapter implements KvStoreCombinedDao, V4Migratab
     return finalizedDao.getOptimisticTransitionBlockSlot();
   }
 
+  @Override
+  public void compactFinalizedRange(final UInt64 startSlot, final UInt64 endSlot) {
+    finalizedDao.compactFinalizedRange(startSlot, endSlot);
+  }
+
   @Override
   public Map<String, Long> getColumnCounts() {
     final HashMap<String, Long> result = new LinkedHashMap<>(hotDao.getColumnCounts());
@@ -487,6 +497,11 @@ public class KvStoreCombinedDaoAdapter implements KvStoreCombinedDao, V4Migratab
       finalizedUpdater.deleteFinalizedBlock(slot, blockRoot);
     }
 
+    @Override
+    public void deleteFinalizedBlockOnly(final UInt64 slot) {
+      finalizedUpdater.deleteFinalizedBlockOnly(slot);
+    }
+
     @Override
     public void deleteNonCanonicalBlockOnly(final Bytes32 blockRoot) {
       finalizedUpdater.deleteNonCanonicalBlockOnly(blockRoot);
@@ -63,6 +63,12 @@ public class V4FinalizedKvStoreDao {
     return db.get(schema.getColumnFinalizedBlocksBySlot(), slot);
   }
 
+  public Optional<Bytes> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    final KvStoreColumn<UInt64, SignedBeaconBlock> column = schema.getColumnFinalizedBlocksBySlot();
+    return db.getRaw(column, slot)
+        .map(raw -> Bytes.wrap(column.getValueSerializer().decode(raw.toArrayUnsafe())));
+  }
+
   public Optional<UInt64> getEarliestFinalizedBlockSlot() {
     return db.getFirstEntry(schema.getColumnFinalizedBlocksBySlot()).map(ColumnEntry::getKey);
   }
@@ -199,6 +205,14 @@ public class V4FinalizedKvStoreDao {
     return db.getRaw(kvStoreColumn, key);
   }
 
+  public void compactFinalizedRange(final UInt64 startSlot, final UInt64 endSlot) {
+    db.compactRange(schema.getColumnFinalizedBlocksBySlot(), startSlot, endSlot);
+    final SlotAndBlockRoot start = new SlotAndBlockRoot(startSlot, MIN_BLOCK_ROOT);
+    final SlotAndBlockRoot end = new SlotAndBlockRoot(endSlot, MAX_BLOCK_ROOT);
+    db.compactRange(schema.getColumnBlobsSidecarBySlotAndBlockRoot(), start, end);
+    db.compactRange(schema.getColumnUnconfirmedBlobsSidecarBySlotAndBlockRoot(), start, end);
+  }
+
   public Map<String, Long> getColumnCounts() {
     final Map<String, Long> columnCounts = new HashMap<>();
     schema.getColumnMap().forEach((k, v) -> columnCounts.put(k, db.size(v)));
@@ -248,6 +262,11 @@ public class V4FinalizedKvStoreDao {
       transaction.delete(schema.getColumnSlotsByFinalizedRoot(), blockRoot);
     }
 
+    @Override
+    public void deleteFinalizedBlockOnly(final UInt64 slot) {
+      transaction.delete(schema.getColumnFinalizedBlocksBySlot(), slot);
+    }
+
     @Override
     public void deleteNonCanonicalBlockOnly(final Bytes32 blockRoot) {
       transaction.delete(schema.getColumnNonCanonicalBlocksByRoot(), blockRoot);
@@ -0,0 +1,272 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.dataaccess;
+
+import com.google.errorprone.annotations.MustBeClosed;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.apache.tuweni.bytes.Bytes;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import tech.pegasys.teku.infrastructure.collections.LimitedMap;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.storage.server.kvstore.ColumnEntry;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor.KvStoreTransaction;
+import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombinedDiffState;
+import tech.pegasys.teku.storage.server.state.BeaconStateDiff;
+
+/**
+ * Stores full finalized state snapshots every {@code snapshotFrequency} slots and a diff for at
+ * most one state per epoch in between.
+ *
+ * <p>Diffs form a two level hierarchy so any state is at most two diffs away from a snapshot.
+ * Level one diffs are taken against the preceding snapshot at regular intervals, and level two
+ * diffs against the preceding level one diff (or snapshot). Each diff is stored with its level and
+ * the slot of its base state.
+ */
+public class V4FinalizedStateDiffStorageLogic<S extends SchemaCombinedDiffState>
+    implements V4FinalizedStateStorageLogic<S> {
+  static final int LEVEL_ONE_INTERVALS_PER_SNAPSHOT = 8;
+  private static final int BASE_STATE_CACHE_SIZE = 8;
+  private static final byte LEVEL_ONE = 1;
+  private static final byte LEVEL_TWO = 2;
+  private static final int HEADER_SIZE = 1 + Long.BYTES;
+
+  private final Spec spec;
+  private final UInt64 snapshotFrequency;
+  private final UInt64 levelOneFrequency;
+  private final Map<UInt64, BeaconState> baseStateCache =
+      LimitedMap.createSynchronized(BASE_STATE_CACHE_SIZE);
+  private final LabelledMetric<Counter> statesStoredCounter;
+
+  private volatile Optional<Cursor> finalizedCursor = Optional.empty();
+  private volatile Optional<Cursor> reconstructedCursor = Optional.empty();
+
+  public V4FinalizedStateDiffStorageLogic(
+      final MetricsSystem metricsSystem, final Spec spec, final long snapshotFrequency) {
+    this.spec = spec;
+    this.snapshotFrequency = UInt64.valueOf(snapshotFrequency);
+    this.levelOneFrequency =
+        this.snapshotFrequency
+            .dividedBy(LEVEL_ONE_INTERVALS_PER_SNAPSHOT)
+            .max(spec.getGenesisSpecConfig().getSlotsPerEpoch());
+    this.statesStoredCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.STORAGE_FINALIZED_DB,
+            "state_diffs_stored",
+            "Number of finalized states stored as full snapshots or diffs",
+            "type");
+  }
+
+  @Override
+  public Optional<BeaconState> getLatestAvailableFinalizedState(
+      final KvStoreAccessor db, final S schema, final UInt64 maxSlot) {
+    final Optional<UInt64> latestDiffSlot =
+        db.getFloorEntry(schema.getColumnFinalizedStateDiffsBySlot(), maxSlot)
+            .map(ColumnEntry::getKey);
+    if (latestDiffSlot.isEmpty()) {
+      return db.getFloorEntry(schema.getColumnFinalizedStatesBySlot(), maxSlot)
+          .map(ColumnEntry::getValue);
+    }
+    final Optional<UInt64> laterSnapshotSlot;
+    try (final Stream<UInt64> snapshotSlots =
+        db.streamKeys(
+            schema.getColumnFinalizedStatesBySlot(), latestDiffSlot.get().increment(), maxSlot)) {
+      laterSnapshotSlot = snapshotSlots.reduce((first, second) -> second);
+    }
+    return loadState(db, schema, laterSnapshotSlot.orElse(latestDiffSlot.get()));
+  }
+
+  @Override
+  public FinalizedStateUpdater<S> updater() {
+    return new FinalizedStateDiffUpdater();
+  }
+
+  @Override
+  @MustBeClosed
+  public Stream<UInt64> streamFinalizedStateSlots(
+      final KvStoreAccessor db, final S schema, final UInt64 startSlot, final UInt64 endSlot) {
+    return Stream.concat(
+            db.streamKeys(schema.getColumnFinalizedStatesBySlot(), startSlot, endSlot),
+            db.streamKeys(schema.getColumnFinalizedStateDiffsBySlot(), startSlot, endSlot))
+        .sorted();
+  }
+
+  private Optional<BeaconState> loadState(
+      final KvStoreAccessor db, final S schema, final UInt64 slot) {
+    final BeaconState cachedState = baseStateCache.get(slot);
+    if (cachedState != null) {
+      return Optional.of(cachedState);
+    }
+    final Optional<BeaconState> snapshot = db.get(schema.getColumnFinalizedStatesBySlot(), slot);
+    if (snapshot.isPresent()) {
+      return snapshot;
+    }
+    return db.get(schema.getColumnFinalizedStateDiffsBySlot(), slot)
+        .map(
+            diff -> {
+              final UInt64 baseSlot = getBaseSlot(diff);
+              final BeaconState base =
+                  loadState(db, schema, baseSlot)
+                      .orElseThrow(
+                          () ->
+                              new IllegalStateException(
+                                  "Missing base state at slot "
+                                      + baseSlot
+                                      + " for state diff at slot "
+                                      + slot));
+              baseStateCache.put(baseSlot, base);
+              return BeaconStateDiff.apply(base, diff.slice(HEADER_SIZE));
+            });
+  }
+
+  private Optional<Cursor> loadCursor(
+      final KvStoreAccessor db, final S schema, final UInt64 maxSlot) {
+    final Optional<ColumnEntry<UInt64, BeaconState>> snapshot =
+        db.getFloorEntry(schema.getColumnFinalizedStatesBySlot(), maxSlot);
+    if (snapshot.isEmpty()) {
+      return Optional.empty();
+    }
+    final BeaconState snapshotState = snapshot.get().getValue();
+    final Optional<ColumnEntry<UInt64, Bytes>> latestDiff =
+        db.getFloorEntry(schema.getColumnFinalizedStateDiffsBySlot(), maxSlot)
+            .filter(diff -> diff.getKey().isGreaterThan(snapshotState.getSlot()));
+    if (latestDiff.isEmpty()) {
+      return Optional.of(new Cursor(snapshotState.getSlot(), snapshotState, snapshotState));
+    }
+    final UInt64 latestDiffSlot = latestDiff.get().getKey();
+    final UInt64 levelOneSlot =
+        getLevel(latestDiff.get().getValue()) == LEVEL_ONE
+            ? latestDiffSlot
+            : getBaseSlot(latestDiff.get().getValue());
+    final BeaconState levelOneState =
+        loadState(db, schema, levelOneSlot)
+            .orElseThrow(
+                () -> new IllegalStateException("Missing state diff base at slot " + levelOneSlot));
+    return Optional.of(new Cursor(latestDiffSlot, snapshotState, levelOneState));
+  }
+
+  private Cursor store(
+      final KvStoreTransaction transaction,
+      final S schema,
+      final Optional<Cursor> maybeCursor,
+      final BeaconState state) {
+    final UInt64 slot = state.getSlot();
+    if (maybeCursor.isEmpty() || isSnapshotDue(maybeCursor.get(), state)) {
+      transaction.put(schema.getColumnFinalizedStatesBySlot(), slot, state);
+      statesStoredCounter.labels("snapshot").inc();
+      return new Cursor(slot, state, state);
+    }
+    final Cursor cursor = maybeCursor.get();
+    if (slot.isLessThan(cursor.lastStoredSlot.plus(spec.getSlotsPerEpoch(slot)))) {
+      return cursor;
+    }
+    if (slot.isGreaterThanOrEqualTo(cursor.levelOne.getSlot().plus(levelOneFrequency))) {
+      putDiff(transaction, schema, LEVEL_ONE, cursor.snapshot, state);
+      return new Cursor(slot, cursor.snapshot, state);
+    }
+    putDiff(transaction, schema, LEVEL_TWO, cursor.levelOne, state);
+    return new Cursor(slot, cursor.snapshot, cursor.levelOne);
+  }
+
+  private boolean isSnapshotDue(final Cursor cursor, final BeaconState state) {
+    return state.getSlot().isGreaterThanOrEqualTo(cursor.snapshot.getSlot().plus(snapshotFrequency))
+        || spec.atSlot(state.getSlot()).getMilestone()
+            != spec.atSlot(cursor.snapshot.getSlot()).getMilestone();
+  }
+
+  private void putDiff(
+      final KvStoreTransaction transaction,
+      final S schema,
+      final byte level,
+      final BeaconState base,
+      final BeaconState state) {
+    final Bytes diff =
+        Bytes.concatenate(
+            Bytes.of(level),
+            Bytes.ofUnsignedLong(base.getSlot().longValue()),
+            BeaconStateDiff.create(base, state));
+    transaction.put(schema.getColumnFinalizedStateDiffsBySlot(), state.getSlot(), diff);
+    statesStoredCounter.labels(level == LEVEL_ONE ? "level_one_diff" : "level_two_diff").inc();
+  }
+
+  private static byte getLevel(final Bytes diff) {
+    return diff.get(0);
+  }
+
+  private static UInt64 getBaseSlot(final Bytes diff) {
+    return UInt64.fromLongBits(diff.getLong(1));
+  }
+
+  private static class Cursor {
+    private final UInt64 lastStoredSlot;
+    private final BeaconState snapshot;
+    private final BeaconState levelOne;
+
+    private Cursor(
+        final UInt64 lastStoredSlot, final BeaconState snapshot, final BeaconState levelOne) {
+      this.lastStoredSlot = lastStoredSlot;
+      this.snapshot = snapshot;
+      this.levelOne = levelOne;
+    }
+  }
+
+  private class FinalizedStateDiffUpdater implements FinalizedStateUpdater<S> {
+    private Optional<Optional<Cursor>> pendingFinalizedCursor = Optional.empty();
+    private Optional<Optional<Cursor>> pendingReconstructedCursor = Optional.empty();
+
+    @Override
+    public void addFinalizedState(
+        final KvStoreAccessor db,
+        final KvStoreTransaction transaction,
+        final S schema,
+        final BeaconState state) {
+      final Optional<Cursor> cursor =
+          pendingFinalizedCursor.orElseGet(
+              () ->
+                  finalizedCursor.isPresent()
+                      ? finalizedCursor
+                      : loadCursor(db, schema, UInt64.MAX_VALUE));
+      pendingFinalizedCursor = Optional.of(Optional.of(store(transaction, schema, cursor, state)));
+    }
+
+    @Override
+    public void addReconstructedFinalizedState(
+        final KvStoreAccessor db,
+        final KvStoreTransaction transaction,
+        final S schema,
+        final BeaconState state) {
+      final Optional<Cursor> cursor =
+          pendingReconstructedCursor.orElseGet(
+              () ->
+                  reconstructedCursor
+                      .filter(existing -> existing.lastStoredSlot.isLessThan(state.getSlot()))
+                      .or(() -> loadCursor(db, schema, state.getSlot())));
+      pendingReconstructedCursor =
+          Optional.of(Optional.of(store(transaction, schema, cursor, state)));
+    }
+
+    @Override
+    public void commit() {
+      pendingFinalizedCursor.ifPresent(cursor -> finalizedCursor = cursor);
+      pendingReconstructedCursor.ifPresent(cursor -> reconstructedCursor = cursor);
+    }
+  }
+}
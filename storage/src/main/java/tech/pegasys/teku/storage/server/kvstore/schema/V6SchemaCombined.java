@@ -38,6 +38,7 @@ import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
 import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public abstract class V6SchemaCombined implements SchemaCombined {
 
@@ -84,15 +85,20 @@ public abstract class V6SchemaCombined implements SchemaCombined {
 
   private final KvStoreVariable<UInt64> optimisticTransitionBlockSlot;
 
-  protected V6SchemaCombined(final Spec spec, final int finalizedOffset) {
+  protected V6SchemaCombined(
+      final Spec spec, final int finalizedOffset, final ValueCodec valueCodec) {
     this.finalizedOffset = finalizedOffset;
     final KvStoreSerializer<SignedBeaconBlock> signedBlockSerializer =
-        KvStoreSerializer.createSignedBlockSerializer(spec);
+        KvStoreSerializer.withCodec(
+            KvStoreSerializer.createSignedBlockSerializer(spec), valueCodec);
     hotBlocksByRoot = KvStoreColumn.create(1, BYTES32_SERIALIZER, signedBlockSerializer);
     final KvStoreSerializer<BeaconState> stateSerializer =
         KvStoreSerializer.createStateSerializer(spec);
-    checkpointStates = KvStoreColumn.create(2, CHECKPOINT_SERIALIZER, stateSerializer);
-    hotStatesByRoot = KvStoreColumn.create(6, BYTES32_SERIALIZER, stateSerializer);
+    final KvStoreSerializer<BeaconState> compressedStateSerializer =
+        KvStoreSerializer.withCodec(stateSerializer, valueCodec);
+    checkpointStates = KvStoreColumn.create(2, CHECKPOINT_SERIALIZER, compressedStateSerializer);
+    hotStatesByRoot = KvStoreColumn.create(6, BYTES32_SERIALIZER, compressedStateSerializer);
+    // Variables are read and written raw during migrations so are always stored uncompressed
     latestFinalizedState = KvStoreVariable.create(5, stateSerializer);
 
     votes = KvStoreColumn.create(3, UINT64_SERIALIZER, VOTE_TRACKER_SERIALIZER);
@@ -0,0 +1,58 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.schema;
+
+import static tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer.BYTES_SERIALIZER;
+import static tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer.UINT64_SERIALIZER;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.apache.tuweni.bytes.Bytes;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
+
+/** Snapshot schema with an additional column of finalized state diffs between snapshots. */
+public class V6SchemaCombinedDiffState extends V6SchemaCombinedSnapshot
+    implements SchemaCombinedDiffState {
+
+  private final KvStoreColumn<UInt64, Bytes> finalizedStateDiffsBySlot;
+
+  public V6SchemaCombinedDiffState(final Spec spec) {
+    this(spec, ValueCodec.NONE);
+  }
+
+  public V6SchemaCombinedDiffState(final Spec spec, final ValueCodec valueCodec) {
+    super(spec, V6_FINALIZED_OFFSET, valueCodec);
+    finalizedStateDiffsBySlot =
+        KvStoreColumn.create(
+            V6_FINALIZED_OFFSET + 12,
+            UINT64_SERIALIZER,
+            KvStoreSerializer.withCodec(BYTES_SERIALIZER, valueCodec));
+  }
+
+  @Override
+  public KvStoreColumn<UInt64, Bytes> getColumnFinalizedStateDiffsBySlot() {
+    return finalizedStateDiffsBySlot;
+  }
+
+  @Override
+  public Map<String, KvStoreColumn<?, ?>> getColumnMap() {
+    return ImmutableMap.<String, KvStoreColumn<?, ?>>builder()
+        .putAll(super.getColumnMap())
+        .put("FINALIZED_STATE_DIFFS_BY_SLOT", getColumnFinalizedStateDiffsBySlot())
+        .build();
+  }
+}
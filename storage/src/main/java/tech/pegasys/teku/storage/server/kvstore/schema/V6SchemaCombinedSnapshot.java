@@ -34,6 +34,7 @@ import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public class V6SchemaCombinedSnapshot extends V6SchemaCombined
     implements SchemaCombinedSnapshotState {
@@ -49,25 +50,25 @@ public class V6SchemaCombinedSnapshot extends V6SchemaCombined
   private final KvStoreColumn<SlotAndBlockRoot, Void> unconfirmedBlobsSidecarBySlotAndBlockRoot;
   private final List<Bytes> deletedColumnIds;
 
-  private V6SchemaCombinedSnapshot(final Spec spec, final int finalizedOffset) {
-    super(spec, finalizedOffset);
+  protected V6SchemaCombinedSnapshot(
+      final Spec spec, final int finalizedOffset, final ValueCodec valueCodec) {
+    super(spec, finalizedOffset, valueCodec);
+    final KvStoreSerializer<SignedBeaconBlock> signedBlockSerializer =
+        KvStoreSerializer.withCodec(
+            KvStoreSerializer.createSignedBlockSerializer(spec), valueCodec);
     slotsByFinalizedRoot =
         KvStoreColumn.create(finalizedOffset + 1, BYTES32_SERIALIZER, UINT64_SERIALIZER);
     finalizedBlocksBySlot =
-        KvStoreColumn.create(
-            finalizedOffset + 2,
-            UINT64_SERIALIZER,
-            KvStoreSerializer.createSignedBlockSerializer(spec));
+        KvStoreColumn.create(finalizedOffset + 2, UINT64_SERIALIZER, signedBlockSerializer);
     finalizedStatesBySlot =
         KvStoreColumn.create(
-            finalizedOffset + 3, UINT64_SERIALIZER, KvStoreSerializer.createStateSerializer(spec));
+            finalizedOffset + 3,
+            UINT64_SERIALIZER,
+            KvStoreSerializer.withCodec(KvStoreSerializer.createStateSerializer(spec), valueCodec));
     slotsByFinalizedStateRoot =
         KvStoreColumn.create(finalizedOffset + 4, BYTES32_SERIALIZER, UINT64_SERIALIZER);
     nonCanonicalBlocksByRoot =
-        KvStoreColumn.create(
-            finalizedOffset + 5,
-            BYTES32_SERIALIZER,
-            KvStoreSerializer.createSignedBlockSerializer(spec));
+        KvStoreColumn.create(finalizedOffset + 5, BYTES32_SERIALIZER, signedBlockSerializer);
     nonCanonicalBlockRootsBySlot =
         KvStoreColumn.create(finalizedOffset + 6, UINT64_SERIALIZER, BLOCK_ROOTS_SERIALIZER);
 
@@ -86,11 +87,15 @@ public class V6SchemaCombinedSnapshot extends V6SchemaCombined
   }
 
   public static V6SchemaCombinedSnapshot createV4(final Spec spec) {
-    return new V6SchemaCombinedSnapshot(spec, V4_FINALIZED_OFFSET);
+    return new V6SchemaCombinedSnapshot(spec, V4_FINALIZED_OFFSET, ValueCodec.NONE);
   }
 
   public static V6SchemaCombinedSnapshot createV6(final Spec spec) {
-    return new V6SchemaCombinedSnapshot(spec, V6_FINALIZED_OFFSET);
+    return createV6(spec, ValueCodec.NONE);
+  }
+
+  public static V6SchemaCombinedSnapshot createV6(final Spec spec, final ValueCodec valueCodec) {
+    return new V6SchemaCombinedSnapshot(spec, V6_FINALIZED_OFFSET, valueCodec);
   }
 
   @Override
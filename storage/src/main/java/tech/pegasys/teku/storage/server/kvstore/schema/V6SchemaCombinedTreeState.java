@@ -35,6 +35,7 @@ import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public class V6SchemaCombinedTreeState extends V6SchemaCombined implements SchemaCombinedTreeState {
 
@@ -52,7 +53,14 @@ public class V6SchemaCombinedTreeState extends V6SchemaCombined implements Schem
   private final List<Bytes> deletedColumnIds;
 
   public V6SchemaCombinedTreeState(final Spec spec) {
-    super(spec, V6_FINALIZED_OFFSET);
+    this(spec, ValueCodec.NONE);
+  }
+
+  public V6SchemaCombinedTreeState(final Spec spec, final ValueCodec valueCodec) {
+    super(spec, V6_FINALIZED_OFFSET, valueCodec);
+    final KvStoreSerializer<SignedBeaconBlock> signedBlockSerializer =
+        KvStoreSerializer.withCodec(
+            KvStoreSerializer.createSignedBlockSerializer(spec), valueCodec);
     slotsByFinalizedRoot =
         KvStoreColumn.create(V6_FINALIZED_OFFSET + 1, BYTES32_SERIALIZER, UINT64_SERIALIZER);
     slotsByFinalizedStateRoot =
@@ -69,15 +77,9 @@ public class V6SchemaCombinedTreeState extends V6SchemaCombined implements Schem
             BYTES32_SERIALIZER,
             COMPRESSED_BRANCH_INFO_KV_STORE_SERIALIZER);
     finalizedBlocksBySlot =
-        KvStoreColumn.create(
-            V6_FINALIZED_OFFSET + 7,
-            UINT64_SERIALIZER,
-            KvStoreSerializer.createSignedBlockSerializer(spec));
+        KvStoreColumn.create(V6_FINALIZED_OFFSET + 7, UINT64_SERIALIZER, signedBlockSerializer);
     nonCanonicalBlocksByRoot =
-        KvStoreColumn.create(
-            V6_FINALIZED_OFFSET + 8,
-            BYTES32_SERIALIZER,
-            KvStoreSerializer.createSignedBlockSerializer(spec));
+        KvStoreColumn.create(V6_FINALIZED_OFFSET + 8, BYTES32_SERIALIZER, signedBlockSerializer);
 
     blobsSidecarBySlotAndBlockRoot =
         KvStoreColumn.create(
@@ -0,0 +1,64 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.serialization;
+
+import java.util.Objects;
+
+class CompressedSerializer<T> implements KvStoreSerializer<T> {
+
+  private final KvStoreSerializer<T> delegate;
+  private final ValueCodec codec;
+
+  CompressedSerializer(final KvStoreSerializer<T> delegate, final ValueCodec codec) {
+    this.delegate = delegate;
+    this.codec = codec;
+  }
+
+  @Override
+  public T deserialize(final byte[] data) {
+    return delegate.deserialize(decode(data));
+  }
+
+  @Override
+  public byte[] serialize(final T value) {
+    return encode(delegate.serialize(value));
+  }
+
+  @Override
+  public byte[] encode(final byte[] serialized) {
+    return codec.encode(serialized);
+  }
+
+  @Override
+  public byte[] decode(final byte[] stored) {
+    return ValueCodec.decode(stored);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final CompressedSerializer<?> that = (CompressedSerializer<?>) o;
+    return Objects.equals(delegate, that.delegate) && codec == that.codec;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(delegate, codec);
+  }
+}
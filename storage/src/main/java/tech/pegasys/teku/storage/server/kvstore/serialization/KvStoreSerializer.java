@@ -61,7 +61,32 @@ public interface KvStoreSerializer<T> {
     return new SignedBeaconBlockSerializer(spec);
   }
 
+  static <T> KvStoreSerializer<T> withCodec(
+      final KvStoreSerializer<T> serializer, final ValueCodec codec) {
+    return codec == ValueCodec.NONE ? serializer : new CompressedSerializer<>(serializer, codec);
+  }
+
   T deserialize(final byte[] data);
 
   byte[] serialize(final T value);
+
+  /**
+   * Convert a serialized value to the form it is stored in, applying any value compression.
+   *
+   * @param serialized the serialized value
+   * @return the bytes to store
+   */
+  default byte[] encode(final byte[] serialized) {
+    return serialized;
+  }
+
+  /**
+   * Convert a stored value back to its serialized form, reversing any value compression.
+   *
+   * @param stored the stored bytes
+   * @return the serialized value
+   */
+  default byte[] decode(final byte[] stored) {
+    return stored;
+  }
 }
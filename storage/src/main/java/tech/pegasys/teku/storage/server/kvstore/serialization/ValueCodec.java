@@ -0,0 +1,198 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.serialization;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compression applied to serialized values before they are written to the key-value store.
+ *
+ * <p>Values encoded with {@link #SNAPPY} or {@link #DEFLATE} start with a header byte identifying
+ * the format of the remaining bytes, so values written with any codec can be decoded regardless of
+ * the codec currently configured. Values that don't get smaller are stored uncompressed behind the
+ * header. {@link #NONE} stores the serialized value as is with no header, matching databases
+ * created before value compression was supported.
+ */
+public enum ValueCodec {
+  NONE,
+  SNAPPY,
+  DEFLATE;
+
+  private static final byte UNCOMPRESSED_FORMAT = 0;
+  private static final byte SNAPPY_FORMAT = 1;
+  private static final byte DEFLATE_FORMAT = 2;
+  private static final int HEADER_SIZE = 1;
+
+  // Pooled rather than thread local so the native memory they hold can be freed on shutdown
+  private static final int MAX_POOLED_CODECS = Runtime.getRuntime().availableProcessors();
+  private static final BlockingQueue<Deflater> DEFLATERS =
+      new ArrayBlockingQueue<>(MAX_POOLED_CODECS);
+  private static final BlockingQueue<Inflater> INFLATERS =
+      new ArrayBlockingQueue<>(MAX_POOLED_CODECS);
+
+  public byte[] encode(final byte[] value) {
+    switch (this) {
+      case NONE:
+        return value;
+      case SNAPPY:
+        return encodeSnappy(value);
+      case DEFLATE:
+        return encodeDeflate(value);
+      default:
+        throw new IllegalStateException("Unhandled value codec " + this);
+    }
+  }
+
+  /**
+   * Decode a value written by any codec other than {@link #NONE}.
+   *
+   * @param data the stored value, including its header byte
+   * @return the serialized value
+   */
+  public static byte[] decode(final byte[] data) {
+    if (data.length < HEADER_SIZE) {
+      throw new IllegalArgumentException("Encoded value is missing its header");
+    }
+    switch (data[0]) {
+      case UNCOMPRESSED_FORMAT:
+        return Arrays.copyOfRange(data, HEADER_SIZE, data.length);
+      case SNAPPY_FORMAT:
+        return decodeSnappy(data);
+      case DEFLATE_FORMAT:
+        return decodeDeflate(data);
+      default:
+        throw new IllegalArgumentException("Unknown encoded value format " + data[0]);
+    }
+  }
+
+  /**
+   * Free the native memory held by pooled deflate compressors. Encoding and decoding remain
+   * possible afterwards, creating new compressors as required.
+   */
+  public static void releaseResources() {
+    Deflater deflater;
+    while ((deflater = DEFLATERS.poll()) != null) {
+      deflater.end();
+    }
+    Inflater inflater;
+    while ((inflater = INFLATERS.poll()) != null) {
+      inflater.end();
+    }
+  }
+
+  private static byte[] encodeSnappy(final byte[] value) {
+    try {
+      final byte[] buffer = new byte[HEADER_SIZE + Snappy.maxCompressedLength(value.length)];
+      final int compressedLength = Snappy.rawCompress(value, 0, value.length, buffer, HEADER_SIZE);
+      if (compressedLength >= value.length) {
+        return uncompressed(value);
+      }
+      buffer[0] = SNAPPY_FORMAT;
+      return Arrays.copyOf(buffer, HEADER_SIZE + compressedLength);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] decodeSnappy(final byte[] data) {
+    try {
+      final int compressedLength = data.length - HEADER_SIZE;
+      final byte[] value = new byte[Snappy.uncompressedLength(data, HEADER_SIZE, compressedLength)];
+      Snappy.uncompress(data, HEADER_SIZE, compressedLength, value, 0);
+      return value;
+    } catch (final IOException e) {
+      throw new IllegalArgumentException("Corrupt snappy encoded value", e);
+    }
+  }
+
+  private static byte[] encodeDeflate(final byte[] value) {
+    // Header, then the uncompressed length so decoding can allocate the result up front
+    final int prefixLength = HEADER_SIZE + Integer.BYTES;
+    final byte[] buffer = new byte[prefixLength + value.length];
+    final Deflater pooledDeflater = DEFLATERS.poll();
+    final Deflater deflater = pooledDeflater != null ? pooledDeflater : new Deflater();
+    try {
+      deflater.setInput(value);
+      deflater.finish();
+      final int compressedLength =
+          deflater.deflate(buffer, prefixLength, buffer.length - prefixLength);
+      if (!deflater.finished()) {
+        // Compressed output is at least as large as the input
+        return uncompressed(value);
+      }
+      buffer[0] = DEFLATE_FORMAT;
+      writeInt(buffer, HEADER_SIZE, value.length);
+      return Arrays.copyOf(buffer, prefixLength + compressedLength);
+    } finally {
+      deflater.reset();
+      if (!DEFLATERS.offer(deflater)) {
+        deflater.end();
+      }
+    }
+  }
+
+  private static byte[] decodeDeflate(final byte[] data) {
+    final int prefixLength = HEADER_SIZE + Integer.BYTES;
+    if (data.length < prefixLength) {
+      throw new IllegalArgumentException("Deflate encoded value is missing its length");
+    }
+    final byte[] value = new byte[readInt(data, HEADER_SIZE)];
+    final Inflater pooledInflater = INFLATERS.poll();
+    final Inflater inflater = pooledInflater != null ? pooledInflater : new Inflater();
+    try {
+      inflater.setInput(data, prefixLength, data.length - prefixLength);
+      final int length = inflater.inflate(value);
+      if (length != value.length || !inflater.finished()) {
+        throw new IllegalArgumentException("Deflate encoded value has incorrect length");
+      }
+      return value;
+    } catch (final DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt deflate encoded value", e);
+    } finally {
+      inflater.reset();
+      if (!INFLATERS.offer(inflater)) {
+        inflater.end();
+      }
+    }
+  }
+
+  private static byte[] uncompressed(final byte[] value) {
+    final byte[] result = new byte[HEADER_SIZE + value.length];
+    result[0] = UNCOMPRESSED_FORMAT;
+    System.arraycopy(value, 0, result, HEADER_SIZE, value.length);
+    return result;
+  }
+
+  private static void writeInt(final byte[] buffer, final int offset, final int value) {
+    buffer[offset] = (byte) (value >>> 24);
+    buffer[offset + 1] = (byte) (value >>> 16);
+    buffer[offset + 2] = (byte) (value >>> 8);
+    buffer[offset + 3] = (byte) value;
+  }
+
+  private static int readInt(final byte[] buffer, final int offset) {
+    return ((buffer[offset] & 0xFF) << 24)
+        | ((buffer[offset + 1] & 0xFF) << 16)
+        | ((buffer[offset + 2] & 0xFF) << 8)
+        | (buffer[offset + 3] & 0xFF);
+  }
+}
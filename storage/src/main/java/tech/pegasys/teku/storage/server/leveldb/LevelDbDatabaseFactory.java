@@ -26,6 +26,7 @@ import tech.pegasys.teku.storage.server.kvstore.KvStoreConfiguration;
 import tech.pegasys.teku.storage.server.kvstore.KvStoreDatabase;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaFinalizedSnapshotStateAdapter;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaHotAdapter;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedDiffState;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedTreeState;
 
@@ -52,6 +53,7 @@ public class LevelDbDatabaseFactory {
             finalizedConfiguration,
             schemaFinalized.getAllColumns());
     return KvStoreDatabase.createV4(
+        metricsSystem,
         hotDb,
         finalizedDb,
         schemaHot,
@@ -69,13 +71,20 @@ public class LevelDbDatabaseFactory {
       final long stateStorageFrequency,
       final boolean storeNonCanonicalBlocks,
       final Spec spec) {
-    final V6SchemaCombinedSnapshot schema = V6SchemaCombinedSnapshot.createV6(spec);
+    final V6SchemaCombinedSnapshot schema =
+        V6SchemaCombinedSnapshot.createV6(spec, hotConfiguration.getValueCodec());
     final KvStoreAccessor db =
         LevelDbInstanceFactory.create(
             metricsSystem, STORAGE, hotConfiguration, schema.getAllColumns());
 
     return KvStoreDatabase.createWithStateSnapshots(
-        db, schema, stateStorageMode, stateStorageFrequency, storeNonCanonicalBlocks, spec);
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
   }
 
   public static Database createLevelDbTree(
@@ -86,7 +95,8 @@ public class LevelDbDatabaseFactory {
       final int maxKnownNodeCacheSize,
       final Spec spec) {
 
-    final V6SchemaCombinedTreeState schema = new V6SchemaCombinedTreeState(spec);
+    final V6SchemaCombinedTreeState schema =
+        new V6SchemaCombinedTreeState(spec, hotConfiguration.getValueCodec());
     final KvStoreAccessor db =
         LevelDbInstanceFactory.create(
             metricsSystem, STORAGE, hotConfiguration, schema.getAllColumns());
@@ -99,4 +109,26 @@ public class LevelDbDatabaseFactory {
         maxKnownNodeCacheSize,
         spec);
   }
+
+  public static Database createLevelDbDiff(
+      final MetricsSystem metricsSystem,
+      final KvStoreConfiguration hotConfiguration,
+      final StateStorageMode stateStorageMode,
+      final long stateStorageFrequency,
+      final boolean storeNonCanonicalBlocks,
+      final Spec spec) {
+    final V6SchemaCombinedDiffState schema =
+        new V6SchemaCombinedDiffState(spec, hotConfiguration.getValueCodec());
+    final KvStoreAccessor db =
+        LevelDbInstanceFactory.create(
+            metricsSystem, STORAGE, hotConfiguration, schema.getAllColumns());
+    return KvStoreDatabase.createWithStateDiffs(
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
+  }
 }
@@ -267,6 +267,13 @@ public class LevelDbInstance implements KvStoreAccessor {
     return streamKeys(column, fromBytes, toBytes);
   }
 
+  @Override
+  public <K extends Comparable<K>, V> void compactRange(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    assertOpen();
+    db.compactRange(getColumnKey(column, from), getColumnKey(column, to));
+  }
+
   @MustBeClosed
   private <K, V> Stream<ColumnEntry<K, V>> stream(
       final KvStoreColumn<K, V> column, final byte[] fromBytes, final byte[] toBytes) {
@@ -26,6 +26,7 @@ import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
 import tech.pegasys.teku.storage.server.kvstore.KvStoreConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 /**
  * Defines the configuration for a database. The configuration used when a database is created is
@@ -83,6 +84,10 @@ public class V6DatabaseMetadata {
     return new V6DatabaseMetadata(KvStoreConfiguration.v6SingleDefaults());
   }
 
+  public static V6DatabaseMetadata singleDBDefault(final ValueCodec valueCodec) {
+    return new V6DatabaseMetadata(KvStoreConfiguration.v6SingleDefaults(valueCodec));
+  }
+
   public SingleDBMetadata getSingleDbConfiguration() {
     return singleDb;
   }
@@ -31,6 +31,7 @@ import tech.pegasys.teku.ethereum.pow.api.MinGenesisTimeBlockEvent;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.datastructures.blocks.BlockCheckpoints;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
 import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
@@ -39,6 +40,7 @@ import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.api.OnDiskStoreData;
 import tech.pegasys.teku.storage.api.StorageUpdate;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
 import tech.pegasys.teku.storage.api.UpdateResult;
 import tech.pegasys.teku.storage.api.WeakSubjectivityState;
 import tech.pegasys.teku.storage.api.WeakSubjectivityUpdate;
@@ -54,6 +56,9 @@ public class NoOpDatabase implements Database {
     return new UpdateResult(Optional.empty());
   }
 
+  @Override
+  public void updateGroup(final StorageUpdateGroup group) {}
+
   @Override
   public void storeFinalizedBlocks(final Collection<SignedBeaconBlock> blocks) {}
 
@@ -63,6 +68,9 @@ public class NoOpDatabase implements Database {
   @Override
   public void storeReconstructedFinalizedState(BeaconState state, Bytes32 blockRoot) {}
 
+  @Override
+  public void storeReconstructedFinalizedStates(final List<SignedBlockAndState> blocksAndStates) {}
+
   @Override
   public void updateWeakSubjectivityState(WeakSubjectivityUpdate weakSubjectivityUpdate) {}
 
@@ -96,6 +104,11 @@ public class NoOpDatabase implements Database {
     return Optional.empty();
   }
 
+  @Override
+  public Optional<Bytes> getFinalizedBlockSszAtSlot(final UInt64 slot) {
+    return Optional.empty();
+  }
+
   @Override
   public Optional<UInt64> getEarliestAvailableBlockSlot() {
     return Optional.empty();
@@ -226,6 +239,14 @@ public class NoOpDatabase implements Database {
   @Override
   public void pruneFinalizedBlocks(final UInt64 lastSlotToPrune) {}
 
+  @Override
+  public void compactFinalizedRange(final UInt64 firstSlot, final UInt64 lastSlot) {}
+
+  @Override
+  public boolean archiveFinalizedBlocks() {
+    return false;
+  }
+
   @Override
   public void addMinGenesisTimeBlock(final MinGenesisTimeBlockEvent event) {}
 
@@ -18,6 +18,7 @@ import static tech.pegasys.teku.spec.config.Constants.MIN_EPOCHS_FOR_BLOBS_SIDEC
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,6 +43,8 @@ public class BlobsPruner extends Service implements FinalizedCheckpointChannel {
   private final Duration pruneInterval;
   private int pruneLimit;
   private final TimeProvider timeProvider;
+  private final Optional<StorageMaintenanceScheduler> maintenanceScheduler;
+  private final AtomicBoolean catchUpScheduled = new AtomicBoolean(false);
 
   private Optional<Cancellable> scheduledPruner = Optional.empty();
   private Optional<UInt64> genesisTime = Optional.empty();
@@ -56,12 +59,24 @@ public class BlobsPruner extends Service implements FinalizedCheckpointChannel {
       final TimeProvider timeProvider,
       final Duration pruneInterval,
       final int pruneLimit) {
+    this(spec, database, asyncRunner, timeProvider, pruneInterval, pruneLimit, Optional.empty());
+  }
+
+  public BlobsPruner(
+      final Spec spec,
+      final Database database,
+      final AsyncRunner asyncRunner,
+      final TimeProvider timeProvider,
+      final Duration pruneInterval,
+      final int pruneLimit,
+      final Optional<StorageMaintenanceScheduler> maintenanceScheduler) {
     this.spec = spec;
     this.database = database;
     this.asyncRunner = asyncRunner;
     this.pruneInterval = pruneInterval;
     this.pruneLimit = pruneLimit;
     this.timeProvider = timeProvider;
+    this.maintenanceScheduler = maintenanceScheduler;
   }
 
   @Override
@@ -83,8 +98,63 @@ public class BlobsPruner extends Service implements FinalizedCheckpointChannel {
   }
 
   private void pruneBlobs() {
-    pruneBlobsPriorToAvailabilityWindow();
+    if (maintenanceScheduler.isPresent()) {
+      pruneBlobsWithinBudget(maintenanceScheduler.get());
+      return;
+    }
+    getLastPrunableSlot().ifPresent(this::pruneBlobsUpTo);
+    pruneUnconfirmedBlobs();
+  }
+
+  private void pruneBlobsWithinBudget(final StorageMaintenanceScheduler scheduler) {
+    final Optional<UInt64> lastSlotToPrune = getLastPrunableSlot();
+    final Optional<UInt64> earliestBlobsSlot = database.getEarliestBlobsSidecarSlot();
+    if (lastSlotToPrune.isEmpty()
+        || earliestBlobsSlot.isEmpty()
+        || earliestBlobsSlot.get().isGreaterThan(lastSlotToPrune.get())) {
+      if (!scheduler.isOffPeak()) {
+        scheduleCatchUp(scheduler.getRetryDelay());
+        LOG.debug("Deferring unconfirmed blobs pruning until the next off-peak phase");
+        return;
+      }
+      pruneUnconfirmedBlobs();
+      return;
+    }
+    final UInt64 firstSlot = earliestBlobsSlot.get();
+    final Optional<UInt64> acquiredSlot = scheduler.acquireSlots(firstSlot, lastSlotToPrune.get());
+    if (acquiredSlot.isEmpty() || acquiredSlot.get().isLessThan(lastSlotToPrune.get())) {
+      scheduleCatchUp(scheduler.getRetryDelay());
+    }
+    if (acquiredSlot.isEmpty()) {
+      LOG.debug("Deferring blobs pruning until the next off-peak phase");
+      return;
+    }
+    if (pruneBlobsUpTo(acquiredSlot.get())) {
+      // The prune limit was hit before reaching the acquired slot so there is more to do
+      scheduleCatchUp(scheduler.getRetryDelay());
+    }
     pruneUnconfirmedBlobs();
+    // Blobs sidecars are pruned oldest first so everything before the new earliest slot is gone
+    database
+        .getEarliestBlobsSidecarSlot()
+        .filter(earliestSlot -> earliestSlot.isGreaterThan(firstSlot))
+        .ifPresent(earliestSlot -> scheduler.onPruned(firstSlot, earliestSlot.decrement()));
+  }
+
+  private void scheduleCatchUp(final Duration delay) {
+    if (!catchUpScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    asyncRunner
+        .runAfterDelay(
+            () -> {
+              catchUpScheduled.set(false);
+              if (isRunning()) {
+                pruneBlobs();
+              }
+            },
+            delay)
+        .finish(error -> LOG.error("Failed to prune old blobs", error));
   }
 
   private void pruneUnconfirmedBlobs() {
@@ -112,11 +182,11 @@ public class BlobsPruner extends Service implements FinalizedCheckpointChannel {
     }
   }
 
-  private void pruneBlobsPriorToAvailabilityWindow() {
+  private Optional<UInt64> getLastPrunableSlot() {
     final Optional<UInt64> genesisTime = getGenesisTime();
     if (genesisTime.isEmpty()) {
       LOG.debug("Not pruning as no genesis time is available.");
-      return;
+      return Optional.empty();
     }
 
     final UInt64 currentSlot =
@@ -126,19 +196,24 @@ public class BlobsPruner extends Service implements FinalizedCheckpointChannel {
 
     if (earliestPrunableSlot.isZero()) {
       LOG.debug("Not pruning as slots to keep includes genesis.");
-      return;
+      return Optional.empty();
     }
-    LOG.debug("Pruning blobs up to slot {}, limit {}", earliestPrunableSlot, pruneLimit);
+    return Optional.of(earliestPrunableSlot);
+  }
+
+  private boolean pruneBlobsUpTo(final UInt64 lastSlotToPrune) {
+    LOG.debug("Pruning blobs up to slot {}, limit {}", lastSlotToPrune, pruneLimit);
     try {
       final long start = System.currentTimeMillis();
-      final boolean limitReached =
-          database.pruneOldestBlobsSidecar(earliestPrunableSlot, pruneLimit);
+      final boolean limitReached = database.pruneOldestBlobsSidecar(lastSlotToPrune, pruneLimit);
       LOG.debug(
           "Blobs pruning finished in {} ms. Limit reached: {}",
           () -> System.currentTimeMillis() - start,
           () -> limitReached);
+      return limitReached;
     } catch (ShuttingDownException | RejectedExecutionException ex) {
       LOG.debug("Shutting down", ex);
+      return false;
     }
   }
 
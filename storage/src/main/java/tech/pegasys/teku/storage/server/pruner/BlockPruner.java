@@ -16,6 +16,7 @@ package tech.pegasys.teku.storage.server.pruner;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import tech.pegasys.teku.infrastructure.async.AsyncRunner;
@@ -35,6 +36,8 @@ public class BlockPruner extends Service {
   private final Database database;
   private final AsyncRunner asyncRunner;
   private final Duration pruneInterval;
+  private final Optional<StorageMaintenanceScheduler> maintenanceScheduler;
+  private final AtomicBoolean catchUpScheduled = new AtomicBoolean(false);
 
   private Optional<Cancellable> scheduledPruner = Optional.empty();
 
@@ -43,10 +46,20 @@ public class BlockPruner extends Service {
       final Database database,
       final AsyncRunner asyncRunner,
       final Duration pruneInterval) {
+    this(spec, database, asyncRunner, pruneInterval, Optional.empty());
+  }
+
+  public BlockPruner(
+      final Spec spec,
+      final Database database,
+      final AsyncRunner asyncRunner,
+      final Duration pruneInterval,
+      final Optional<StorageMaintenanceScheduler> maintenanceScheduler) {
     this.spec = spec;
     this.database = database;
     this.asyncRunner = asyncRunner;
     this.pruneInterval = pruneInterval;
+    this.maintenanceScheduler = maintenanceScheduler;
   }
 
   @Override
@@ -80,6 +93,10 @@ public class BlockPruner extends Service {
       LOG.debug("Not pruning as epochs to keep includes genesis");
       return;
     }
+    if (maintenanceScheduler.isPresent()) {
+      pruneBlocksWithinBudget(maintenanceScheduler.get(), earliestSlotToKeep.decrement());
+      return;
+    }
     LOG.info("Pruning finalized blocks before slot {}", earliestSlotToKeep);
     try {
       database.pruneFinalizedBlocks(earliestSlotToKeep.decrement());
@@ -88,6 +105,48 @@ public class BlockPruner extends Service {
     }
   }
 
+  private void pruneBlocksWithinBudget(
+      final StorageMaintenanceScheduler scheduler, final UInt64 lastSlotToPrune) {
+    final Optional<UInt64> earliestBlockSlot = database.getEarliestAvailableBlockSlot();
+    if (earliestBlockSlot.isEmpty() || earliestBlockSlot.get().isGreaterThan(lastSlotToPrune)) {
+      LOG.debug("Not pruning as no blocks are before slot {}", lastSlotToPrune);
+      return;
+    }
+    final Optional<UInt64> acquiredSlot =
+        scheduler.acquireSlots(earliestBlockSlot.get(), lastSlotToPrune);
+    if (acquiredSlot.isEmpty() || acquiredSlot.get().isLessThan(lastSlotToPrune)) {
+      scheduleCatchUp(scheduler.getRetryDelay());
+    }
+    if (acquiredSlot.isEmpty()) {
+      LOG.debug("Deferring block pruning until the next off-peak phase");
+      return;
+    }
+    LOG.info(
+        "Pruning finalized blocks from slot {} to {}", earliestBlockSlot.get(), acquiredSlot.get());
+    try {
+      database.pruneFinalizedBlocks(acquiredSlot.get());
+      scheduler.onPruned(earliestBlockSlot.get(), acquiredSlot.get());
+    } catch (ShuttingDownException | RejectedExecutionException ex) {
+      LOG.debug("Shutting down", ex);
+    }
+  }
+
+  private void scheduleCatchUp(final Duration delay) {
+    if (!catchUpScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    asyncRunner
+        .runAfterDelay(
+            () -> {
+              catchUpScheduled.set(false);
+              if (isRunning()) {
+                pruneBlocks();
+              }
+            },
+            delay)
+        .finish(error -> LOG.error("Failed to prune old blocks", error));
+  }
+
   private int getEpochsToKeep(final UInt64 finalizedEpoch) {
     return spec.getSpecConfig(finalizedEpoch).getMinEpochsForBlockRequests();
   }
@@ -0,0 +1,233 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.pruner;
+
+import static tech.pegasys.teku.infrastructure.time.TimeUtilities.secondsToMillis;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import tech.pegasys.teku.infrastructure.async.AsyncRunner;
+import tech.pegasys.teku.infrastructure.async.Cancellable;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.TimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.service.serviceutils.Service;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.storage.server.Database;
+import tech.pegasys.teku.storage.server.ShuttingDownException;
+
+/**
+ * Schedules storage maintenance so that it doesn't compete with block import and attestation
+ * duties for disk I/O.
+ *
+ * <p>Pruning and compaction only run in the off-peak phase of each slot, after aggregates are due
+ * and before the next block is expected, and share an I/O budget of a number of slots of finalized
+ * data processed per slot. Pruned ranges are then compacted within the remaining budget so the
+ * deleted entries they leave behind don't accumulate and slow down reads.
+ */
+public class StorageMaintenanceScheduler extends Service {
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final Duration COMPACTION_INTERVAL = Duration.ofSeconds(1);
+  static final int OFF_PEAK_START_PERCENT = 70;
+  static final int OFF_PEAK_END_PERCENT = 95;
+
+  private final Spec spec;
+  private final Database database;
+  private final AsyncRunner asyncRunner;
+  private final TimeProvider timeProvider;
+  private final int ioBudget;
+  private final Counter compactedSlotsCounter;
+
+  private Optional<Cancellable> scheduledCompaction = Optional.empty();
+  private Optional<UInt64> genesisTimeMillis = Optional.empty();
+  private Optional<UInt64> budgetSlot = Optional.empty();
+  private long budgetUsed = 0;
+  private Optional<UInt64> firstUncompactedSlot = Optional.empty();
+  private UInt64 lastUncompactedSlot = UInt64.ZERO;
+
+  /**
+   * @param ioBudget the maximum number of slots of finalized data to prune or compact in each
+   *     slot, or 0 for no limit
+   */
+  public StorageMaintenanceScheduler(
+      final Spec spec,
+      final Database database,
+      final AsyncRunner asyncRunner,
+      final TimeProvider timeProvider,
+      final MetricsSystem metricsSystem,
+      final int ioBudget) {
+    this.spec = spec;
+    this.database = database;
+    this.asyncRunner = asyncRunner;
+    this.timeProvider = timeProvider;
+    this.ioBudget = ioBudget;
+    metricsSystem.createLongGauge(
+        TekuMetricCategory.STORAGE,
+        "maintenance_uncompacted_slots",
+        "Number of pruned slots whose deleted entries have not yet been compacted",
+        this::getUncompactedSlotCount);
+    this.compactedSlotsCounter =
+        metricsSystem.createCounter(
+            TekuMetricCategory.STORAGE,
+            "maintenance_compacted_slots_total",
+            "Total number of pruned slots compacted");
+  }
+
+  @Override
+  protected synchronized SafeFuture<?> doStart() {
+    scheduledCompaction =
+        Optional.of(
+            asyncRunner.runWithFixedDelay(
+                this::compactPrunedSlots,
+                COMPACTION_INTERVAL,
+                error -> LOG.error("Failed to compact pruned data", error)));
+    return SafeFuture.COMPLETE;
+  }
+
+  @Override
+  protected synchronized SafeFuture<?> doStop() {
+    scheduledCompaction.ifPresent(Cancellable::cancel);
+    return SafeFuture.COMPLETE;
+  }
+
+  public boolean isOffPeak() {
+    return getDelayUntilOffPeak().isZero();
+  }
+
+  /**
+   * Get the time until the next off-peak phase starts. Before genesis, or if the genesis time isn't
+   * yet known, there are no duties so it is always off-peak.
+   *
+   * @return the delay until the next off-peak phase, or zero if currently off-peak
+   */
+  public Duration getDelayUntilOffPeak() {
+    final Optional<UInt64> genesis = getGenesisTimeMillis();
+    final UInt64 now = timeProvider.getTimeInMillis();
+    if (genesis.isEmpty() || now.isLessThan(genesis.get())) {
+      return Duration.ZERO;
+    }
+    final UInt64 slot = spec.getCurrentSlotForMillis(now, genesis.get());
+    final UInt64 slotStart = spec.getSlotStartTimeMillis(slot, genesis.get());
+    final UInt64 millisPerSlot = spec.getMillisPerSlot(slot);
+    final UInt64 offPeakStart =
+        slotStart.plus(millisPerSlot.times(OFF_PEAK_START_PERCENT).dividedBy(100));
+    final UInt64 offPeakEnd =
+        slotStart.plus(millisPerSlot.times(OFF_PEAK_END_PERCENT).dividedBy(100));
+    if (now.isLessThan(offPeakStart)) {
+      return Duration.ofMillis(offPeakStart.minus(now).longValue());
+    }
+    if (now.isLessThan(offPeakEnd)) {
+      return Duration.ZERO;
+    }
+    return Duration.ofMillis(offPeakStart.plus(millisPerSlot).minus(now).longValue());
+  }
+
+  /**
+   * Get the delay before retrying maintenance that was deferred because it wasn't off-peak or the
+   * budget for the slot was used.
+   */
+  public Duration getRetryDelay() {
+    final Duration delayUntilOffPeak = getDelayUntilOffPeak();
+    return delayUntilOffPeak.compareTo(COMPACTION_INTERVAL) > 0
+        ? delayUntilOffPeak
+        : COMPACTION_INTERVAL;
+  }
+
+  /**
+   * Acquire budget to prune or compact slots from firstSlot to lastSlot inclusive.
+   *
+   * @return the last slot that may be processed now, which may be before lastSlot if the budget
+   *     for this slot is nearly used, or empty if nothing should be processed until the next
+   *     off-peak phase
+   */
+  public synchronized Optional<UInt64> acquireSlots(final UInt64 firstSlot, final UInt64 lastSlot) {
+    if (lastSlot.isLessThan(firstSlot) || !isOffPeak()) {
+      return Optional.empty();
+    }
+    if (ioBudget == 0) {
+      return Optional.of(lastSlot);
+    }
+    final UInt64 currentSlot =
+        spec.getCurrentSlotForMillis(
+            timeProvider.getTimeInMillis(), getGenesisTimeMillis().orElse(UInt64.ZERO));
+    if (!budgetSlot.equals(Optional.of(currentSlot))) {
+      budgetSlot = Optional.of(currentSlot);
+      budgetUsed = 0;
+    }
+    final long remaining = ioBudget - budgetUsed;
+    if (remaining <= 0) {
+      return Optional.empty();
+    }
+    final UInt64 acquired = lastSlot.minus(firstSlot).increment().min(remaining);
+    budgetUsed += acquired.longValue();
+    return Optional.of(firstSlot.plus(acquired).decrement());
+  }
+
+  /** Record that data from firstSlot to lastSlot inclusive was pruned and should be compacted. */
+  public synchronized void onPruned(final UInt64 firstSlot, final UInt64 lastSlot) {
+    if (lastSlot.isLessThan(firstSlot)) {
+      return;
+    }
+    firstUncompactedSlot =
+        Optional.of(firstUncompactedSlot.map(slot -> slot.min(firstSlot)).orElse(firstSlot));
+    lastUncompactedSlot = lastUncompactedSlot.max(lastSlot);
+  }
+
+  synchronized long getUncompactedSlotCount() {
+    return firstUncompactedSlot
+        .map(firstSlot -> lastUncompactedSlot.minus(firstSlot).increment().longValue())
+        .orElse(0L);
+  }
+
+  void compactPrunedSlots() {
+    final UInt64 firstSlot;
+    final UInt64 lastSlot;
+    synchronized (this) {
+      if (firstUncompactedSlot.isEmpty()) {
+        return;
+      }
+      firstSlot = firstUncompactedSlot.get();
+      final Optional<UInt64> acquiredSlot = acquireSlots(firstSlot, lastUncompactedSlot);
+      if (acquiredSlot.isEmpty()) {
+        return;
+      }
+      lastSlot = acquiredSlot.get();
+      firstUncompactedSlot =
+          lastSlot.isLessThan(lastUncompactedSlot)
+              ? Optional.of(lastSlot.increment())
+              : Optional.empty();
+    }
+    LOG.debug("Compacting pruned data from slot {} to {}", firstSlot, lastSlot);
+    try {
+      database.compactFinalizedRange(firstSlot, lastSlot);
+      compactedSlotsCounter.inc(lastSlot.minus(firstSlot).increment().longValue());
+    } catch (ShuttingDownException | RejectedExecutionException ex) {
+      LOG.debug("Shutting down", ex);
+    }
+  }
+
+  private synchronized Optional<UInt64> getGenesisTimeMillis() {
+    if (genesisTimeMillis.isEmpty()) {
+      genesisTimeMillis = database.getGenesisTime().map(time -> secondsToMillis(time));
+    }
+    return genesisTimeMillis;
+  }
+}
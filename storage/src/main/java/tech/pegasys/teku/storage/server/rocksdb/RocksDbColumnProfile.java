@@ -0,0 +1,62 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.rocksdb;
+
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
+import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+
+/**
+ * Groups columns by their access pattern so the table options for each column family can be tuned
+ * to suit how it is read.
+ */
+enum RocksDbColumnProfile {
+  /**
+   * Keyed by a hash such as a block or state root. Keys are effectively random so reads are point
+   * lookups which benefit from a bloom filter, and values are typically SSZ objects.
+   */
+  HASH_KEYED(true, true),
+  /**
+   * Keyed by a big-endian slot or epoch. Entries are mostly appended in order and read by range or
+   * floor lookups, which can't use a bloom filter, and values are typically SSZ objects.
+   */
+  SLOT_KEYED(false, true),
+  /** Any other column, including the default column which holds small variables. */
+  DEFAULT(true, false);
+
+  private final boolean bloomFilterEnabled;
+  private final boolean compressionDictionaryEnabled;
+
+  RocksDbColumnProfile(
+      final boolean bloomFilterEnabled, final boolean compressionDictionaryEnabled) {
+    this.bloomFilterEnabled = bloomFilterEnabled;
+    this.compressionDictionaryEnabled = compressionDictionaryEnabled;
+  }
+
+  public static RocksDbColumnProfile forColumn(final KvStoreColumn<?, ?> column) {
+    if (column.getKeySerializer() == KvStoreSerializer.BYTES32_SERIALIZER) {
+      return HASH_KEYED;
+    } else if (column.getKeySerializer() == KvStoreSerializer.UINT64_SERIALIZER) {
+      return SLOT_KEYED;
+    }
+    return DEFAULT;
+  }
+
+  public boolean isBloomFilterEnabled() {
+    return bloomFilterEnabled;
+  }
+
+  public boolean isCompressionDictionaryEnabled() {
+    return compressionDictionaryEnabled;
+  }
+}
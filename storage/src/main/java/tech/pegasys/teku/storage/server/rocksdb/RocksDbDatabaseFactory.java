@@ -58,6 +58,7 @@ public class RocksDbDatabaseFactory {
             schemaFinalized.getAllColumns(),
             schemaFinalized.getDeletedColumnIds());
     return KvStoreDatabase.createV4(
+        metricsSystem,
         hotDb,
         finalizedDb,
         schemaHot,
@@ -86,6 +87,12 @@ public class RocksDbDatabaseFactory {
             schema.getDeletedColumnIds());
 
     return KvStoreDatabase.createWithStateSnapshots(
-        db, schema, stateStorageMode, stateStorageFrequency, storeNonCanonicalBlocks, spec);
+        metricsSystem,
+        db,
+        schema,
+        stateStorageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
   }
 }
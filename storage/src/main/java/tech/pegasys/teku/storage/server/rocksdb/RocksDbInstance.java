@@ -190,6 +190,21 @@ public class RocksDbInstance implements KvStoreAccessor {
         key -> key.compareTo(to) <= 0);
   }
 
+  @Override
+  public <K extends Comparable<K>, V> void compactRange(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    assertOpen();
+    final ColumnFamilyHandle handle = columnHandles.get(column);
+    try {
+      db.compactRange(
+          handle,
+          column.getKeySerializer().serialize(from),
+          column.getKeySerializer().serialize(to));
+    } catch (RocksDBException e) {
+      throw RocksDbExceptionUtil.wrapException("Failed to compact range", e);
+    }
+  }
+
   @Override
   @MustBeClosed
   public synchronized KvStoreTransaction startTransaction() {
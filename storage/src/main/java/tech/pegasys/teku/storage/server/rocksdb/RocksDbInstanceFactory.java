@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -27,12 +28,15 @@ import org.apache.tuweni.bytes.Bytes;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
 import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Env;
+import org.rocksdb.IndexType;
 import org.rocksdb.LRUCache;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
@@ -45,6 +49,8 @@ import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
 import tech.pegasys.teku.storage.server.kvstore.schema.Schema;
 
 public class RocksDbInstanceFactory {
+  private static final int DICTIONARY_TRAINING_MULTIPLE = 100;
+
   static {
     RocksDbUtil.loadNativeLibrary();
   }
@@ -68,12 +74,16 @@ public class RocksDbInstanceFactory {
     final TransactionDBOptions txOptions = new TransactionDBOptions();
     final RocksDbStats rocksDbStats = new RocksDbStats(metricsSystem, metricCategory);
     final DBOptions dbOptions = createDBOptions(configuration, rocksDbStats.getStats());
+    // A single block cache is shared by all column families
     final LRUCache blockCache = new LRUCache(configuration.getCacheCapacity());
-    final ColumnFamilyOptions columnFamilyOptions =
-        createColumnFamilyOptions(configuration, blockCache);
     final List<AutoCloseable> resources =
-        new ArrayList<>(
-            List.of(txOptions, dbOptions, columnFamilyOptions, rocksDbStats, blockCache));
+        new ArrayList<>(List.of(txOptions, dbOptions, rocksDbStats, blockCache));
+    final Map<RocksDbColumnProfile, ColumnFamilyOptions> columnFamilyOptions =
+        new EnumMap<>(RocksDbColumnProfile.class);
+    for (RocksDbColumnProfile profile : RocksDbColumnProfile.values()) {
+      columnFamilyOptions.put(
+          profile, createColumnFamilyOptions(configuration, blockCache, profile, resources));
+    }
 
     List<ColumnFamilyDescriptor> columnDescriptors =
         createColumnFamilyDescriptors(columns, deletedColumns, columnFamilyOptions);
@@ -108,6 +118,7 @@ public class RocksDbInstanceFactory {
       resources.add(db);
 
       rocksDbStats.registerMetrics(db);
+      rocksDbStats.registerColumnMetrics(db, columnHandlesMap);
 
       return new RocksDbInstance(db, defaultHandle, columnHandlesMap, resources);
     } catch (RocksDBException e) {
@@ -152,30 +163,80 @@ public class RocksDbInstanceFactory {
   }
 
   private static ColumnFamilyOptions createColumnFamilyOptions(
-      final KvStoreConfiguration configuration, final Cache cache) {
-    return new ColumnFamilyOptions()
-        .setCompressionType(configuration.getCompressionType())
-        .setBottommostCompressionType(configuration.getBottomMostCompressionType())
-        .setTableFormatConfig(createBlockBasedTableConfig(cache));
+      final KvStoreConfiguration configuration,
+      final Cache cache,
+      final RocksDbColumnProfile profile,
+      final List<AutoCloseable> resources) {
+    final ColumnFamilyOptions options =
+        new ColumnFamilyOptions()
+            .setCompressionType(configuration.getCompressionType())
+            .setBottommostCompressionType(configuration.getBottomMostCompressionType())
+            .setTableFormatConfig(
+                createBlockBasedTableConfig(configuration, cache, profile, resources));
+    resources.add(options);
+    if (profile.isCompressionDictionaryEnabled()
+        && configuration.getCompressionDictionarySize() > 0) {
+      // SSZ values share a lot of structure so a dictionary trained on a sample of each file
+      // improves the compression ratio of small values like blocks considerably.
+      final CompressionOptions compressionOptions =
+          new CompressionOptions()
+              .setEnabled(true)
+              .setMaxDictBytes(configuration.getCompressionDictionarySize())
+              .setZStdMaxTrainBytes(
+                  configuration.getCompressionDictionarySize() * DICTIONARY_TRAINING_MULTIPLE);
+      resources.add(compressionOptions);
+      options
+          .setCompressionOptions(compressionOptions)
+          .setBottommostCompressionOptions(compressionOptions);
+    }
+    return options;
   }
 
   private static List<ColumnFamilyDescriptor> createColumnFamilyDescriptors(
       final Collection<KvStoreColumn<?, ?>> columns,
       final Collection<Bytes> deletedColumns,
-      final ColumnFamilyOptions columnFamilyOptions) {
+      final Map<RocksDbColumnProfile, ColumnFamilyOptions> columnFamilyOptions) {
+    final ColumnFamilyOptions defaultOptions =
+        columnFamilyOptions.get(RocksDbColumnProfile.DEFAULT);
     List<ColumnFamilyDescriptor> columnDescriptors =
-        Stream.concat(columns.stream().map(KvStoreColumn::getId), deletedColumns.stream())
-            .map(id -> new ColumnFamilyDescriptor(id.toArrayUnsafe(), columnFamilyOptions))
+        columns.stream()
+            .map(
+                column ->
+                    new ColumnFamilyDescriptor(
+                        column.getId().toArrayUnsafe(),
+                        columnFamilyOptions.get(RocksDbColumnProfile.forColumn(column))))
             .collect(Collectors.toList());
+    deletedColumns.forEach(
+        id ->
+            columnDescriptors.add(new ColumnFamilyDescriptor(id.toArrayUnsafe(), defaultOptions)));
     columnDescriptors.add(
-        new ColumnFamilyDescriptor(Schema.DEFAULT_COLUMN_ID.toArrayUnsafe(), columnFamilyOptions));
+        new ColumnFamilyDescriptor(Schema.DEFAULT_COLUMN_ID.toArrayUnsafe(), defaultOptions));
     return columnDescriptors;
   }
 
-  private static BlockBasedTableConfig createBlockBasedTableConfig(final Cache cache) {
-    return new BlockBasedTableConfig()
-        .setBlockCache(cache)
-        .setCacheIndexAndFilterBlocks(true)
-        .setFormatVersion(4); // Use the latest format version (only applies to new tables)
+  private static BlockBasedTableConfig createBlockBasedTableConfig(
+      final KvStoreConfiguration configuration,
+      final Cache cache,
+      final RocksDbColumnProfile profile,
+      final List<AutoCloseable> resources) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig()
+            .setBlockCache(cache)
+            .setCacheIndexAndFilterBlocks(true)
+            .setCacheIndexAndFilterBlocksWithHighPriority(true)
+            .setFormatVersion(4); // Use the latest format version (only applies to new tables)
+    if (configuration.isPartitionedIndexAndFiltersEnabled()) {
+      // Only the top level index is pinned, the partitions compete for space in the block cache
+      tableConfig
+          .setIndexType(IndexType.kTwoLevelIndexSearch)
+          .setPartitionFilters(true)
+          .setPinTopLevelIndexAndFilter(true);
+    }
+    if (profile.isBloomFilterEnabled() && configuration.getBloomFilterBitsPerKey() > 0) {
+      final BloomFilter filter = new BloomFilter(configuration.getBloomFilterBitsPerKey());
+      resources.add(filter);
+      tableConfig.setFilterPolicy(filter).setWholeKeyFiltering(true);
+    }
+    return tableConfig;
   }
 }
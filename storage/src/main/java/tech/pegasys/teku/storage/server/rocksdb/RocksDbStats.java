@@ -17,18 +17,22 @@ import io.prometheus.client.Collector;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledGauge;
 import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.HistogramData;
 import org.rocksdb.HistogramType;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
 import org.rocksdb.TickerType;
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
 
 /**
  * Taken from
@@ -175,6 +179,15 @@ public class RocksDbStats implements AutoCloseable {
     HistogramType.READ_NUM_MERGE_OPERANDS,
   };
 
+  // Per column family properties, keyed by metric name
+  static final Map<String, String> COLUMN_PROPERTIES =
+      Map.of(
+          "column_estimated_num_keys", "rocksdb.estimate-num-keys",
+          "column_estimated_live_data_size", "rocksdb.estimate-live-data-size",
+          "column_total_sst_files_size", "rocksdb.total-sst-files-size",
+          "column_estimated_table_readers_memory", "rocksdb.estimate-table-readers-mem",
+          "column_size_all_mem_tables", "rocksdb.size-all-mem-tables");
+
   private boolean closed = false;
   private final Statistics stats;
   private final MetricsSystem metricsSystem;
@@ -219,6 +232,40 @@ public class RocksDbStats implements AutoCloseable {
     }
   }
 
+  /**
+   * Registers size and memory metrics for each column family, labelled by the column ID.
+   *
+   * @param database the database the columns belong to
+   * @param columnHandles the handle for each column
+   */
+  public void registerColumnMetrics(
+      final RocksDB database, final Map<KvStoreColumn<?, ?>, ColumnFamilyHandle> columnHandles) {
+    for (Map.Entry<String, String> property : COLUMN_PROPERTIES.entrySet()) {
+      final LabelledGauge gauge =
+          metricsSystem.createLabelledGauge(
+              category, property.getKey(), "RocksDB " + property.getValue(), "column");
+      columnHandles.forEach(
+          (column, handle) ->
+              gauge.labels(
+                  () -> getLongProperty(database, handle, property.getValue()),
+                  column.getId().toHexString()));
+    }
+  }
+
+  private long getLongProperty(
+      final RocksDB database, final ColumnFamilyHandle handle, final String name) {
+    return ifOpen(
+        () -> {
+          try {
+            return database.getLongProperty(handle, name);
+          } catch (RocksDBException e) {
+            LOG.warn("Failed to load " + name + " column property for RocksDB metrics");
+            return 0L;
+          }
+        },
+        0L);
+  }
+
   private long getLongProperty(final RocksDB database, final String name) {
     return ifOpen(
         () -> {
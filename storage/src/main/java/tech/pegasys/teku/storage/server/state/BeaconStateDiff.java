@@ -0,0 +1,267 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.state;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.tuweni.bytes.Bytes;
+import tech.pegasys.teku.infrastructure.ssz.SszCollection;
+import tech.pegasys.teku.infrastructure.ssz.SszData;
+import tech.pegasys.teku.infrastructure.ssz.SszMutableComposite;
+import tech.pegasys.teku.infrastructure.ssz.collections.SszMutableUInt64List;
+import tech.pegasys.teku.infrastructure.ssz.collections.SszUInt64List;
+import tech.pegasys.teku.infrastructure.ssz.schema.SszSchema;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+
+/**
+ * Compact encoding of the changes between two beacon states with the same schema.
+ *
+ * <p>Only top level fields whose root differs are included. Lists and vectors record just the
+ * elements that changed or were appended, and uint64 lists such as balances record every element
+ * as a zigzag varint delta from the base value. Whichever of the partial and full SSZ encoding is
+ * smaller is used for each field.
+ */
+public class BeaconStateDiff {
+  private static final byte FULL = 0;
+  private static final byte ELEMENTS = 1;
+  private static final byte UINT64_DELTAS = 2;
+
+  private BeaconStateDiff() {}
+
+  public static Bytes create(final BeaconState base, final BeaconState target) {
+    checkArgument(
+        base.getSchema().getFieldsCount() == target.getSchema().getFieldsCount(),
+        "Cannot diff states with different schemas");
+    final Writer changedFields = new Writer();
+    int changedFieldCount = 0;
+    for (int fieldIndex = 0; fieldIndex < target.getSchema().getFieldsCount(); fieldIndex++) {
+      final SszData baseField = base.get(fieldIndex);
+      final SszData targetField = target.get(fieldIndex);
+      if (baseField.getBackingNode() == targetField.getBackingNode()
+          || baseField.hashTreeRoot().equals(targetField.hashTreeRoot())) {
+        continue;
+      }
+      changedFieldCount++;
+      changedFields.writeVarInt(fieldIndex);
+      writeField(changedFields, baseField, targetField);
+    }
+    final Writer diff = new Writer();
+    diff.writeVarInt(changedFieldCount);
+    diff.writeBytes(changedFields.toBytes());
+    return diff.toBytes();
+  }
+
+  public static BeaconState apply(final BeaconState base, final Bytes diff) {
+    final Reader reader = new Reader(diff);
+    final List<SszData> fields = new ArrayList<>(base.getSchema().getFieldsCount());
+    for (int fieldIndex = 0; fieldIndex < base.getSchema().getFieldsCount(); fieldIndex++) {
+      fields.add(base.get(fieldIndex));
+    }
+    final int changedFieldCount = reader.readVarInt();
+    for (int i = 0; i < changedFieldCount; i++) {
+      final int fieldIndex = reader.readVarInt();
+      fields.set(fieldIndex, readField(reader, fields.get(fieldIndex)));
+    }
+    checkArgument(!reader.hasRemaining(), "Unexpected trailing bytes in state diff");
+    return base.getBeaconStateSchema().createFromFieldValues(fields);
+  }
+
+  private static void writeField(
+      final Writer writer, final SszData baseField, final SszData targetField) {
+    final int fullSize = targetField.getSchema().getSszSize(targetField.getBackingNode());
+    if (baseField instanceof SszCollection && baseField.isWritableSupported()) {
+      final SszCollection<?> baseCollection = (SszCollection<?>) baseField;
+      final SszCollection<?> targetCollection = (SszCollection<?>) targetField;
+      // Lists that shrink (e.g. eth1 data votes being reset) are always stored in full
+      if (targetCollection.size() >= baseCollection.size()) {
+        final Writer partial = new Writer();
+        if (baseField instanceof SszUInt64List) {
+          partial.writeByte(UINT64_DELTAS);
+          writeUInt64Deltas(partial, (SszUInt64List) baseField, (SszUInt64List) targetField);
+        } else {
+          partial.writeByte(ELEMENTS);
+          writeChangedElements(partial, baseCollection, targetCollection);
+        }
+        if (partial.size() < fullSize) {
+          writer.writeBytes(partial.toBytes());
+          return;
+        }
+      }
+    }
+    writer.writeByte(FULL);
+    writer.writeVarInt(fullSize);
+    writer.writeBytes(targetField.sszSerialize());
+  }
+
+  private static void writeUInt64Deltas(
+      final Writer writer, final SszUInt64List base, final SszUInt64List target) {
+    writer.writeVarInt(target.size());
+    for (int i = 0; i < base.size(); i++) {
+      writer.writeVarLong(
+          zigzag(target.getElement(i).longValue() - base.getElement(i).longValue()));
+    }
+    for (int i = base.size(); i < target.size(); i++) {
+      writer.writeVarLong(target.getElement(i).longValue());
+    }
+  }
+
+  private static void writeChangedElements(
+      final Writer writer, final SszCollection<?> base, final SszCollection<?> target) {
+    final Writer elements = new Writer();
+    int changedCount = 0;
+    for (int i = 0; i < target.size(); i++) {
+      final SszData element = target.get(i);
+      if (i < base.size() && element.equals(base.get(i))) {
+        continue;
+      }
+      changedCount++;
+      final Bytes ssz = element.sszSerialize();
+      elements.writeVarInt(i);
+      elements.writeVarInt(ssz.size());
+      elements.writeBytes(ssz);
+    }
+    writer.writeVarInt(target.size());
+    writer.writeVarInt(changedCount);
+    writer.writeBytes(elements.toBytes());
+  }
+
+  private static SszData readField(final Reader reader, final SszData baseField) {
+    final byte encoding = reader.readByte();
+    switch (encoding) {
+      case FULL:
+        return baseField.getSchema().sszDeserialize(reader.readBytes(reader.readVarInt()));
+      case UINT64_DELTAS:
+        return readUInt64Deltas(reader, (SszUInt64List) baseField);
+      case ELEMENTS:
+        return readChangedElements(reader, (SszCollection<?>) baseField);
+      default:
+        throw new IllegalArgumentException("Unknown state diff field encoding " + encoding);
+    }
+  }
+
+  private static SszData readUInt64Deltas(final Reader reader, final SszUInt64List base) {
+    final int size = reader.readVarInt();
+    final SszMutableUInt64List result = base.createWritableCopy();
+    for (int i = 0; i < base.size(); i++) {
+      final long delta = unzigzag(reader.readVarLong());
+      if (delta != 0) {
+        result.setElement(i, UInt64.fromLongBits(base.getElement(i).longValue() + delta));
+      }
+    }
+    for (int i = base.size(); i < size; i++) {
+      result.setElement(i, UInt64.fromLongBits(reader.readVarLong()));
+    }
+    return result.commitChanges();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SszData readChangedElements(final Reader reader, final SszCollection<?> base) {
+    final int size = reader.readVarInt();
+    final int changedCount = reader.readVarInt();
+    final SszSchema<? extends SszData> elementSchema = base.getSchema().getElementSchema();
+    final SszMutableComposite<SszData> result =
+        (SszMutableComposite<SszData>) base.createWritableCopy();
+    for (int i = 0; i < changedCount; i++) {
+      final int index = reader.readVarInt();
+      result.set(index, elementSchema.sszDeserialize(reader.readBytes(reader.readVarInt())));
+    }
+    checkArgument(result.size() == size, "State diff list size mismatch");
+    return result.commitChanges();
+  }
+
+  private static long zigzag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static class Writer {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    void writeByte(final byte value) {
+      out.write(value);
+    }
+
+    void writeVarInt(final int value) {
+      checkArgument(value >= 0, "Negative varint %s", value);
+      writeVarLong(value);
+    }
+
+    void writeVarLong(final long value) {
+      long remaining = value;
+      while ((remaining & ~0x7FL) != 0) {
+        out.write((int) ((remaining & 0x7F) | 0x80));
+        remaining >>>= 7;
+      }
+      out.write((int) remaining);
+    }
+
+    void writeBytes(final Bytes bytes) {
+      out.writeBytes(bytes.toArrayUnsafe());
+    }
+
+    int size() {
+      return out.size();
+    }
+
+    Bytes toBytes() {
+      return Bytes.wrap(out.toByteArray());
+    }
+  }
+
+  private static class Reader {
+    private final Bytes data;
+    private int position = 0;
+
+    Reader(final Bytes data) {
+      this.data = data;
+    }
+
+    byte readByte() {
+      return data.get(position++);
+    }
+
+    int readVarInt() {
+      return Math.toIntExact(readVarLong());
+    }
+
+    long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < Long.SIZE; shift += 7) {
+        final byte next = readByte();
+        value |= (long) (next & 0x7F) << shift;
+        if ((next & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in state diff");
+    }
+
+    Bytes readBytes(final int length) {
+      final Bytes bytes = data.slice(position, length);
+      position += length;
+      return bytes;
+    }
+
+    boolean hasRemaining() {
+      return position < data.size();
+    }
+  }
+}
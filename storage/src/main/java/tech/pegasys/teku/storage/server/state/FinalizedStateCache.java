@@ -15,111 +15,292 @@ package tech.pegasys.teku.storage.server.state;
 
 import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ONE;
 
-import com.google.common.base.Throwables;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalCause;
-import com.google.common.cache.RemovalNotification;
-import com.google.common.util.concurrent.UncheckedExecutionException;
-import java.util.NavigableSet;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
 import tech.pegasys.teku.dataproviders.generators.StreamingStateRegenerator;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
 import tech.pegasys.teku.storage.server.Database;
+import tech.pegasys.teku.storage.store.MemoryBoundedStateCache;
 
+/**
+ * Caches finalized states regenerated by replaying blocks on top of the stored states.
+ *
+ * <p>Regenerations start from the closest earlier cached state unless a stored state is closer.
+ * Requests for later slots in the same segment between stored states join a regeneration that is
+ * already in progress rather than replaying the same blocks again. Each caller only replays up to
+ * its own slot and then hands the regeneration over to the caller waiting for the next slot, so a
+ * caller is never held up replaying blocks for slots requested after it.
+ */
 public class FinalizedStateCache {
-  /**
-   * Note this is a best effort basis to track what states are cached. Slots are added here slightly
-   * before the stateCache is actually updated and removed slightly after they are evicted from the
-   * cache.
-   */
-  private final NavigableSet<UInt64> availableSlots = new ConcurrentSkipListSet<>();
-
-  private final LoadingCache<UInt64, BeaconState> stateCache;
+  private static final String METRICS_PREFIX = "finalized_states";
+
+  private final MemoryBoundedStateCache<UInt64, BeaconState> stateCache;
   private final Spec spec;
   private final Database database;
+  private final Counter replayedCounter;
+  private final Counter joinedCounter;
+
+  /** Regenerations currently replaying blocks, guarded by this. */
+  private final List<Regeneration> regenerations = new ArrayList<>();
 
   public FinalizedStateCache(
+      final MetricsSystem metricsSystem,
       final Spec spec,
       final Database database,
       final int maximumCacheSize,
-      final boolean useSoftReferences) {
+      final long maximumCacheBytes) {
     this.spec = spec;
     this.database = database;
-    final CacheBuilder<UInt64, BeaconState> cacheBuilder =
-        CacheBuilder.newBuilder()
-            .maximumSize(maximumCacheSize)
-            .removalListener(this::onRemovedFromCache);
-    if (useSoftReferences) {
-      cacheBuilder.softValues();
-    }
-    this.stateCache = cacheBuilder.build(new StateCacheLoader());
+    this.stateCache =
+        new MemoryBoundedStateCache<>(
+            metricsSystem,
+            METRICS_PREFIX,
+            maximumCacheBytes,
+            maximumCacheSize,
+            Function.identity(),
+            state -> MemoryBoundedStateCache.BLOCK_REGENERATION_COST);
+    stateCache.startMetrics();
+    final LabelledMetric<Counter> regenerationCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.STORAGE,
+            "finalized_state_regenerations_total",
+            "Number of finalized state requests that replayed blocks or joined another replay",
+            "type");
+    replayedCounter = regenerationCounter.labels("replayed");
+    joinedCounter = regenerationCounter.labels("joined");
   }
 
-  private void onRemovedFromCache(
-      final RemovalNotification<UInt64, BeaconState> removalNotification) {
-    if (removalNotification.getCause() != RemovalCause.REPLACED) {
-      availableSlots.remove(removalNotification.getKey());
+  public Optional<BeaconState> getFinalizedState(final UInt64 slot) {
+    final BeaconState cachedState = stateCache.get(slot);
+    if (cachedState != null) {
+      return Optional.of(cachedState);
+    }
+    try {
+      return regenerateState(slot);
+    } catch (final RuntimeException e) {
+      throw new RuntimeException("Error while regenerating state", e);
     }
   }
 
-  public Optional<BeaconState> getFinalizedState(final UInt64 slot) {
-    try {
-      return Optional.of(stateCache.getUnchecked(slot));
-    } catch (final UncheckedExecutionException e) {
-      if (Throwables.getRootCause(e) instanceof StateUnavailableException) {
-        return Optional.empty();
+  @VisibleForTesting
+  int getCachedStateCount() {
+    return stateCache.size();
+  }
+
+  private Optional<BeaconState> regenerateState(final UInt64 slot) {
+    final Optional<BeaconState> joinedState = joinRegeneration(slot);
+    if (joinedState.isPresent()) {
+      return joinedState;
+    }
+    final Optional<BeaconState> maybePreState = getPreState(slot);
+    if (maybePreState.isEmpty()) {
+      return Optional.empty();
+    }
+    final BeaconState preState = maybePreState.get();
+    if (preState.getSlot().equals(slot)) {
+      stateCache.put(slot, preState);
+      return maybePreState;
+    }
+    // Another request may have started replaying this segment while the pre-state was loaded
+    final Optional<BeaconState> lateJoinedState = joinRegeneration(slot);
+    if (lateJoinedState.isPresent()) {
+      return lateJoinedState;
+    }
+    final Regeneration regeneration = new Regeneration(preState, slot);
+    synchronized (this) {
+      regenerations.add(regeneration);
+    }
+    replayedCounter.inc();
+    return Optional.of(regeneration.replayTo(slot));
+  }
+
+  private Optional<BeaconState> joinRegeneration(final UInt64 slot) {
+    final List<Regeneration> candidates;
+    synchronized (this) {
+      candidates =
+          regenerations.stream()
+              .filter(regeneration -> regeneration.canJoin(slot))
+              .collect(Collectors.toList());
+    }
+    for (Regeneration candidate : candidates) {
+      if (hasStoredStateBetween(candidate.getBaseSlot(), slot)) {
+        continue;
       }
-      throw new RuntimeException("Error while regenerating state", e);
+      final Optional<Waiter> waiter;
+      synchronized (this) {
+        waiter = candidate.join(slot);
+      }
+      if (waiter.isPresent()) {
+        joinedCounter.inc();
+        return Optional.of(candidate.awaitState(slot, waiter.get()));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Optional<BeaconState> getPreState(final UInt64 slot) {
+    final Optional<BeaconState> latestStateFromCache = getLatestStateFromCache(slot);
+    if (latestStateFromCache.isPresent()
+        && !hasStoredStateBetween(latestStateFromCache.get().getSlot(), slot)) {
+      return latestStateFromCache;
     }
+    return database.getLatestAvailableFinalizedState(slot);
   }
 
   private Optional<BeaconState> getLatestStateFromCache(final UInt64 slot) {
-    return Optional.ofNullable(availableSlots.floor(slot)).map(stateCache::getIfPresent);
+    // Search a snapshot of the entries so probing for a pre-state isn't recorded as cache lookups
+    return stateCache.entrySet().stream()
+        .filter(entry -> entry.getKey().isLessThanOrEqualTo(slot))
+        .max(Map.Entry.comparingByKey())
+        .map(Map.Entry::getValue);
   }
 
-  private class StateCacheLoader extends CacheLoader<UInt64, BeaconState> {
+  /** Returns true if a state is stored after {@code fromSlot} and at or before {@code toSlot}. */
+  private boolean hasStoredStateBetween(final UInt64 fromSlot, final UInt64 toSlot) {
+    if (fromSlot.isGreaterThanOrEqualTo(toSlot)) {
+      return false;
+    }
+    try (final Stream<UInt64> storedSlots =
+        database.streamFinalizedStateSlots(fromSlot.plus(ONE), toSlot)) {
+      return storedSlots.findAny().isPresent();
+    }
+  }
+
+  private class Regeneration {
+    private final UInt64 baseSlot;
+    /** Only accessed by the caller currently replaying blocks. */
+    private BeaconState state;
+
+    /** Slots requested by other callers, guarded by FinalizedStateCache.this. */
+    private final NavigableMap<UInt64, Waiter> waiters = new TreeMap<>();
+    /** Slot currently being replayed to, guarded by FinalizedStateCache.this. */
+    private UInt64 targetSlot;
 
-    @Override
-    public BeaconState load(final UInt64 key) {
-      return regenerateState(key).orElseThrow(StateUnavailableException::new);
+    private Regeneration(final BeaconState preState, final UInt64 requestedSlot) {
+      this.baseSlot = preState.getSlot();
+      this.state = preState;
+      this.targetSlot = requestedSlot;
     }
 
-    private Optional<BeaconState> regenerateState(final UInt64 slot) {
-      return database
-          .getLatestAvailableFinalizedState(slot)
-          .map(state -> regenerateState(slot, state));
+    private UInt64 getBaseSlot() {
+      return baseSlot;
     }
 
-    private BeaconState regenerateState(final UInt64 slot, final BeaconState stateFromDisk) {
-      final Optional<BeaconState> latestStateFromCache = getLatestStateFromCache(slot);
-      final BeaconState preState =
-          latestStateFromCache
-              .filter(
-                  stateFromCache ->
-                      stateFromCache.getSlot().compareTo(stateFromDisk.getSlot()) >= 0)
-              .orElse(stateFromDisk);
-      if (preState.getSlot().equals(slot)) {
-        return preState;
+    /** Must be called while holding the lock on FinalizedStateCache.this. */
+    private boolean canJoin(final UInt64 slot) {
+      return slot.isGreaterThan(targetSlot) && regenerations.contains(this);
+    }
+
+    /** Must be called while holding the lock on FinalizedStateCache.this. */
+    private Optional<Waiter> join(final UInt64 slot) {
+      if (!canJoin(slot)) {
+        return Optional.empty();
       }
-      try (final Stream<SignedBeaconBlock> blocks =
-          database.streamFinalizedBlocks(preState.getSlot().plus(ONE), slot)) {
-        final BeaconState state = StreamingStateRegenerator.regenerate(spec, preState, blocks);
-        availableSlots.add(state.getSlot());
-        return state;
+      final Waiter existing = waiters.get(slot);
+      if (existing != null) {
+        return Optional.of(new Waiter(existing));
       }
+      final Waiter waiter = new Waiter();
+      waiters.put(slot, waiter);
+      return Optional.of(waiter);
+    }
+
+    /**
+     * Waits for a joined slot. The first caller to join a slot replays up to it once the previous
+     * caller hands over the regeneration, while any other callers for the same slot wait for the
+     * result.
+     */
+    private BeaconState awaitState(final UInt64 slot, final Waiter waiter) {
+      if (!waiter.isReplaying) {
+        return waiter.result.join();
+      }
+      final BeaconState regeneratedState;
+      try {
+        waiter.turn.join();
+        regeneratedState = replayTo(slot);
+      } catch (final RuntimeException e) {
+        waiter.result.completeExceptionally(e);
+        throw e;
+      }
+      waiter.result.complete(regeneratedState);
+      return regeneratedState;
+    }
+
+    /** Replays blocks up to the slot and then hands over to the waiter for the next slot. */
+    private BeaconState replayTo(final UInt64 slot) {
+      final BeaconState regeneratedState;
+      try {
+        try (final Stream<SignedBeaconBlock> blocks =
+            database.streamFinalizedBlocks(state.getSlot().plus(ONE), slot)) {
+          state = StreamingStateRegenerator.regenerate(spec, state, blocks);
+        }
+        stateCache.put(slot, state);
+        regeneratedState = state;
+      } catch (final RuntimeException e) {
+        final List<Waiter> failedWaiters;
+        synchronized (FinalizedStateCache.this) {
+          regenerations.remove(this);
+          failedWaiters = new ArrayList<>(waiters.values());
+          waiters.clear();
+        }
+        failedWaiters.forEach(waiter -> waiter.fail(e));
+        throw e;
+      }
+      final Optional<Waiter> nextWaiter;
+      synchronized (FinalizedStateCache.this) {
+        final Map.Entry<UInt64, Waiter> next = waiters.pollFirstEntry();
+        if (next == null) {
+          regenerations.remove(this);
+          nextWaiter = Optional.empty();
+        } else {
+          targetSlot = next.getKey();
+          nextWaiter = Optional.of(next.getValue());
+        }
+      }
+      nextWaiter.ifPresent(waiter -> waiter.turn.complete(null));
+      return regeneratedState;
     }
   }
 
-  /**
-   * Cache doesn't allow returning null but we may not be able to regenerate a state so throw this
-   * exception and catch it in {@link #getFinalizedState(UInt64)}
-   */
-  private static class StateUnavailableException extends RuntimeException {}
+  /** Callers waiting for a slot of a regeneration in progress. */
+  private static class Waiter {
+    private final SafeFuture<Void> turn;
+    private final SafeFuture<BeaconState> result;
+    /** True for the caller that replays blocks up to the slot. */
+    private final boolean isReplaying;
+
+    private Waiter() {
+      this.turn = new SafeFuture<>();
+      this.result = new SafeFuture<>();
+      this.isReplaying = true;
+    }
+
+    /** Creates a view of the waiter for a caller that didn't join the slot first. */
+    private Waiter(final Waiter replayingWaiter) {
+      this.turn = replayingWaiter.turn;
+      this.result = replayingWaiter.result;
+      this.isReplaying = false;
+    }
+
+    private void fail(final Throwable error) {
+      turn.completeExceptionally(error);
+      result.completeExceptionally(error);
+    }
+  }
 }
@@ -0,0 +1,506 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.store;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.ref.SoftReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.LabelledMetric;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.ssz.tree.BranchNode;
+import tech.pegasys.teku.infrastructure.ssz.tree.LazyBranchNode;
+import tech.pegasys.teku.infrastructure.ssz.tree.LeafDataNode;
+import tech.pegasys.teku.infrastructure.ssz.tree.TreeNode;
+import tech.pegasys.teku.infrastructure.ssz.tree.TreeUtil;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+
+/**
+ * State cache bounded by an estimate of the heap retained by the cached states.
+ *
+ * <p>States share most of their tree nodes, so the size of each state is estimated as the bytes of
+ * the nodes it doesn't share with the nearest older cached states. The sum of those sizes is the
+ * retained size bounded by the byte budget. Nodes are compared by identity at the same position in
+ * the tree, which only needs to visit the nodes that differ between states.
+ *
+ * <p>Only the states whose neighbours changed are re-estimated after an update and the tree walks
+ * run outside the cache lock, so lookups are never blocked by size estimation.
+ *
+ * <p>Eviction uses the GreedyDual-Size policy. Each state is prioritised by the cost to regenerate
+ * it divided by the bytes that would be freed by evicting it, i.e. the bytes not shared with its
+ * neighbours in either direction. Priorities are offset by an inflation value that increases with
+ * each eviction so states which haven't been accessed recently are evicted first.
+ *
+ * <p>Values are softly referenced so the garbage collector can still reclaim them if the heap runs
+ * low before the byte budget is reached. Cleared entries are dropped when they are next seen.
+ *
+ * @param <K> the key type
+ * @param <V> the cached value type
+ */
+public class MemoryBoundedStateCache<K, V> extends AbstractMap<K, V> {
+  public static final double BLOCK_REGENERATION_COST = 1;
+  public static final double EPOCH_TRANSITION_REGENERATION_COST = 8;
+
+  // Approximate heap use of tree nodes, including their cached hash
+  static final long BRANCH_NODE_SIZE = 88;
+  static final long LEAF_NODE_OVERHEAD = 56;
+  static final long LAZY_BRANCH_NODE_SIZE = 160;
+
+  private static final int REFERENCE_STATE_COUNT = 4;
+  private static final TreeNode[] NO_REFERENCES = new TreeNode[0];
+  private static final long[] NO_SEQUENCES = new long[0];
+  private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private final Map<K, CachedState<K, V>> entries = new HashMap<>();
+  // Ordered by slot so the nearest states, which are the most likely to share nodes, are adjacent
+  private final NavigableSet<CachedState<K, V>> orderedEntries =
+      new TreeSet<>(
+          Comparator.<CachedState<K, V>, UInt64>comparing(entry -> entry.slot)
+              .thenComparingLong(entry -> entry.sequence));
+  // Serialises estimate updates without blocking lookups, which only take the cache lock
+  private final Object estimateLock = new Object();
+  private final MetricsSystem metricsSystem;
+  private final String metricsPrefix;
+  private final long maxBytes;
+  private final int maxEntries;
+  private final Function<V, BeaconState> stateExtractor;
+  private final ToDoubleFunction<V> regenerationCost;
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  private long retainedBytes = 0;
+  private double inflation = 0;
+  private long nextSequence = 0;
+  private long hits = 0;
+  private long requests = 0;
+
+  public MemoryBoundedStateCache(
+      final MetricsSystem metricsSystem,
+      final String metricsPrefix,
+      final long maxBytes,
+      final int maxEntries,
+      final Function<V, BeaconState> stateExtractor,
+      final ToDoubleFunction<V> regenerationCost) {
+    this.metricsSystem = metricsSystem;
+    this.metricsPrefix = metricsPrefix;
+    this.maxBytes = maxBytes;
+    this.maxEntries = maxEntries;
+    this.stateExtractor = stateExtractor;
+    this.regenerationCost = regenerationCost;
+
+    final LabelledMetric<Counter> requestCounter =
+        metricsSystem.createLabelledCounter(
+            TekuMetricCategory.STORAGE,
+            metricsPrefix + "_cache_requests_total",
+            "Total number of cache lookups",
+            "result");
+    hitCounter = requestCounter.labels("hit");
+    missCounter = requestCounter.labels("miss");
+  }
+
+  public void startMetrics() {
+    metricsSystem.createLongGauge(
+        TekuMetricCategory.STORAGE,
+        metricsPrefix + "_cache_retained_bytes",
+        "Estimated heap retained by cached states, excluding nodes shared between them",
+        this::getRetainedBytes);
+    metricsSystem.createGauge(
+        TekuMetricCategory.STORAGE,
+        metricsPrefix + "_cache_hit_ratio",
+        "Ratio of cache lookups which found a cached state",
+        this::getHitRatio);
+  }
+
+  @Override
+  public synchronized V get(final Object key) {
+    final CachedState<K, V> entry = entries.get(key);
+    requests++;
+    final V value = entry != null ? entry.value.get() : null;
+    if (value == null) {
+      if (entry != null) {
+        removeEntry(entry);
+      }
+      missCounter.inc();
+      return null;
+    }
+    hits++;
+    hitCounter.inc();
+    entry.accessInflation = inflation;
+    return value;
+  }
+
+  @Override
+  public synchronized boolean containsKey(final Object key) {
+    final CachedState<K, V> entry = entries.get(key);
+    return entry != null && entry.value.get() != null;
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    final CachedState<K, V> previous;
+    synchronized (this) {
+      previous = entries.get(key);
+      if (previous != null) {
+        removeEntry(previous);
+      }
+      final BeaconState state = stateExtractor.apply(value);
+      final CachedState<K, V> entry =
+          new CachedState<>(
+              key,
+              value,
+              state.getSlot(),
+              regenerationCost.applyAsDouble(value),
+              nextSequence++,
+              inflation);
+      entries.put(key, entry);
+      orderedEntries.add(entry);
+    }
+    updateEstimatesAndEvict();
+    return previous != null ? previous.value.get() : null;
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final CachedState<K, V> removed;
+    synchronized (this) {
+      removed = entries.get(key);
+      if (removed == null) {
+        return null;
+      }
+      removeEntry(removed);
+    }
+    updateEstimatesAndEvict();
+    return removed.value.get();
+  }
+
+  @Override
+  public synchronized void clear() {
+    entries.clear();
+    orderedEntries.clear();
+    retainedBytes = 0;
+  }
+
+  @Override
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized Set<Entry<K, V>> entrySet() {
+    final List<Entry<K, V>> snapshot = new ArrayList<>(entries.size());
+    for (CachedState<K, V> entry : entries.values()) {
+      final V value = entry.value.get();
+      if (value != null) {
+        snapshot.add(new SimpleImmutableEntry<>(entry.key, value));
+      }
+    }
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        final Iterator<Entry<K, V>> delegate = snapshot.iterator();
+        return new Iterator<>() {
+          private Entry<K, V> current;
+
+          @Override
+          public boolean hasNext() {
+            return delegate.hasNext();
+          }
+
+          @Override
+          public Entry<K, V> next() {
+            current = delegate.next();
+            return current;
+          }
+
+          @Override
+          public void remove() {
+            delegate.remove();
+            MemoryBoundedStateCache.this.remove(current.getKey());
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return snapshot.size();
+      }
+    };
+  }
+
+  public synchronized long getRetainedBytes() {
+    return retainedBytes;
+  }
+
+  public synchronized double getHitRatio() {
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private void removeEntry(final CachedState<K, V> entry) {
+    entries.remove(entry.key);
+    orderedEntries.remove(entry);
+  }
+
+  /**
+   * Re-estimate the states whose neighbours have changed and evict states until the cache is
+   * within its limits. Evicting a state changes the estimates of its neighbours, so estimates are
+   * updated again after each round of evictions.
+   */
+  private void updateEstimatesAndEvict() {
+    synchronized (estimateLock) {
+      boolean evicted = true;
+      while (evicted) {
+        final List<EstimateUpdate<K, V>> updates = prepareEstimateUpdates();
+        // Walking the trees is the expensive part so it must not hold the cache lock
+        updates.forEach(EstimateUpdate::calculate);
+        evicted = applyEstimateUpdates(updates);
+      }
+    }
+  }
+
+  private synchronized List<EstimateUpdate<K, V>> prepareEstimateUpdates() {
+    final List<CachedState<K, V>> states = new ArrayList<>(orderedEntries.size());
+    final List<TreeNode> roots = new ArrayList<>(orderedEntries.size());
+    for (Iterator<CachedState<K, V>> iterator = orderedEntries.iterator(); iterator.hasNext(); ) {
+      final CachedState<K, V> entry = iterator.next();
+      final V value = entry.value.get();
+      if (value == null) {
+        iterator.remove();
+        entries.remove(entry.key);
+        continue;
+      }
+      states.add(entry);
+      roots.add(stateExtractor.apply(value).getBackingNode());
+    }
+
+    final List<EstimateUpdate<K, V>> updates = new ArrayList<>();
+    for (int i = 0; i < states.size(); i++) {
+      final CachedState<K, V> entry = states.get(i);
+      final int olderStart = Math.max(0, i - REFERENCE_STATE_COUNT);
+      final int newerEnd = Math.min(states.size(), i + 1 + REFERENCE_STATE_COUNT);
+      final long[] olderSequences = getSequences(states, olderStart, i, NO_SEQUENCES);
+      final long[] neighbourSequences = getSequences(states, i + 1, newerEnd, olderSequences);
+      final boolean chargedChanged = !Arrays.equals(olderSequences, entry.chargedReferences);
+      final boolean exclusiveChanged =
+          !Arrays.equals(neighbourSequences, entry.exclusiveReferences);
+      if (chargedChanged || exclusiveChanged) {
+        updates.add(
+            new EstimateUpdate<>(
+                entry,
+                roots.get(i),
+                chargedChanged ? roots.subList(olderStart, i) : null,
+                exclusiveChanged ? roots.subList(olderStart, i) : null,
+                exclusiveChanged ? roots.subList(i + 1, newerEnd) : null,
+                olderSequences,
+                neighbourSequences));
+      }
+    }
+    return updates;
+  }
+
+  private synchronized boolean applyEstimateUpdates(final List<EstimateUpdate<K, V>> updates) {
+    // Estimates are recorded against the neighbours they were calculated for, so an entry whose
+    // neighbours changed in the meantime is simply re-estimated by the next update
+    for (EstimateUpdate<K, V> update : updates) {
+      if (entries.get(update.entry.key) == update.entry) {
+        update.apply();
+      }
+    }
+    long total = 0;
+    for (CachedState<K, V> entry : entries.values()) {
+      total += entry.chargedBytes;
+    }
+    retainedBytes = total;
+
+    boolean evicted = false;
+    while (!entries.isEmpty() && (retainedBytes > maxBytes || entries.size() > maxEntries)) {
+      final CachedState<K, V> victim =
+          entries.values().stream()
+              .min(
+                  Comparator.<CachedState<K, V>>comparingDouble(CachedState::getPriority)
+                      .thenComparingLong(entry -> entry.sequence))
+              .orElseThrow();
+      inflation = Math.max(inflation, victim.getPriority());
+      removeEntry(victim);
+      // Neighbours are charged for the nodes they shared with the victim by the next update
+      retainedBytes -= victim.chargedBytes;
+      evicted = true;
+    }
+    return evicted;
+  }
+
+  private static <K, V> long[] getSequences(
+      final List<CachedState<K, V>> states,
+      final int fromIndex,
+      final int toIndex,
+      final long[] prefix) {
+    final long[] sequences = Arrays.copyOf(prefix, prefix.length + toIndex - fromIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      sequences[prefix.length + i - fromIndex] = states.get(i).sequence;
+    }
+    return sequences;
+  }
+
+  @VisibleForTesting
+  static long estimateUniqueBytes(final TreeNode node, final TreeNode[] references) {
+    for (TreeNode reference : references) {
+      if (reference == node) {
+        return 0;
+      }
+    }
+    if (node instanceof TreeUtil.ZeroBranchNode || node instanceof TreeUtil.ZeroLeafNode) {
+      // Zero trees are global constants
+      return 0;
+    }
+    if (node instanceof LazyBranchNode) {
+      // Children are loaded on demand so avoid loading them just to measure them
+      return LAZY_BRANCH_NODE_SIZE;
+    }
+    if (node instanceof BranchNode) {
+      final BranchNode branch = (BranchNode) node;
+      final TreeNode[] leftReferences = childReferences(references, true);
+      final long leftBytes = estimateUniqueBytes(branch.left(), leftReferences);
+      if (branch.left() == branch.right()) {
+        // Default subtrees are often shared between siblings
+        return BRANCH_NODE_SIZE + leftBytes;
+      }
+      return BRANCH_NODE_SIZE
+          + leftBytes
+          + estimateUniqueBytes(branch.right(), childReferences(references, false));
+    }
+    if (node instanceof LeafDataNode) {
+      return LEAF_NODE_OVERHEAD + ((LeafDataNode) node).getData().size();
+    }
+    return LEAF_NODE_OVERHEAD;
+  }
+
+  private static TreeNode[] childReferences(final TreeNode[] references, final boolean left) {
+    if (references.length == 0) {
+      return NO_REFERENCES;
+    }
+    final TreeNode[] children = new TreeNode[references.length];
+    int count = 0;
+    for (TreeNode reference : references) {
+      if (reference instanceof BranchNode && !(reference instanceof LazyBranchNode)) {
+        final BranchNode branch = (BranchNode) reference;
+        children[count++] = left ? branch.left() : branch.right();
+      }
+    }
+    return count == children.length ? children : Arrays.copyOf(children, count);
+  }
+
+  private static class CachedState<K, V> {
+    private final K key;
+    private final SoftReference<V> value;
+    private final UInt64 slot;
+    private final double regenerationCost;
+    private final long sequence;
+    private double accessInflation;
+
+    // Sequences of the neighbouring states the current estimates were calculated against
+    private long[] chargedReferences;
+    private long chargedBytes;
+    private long[] exclusiveReferences;
+    private long exclusiveBytes;
+
+    private CachedState(
+        final K key,
+        final V value,
+        final UInt64 slot,
+        final double regenerationCost,
+        final long sequence,
+        final double accessInflation) {
+      this.key = key;
+      this.value = new SoftReference<>(value);
+      this.slot = slot;
+      this.regenerationCost = regenerationCost;
+      this.sequence = sequence;
+      this.accessInflation = accessInflation;
+    }
+
+    private double getPriority() {
+      final double exclusiveMegabytes = Math.max(exclusiveBytes, 1) / BYTES_PER_MEGABYTE;
+      return accessInflation + regenerationCost / exclusiveMegabytes;
+    }
+  }
+
+  /** Size estimates for one state, calculated without holding the cache lock. */
+  private static class EstimateUpdate<K, V> {
+    private final CachedState<K, V> entry;
+    private final TreeNode root;
+    private final List<TreeNode> chargedReferenceRoots;
+    private final List<TreeNode> olderRoots;
+    private final List<TreeNode> newerRoots;
+    private final long[] chargedReferences;
+    private final long[] exclusiveReferences;
+    private long chargedBytes;
+    private long exclusiveBytes;
+
+    private EstimateUpdate(
+        final CachedState<K, V> entry,
+        final TreeNode root,
+        final List<TreeNode> chargedReferenceRoots,
+        final List<TreeNode> olderRoots,
+        final List<TreeNode> newerRoots,
+        final long[] chargedReferences,
+        final long[] exclusiveReferences) {
+      this.entry = entry;
+      this.root = root;
+      this.chargedReferenceRoots = chargedReferenceRoots;
+      this.olderRoots = olderRoots;
+      this.newerRoots = newerRoots;
+      this.chargedReferences = chargedReferences;
+      this.exclusiveReferences = exclusiveReferences;
+      // Keep the current values for any estimate that doesn't need recalculating
+      this.chargedBytes = entry.chargedBytes;
+      this.exclusiveBytes = entry.exclusiveBytes;
+    }
+
+    private void calculate() {
+      if (chargedReferenceRoots != null) {
+        chargedBytes = estimateUniqueBytes(root, chargedReferenceRoots.toArray(NO_REFERENCES));
+      }
+      if (newerRoots != null) {
+        if (newerRoots.isEmpty()) {
+          exclusiveBytes = chargedBytes;
+        } else {
+          final List<TreeNode> neighbours = new ArrayList<>(olderRoots);
+          neighbours.addAll(newerRoots);
+          exclusiveBytes = estimateUniqueBytes(root, neighbours.toArray(NO_REFERENCES));
+        }
+      }
+    }
+
+    private void apply() {
+      entry.chargedReferences = chargedReferences;
+      entry.chargedBytes = chargedBytes;
+      entry.exclusiveReferences = exclusiveReferences;
+      entry.exclusiveBytes = exclusiveBytes;
+    }
+  }
+}
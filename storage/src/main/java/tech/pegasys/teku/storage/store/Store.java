@@ -31,6 +31,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes32;
@@ -70,6 +71,7 @@ import tech.pegasys.teku.storage.api.StoredBlockMetadata;
 import tech.pegasys.teku.storage.api.VoteUpdateChannel;
 import tech.pegasys.teku.storage.protoarray.ForkChoiceStrategy;
 import tech.pegasys.teku.storage.protoarray.ProtoArray;
+import tech.pegasys.teku.storage.protoarray.VoteTrackerColumns;
 
 class Store implements UpdatableStore {
   private static final Logger LOG = LogManager.getLogger();
@@ -102,8 +104,9 @@ class Store implements UpdatableStore {
   final CachingTaskQueue<Bytes32, StateAndBlockSummary> states;
   final Map<Bytes32, SignedBeaconBlock> blocks;
   final CachingTaskQueue<SlotAndBlockRoot, BeaconState> checkpointStates;
-  VoteTracker[] votes;
-  UInt64 highestVotedValidatorIndex;
+  private final MemoryBoundedStateCache<Bytes32, StateAndBlockSummary> stateCache;
+  private final MemoryBoundedStateCache<SlotAndBlockRoot, BeaconState> checkpointStateCache;
+  final VoteTrackerColumns votes;
 
   private Store(
       final MetricsSystem metricsSystem,
@@ -113,6 +116,7 @@ class Store implements UpdatableStore {
       final BlobsSidecarProvider blobsSidecarProvider,
       final StateAndBlockSummaryProvider stateProvider,
       final CachingTaskQueue<Bytes32, StateAndBlockSummary> states,
+      final MemoryBoundedStateCache<Bytes32, StateAndBlockSummary> stateCache,
       final Optional<Checkpoint> initialCheckpoint,
       final UInt64 time,
       final UInt64 genesisTime,
@@ -123,7 +127,8 @@ class Store implements UpdatableStore {
       final ForkChoiceStrategy forkChoiceStrategy,
       final Map<UInt64, VoteTracker> votes,
       final Map<Bytes32, SignedBeaconBlock> blocks,
-      final CachingTaskQueue<SlotAndBlockRoot, BeaconState> checkpointStates) {
+      final CachingTaskQueue<SlotAndBlockRoot, BeaconState> checkpointStates,
+      final MemoryBoundedStateCache<SlotAndBlockRoot, BeaconState> checkpointStateCache) {
     checkArgument(
         time.isGreaterThanOrEqualTo(genesisTime),
         "Time must be greater than or equal to genesisTime");
@@ -138,6 +143,8 @@ class Store implements UpdatableStore {
     this.spec = spec;
     this.states = states;
     this.checkpointStates = checkpointStates;
+    this.stateCache = stateCache;
+    this.checkpointStateCache = checkpointStateCache;
 
     // Store instance variables
     this.initialCheckpoint = initialCheckpoint;
@@ -147,11 +154,12 @@ class Store implements UpdatableStore {
     this.justifiedCheckpoint = justifiedCheckpoint;
     this.bestJustifiedCheckpoint = bestJustifiedCheckpoint;
     this.blocks = blocks;
-    this.highestVotedValidatorIndex =
-        votes.keySet().stream().max(Comparator.naturalOrder()).orElse(UInt64.ZERO);
+    final int highestVotedValidatorIndex =
+        votes.keySet().stream().max(Comparator.naturalOrder()).orElse(UInt64.ZERO).intValue();
     this.votes =
-        new VoteTracker[this.highestVotedValidatorIndex.intValue() + VOTE_TRACKER_SPARE_CAPACITY];
-    votes.forEach((key, value) -> this.votes[key.intValue()] = value);
+        new VoteTrackerColumns(
+            highestVotedValidatorIndex + VOTE_TRACKER_SPARE_CAPACITY, VOTE_TRACKER_SPARE_CAPACITY);
+    votes.forEach((key, value) -> this.votes.set(key.intValue(), value));
 
     // Track latest finalized block
     this.finalizedAnchor = finalizedAnchor;
@@ -194,15 +202,27 @@ class Store implements UpdatableStore {
     // Create limited collections for non-final data
     final Map<Bytes32, SignedBeaconBlock> blocks =
         LimitedMap.createSynchronized(config.getBlockCacheSize());
+    final MemoryBoundedStateCache<SlotAndBlockRoot, BeaconState> checkpointStateCache =
+        new MemoryBoundedStateCache<>(
+            metricsSystem,
+            "memory_checkpoint_states",
+            config.getCheckpointStateCacheMaxBytes(),
+            config.getCheckpointStateCacheSize(),
+            Function.identity(),
+            state -> MemoryBoundedStateCache.EPOCH_TRANSITION_REGENERATION_COST);
     final CachingTaskQueue<SlotAndBlockRoot, BeaconState> checkpointStateTaskQueue =
         CachingTaskQueue.create(
-            asyncRunner,
+            asyncRunner, metricsSystem, "memory_checkpoint_states", checkpointStateCache);
+    final MemoryBoundedStateCache<Bytes32, StateAndBlockSummary> stateCache =
+        new MemoryBoundedStateCache<>(
             metricsSystem,
-            "memory_checkpoint_states",
-            config.getCheckpointStateCacheSize());
+            "memory_states",
+            config.getStateCacheMaxBytes(),
+            config.getStateCacheSize(),
+            StateAndBlockSummary::getState,
+            stateAndBlock -> getRegenerationCost(spec, stateAndBlock.getSlot()));
     final CachingTaskQueue<Bytes32, StateAndBlockSummary> stateTaskQueue =
-        CachingTaskQueue.create(
-            asyncRunner, metricsSystem, "memory_states", config.getStateCacheSize());
+        CachingTaskQueue.create(asyncRunner, metricsSystem, "memory_states", stateCache);
     final UInt64 currentEpoch = spec.computeEpochAtSlot(spec.getCurrentSlot(time, genesisTime));
     final ForkChoiceStrategy forkChoiceStrategy =
         ForkChoiceStrategy.initialize(
@@ -223,6 +243,7 @@ class Store implements UpdatableStore {
         blobsSidecarProvider,
         stateAndBlockProvider,
         stateTaskQueue,
+        stateCache,
         initialCheckpoint,
         time,
         genesisTime,
@@ -233,7 +254,16 @@ class Store implements UpdatableStore {
         forkChoiceStrategy,
         votes,
         blocks,
-        checkpointStateTaskQueue);
+        checkpointStateTaskQueue,
+        checkpointStateCache);
+  }
+
+  private static double getRegenerationCost(final Spec spec, final UInt64 slot) {
+    // States at the start of an epoch can only be regenerated by processing an epoch transition
+    final UInt64 epochStartSlot = spec.computeStartSlotAtEpoch(spec.computeEpochAtSlot(slot));
+    return epochStartSlot.equals(slot)
+        ? MemoryBoundedStateCache.EPOCH_TRANSITION_REGENERATION_COST
+        : MemoryBoundedStateCache.BLOCK_REGENERATION_COST;
   }
 
   private static ProtoArray buildProtoArray(
@@ -290,6 +320,8 @@ class Store implements UpdatableStore {
                   "Number of beacon blocks held in the in-memory store"));
       states.startMetrics();
       checkpointStates.startMetrics();
+      stateCache.startMetrics();
+      checkpointStateCache.startMetrics();
     } finally {
       votesLock.writeLock().unlock();
       lock.writeLock().unlock();
@@ -596,7 +628,7 @@ class Store implements UpdatableStore {
   UInt64 getHighestVotedValidatorIndex() {
     readVotesLock.lock();
     try {
-      return highestVotedValidatorIndex;
+      return UInt64.valueOf(votes.getHighestVotedValidatorIndex());
     } finally {
       readVotesLock.unlock();
     }
@@ -605,10 +637,7 @@ class Store implements UpdatableStore {
   VoteTracker getVote(UInt64 validatorIndex) {
     readVotesLock.lock();
     try {
-      if (validatorIndex.intValue() >= votes.length) {
-        return null;
-      }
-      return votes[validatorIndex.intValue()];
+      return votes.get(validatorIndex.intValue());
     } finally {
       readVotesLock.unlock();
     }
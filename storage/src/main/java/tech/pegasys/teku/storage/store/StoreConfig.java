@@ -17,6 +17,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Objects;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
+import tech.pegasys.teku.infrastructure.ssz.tree.BatchTreeHasher;
 
 public class StoreConfig {
   public static final int MAX_CACHE_SIZE = 10_000;
@@ -25,21 +26,39 @@ public class StoreConfig {
   public static final int DEFAULT_BLOCK_CACHE_SIZE = 32;
   public static final int DEFAULT_CHECKPOINT_STATE_CACHE_SIZE = 20;
   public static final int DEFAULT_HOT_STATE_PERSISTENCE_FREQUENCY_IN_EPOCHS = 2;
+  public static final boolean DEFAULT_PUBLIC_KEY_CACHE_PERSISTENCE_ENABLED = false;
+  public static final long DEFAULT_STATE_CACHE_MAX_BYTES = Runtime.getRuntime().maxMemory() / 4;
+  public static final long DEFAULT_CHECKPOINT_STATE_CACHE_MAX_BYTES =
+      Runtime.getRuntime().maxMemory() / 10;
+  public static final int DEFAULT_PARALLEL_HASHING_THRESHOLD =
+      BatchTreeHasher.DEFAULT_PARALLEL_HASHING_THRESHOLD;
 
   private final int stateCacheSize;
   private final int blockCacheSize;
   private final int checkpointStateCacheSize;
   private final int hotStatePersistenceFrequencyInEpochs;
+  private final boolean publicKeyCachePersistenceEnabled;
+  private final long stateCacheMaxBytes;
+  private final long checkpointStateCacheMaxBytes;
+  private final int parallelHashingThreshold;
 
   private StoreConfig(
       final int stateCacheSize,
       final int blockCacheSize,
       final int checkpointStateCacheSize,
-      final int hotStatePersistenceFrequencyInEpochs) {
+      final int hotStatePersistenceFrequencyInEpochs,
+      final boolean publicKeyCachePersistenceEnabled,
+      final long stateCacheMaxBytes,
+      final long checkpointStateCacheMaxBytes,
+      final int parallelHashingThreshold) {
     this.stateCacheSize = stateCacheSize;
     this.blockCacheSize = blockCacheSize;
     this.checkpointStateCacheSize = checkpointStateCacheSize;
     this.hotStatePersistenceFrequencyInEpochs = hotStatePersistenceFrequencyInEpochs;
+    this.publicKeyCachePersistenceEnabled = publicKeyCachePersistenceEnabled;
+    this.stateCacheMaxBytes = stateCacheMaxBytes;
+    this.checkpointStateCacheMaxBytes = checkpointStateCacheMaxBytes;
+    this.parallelHashingThreshold = parallelHashingThreshold;
   }
 
   public static Builder builder() {
@@ -66,6 +85,22 @@ public class StoreConfig {
     return hotStatePersistenceFrequencyInEpochs;
   }
 
+  public boolean isPublicKeyCachePersistenceEnabled() {
+    return publicKeyCachePersistenceEnabled;
+  }
+
+  public long getStateCacheMaxBytes() {
+    return stateCacheMaxBytes;
+  }
+
+  public long getCheckpointStateCacheMaxBytes() {
+    return checkpointStateCacheMaxBytes;
+  }
+
+  public int getParallelHashingThreshold() {
+    return parallelHashingThreshold;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -78,7 +113,11 @@ public class StoreConfig {
     return stateCacheSize == that.stateCacheSize
         && blockCacheSize == that.blockCacheSize
         && checkpointStateCacheSize == that.checkpointStateCacheSize
-        && hotStatePersistenceFrequencyInEpochs == that.hotStatePersistenceFrequencyInEpochs;
+        && hotStatePersistenceFrequencyInEpochs == that.hotStatePersistenceFrequencyInEpochs
+        && publicKeyCachePersistenceEnabled == that.publicKeyCachePersistenceEnabled
+        && stateCacheMaxBytes == that.stateCacheMaxBytes
+        && checkpointStateCacheMaxBytes == that.checkpointStateCacheMaxBytes
+        && parallelHashingThreshold == that.parallelHashingThreshold;
   }
 
   @Override
@@ -87,7 +126,11 @@ public class StoreConfig {
         stateCacheSize,
         blockCacheSize,
         checkpointStateCacheSize,
-        hotStatePersistenceFrequencyInEpochs);
+        hotStatePersistenceFrequencyInEpochs,
+        publicKeyCachePersistenceEnabled,
+        stateCacheMaxBytes,
+        checkpointStateCacheMaxBytes,
+        parallelHashingThreshold);
   }
 
   public static class Builder {
@@ -96,6 +139,10 @@ public class StoreConfig {
     private int checkpointStateCacheSize = DEFAULT_CHECKPOINT_STATE_CACHE_SIZE;
     private int hotStatePersistenceFrequencyInEpochs =
         DEFAULT_HOT_STATE_PERSISTENCE_FREQUENCY_IN_EPOCHS;
+    private boolean publicKeyCachePersistenceEnabled = DEFAULT_PUBLIC_KEY_CACHE_PERSISTENCE_ENABLED;
+    private long stateCacheMaxBytes = DEFAULT_STATE_CACHE_MAX_BYTES;
+    private long checkpointStateCacheMaxBytes = DEFAULT_CHECKPOINT_STATE_CACHE_MAX_BYTES;
+    private int parallelHashingThreshold = DEFAULT_PARALLEL_HASHING_THRESHOLD;
 
     private Builder() {}
 
@@ -104,7 +151,11 @@ public class StoreConfig {
           stateCacheSize,
           blockCacheSize,
           checkpointStateCacheSize,
-          hotStatePersistenceFrequencyInEpochs);
+          hotStatePersistenceFrequencyInEpochs,
+          publicKeyCachePersistenceEnabled,
+          stateCacheMaxBytes,
+          checkpointStateCacheMaxBytes,
+          parallelHashingThreshold);
     }
 
     public Builder stateCacheSize(final int stateCacheSize) {
@@ -137,6 +188,31 @@ public class StoreConfig {
       return this;
     }
 
+    public Builder publicKeyCachePersistenceEnabled(
+        final boolean publicKeyCachePersistenceEnabled) {
+      this.publicKeyCachePersistenceEnabled = publicKeyCachePersistenceEnabled;
+      return this;
+    }
+
+    public Builder stateCacheMaxBytes(final long stateCacheMaxBytes) {
+      checkArgument(stateCacheMaxBytes >= 0, "State cache max bytes cannot be negative");
+      this.stateCacheMaxBytes = stateCacheMaxBytes;
+      return this;
+    }
+
+    public Builder checkpointStateCacheMaxBytes(final long checkpointStateCacheMaxBytes) {
+      checkArgument(
+          checkpointStateCacheMaxBytes >= 0, "Checkpoint state cache max bytes cannot be negative");
+      this.checkpointStateCacheMaxBytes = checkpointStateCacheMaxBytes;
+      return this;
+    }
+
+    public Builder parallelHashingThreshold(final int parallelHashingThreshold) {
+      checkArgument(parallelHashingThreshold >= 0, "Parallel hashing threshold cannot be negative");
+      this.parallelHashingThreshold = parallelHashingThreshold;
+      return this;
+    }
+
     private void validateCacheSize(final int cacheSize) {
       checkArgument(cacheSize >= 0, "Cache size cannot be negative");
       checkArgument(
@@ -13,7 +13,6 @@
 
 package tech.pegasys.teku.storage.store;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,8 +46,7 @@ public class StoreVoteUpdater implements VoteUpdater {
     if (txVote != null) {
       return txVote;
     } else {
-      VoteTracker storeVote = store.getVote(validatorIndex);
-      return storeVote != null ? storeVote : VoteTracker.DEFAULT;
+      return store.getVote(validatorIndex);
     }
   }
 
@@ -77,10 +75,15 @@ public class StoreVoteUpdater implements VoteUpdater {
     // store lock.
     lock.writeLock().lock();
     try {
+      // Score changes are applied to the store votes in place, so pending votes have to be there
+      // first. They are still kept in this transaction to be persisted on commit.
+      applyVotesToStore();
       return store
           .getForkChoiceStrategy()
           .applyPendingVotes(
-              this,
+              store.votes,
+              validatorIndex ->
+                  votes.put(UInt64.valueOf(validatorIndex), store.votes.get(validatorIndex)),
               proposerBoostRoot,
               currentEpoch,
               finalizedCheckpoint,
@@ -96,18 +99,17 @@ public class StoreVoteUpdater implements VoteUpdater {
   public void commit() {
     // Votes are applied to the store immediately since the changes to the in-memory ProtoArray
     // can't be rolled back.
-
-    store.highestVotedValidatorIndex = getHighestVotedValidatorIndex();
-
-    if (store.highestVotedValidatorIndex.intValue() >= store.votes.length) {
-      store.votes =
-          Arrays.copyOf(
-              store.votes,
-              store.highestVotedValidatorIndex.intValue() + Store.VOTE_TRACKER_SPARE_CAPACITY);
+    lock.writeLock().lock();
+    try {
+      applyVotesToStore();
+    } finally {
+      lock.writeLock().unlock();
     }
 
-    votes.forEach((key, value) -> store.votes[key.intValue()] = value);
-
     voteUpdateChannel.onVotesUpdated(votes);
   }
+
+  private void applyVotesToStore() {
+    votes.forEach((key, value) -> store.votes.set(key.intValue(), value));
+  }
 }
@@ -581,6 +581,62 @@ public class ProtoArrayScoreCalculatorTest {
     }
   }
 
+  @Test
+  void computeDeltas_columnarVotesShouldMatchVoteUpdater() {
+    final int validatorCount = 64;
+    final int blockCount = 8;
+    final VoteTrackerColumns columnarVotes = new VoteTrackerColumns(validatorCount, 10);
+    for (int i = 0; i < blockCount; i++) {
+      indices.put(getHash(i), i);
+    }
+    for (int i = 0; i < validatorCount; i++) {
+      final VoteTracker vote =
+          new VoteTracker(
+              getHash(i % blockCount),
+              getHash((i * 7) % (blockCount + 2)),
+              UInt64.valueOf(i),
+              i % 11 == 0,
+              i % 13 == 0);
+      store.putVote(UInt64.valueOf(i), vote);
+      columnarVotes.set(i, vote);
+      oldBalances.add(UInt64.valueOf(i * 3L));
+      newBalances.add(UInt64.valueOf(i % 5 == 0 ? i * 2L : i * 3L));
+    }
+    newProposerBoostRoot = Optional.of(getHash(3));
+    newProposerBoostAmount = UInt64.valueOf(100);
+
+    final List<Long> expectedDeltas =
+        computeDeltas(
+            store,
+            indices.size(),
+            this::getIndex,
+            oldBalances,
+            newBalances,
+            oldProposerBoostRoot,
+            newProposerBoostRoot,
+            oldProposerBoostAmount,
+            newProposerBoostAmount);
+    final List<Integer> updatedValidators = new ArrayList<>();
+    final List<Long> deltas =
+        computeDeltas(
+            columnarVotes,
+            updatedValidators::add,
+            indices.size(),
+            this::getIndex,
+            oldBalances,
+            newBalances,
+            oldProposerBoostRoot,
+            newProposerBoostRoot,
+            oldProposerBoostAmount,
+            newProposerBoostAmount);
+
+    assertThat(deltas).isEqualTo(expectedDeltas);
+    assertThat(updatedValidators).isNotEmpty();
+    for (int i = 0; i < validatorCount; i++) {
+      assertThat(columnarVotes.get(i)).isEqualTo(store.getVote(UInt64.valueOf(i)));
+    }
+  }
+
   private void votesShouldBeUpdated(VoteUpdater store) {
     UInt64.rangeClosed(ZERO, store.getHighestVotedValidatorIndex())
         .forEach(
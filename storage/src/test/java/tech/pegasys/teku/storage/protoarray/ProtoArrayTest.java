@@ -19,10 +19,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ZERO;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import org.apache.tuweni.bytes.Bytes32;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -520,6 +523,66 @@ class ProtoArrayTest {
     assertThat(protoArray.getProtoNode(block1b).orElseThrow().isOptimistic()).isTrue();
   }
 
+  @Test
+  void applyScoreChanges_incrementalUpdatesShouldMatchFullUpdates() {
+    final ProtoArray fullProtoArray =
+        new ProtoArrayBuilder()
+            .statusLog(statusLog)
+            .currentEpoch(ZERO)
+            .justifiedCheckpoint(GENESIS_CHECKPOINT)
+            .finalizedCheckpoint(GENESIS_CHECKPOINT)
+            .progressiveBalancesMode(ProgressiveBalancesMode.FULL)
+            .build();
+    fullProtoArray.setIncrementalScoreChangesEnabled(false);
+    addOptimisticBlock(fullProtoArray, 0, Bytes32.ZERO, Bytes32.ZERO);
+
+    final Random random = new Random(1482);
+    final List<Bytes32> blockRoots = new ArrayList<>(List.of(Bytes32.ZERO));
+    final LongList ownWeights = new LongArrayList(List.of(0L));
+    for (int round = 0; round < 200; round++) {
+      final int newBlockCount = random.nextInt(3);
+      for (int i = 0; i < newBlockCount; i++) {
+        final Bytes32 blockRoot = dataStructureUtil.randomBytes32();
+        final Bytes32 parentRoot = blockRoots.get(random.nextInt(blockRoots.size()));
+        addOptimisticBlock(blockRoots.size(), blockRoot, parentRoot);
+        addOptimisticBlock(fullProtoArray, blockRoots.size(), blockRoot, parentRoot);
+        blockRoots.add(blockRoot);
+        ownWeights.add(0L);
+      }
+
+      final LongList deltas = new LongArrayList(Collections.nCopies(blockRoots.size(), 0L));
+      final int changedNodeCount = random.nextInt(4);
+      for (int i = 0; i < changedNodeCount; i++) {
+        final int nodeIndex = random.nextInt(blockRoots.size());
+        final long newWeight = random.nextInt(100);
+        final long ownWeightChange = newWeight - ownWeights.getLong(nodeIndex);
+        deltas.set(nodeIndex, deltas.getLong(nodeIndex) + ownWeightChange);
+        ownWeights.set(nodeIndex, newWeight);
+      }
+
+      protoArray.applyScoreChanges(
+          new LongArrayList(deltas), UInt64.valueOf(5), GENESIS_CHECKPOINT, GENESIS_CHECKPOINT);
+      fullProtoArray.applyScoreChanges(
+          new LongArrayList(deltas), UInt64.valueOf(5), GENESIS_CHECKPOINT, GENESIS_CHECKPOINT);
+
+      for (int nodeIndex = 0; nodeIndex < blockRoots.size(); nodeIndex++) {
+        final ProtoNode node = protoArray.getNodeByIndex(nodeIndex);
+        final ProtoNode expected = fullProtoArray.getNodeByIndex(nodeIndex);
+        assertThat(node.getWeight()).isEqualTo(expected.getWeight());
+        assertThat(node.getBestChildIndex()).isEqualTo(expected.getBestChildIndex());
+        assertThat(node.getBestDescendantIndex()).isEqualTo(expected.getBestDescendantIndex());
+      }
+      assertThat(
+              protoArray
+                  .findOptimisticHead(UInt64.valueOf(5), GENESIS_CHECKPOINT, GENESIS_CHECKPOINT)
+                  .getBlockRoot())
+          .isEqualTo(
+              fullProtoArray
+                  .findOptimisticHead(UInt64.valueOf(5), GENESIS_CHECKPOINT, GENESIS_CHECKPOINT)
+                  .getBlockRoot());
+    }
+  }
+
   private void assertHead(final Bytes32 expectedBlockHash) {
     final ProtoNode node = protoArray.getProtoNode(expectedBlockHash).orElseThrow();
     assertThat(
@@ -555,7 +618,24 @@ class ProtoArrayTest {
       final Bytes32 blockRoot,
       final Bytes32 parentRoot,
       final Bytes32 executionBlockHash) {
-    protoArray.onBlock(
+    addOptimisticBlock(protoArray, slot, blockRoot, parentRoot, executionBlockHash);
+  }
+
+  private void addOptimisticBlock(
+      final ProtoArray target,
+      final long slot,
+      final Bytes32 blockRoot,
+      final Bytes32 parentRoot) {
+    addOptimisticBlock(target, slot, blockRoot, parentRoot, getExecutionBlockHash(blockRoot));
+  }
+
+  private void addOptimisticBlock(
+      final ProtoArray target,
+      final long slot,
+      final Bytes32 blockRoot,
+      final Bytes32 parentRoot,
+      final Bytes32 executionBlockHash) {
+    target.onBlock(
         UInt64.valueOf(slot),
         blockRoot,
         parentRoot,
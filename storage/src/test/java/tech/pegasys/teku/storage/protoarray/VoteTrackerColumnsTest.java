@@ -0,0 +1,91 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.protoarray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.teku.storage.protoarray.ProtoArrayTestUtil.getHash;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+
+class VoteTrackerColumnsTest {
+
+  private final VoteTrackerColumns votes = new VoteTrackerColumns(4, 10);
+
+  @Test
+  void get_shouldReturnDefaultForUnknownValidator() {
+    assertThat(votes.get(2)).isEqualTo(VoteTracker.DEFAULT);
+    assertThat(votes.get(1000)).isEqualTo(VoteTracker.DEFAULT);
+  }
+
+  @Test
+  void set_shouldStoreVoteAndGrowCapacity() {
+    final VoteTracker vote =
+        new VoteTracker(getHash(1), getHash(2), UInt64.valueOf(5), true, false);
+    votes.set(100, vote);
+
+    assertThat(votes.get(100)).isEqualTo(vote);
+    assertThat(votes.getHighestVotedValidatorIndex()).isEqualTo(100);
+    assertThat(votes.get(99)).isEqualTo(VoteTracker.DEFAULT);
+  }
+
+  @Test
+  void set_shouldShareRootIndicesBetweenValidators() {
+    votes.set(0, new VoteTracker(Bytes32.ZERO, getHash(1), UInt64.ONE));
+    votes.set(1, new VoteTracker(Bytes32.ZERO, getHash(1), UInt64.ONE));
+
+    assertThat(votes.getRootCount()).isEqualTo(2);
+    assertThat(votes.getCurrentRootIndex(0)).isEqualTo(VoteTrackerColumns.ZERO_ROOT_INDEX);
+    assertThat(votes.getNextRootIndex(0)).isEqualTo(votes.getNextRootIndex(1));
+  }
+
+  @Test
+  void applyNextVote_shouldMoveNextRootAndEquivocationToCurrent() {
+    votes.set(0, new VoteTracker(getHash(1), getHash(2), UInt64.ONE, true, false));
+
+    votes.applyNextVote(0);
+
+    assertThat(votes.get(0))
+        .isEqualTo(new VoteTracker(getHash(2), getHash(2), UInt64.ONE, true, true));
+  }
+
+  @Test
+  void set_shouldCompactUnreferencedRoots() {
+    final int rootCount = VoteTrackerColumns.MIN_ROOT_COUNT_FOR_COMPACTION + 10;
+    for (int i = 0; i < rootCount; i++) {
+      votes.set(i % 3, new VoteTracker(getHash(i), getHash(i + 1), UInt64.valueOf(i)));
+    }
+
+    assertThat(votes.getRootCount()).isLessThan(VoteTrackerColumns.MIN_ROOT_COUNT_FOR_COMPACTION);
+    for (int i = rootCount - 3; i < rootCount; i++) {
+      assertThat(votes.get(i % 3))
+          .isEqualTo(new VoteTracker(getHash(i), getHash(i + 1), UInt64.valueOf(i)));
+    }
+  }
+
+  @Test
+  void equals_shouldCompareVotesRegardlessOfCapacityAndRootOrder() {
+    final VoteTrackerColumns other = new VoteTrackerColumns(1, 1);
+    other.set(1, new VoteTracker(getHash(2), getHash(3), UInt64.ONE));
+    other.set(0, new VoteTracker(getHash(1), getHash(1), UInt64.ONE));
+
+    votes.set(0, new VoteTracker(getHash(1), getHash(1), UInt64.ONE));
+    votes.set(1, new VoteTracker(getHash(2), getHash(3), UInt64.ONE));
+
+    assertThat(votes).isEqualTo(other);
+    assertThat(votes.hashCode()).isEqualTo(other.hashCode());
+  }
+}
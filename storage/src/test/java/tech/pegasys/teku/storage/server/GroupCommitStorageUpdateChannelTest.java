@@ -0,0 +1,190 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import tech.pegasys.teku.infrastructure.async.SafeFuture;
+import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
+import tech.pegasys.teku.infrastructure.async.StubAsyncRunnerFactory;
+import tech.pegasys.teku.infrastructure.async.eventthread.AsyncRunnerEventThread;
+import tech.pegasys.teku.infrastructure.async.eventthread.EventThread;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
+import tech.pegasys.teku.spec.datastructures.forkchoice.VoteTracker;
+import tech.pegasys.teku.storage.api.StorageUpdate;
+import tech.pegasys.teku.storage.api.StorageUpdateChannel;
+import tech.pegasys.teku.storage.api.StorageUpdateGroup;
+import tech.pegasys.teku.storage.api.UpdateResult;
+
+class GroupCommitStorageUpdateChannelTest {
+  private final StorageUpdateChannel delegate = mock(StorageUpdateChannel.class);
+  private final StubAsyncRunnerFactory asyncRunnerFactory = new StubAsyncRunnerFactory();
+  private final EventThread eventThread =
+      new AsyncRunnerEventThread("group_commit_test", asyncRunnerFactory);
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private StubAsyncRunner stubAsyncRunner;
+
+  private final GroupCommitStorageUpdateChannel channel =
+      new GroupCommitStorageUpdateChannel(
+          delegate, eventThread, StubTimeProvider.withTimeInMillis(0), metricsSystem, 3);
+
+  @BeforeEach
+  void setUp() {
+    channel.start();
+    stubAsyncRunner = asyncRunnerFactory.getStubAsyncRunners().get(0);
+    when(delegate.onStorageUpdateGroup(any())).thenReturn(SafeFuture.COMPLETE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    eventThread.stop();
+  }
+
+  @Test
+  void shouldGroupWritesReceivedBeforeExecution() {
+    final StorageUpdate update1 = hotUpdate();
+    final StorageUpdate update2 = hotUpdate();
+    final BlobsSidecar blobsSidecar = mock(BlobsSidecar.class);
+    final Map<UInt64, VoteTracker> votes = Map.of(UInt64.ONE, VoteTracker.DEFAULT);
+
+    final SafeFuture<UpdateResult> result1 = channel.onStorageUpdate(update1);
+    final SafeFuture<Void> blobsResult = channel.onBlobsSidecar(blobsSidecar);
+    final SafeFuture<UpdateResult> result2 = channel.onStorageUpdate(update2);
+    channel.onVotesUpdated(votes);
+
+    verifyNoInteractions(delegate);
+    assertThat(getQueueDepth()).isEqualTo(4);
+
+    stubAsyncRunner.executeQueuedActions();
+
+    final StorageUpdateGroup group = captureGroups(1).get(0);
+    assertThat(group.getBlobsSidecars()).containsExactly(blobsSidecar);
+    assertThat(group.getUpdates()).containsExactly(update1, update2);
+    assertThat(group.getVotes()).isEqualTo(votes);
+    assertThat(result1).isCompletedWithValue(UpdateResult.EMPTY);
+    assertThat(result2).isCompletedWithValue(UpdateResult.EMPTY);
+    assertThat(blobsResult).isCompleted();
+    assertThat(getQueueDepth()).isZero();
+  }
+
+  @Test
+  void shouldApplyFinalizingUpdatesAfterEarlierWritesAreCommitted() {
+    final StorageUpdate update1 = hotUpdate();
+    final StorageUpdate finalizingUpdate = mock(StorageUpdate.class);
+    when(finalizingUpdate.hasFinalizedData()).thenReturn(true);
+    final UpdateResult finalizedResult = new UpdateResult(Optional.empty());
+    when(delegate.onStorageUpdate(finalizingUpdate))
+        .thenReturn(SafeFuture.completedFuture(finalizedResult));
+    final StorageUpdate update2 = hotUpdate();
+
+    channel.onStorageUpdate(update1);
+    final SafeFuture<UpdateResult> result = channel.onStorageUpdate(finalizingUpdate);
+    channel.onStorageUpdate(update2);
+
+    stubAsyncRunner.executeQueuedActions();
+
+    final ArgumentCaptor<StorageUpdateGroup> captor =
+        ArgumentCaptor.forClass(StorageUpdateGroup.class);
+    final InOrder inOrder = inOrder(delegate);
+    inOrder.verify(delegate).onStorageUpdateGroup(captor.capture());
+    inOrder.verify(delegate).onStorageUpdate(finalizingUpdate);
+    inOrder.verify(delegate).onStorageUpdateGroup(captor.capture());
+    assertThat(captor.getAllValues().get(0).getUpdates()).containsExactly(update1);
+    assertThat(captor.getAllValues().get(1).getUpdates()).containsExactly(update2);
+    assertThat(result).isCompletedWithValue(finalizedResult);
+  }
+
+  @Test
+  void shouldNotCommitVotesAheadOfEarlierBarrier() {
+    final StorageUpdate finalizingUpdate = mock(StorageUpdate.class);
+    when(finalizingUpdate.hasFinalizedData()).thenReturn(true);
+    when(delegate.onStorageUpdate(finalizingUpdate))
+        .thenReturn(SafeFuture.completedFuture(UpdateResult.EMPTY));
+    final Map<UInt64, VoteTracker> votes1 = Map.of(UInt64.ONE, VoteTracker.DEFAULT);
+    final Map<UInt64, VoteTracker> votes2 = Map.of(UInt64.valueOf(2), VoteTracker.DEFAULT);
+
+    channel.onStorageUpdate(finalizingUpdate);
+    channel.onVotesUpdated(votes1);
+    channel.onVotesUpdated(votes2);
+
+    stubAsyncRunner.executeQueuedActions();
+
+    final ArgumentCaptor<StorageUpdateGroup> captor =
+        ArgumentCaptor.forClass(StorageUpdateGroup.class);
+    final InOrder inOrder = inOrder(delegate);
+    inOrder.verify(delegate).onStorageUpdate(finalizingUpdate);
+    inOrder.verify(delegate).onStorageUpdateGroup(captor.capture());
+    assertThat(captor.getValue().getVotes())
+        .isEqualTo(Map.of(UInt64.ONE, VoteTracker.DEFAULT, UInt64.valueOf(2), VoteTracker.DEFAULT));
+  }
+
+  @Test
+  void shouldLimitGroupSize() {
+    final List<StorageUpdate> updates =
+        List.of(hotUpdate(), hotUpdate(), hotUpdate(), hotUpdate(), hotUpdate());
+    updates.forEach(channel::onStorageUpdate);
+
+    stubAsyncRunner.executeQueuedActions();
+
+    final List<StorageUpdateGroup> groups = captureGroups(2);
+    assertThat(groups.get(0).getUpdates()).isEqualTo(updates.subList(0, 3));
+    assertThat(groups.get(1).getUpdates()).isEqualTo(updates.subList(3, 5));
+  }
+
+  @Test
+  void shouldFailGroupedWritesWhenCommitFails() {
+    final RuntimeException error = new RuntimeException("Nope");
+    when(delegate.onStorageUpdateGroup(any())).thenReturn(SafeFuture.failedFuture(error));
+
+    final SafeFuture<UpdateResult> result = channel.onStorageUpdate(hotUpdate());
+    stubAsyncRunner.executeQueuedActions();
+
+    assertThat(result).isCompletedExceptionally();
+  }
+
+  private StorageUpdate hotUpdate() {
+    return mock(StorageUpdate.class);
+  }
+
+  private double getQueueDepth() {
+    return metricsSystem.getGauge(TekuMetricCategory.STORAGE, "write_queue_depth").getValue();
+  }
+
+  private List<StorageUpdateGroup> captureGroups(final int expectedCount) {
+    final ArgumentCaptor<StorageUpdateGroup> captor =
+        ArgumentCaptor.forClass(StorageUpdateGroup.class);
+    verify(delegate, times(expectedCount))
+        .onStorageUpdateGroup(captor.capture());
+    return captor.getAllValues();
+  }
+}
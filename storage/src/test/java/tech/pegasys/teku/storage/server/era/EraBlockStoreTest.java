@@ -0,0 +1,191 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.era;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+import tech.pegasys.teku.storage.server.DatabaseStorageException;
+
+class EraBlockStoreTest {
+  private static final int SEGMENT_SIZE = EraBlockStore.SLOTS_PER_SEGMENT;
+
+  private final Spec spec = TestSpecFactory.createMinimalPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+
+  @TempDir Path tempDir;
+
+  private EraBlockStore store;
+
+  @AfterEach
+  void tearDown() {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  @Test
+  void shouldReadBlocksFromWrittenSegment() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    final List<SignedBeaconBlock> blocks = createBlocks(0, 1, 2, 5, SEGMENT_SIZE - 1);
+    store.writeSegment(UInt64.ZERO, blocks.iterator());
+
+    assertThat(store.getSegmentCount()).isEqualTo(1);
+    for (SignedBeaconBlock block : blocks) {
+      assertThat(store.getBlockAtSlot(block.getSlot())).contains(block);
+      assertThat(store.getBlockSszAtSlot(block.getSlot())).contains(block.sszSerialize());
+    }
+    assertThat(store.getBlockAtSlot(UInt64.valueOf(3))).isEmpty();
+    assertThat(store.containsSlot(UInt64.valueOf(3))).isTrue();
+    assertThat(store.containsSlot(UInt64.valueOf(SEGMENT_SIZE))).isFalse();
+    assertThat(store.getEarliestBlock()).contains(blocks.get(0));
+  }
+
+  @Test
+  void shouldGetLatestBlockAtOrBeforeSlot() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    final List<SignedBeaconBlock> blocks = createBlocks(10, 20);
+    store.writeSegment(UInt64.ZERO, blocks.iterator());
+    store.writeSegment(UInt64.valueOf(SEGMENT_SIZE), createBlocks().iterator());
+
+    assertThat(store.getLatestBlockAtSlot(UInt64.valueOf(9))).isEmpty();
+    assertThat(store.getLatestBlockAtSlot(UInt64.valueOf(15))).contains(blocks.get(0));
+    assertThat(store.getLatestBlockAtSlot(UInt64.valueOf(20))).contains(blocks.get(1));
+    assertThat(store.getLatestBlockAtSlot(UInt64.valueOf(SEGMENT_SIZE + 10)))
+        .contains(blocks.get(1));
+  }
+
+  @Test
+  void shouldStreamBlocksFromSegmentsAndUncoveredRanges() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    final List<SignedBeaconBlock> archivedBlocks = createBlocks(SEGMENT_SIZE - 2);
+    store.writeSegment(UInt64.ZERO, archivedBlocks.iterator());
+    final List<SignedBeaconBlock> unarchivedBlocks = createBlocks(SEGMENT_SIZE, SEGMENT_SIZE + 1);
+
+    final List<SignedBeaconBlock> result;
+    try (final Stream<SignedBeaconBlock> stream =
+        store.streamBlocks(
+            UInt64.valueOf(5),
+            UInt64.valueOf(SEGMENT_SIZE + 1),
+            (start, end) ->
+                unarchivedBlocks.stream()
+                    .filter(
+                        block ->
+                            block.getSlot().isGreaterThanOrEqualTo(start)
+                                && block.getSlot().isLessThanOrEqualTo(end)))) {
+      result = stream.collect(Collectors.toList());
+    }
+
+    assertThat(result)
+        .containsExactly(archivedBlocks.get(0), unarchivedBlocks.get(0), unarchivedBlocks.get(1));
+  }
+
+  @Test
+  void shouldNotReadUncoveredRangesWhenStreamingWithinSegment() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    final List<SignedBeaconBlock> blocks = createBlocks(1, 2, 3);
+    store.writeSegment(UInt64.ZERO, blocks.iterator());
+
+    try (final Stream<SignedBeaconBlock> stream =
+        store.streamBlocks(
+            UInt64.valueOf(2),
+            UInt64.valueOf(3),
+            (start, end) -> {
+              throw new AssertionError("Unexpected read of " + start + " to " + end);
+            })) {
+      assertThat(stream).containsExactly(blocks.get(1), blocks.get(2));
+    }
+  }
+
+  @Test
+  void shouldReloadSegmentsAndRemoveIncompleteFiles() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    final List<SignedBeaconBlock> blocks = createBlocks(SEGMENT_SIZE + 7);
+    store.writeSegment(UInt64.valueOf(SEGMENT_SIZE), blocks.iterator());
+    store.close();
+    final Path tempFile = tempDir.resolve("blocks-000000000000.era.tmp");
+    Files.write(tempFile, new byte[] {1, 2, 3});
+
+    store = EraBlockStore.open(tempDir, spec);
+
+    assertThat(store.hasSegment(UInt64.valueOf(SEGMENT_SIZE))).isTrue();
+    assertThat(store.getBlockAtSlot(UInt64.valueOf(SEGMENT_SIZE + 7))).contains(blocks.get(0));
+    assertThat(tempFile).doesNotExist();
+  }
+
+  @Test
+  void shouldPruneSegmentsOnlyWhenAllSlotsArePruned() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    store.writeSegment(UInt64.ZERO, createBlocks(1).iterator());
+    store.writeSegment(UInt64.valueOf(SEGMENT_SIZE), createBlocks(SEGMENT_SIZE + 1).iterator());
+
+    store.pruneSegments(UInt64.valueOf(SEGMENT_SIZE + 5));
+
+    assertThat(store.hasSegment(UInt64.ZERO)).isFalse();
+    assertThat(store.hasSegment(UInt64.valueOf(SEGMENT_SIZE))).isTrue();
+    assertThat(store.getSegmentFile(UInt64.ZERO)).doesNotExist();
+    assertThat(store.getEarliestBlockSlot()).contains(UInt64.valueOf(SEGMENT_SIZE + 1));
+  }
+
+  @Test
+  void shouldRejectUnalignedSegments() {
+    store = EraBlockStore.open(tempDir, spec);
+    assertThatThrownBy(() -> store.writeSegment(UInt64.ONE, createBlocks(1).iterator()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRejectBlocksOutsideSegment() {
+    store = EraBlockStore.open(tempDir, spec);
+    assertThatThrownBy(
+            () -> store.writeSegment(UInt64.ZERO, createBlocks(SEGMENT_SIZE).iterator()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(store.isEmpty()).isTrue();
+  }
+
+  @Test
+  void shouldFailToOpenCorruptSegment() throws IOException {
+    store = EraBlockStore.open(tempDir, spec);
+    store.writeSegment(UInt64.ZERO, createBlocks(1).iterator());
+    final Path file = store.getSegmentFile(UInt64.ZERO);
+    store.close();
+    final byte[] data = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(data, data.length - 1));
+
+    assertThatThrownBy(() -> EraBlockStore.open(tempDir, spec))
+        .isInstanceOf(DatabaseStorageException.class);
+  }
+
+  private List<SignedBeaconBlock> createBlocks(final long... slots) {
+    return LongStream.of(slots)
+        .mapToObj(dataStructureUtil::randomSignedBeaconBlock)
+        .collect(Collectors.toList());
+  }
+}
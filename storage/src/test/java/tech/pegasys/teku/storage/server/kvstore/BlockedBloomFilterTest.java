@@ -0,0 +1,75 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BlockedBloomFilterTest {
+  private static final int KEY_COUNT = 10_000;
+
+  private final Random random = new Random(4242);
+
+  @Test
+  void shouldContainAllAddedKeys() {
+    final BlockedBloomFilter filter = new BlockedBloomFilter(KEY_COUNT);
+    final List<byte[]> keys = randomKeys(KEY_COUNT);
+    keys.forEach(filter::add);
+
+    assertThat(keys).allMatch(filter::mightContain);
+    assertThat(filter.getLayerCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldHaveLowFalsePositiveRate() {
+    final BlockedBloomFilter filter = new BlockedBloomFilter(KEY_COUNT);
+    randomKeys(KEY_COUNT).forEach(filter::add);
+
+    final long falsePositives = randomKeys(KEY_COUNT).stream().filter(filter::mightContain).count();
+    assertThat(falsePositives).isLessThan(KEY_COUNT / 50);
+  }
+
+  @Test
+  void shouldAddLayersWhenCapacityExceeded() {
+    final BlockedBloomFilter filter = new BlockedBloomFilter(100);
+    final List<byte[]> keys = randomKeys(1_000);
+    keys.forEach(filter::add);
+
+    // Layers of 100, 200, 400 and 800 keys
+    assertThat(filter.getLayerCount()).isEqualTo(4);
+    assertThat(keys).allMatch(filter::mightContain);
+  }
+
+  @Test
+  void shouldHashKeysOfDifferentLengthsDifferently() {
+    assertThat(BlockedBloomFilter.hash(new byte[8]))
+        .isNotEqualTo(BlockedBloomFilter.hash(new byte[16]));
+    assertThat(BlockedBloomFilter.hash(new byte[] {1}))
+        .isNotEqualTo(BlockedBloomFilter.hash(new byte[] {0, 1}));
+  }
+
+  private List<byte[]> randomKeys(final int count) {
+    final List<byte[]> keys = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final byte[] key = new byte[32];
+      random.nextBytes(key);
+      keys.add(key);
+    }
+    return keys;
+  }
+}
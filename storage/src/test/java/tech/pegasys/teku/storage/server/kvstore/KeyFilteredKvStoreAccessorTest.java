@@ -0,0 +1,153 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor.KvStoreTransaction;
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
+import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
+
+class KeyFilteredKvStoreAccessorTest {
+  private static final KvStoreColumn<Bytes32, UInt64> FILTERED_COLUMN =
+      KvStoreColumn.create(
+          1, KvStoreSerializer.BYTES32_SERIALIZER, KvStoreSerializer.UINT64_SERIALIZER);
+  private static final KvStoreColumn<Bytes32, UInt64> UNFILTERED_COLUMN =
+      KvStoreColumn.create(
+          2, KvStoreSerializer.BYTES32_SERIALIZER, KvStoreSerializer.UINT64_SERIALIZER);
+
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final MockKvStoreInstance delegate =
+      MockKvStoreInstance.createEmpty(List.of(FILTERED_COLUMN, UNFILTERED_COLUMN), List.of());
+
+  @Test
+  void get_shouldReturnValuesWrittenThroughTransaction() {
+    final KvStoreAccessor accessor = createAccessor();
+    final Bytes32 key = Bytes32.fromHexString("0x01");
+    try (final KvStoreTransaction transaction = accessor.startTransaction()) {
+      transaction.put(FILTERED_COLUMN, key, UInt64.ONE);
+      transaction.commit();
+    }
+
+    assertThat(accessor.get(FILTERED_COLUMN, key)).contains(UInt64.ONE);
+    assertThat(getLookupCount("present")).isEqualTo(1);
+  }
+
+  @Test
+  void get_shouldReturnValuesStoredBeforeCreation() {
+    final Bytes32 key = Bytes32.fromHexString("0x02");
+    try (final KvStoreTransaction transaction = delegate.startTransaction()) {
+      transaction.put(FILTERED_COLUMN, key, UInt64.valueOf(2));
+      transaction.commit();
+    }
+    final KvStoreAccessor accessor = createAccessor();
+
+    assertThat(accessor.get(FILTERED_COLUMN, key)).contains(UInt64.valueOf(2));
+    assertThat(accessor.getRaw(FILTERED_COLUMN, key)).isPresent();
+    assertThat(getLookupCount("present")).isEqualTo(2);
+  }
+
+  @Test
+  void get_shouldNotReadDelegateForUnknownKeys() {
+    final KvStoreAccessor accessor = createAccessor();
+    final Bytes32 key = Bytes32.fromHexString("0x03");
+    // Bypass the filter so only a lookup that reaches the delegate could find the value
+    try (final KvStoreTransaction transaction = delegate.startTransaction()) {
+      transaction.put(FILTERED_COLUMN, key, UInt64.valueOf(3));
+      transaction.commit();
+    }
+
+    assertThat(accessor.get(FILTERED_COLUMN, key)).isEmpty();
+    assertThat(getLookupCount("filtered")).isEqualTo(1);
+  }
+
+  @Test
+  void get_shouldNotFilterOtherColumns() {
+    final KvStoreAccessor accessor = createAccessor();
+    final Bytes32 key = Bytes32.fromHexString("0x04");
+    try (final KvStoreTransaction transaction = delegate.startTransaction()) {
+      transaction.put(UNFILTERED_COLUMN, key, UInt64.valueOf(4));
+      transaction.commit();
+    }
+
+    assertThat(accessor.get(UNFILTERED_COLUMN, key)).contains(UInt64.valueOf(4));
+    assertThat(getLookupCount("present")).isZero();
+    assertThat(getLookupCount("filtered")).isZero();
+  }
+
+  @Test
+  void get_shouldReturnEmptyForDeletedKeys() {
+    final KvStoreAccessor accessor = createAccessor();
+    final Bytes32 key = Bytes32.fromHexString("0x05");
+    try (final KvStoreTransaction transaction = accessor.startTransaction()) {
+      transaction.put(FILTERED_COLUMN, Map.of(key, UInt64.valueOf(5)));
+      transaction.commit();
+    }
+    try (final KvStoreTransaction transaction = accessor.startTransaction()) {
+      transaction.delete(FILTERED_COLUMN, key);
+      transaction.commit();
+    }
+
+    assertThat(accessor.get(FILTERED_COLUMN, key)).isEmpty();
+    assertThat(getLookupCount("false_positive")).isEqualTo(1);
+  }
+
+  @Test
+  void create_shouldLoadAllStoredKeysInSinglePass() {
+    final int keyCount = 5000;
+    try (final KvStoreTransaction transaction = delegate.startTransaction()) {
+      for (int i = 0; i < keyCount; i++) {
+        transaction.put(FILTERED_COLUMN, toKey(i), UInt64.valueOf(i));
+      }
+      transaction.commit();
+    }
+    final KvStoreAccessor spyDelegate = spy(delegate);
+
+    final KvStoreAccessor accessor =
+        KeyFilteredKvStoreAccessor.create(
+            metricsSystem, spyDelegate, Map.of("test", FILTERED_COLUMN));
+
+    verify(spyDelegate, times(1)).streamKeys(FILTERED_COLUMN);
+    for (int i = 0; i < keyCount; i++) {
+      assertThat(accessor.get(FILTERED_COLUMN, toKey(i))).contains(UInt64.valueOf(i));
+    }
+    assertThat(getLookupCount("filtered")).isZero();
+  }
+
+  private Bytes32 toKey(final int value) {
+    return Bytes32.leftPad(Bytes.ofUnsignedInt(value));
+  }
+
+  private KvStoreAccessor createAccessor() {
+    return KeyFilteredKvStoreAccessor.create(
+        metricsSystem, delegate, Map.of("test", FILTERED_COLUMN));
+  }
+
+  private long getLookupCount(final String result) {
+    return metricsSystem
+        .getCounter(TekuMetricCategory.STORAGE, "key_filter_lookups_total")
+        .getValue("test", result);
+  }
+}
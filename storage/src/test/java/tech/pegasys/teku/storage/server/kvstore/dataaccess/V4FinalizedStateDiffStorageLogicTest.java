@@ -0,0 +1,171 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.dataaccess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreAccessor.KvStoreTransaction;
+import tech.pegasys.teku.storage.server.kvstore.MockKvStoreInstance;
+import tech.pegasys.teku.storage.server.kvstore.dataaccess.V4FinalizedStateStorageLogic.FinalizedStateUpdater;
+import tech.pegasys.teku.storage.server.kvstore.schema.SchemaCombinedDiffState;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedDiffState;
+
+class V4FinalizedStateDiffStorageLogicTest {
+  private static final long SNAPSHOT_FREQUENCY = 64;
+
+  private final Spec spec = TestSpecFactory.createDefault();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+  private final V6SchemaCombinedDiffState schema = new V6SchemaCombinedDiffState(spec);
+  private final KvStoreAccessor db =
+      MockKvStoreInstance.createEmpty(schema.getAllColumns(), schema.getAllVariables());
+  private final int slotsPerEpoch = spec.getGenesisSpecConfig().getSlotsPerEpoch();
+  private final BeaconState genesis = dataStructureUtil.randomBeaconState(UInt64.ZERO);
+
+  private final V4FinalizedStateDiffStorageLogic<SchemaCombinedDiffState> logic = createLogic();
+
+  @Test
+  void shouldRoundTripStatesStoredAsSnapshotsAndDiffs() {
+    final List<BeaconState> states = createStates(0, 2 * SNAPSHOT_FREQUENCY, slotsPerEpoch);
+    storeStates(logic, states);
+
+    states.forEach(this::assertStateReloads);
+    assertThat(getStoredSnapshotSlots())
+        .containsExactly(UInt64.ZERO, UInt64.valueOf(SNAPSHOT_FREQUENCY));
+    assertThat(getStoredStateSlots())
+        .containsExactlyElementsOf(
+            states.stream().map(BeaconState::getSlot).collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldGetMostRecentStateBeforeRequestedSlot() {
+    final List<BeaconState> states = createStates(0, 3L * slotsPerEpoch, slotsPerEpoch);
+    storeStates(logic, states);
+
+    assertStateReloads(states.get(1), states.get(1).getSlot().plus(1));
+    assertStateReloads(states.get(2), states.get(2).getSlot().plus(100));
+  }
+
+  @Test
+  void shouldStoreAtMostOneStatePerEpoch() {
+    final List<BeaconState> states = createStates(0, slotsPerEpoch + 2, 1);
+    storeStates(logic, states);
+
+    assertThat(getStoredStateSlots()).containsExactly(UInt64.ZERO, UInt64.valueOf(slotsPerEpoch));
+    assertStateReloads(states.get(slotsPerEpoch), UInt64.valueOf(slotsPerEpoch + 1));
+  }
+
+  @Test
+  void shouldContinueFromStoredStatesWithNewInstance() {
+    final List<BeaconState> states = createStates(0, SNAPSHOT_FREQUENCY + 16, slotsPerEpoch);
+    final int split = states.size() / 2;
+    storeStates(logic, states.subList(0, split));
+
+    final V4FinalizedStateDiffStorageLogic<SchemaCombinedDiffState> restartedLogic = createLogic();
+    storeStates(restartedLogic, states.subList(split, states.size()));
+
+    for (BeaconState state : states) {
+      assertThat(restartedLogic.getLatestAvailableFinalizedState(db, schema, state.getSlot()))
+          .contains(state);
+    }
+    assertThat(getStoredSnapshotSlots())
+        .containsExactly(UInt64.ZERO, UInt64.valueOf(SNAPSHOT_FREQUENCY));
+  }
+
+  @Test
+  void shouldStoreReconstructedStates() {
+    final List<BeaconState> states = createStates(0, SNAPSHOT_FREQUENCY, slotsPerEpoch);
+    try (final KvStoreTransaction transaction = db.startTransaction()) {
+      final FinalizedStateUpdater<SchemaCombinedDiffState> updater = logic.updater();
+      states.forEach(
+          state -> updater.addReconstructedFinalizedState(db, transaction, schema, state));
+      transaction.commit();
+      updater.commit();
+    }
+
+    states.forEach(this::assertStateReloads);
+  }
+
+  private V4FinalizedStateDiffStorageLogic<SchemaCombinedDiffState> createLogic() {
+    return new V4FinalizedStateDiffStorageLogic<>(
+        new NoOpMetricsSystem(), spec, SNAPSHOT_FREQUENCY);
+  }
+
+  private List<BeaconState> createStates(
+      final long startSlot, final long endSlot, final long slotInterval) {
+    final List<BeaconState> states = new ArrayList<>();
+    BeaconState state = genesis;
+    for (long slot = startSlot; slot < endSlot; slot += slotInterval) {
+      final UInt64 stateSlot = UInt64.valueOf(slot);
+      state =
+          state.updated(
+              mutableState -> {
+                mutableState.setSlot(stateSlot);
+                final int index = stateSlot.mod(mutableState.getBalances().size()).intValue();
+                mutableState
+                    .getBalances()
+                    .setElement(index, mutableState.getBalances().getElement(index).plus(1));
+              });
+      states.add(state);
+    }
+    return states;
+  }
+
+  private void storeStates(
+      final V4FinalizedStateDiffStorageLogic<SchemaCombinedDiffState> logic,
+      final List<BeaconState> states) {
+    try (final KvStoreTransaction transaction = db.startTransaction()) {
+      final FinalizedStateUpdater<SchemaCombinedDiffState> updater = logic.updater();
+      states.forEach(state -> updater.addFinalizedState(db, transaction, schema, state));
+      transaction.commit();
+      updater.commit();
+    }
+  }
+
+  private List<UInt64> getStoredSnapshotSlots() {
+    try (final Stream<UInt64> slots =
+        db.streamKeys(schema.getColumnFinalizedStatesBySlot(), UInt64.ZERO, UInt64.MAX_VALUE)) {
+      return slots.collect(Collectors.toList());
+    }
+  }
+
+  private List<UInt64> getStoredStateSlots() {
+    try (final Stream<UInt64> slots =
+        logic.streamFinalizedStateSlots(db, schema, UInt64.ZERO, UInt64.MAX_VALUE)) {
+      return slots.collect(Collectors.toList());
+    }
+  }
+
+  private void assertStateReloads(final BeaconState state) {
+    assertStateReloads(state, state.getSlot());
+  }
+
+  private void assertStateReloads(final BeaconState expectedState, final UInt64 slot) {
+    final Optional<BeaconState> loadedState =
+        logic.getLatestAvailableFinalizedState(db, schema, slot);
+    assertThat(loadedState).contains(expectedState);
+  }
+}
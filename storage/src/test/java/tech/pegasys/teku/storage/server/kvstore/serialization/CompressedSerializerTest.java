@@ -0,0 +1,74 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+public class CompressedSerializerTest {
+  private final Spec spec = TestSpecFactory.createMinimalPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+
+  private final KvStoreSerializer<BeaconState> stateSerializer =
+      KvStoreSerializer.createStateSerializer(spec);
+  private final KvStoreSerializer<BeaconState> snappyStateSerializer =
+      KvStoreSerializer.withCodec(stateSerializer, ValueCodec.SNAPPY);
+
+  @Test
+  public void roundTrip_state() {
+    final BeaconState value = dataStructureUtil.randomBeaconState(11);
+    final byte[] bytes = snappyStateSerializer.serialize(value);
+    // Only the header byte is added when the state doesn't compress
+    assertThat(bytes.length).isLessThanOrEqualTo(stateSerializer.serialize(value).length + 1);
+    assertThat(snappyStateSerializer.deserialize(bytes)).isEqualTo(value);
+  }
+
+  @Test
+  public void roundTrip_block() {
+    final KvStoreSerializer<SignedBeaconBlock> serializer =
+        KvStoreSerializer.withCodec(
+            KvStoreSerializer.createSignedBlockSerializer(spec), ValueCodec.DEFLATE);
+    final SignedBeaconBlock value = dataStructureUtil.randomSignedBeaconBlock(5);
+    assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+  }
+
+  @Test
+  public void shouldDecodeValuesWrittenWithOtherCodecs() {
+    final BeaconState value = dataStructureUtil.randomBeaconState(11);
+    final KvStoreSerializer<BeaconState> deflateStateSerializer =
+        KvStoreSerializer.withCodec(stateSerializer, ValueCodec.DEFLATE);
+    assertThat(snappyStateSerializer.deserialize(deflateStateSerializer.serialize(value)))
+        .isEqualTo(value);
+  }
+
+  @Test
+  public void decode_shouldReturnSerializedValue() {
+    final BeaconState value = dataStructureUtil.randomBeaconState(11);
+    final byte[] stored = snappyStateSerializer.serialize(value);
+    assertThat(snappyStateSerializer.decode(stored)).isEqualTo(stateSerializer.serialize(value));
+    assertThat(stateSerializer.decode(stored)).isSameAs(stored);
+  }
+
+  @Test
+  public void withCodec_shouldNotWrapSerializerForNone() {
+    assertThat(KvStoreSerializer.withCodec(stateSerializer, ValueCodec.NONE))
+        .isSameAs(stateSerializer);
+  }
+}
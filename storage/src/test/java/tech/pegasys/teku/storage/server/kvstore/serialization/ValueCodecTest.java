@@ -0,0 +1,78 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.kvstore.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ValueCodecTest {
+  private final byte[] compressible = new byte[4096];
+  private final byte[] incompressible = new byte[4096];
+
+  ValueCodecTest() {
+    for (int i = 0; i < compressible.length; i++) {
+      compressible[i] = (byte) (i % 7);
+    }
+    new Random(1).nextBytes(incompressible);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ValueCodec.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+  void shouldRoundTripCompressibleValues(final ValueCodec codec) {
+    final byte[] encoded = codec.encode(compressible);
+    assertThat(encoded.length).isLessThan(compressible.length / 4);
+    assertThat(ValueCodec.decode(encoded)).isEqualTo(compressible);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ValueCodec.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+  void shouldStoreIncompressibleValuesWithOnlyHeader(final ValueCodec codec) {
+    final byte[] encoded = codec.encode(incompressible);
+    assertThat(encoded).hasSize(incompressible.length + 1);
+    assertThat(ValueCodec.decode(encoded)).isEqualTo(incompressible);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ValueCodec.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+  void shouldRoundTripEmptyValues(final ValueCodec codec) {
+    assertThat(ValueCodec.decode(codec.encode(new byte[0]))).isEmpty();
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ValueCodec.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+  void shouldRoundTripValuesAfterReleasingResources(final ValueCodec codec) {
+    final byte[] encoded = codec.encode(compressible);
+    ValueCodec.releaseResources();
+    assertThat(ValueCodec.decode(encoded)).isEqualTo(compressible);
+    assertThat(ValueCodec.decode(codec.encode(compressible))).isEqualTo(compressible);
+  }
+
+  @Test
+  void shouldNotEncodeValuesWithNone() {
+    assertThat(ValueCodec.NONE.encode(compressible)).isSameAs(compressible);
+  }
+
+  @Test
+  void shouldRejectUnknownFormat() {
+    assertThatThrownBy(() -> ValueCodec.decode(new byte[] {9, 1, 2}))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ValueCodec.decode(new byte[0]))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import tech.pegasys.teku.storage.server.kvstore.KvStoreConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 class DatabaseMetadataTest {
 
@@ -104,6 +105,32 @@ class DatabaseMetadataTest {
     assertThat(reloadedData).usingRecursiveComparison().isEqualTo(expectedMetadata);
   }
 
+  @Test
+  void shouldKeepValueCodecOfExistingDatabase(@TempDir final File tempDir) throws Exception {
+    final File metadataFile = new File(tempDir, "metadata.yml");
+    V6DatabaseMetadata.init(metadataFile, V6DatabaseMetadata.singleDBDefault(ValueCodec.SNAPPY));
+
+    final V6DatabaseMetadata reloadedData =
+        V6DatabaseMetadata.init(metadataFile, V6DatabaseMetadata.singleDBDefault(ValueCodec.NONE));
+    assertThat(reloadedData.getSingleDbConfiguration().getConfiguration().getValueCodec())
+        .isEqualTo(ValueCodec.SNAPPY);
+  }
+
+  @Test
+  void shouldNotCompressValuesForDatabasesCreatedWithoutValueCodec(@TempDir final File tempDir)
+      throws Exception {
+    final File metadataFile = new File(tempDir, "metadata.yml");
+    writeMetaData(
+        ImmutableMap.of("singleDb", ImmutableMap.of("configuration", Collections.emptyMap())),
+        metadataFile);
+
+    final V6DatabaseMetadata result =
+        V6DatabaseMetadata.init(
+            metadataFile, V6DatabaseMetadata.singleDBDefault(ValueCodec.SNAPPY));
+    assertThat(result.getSingleDbConfiguration().getConfiguration().getValueCodec())
+        .isEqualTo(ValueCodec.NONE);
+  }
+
   private Map<String, Object> loadMetaData(final File metadataFile) throws IOException {
     return new ObjectMapper(new YAMLFactory())
         .readValue(
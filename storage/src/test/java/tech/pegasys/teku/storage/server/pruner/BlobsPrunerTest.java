@@ -28,6 +28,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
 import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
@@ -114,4 +115,42 @@ public class BlobsPrunerTest {
     verify(database, times(1))
         .pruneOldestUnconfirmedBlobsSidecar(expectedLastSlotToPrune, PRUNE_LIMIT);
   }
+
+  @Test
+  void shouldLimitPruningToMaintenanceBudgetAndCatchUpLater() {
+    assertThat(blobsPruner.stop()).isCompleted();
+    final StorageMaintenanceScheduler scheduler =
+        new StorageMaintenanceScheduler(
+            spec, database, asyncRunner, timeProvider, new StubMetricsSystem(), 10);
+    final BlobsPruner budgetedPruner =
+        new BlobsPruner(
+            spec,
+            database,
+            asyncRunner,
+            timeProvider,
+            Duration.ofMinutes(1),
+            PRUNE_LIMIT,
+            Optional.of(scheduler));
+    when(database.getEarliestBlobsSidecarSlot())
+        .thenReturn(Optional.of(UInt64.ZERO), Optional.of(UInt64.valueOf(10)));
+    final UInt64 currentSlot =
+        UInt64.valueOf(MIN_EPOCHS_FOR_BLOBS_SIDECARS_REQUESTS)
+            .times(spec.getGenesisSpecConfig().getSlotsPerEpoch())
+            .plus(30);
+    final int secondsPerSlot = spec.getGenesisSpecConfig().getSecondsPerSlot();
+    // Start of the slot plus 75% of the slot is within the off-peak phase
+    final long offPeakMillis =
+        currentSlot.times(secondsPerSlot).plus(genesisTime).longValue() * 1000
+            + secondsPerSlot * 750L;
+    timeProvider.advanceTimeByMillis(offPeakMillis);
+    assertThat(budgetedPruner.start()).isCompleted();
+
+    asyncRunner.executeDueActions();
+    verify(database).pruneOldestBlobsSidecar(UInt64.valueOf(9), PRUNE_LIMIT);
+    verify(database, never()).pruneOldestBlobsSidecar(UInt64.valueOf(30), PRUNE_LIMIT);
+
+    timeProvider.advanceTimeBy(Duration.ofSeconds(secondsPerSlot));
+    asyncRunner.executeDueActions();
+    verify(database).pruneOldestBlobsSidecar(UInt64.valueOf(19), PRUNE_LIMIT);
+  }
 }
@@ -25,6 +25,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
 import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
@@ -117,6 +118,29 @@ class BlockPrunerTest {
     verify(database).pruneFinalizedBlocks(lastSlotToPrune);
   }
 
+  @Test
+  void shouldLimitPruningToMaintenanceBudgetAndCatchUpLater() {
+    final StorageMaintenanceScheduler scheduler =
+        new StorageMaintenanceScheduler(
+            spec, database, asyncRunner, timeProvider, new StubMetricsSystem(), 10);
+    final BlockPruner budgetedPruner =
+        new BlockPruner(spec, database, asyncRunner, PRUNE_INTERVAL, Optional.of(scheduler));
+    // Genesis time is unknown so every phase of the slot is off-peak
+    when(database.getGenesisTime()).thenReturn(Optional.empty());
+    when(database.getFinalizedCheckpoint())
+        .thenReturn(Optional.of(dataStructureUtil.randomCheckpoint(UInt64.valueOf(50))));
+    when(database.getEarliestAvailableBlockSlot())
+        .thenReturn(Optional.of(UInt64.ZERO), Optional.of(UInt64.valueOf(10)));
+    assertThat(budgetedPruner.start()).isCompleted();
+
+    triggerNextPruning();
+    verify(database).pruneFinalizedBlocks(UInt64.valueOf(9));
+
+    timeProvider.advanceTimeBy(Duration.ofSeconds(spec.getSecondsPerSlot(UInt64.ZERO)));
+    asyncRunner.executeDueActions();
+    verify(database).pruneFinalizedBlocks(UInt64.valueOf(19));
+  }
+
   private void triggerNextPruning() {
     timeProvider.advanceTimeBy(PRUNE_INTERVAL);
     asyncRunner.executeDueActions();
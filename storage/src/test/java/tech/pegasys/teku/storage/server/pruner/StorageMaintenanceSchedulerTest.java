@@ -0,0 +1,157 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.pruner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.time.StubTimeProvider;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.storage.server.Database;
+
+class StorageMaintenanceSchedulerTest {
+  private static final int IO_BUDGET = 10;
+
+  private final Spec spec = TestSpecFactory.createMinimalPhase0();
+  private final long millisPerSlot = spec.getMillisPerSlot(UInt64.ZERO).longValue();
+  // Off-peak phase starts 70% of the way through the slot
+  private final long offPeakStart = millisPerSlot * 7 / 10;
+  private final StubTimeProvider timeProvider = StubTimeProvider.withTimeInMillis(0);
+  private final StubAsyncRunner asyncRunner = new StubAsyncRunner(timeProvider);
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+  private final Database database = mock(Database.class);
+
+  private final StorageMaintenanceScheduler scheduler =
+      new StorageMaintenanceScheduler(
+          spec, database, asyncRunner, timeProvider, metricsSystem, IO_BUDGET);
+
+  @BeforeEach
+  void setUp() {
+    when(database.getGenesisTime()).thenReturn(Optional.of(UInt64.ZERO));
+  }
+
+  @Test
+  void shouldAlwaysBeOffPeakWhenGenesisTimeIsUnknown() {
+    when(database.getGenesisTime()).thenReturn(Optional.empty());
+    assertThat(scheduler.isOffPeak()).isTrue();
+    assertThat(scheduler.getDelayUntilOffPeak()).isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void shouldOnlyBeOffPeakLateInTheSlot() {
+    timeProvider.advanceTimeByMillis(1000);
+    assertThat(scheduler.isOffPeak()).isFalse();
+    assertThat(scheduler.getDelayUntilOffPeak()).isEqualTo(Duration.ofMillis(offPeakStart - 1000));
+
+    timeProvider.advanceTimeByMillis(offPeakStart - 1000);
+    assertThat(scheduler.isOffPeak()).isTrue();
+
+    // Close to the end of the slot waits for the next slot's off-peak phase
+    timeProvider.advanceTimeByMillis(millisPerSlot - offPeakStart - 100);
+    assertThat(scheduler.isOffPeak()).isFalse();
+    assertThat(scheduler.getDelayUntilOffPeak()).isEqualTo(Duration.ofMillis(offPeakStart + 100));
+  }
+
+  @Test
+  void acquireSlots_shouldNotAcquireOutsideOffPeak() {
+    assertThat(scheduler.acquireSlots(UInt64.valueOf(100), UInt64.valueOf(200))).isEmpty();
+  }
+
+  @Test
+  void acquireSlots_shouldLimitSlotsToBudgetForEachSlot() {
+    timeProvider.advanceTimeByMillis(offPeakStart);
+    assertThat(scheduler.acquireSlots(UInt64.valueOf(100), UInt64.valueOf(104)))
+        .contains(UInt64.valueOf(104));
+    assertThat(scheduler.acquireSlots(UInt64.valueOf(105), UInt64.valueOf(200)))
+        .contains(UInt64.valueOf(109));
+    assertThat(scheduler.acquireSlots(UInt64.valueOf(110), UInt64.valueOf(200))).isEmpty();
+
+    timeProvider.advanceTimeByMillis(millisPerSlot);
+    assertThat(scheduler.acquireSlots(UInt64.valueOf(110), UInt64.valueOf(200)))
+        .contains(UInt64.valueOf(119));
+  }
+
+  @Test
+  void acquireSlots_shouldNotLimitSlotsWhenBudgetIsZero() {
+    final StorageMaintenanceScheduler unlimitedScheduler =
+        new StorageMaintenanceScheduler(
+            spec, database, asyncRunner, timeProvider, new StubMetricsSystem(), 0);
+    timeProvider.advanceTimeByMillis(offPeakStart);
+    assertThat(unlimitedScheduler.acquireSlots(UInt64.ZERO, UInt64.valueOf(100_000)))
+        .contains(UInt64.valueOf(100_000));
+  }
+
+  @Test
+  void shouldCompactPrunedSlotsWithinBudget() {
+    assertThat(scheduler.start()).isCompleted();
+    scheduler.onPruned(UInt64.valueOf(100), UInt64.valueOf(114));
+    assertThat(getUncompactedSlots()).isEqualTo(15);
+
+    timeProvider.advanceTimeByMillis(offPeakStart);
+    asyncRunner.executeDueActions();
+    verify(database).compactFinalizedRange(UInt64.valueOf(100), UInt64.valueOf(109));
+    assertThat(getUncompactedSlots()).isEqualTo(5);
+
+    timeProvider.advanceTimeByMillis(millisPerSlot);
+    asyncRunner.executeDueActions();
+    verify(database).compactFinalizedRange(UInt64.valueOf(110), UInt64.valueOf(114));
+    assertThat(getUncompactedSlots()).isZero();
+    assertThat(
+            metricsSystem
+                .getCounter(TekuMetricCategory.STORAGE, "maintenance_compacted_slots_total")
+                .getValue())
+        .isEqualTo(15);
+  }
+
+  @Test
+  void shouldNotCompactOutsideOffPeak() {
+    assertThat(scheduler.start()).isCompleted();
+    scheduler.onPruned(UInt64.valueOf(100), UInt64.valueOf(104));
+
+    timeProvider.advanceTimeBy(StorageMaintenanceScheduler.COMPACTION_INTERVAL);
+    asyncRunner.executeDueActions();
+    verify(database, never()).compactFinalizedRange(any(), any());
+    assertThat(getUncompactedSlots()).isEqualTo(5);
+  }
+
+  @Test
+  void shouldMergeOverlappingPrunedRanges() {
+    scheduler.onPruned(UInt64.valueOf(100), UInt64.valueOf(104));
+    scheduler.onPruned(UInt64.valueOf(90), UInt64.valueOf(94));
+    scheduler.onPruned(UInt64.valueOf(105), UInt64.valueOf(109));
+
+    timeProvider.advanceTimeByMillis(offPeakStart);
+    scheduler.compactPrunedSlots();
+    verify(database).compactFinalizedRange(UInt64.valueOf(90), UInt64.valueOf(99));
+  }
+
+  private double getUncompactedSlots() {
+    return metricsSystem
+        .getGauge(TekuMetricCategory.STORAGE, "maintenance_uncompacted_slots")
+        .getValue();
+  }
+}
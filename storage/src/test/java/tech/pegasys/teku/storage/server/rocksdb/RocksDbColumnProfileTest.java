@@ -0,0 +1,43 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.rocksdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
+
+class RocksDbColumnProfileTest {
+  private final V6SchemaCombinedSnapshot schema =
+      V6SchemaCombinedSnapshot.createV6(TestSpecFactory.createMinimalPhase0());
+
+  @Test
+  void shouldUseHashKeyedProfileForColumnsKeyedByRoot() {
+    assertThat(RocksDbColumnProfile.forColumn(schema.getColumnHotBlocksByRoot()))
+        .isEqualTo(RocksDbColumnProfile.HASH_KEYED);
+  }
+
+  @Test
+  void shouldUseSlotKeyedProfileForColumnsKeyedBySlot() {
+    assertThat(RocksDbColumnProfile.forColumn(schema.getColumnFinalizedBlocksBySlot()))
+        .isEqualTo(RocksDbColumnProfile.SLOT_KEYED);
+  }
+
+  @Test
+  void shouldUseDefaultProfileForOtherColumns() {
+    assertThat(RocksDbColumnProfile.forColumn(schema.getColumnCheckpointStates()))
+        .isEqualTo(RocksDbColumnProfile.DEFAULT);
+  }
+}
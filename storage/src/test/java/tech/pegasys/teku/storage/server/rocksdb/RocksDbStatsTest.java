@@ -20,16 +20,22 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.tuweni.bytes.Bytes32;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.metrics.Observation;
 import org.hyperledger.besu.metrics.prometheus.PrometheusMetricsSystem;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
 import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
+import tech.pegasys.teku.storage.server.kvstore.schema.KvStoreColumn;
+import tech.pegasys.teku.storage.server.kvstore.serialization.KvStoreSerializer;
 
 class RocksDbStatsTest {
 
@@ -55,4 +61,28 @@ class RocksDbStatsTest {
         metricsSystem.streamObservations().collect(Collectors.toList());
     assertThat(metrics).isNotEmpty();
   }
+
+  @Test
+  void shouldReportColumnMetricsLabelledByColumnId() throws Exception {
+    final ObservableMetricsSystem metricsSystem =
+        new PrometheusMetricsSystem(Set.of(TekuMetricCategory.STORAGE_HOT_DB), true);
+    final KvStoreColumn<Bytes32, UInt64> column =
+        KvStoreColumn.create(
+            3, KvStoreSerializer.BYTES32_SERIALIZER, KvStoreSerializer.UINT64_SERIALIZER);
+    final ColumnFamilyHandle handle = mock(ColumnFamilyHandle.class);
+    when(database.getLongProperty(handle, "rocksdb.estimate-num-keys")).thenReturn(42L);
+
+    try (RocksDbStats stats = new RocksDbStats(metricsSystem, TekuMetricCategory.STORAGE_HOT_DB)) {
+      stats.registerColumnMetrics(database, Map.of(column, handle));
+
+      final List<Observation> metrics =
+          metricsSystem
+              .streamObservations()
+              .filter(metric -> metric.getMetricName().equals("column_estimated_num_keys"))
+              .collect(Collectors.toList());
+      assertThat(metrics).hasSize(1);
+      assertThat(metrics.get(0).getLabels()).containsExactly("0x03");
+      assertThat(metrics.get(0).getValue()).isEqualTo(42.0);
+    }
+  }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.server.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+class BeaconStateDiffTest {
+  private final Spec spec = TestSpecFactory.createDefault();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+  private final BeaconState base = dataStructureUtil.randomBeaconState(64);
+
+  @Test
+  void shouldRoundTripUnchangedState() {
+    final Bytes diff = BeaconStateDiff.create(base, base);
+
+    assertThat(diff).isEqualTo(Bytes.of(0));
+    assertThat(BeaconStateDiff.apply(base, diff)).isEqualTo(base);
+  }
+
+  @Test
+  void shouldRoundTripModifiedState() {
+    final BeaconState target =
+        base.updated(
+            state -> {
+              state.setSlot(base.getSlot().plus(8));
+              state.getBalances().setElement(3, UInt64.valueOf(32_000_000_000L));
+              state.getBalances().setElement(7, base.getBalances().getElement(7).minus(1));
+              state.getBlockRoots().setElement(5, dataStructureUtil.randomBytes32());
+              state.getValidators().append(dataStructureUtil.randomValidator());
+              state.getBalances().appendElement(UInt64.valueOf(32_000_000_000L));
+            });
+
+    final Bytes diff = BeaconStateDiff.create(base, target);
+
+    assertThat(BeaconStateDiff.apply(base, diff)).isEqualTo(target);
+    assertThat(diff.size()).isLessThan(target.sszSerialize().size() / 10);
+  }
+
+  @Test
+  void shouldRoundTripUnrelatedStates() {
+    final BeaconState target = dataStructureUtil.randomBeaconState(32);
+
+    final Bytes diff = BeaconStateDiff.create(base, target);
+
+    assertThat(BeaconStateDiff.apply(base, diff)).isEqualTo(target);
+  }
+}
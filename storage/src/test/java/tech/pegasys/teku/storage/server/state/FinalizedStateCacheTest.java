@@ -24,10 +24,16 @@ import static tech.pegasys.teku.infrastructure.unsigned.UInt64.ONE;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import tech.pegasys.teku.bls.BLSKeyGenerator;
 import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.infrastructure.async.Waiter;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.TestSpecFactory;
@@ -42,9 +48,9 @@ class FinalizedStateCacheTest {
   private final Spec spec = TestSpecFactory.createMinimalPhase0();
   private final ChainBuilder chainBuilder = ChainBuilder.create(spec, VALIDATOR_KEYS);
   private final Database database = mock(Database.class);
-  // We don't use soft references in unit tests to avoid intermittency
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
   private final FinalizedStateCache cache =
-      new FinalizedStateCache(spec, database, MAXIMUM_CACHE_SIZE, false);
+      new FinalizedStateCache(metricsSystem, spec, database, MAXIMUM_CACHE_SIZE, Long.MAX_VALUE);
 
   @BeforeEach
   public void setUp() {
@@ -94,17 +100,128 @@ class FinalizedStateCacheTest {
         .thenReturn(Optional.of(chainBuilder.getGenesis().getState()));
     allowStreamingBlocks();
 
-    // Fill up the cache
-    for (int i = 1; i <= MAXIMUM_CACHE_SIZE; i++) {
-      cache.getFinalizedState(UInt64.valueOf(i));
+    for (int i = 1; i <= MAXIMUM_CACHE_SIZE + 1; i++) {
+      assertThat(cache.getFinalizedState(UInt64.valueOf(i)))
+          .contains(chainBuilder.getStateAtSlot(i));
     }
-    // Evict the least recently used item (should be genesis state)
-    cache.getFinalizedState(UInt64.valueOf(MAXIMUM_CACHE_SIZE + 1));
 
-    cache.getFinalizedState(ONE);
+    assertThat(cache.getCachedStateCount()).isEqualTo(MAXIMUM_CACHE_SIZE);
+  }
+
+  @Test
+  void shouldLimitBytesRetainedByCachedStates() throws Exception {
+    final FinalizedStateCache cache =
+        new FinalizedStateCache(new StubMetricsSystem(), spec, database, MAXIMUM_CACHE_SIZE, 0);
+    chainBuilder.generateBlocksUpToSlot(ONE);
+    when(database.getLatestAvailableFinalizedState(any()))
+        .thenReturn(Optional.of(chainBuilder.getGenesis().getState()));
+    allowStreamingBlocks();
+
+    assertThat(cache.getFinalizedState(ONE)).contains(chainBuilder.getStateAtSlot(ONE));
+    assertThat(cache.getFinalizedState(ONE)).contains(chainBuilder.getStateAtSlot(ONE));
+
+    assertThat(cache.getCachedStateCount()).isZero();
     verify(database, times(2)).streamFinalizedBlocks(ONE, ONE);
   }
 
+  @Test
+  void shouldUseStoredStateWhenCloserThanCachedState() throws Exception {
+    final UInt64 cachedSlot = UInt64.valueOf(1);
+    final UInt64 storedSlot = UInt64.valueOf(3);
+    final UInt64 requestedSlot = UInt64.valueOf(4);
+    chainBuilder.generateBlocksUpToSlot(requestedSlot);
+    when(database.getLatestAvailableFinalizedState(cachedSlot))
+        .thenReturn(Optional.of(chainBuilder.getGenesis().getState()));
+    when(database.getLatestAvailableFinalizedState(requestedSlot))
+        .thenReturn(Optional.of(chainBuilder.getStateAtSlot(storedSlot)));
+    when(database.streamFinalizedStateSlots(cachedSlot.plus(ONE), requestedSlot))
+        .thenAnswer(invocation -> Stream.of(storedSlot));
+    allowStreamingBlocks();
+
+    assertThat(cache.getFinalizedState(cachedSlot))
+        .contains(chainBuilder.getStateAtSlot(cachedSlot));
+    assertThat(cache.getFinalizedState(requestedSlot))
+        .contains(chainBuilder.getStateAtSlot(requestedSlot));
+
+    verify(database).streamFinalizedBlocks(requestedSlot, requestedSlot);
+  }
+
+  @Test
+  void shouldJoinRegenerationInProgressForLaterSlot() throws Exception {
+    final UInt64 firstSlot = UInt64.valueOf(2);
+    final UInt64 secondSlot = UInt64.valueOf(5);
+    chainBuilder.generateBlocksUpToSlot(secondSlot);
+    when(database.getLatestAvailableFinalizedState(any()))
+        .thenReturn(Optional.of(chainBuilder.getGenesis().getState()));
+    final CountDownLatch replayStarted = new CountDownLatch(1);
+    final CountDownLatch releaseReplay = new CountDownLatch(1);
+    when(database.streamFinalizedBlocks(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              replayStarted.countDown();
+              releaseReplay.await();
+              return chainBuilder
+                  .streamBlocksAndStates(invocation.getArgument(0), invocation.getArgument(1))
+                  .map(SignedBlockAndState::getBlock);
+            });
+
+    final CompletableFuture<Optional<BeaconState>> firstResult =
+        CompletableFuture.supplyAsync(() -> cache.getFinalizedState(firstSlot));
+    replayStarted.await();
+    final CompletableFuture<Optional<BeaconState>> secondResult =
+        CompletableFuture.supplyAsync(() -> cache.getFinalizedState(secondSlot));
+    Waiter.waitFor(() -> assertThat(getRegenerationCount("joined")).isEqualTo(1));
+    releaseReplay.countDown();
+
+    assertThat(Waiter.waitFor(firstResult)).contains(chainBuilder.getStateAtSlot(firstSlot));
+    assertThat(Waiter.waitFor(secondResult)).contains(chainBuilder.getStateAtSlot(secondSlot));
+    verify(database, times(1)).getLatestAvailableFinalizedState(any());
+    verify(database).streamFinalizedBlocks(ONE, firstSlot);
+    verify(database).streamFinalizedBlocks(firstSlot.plus(ONE), secondSlot);
+  }
+
+  @Test
+  void shouldReturnStateBeforeReplayingToJoinedLaterSlot() throws Exception {
+    final UInt64 firstSlot = UInt64.valueOf(2);
+    final UInt64 secondSlot = UInt64.valueOf(5);
+    chainBuilder.generateBlocksUpToSlot(secondSlot);
+    when(database.getLatestAvailableFinalizedState(any()))
+        .thenReturn(Optional.of(chainBuilder.getGenesis().getState()));
+    final CountDownLatch replayStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirstReplay = new CountDownLatch(1);
+    final CountDownLatch releaseSecondReplay = new CountDownLatch(1);
+    when(database.streamFinalizedBlocks(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final UInt64 endSlot = invocation.getArgument(1);
+              if (endSlot.equals(firstSlot)) {
+                replayStarted.countDown();
+                releaseFirstReplay.await();
+              } else {
+                releaseSecondReplay.await();
+              }
+              return chainBuilder
+                  .streamBlocksAndStates(invocation.getArgument(0), endSlot)
+                  .map(SignedBlockAndState::getBlock);
+            });
+
+    final CompletableFuture<Optional<BeaconState>> firstResult =
+        CompletableFuture.supplyAsync(() -> cache.getFinalizedState(firstSlot));
+    replayStarted.await();
+    final CompletableFuture<Optional<BeaconState>> secondResult =
+        CompletableFuture.supplyAsync(() -> cache.getFinalizedState(secondSlot));
+    Waiter.waitFor(() -> assertThat(getRegenerationCount("joined")).isEqualTo(1));
+    releaseFirstReplay.countDown();
+
+    // The first caller gets its state while the replay to the joined slot is still blocked
+    assertThat(Waiter.waitFor(firstResult)).contains(chainBuilder.getStateAtSlot(firstSlot));
+    assertThat(secondResult).isNotDone();
+
+    releaseSecondReplay.countDown();
+    assertThat(Waiter.waitFor(secondResult)).contains(chainBuilder.getStateAtSlot(secondSlot));
+    verify(database).streamFinalizedBlocks(firstSlot.plus(ONE), secondSlot);
+  }
+
   @Test
   void shouldReturnEmptyWhenStateIsNotAvailable() {
     when(database.getLatestAvailableFinalizedState(any())).thenReturn(Optional.empty());
@@ -112,6 +229,12 @@ class FinalizedStateCacheTest {
     assertThat(cache.getFinalizedState(ONE)).isEmpty();
   }
 
+  private long getRegenerationCount(final String type) {
+    return metricsSystem
+        .getCounter(TekuMetricCategory.STORAGE, "finalized_state_regenerations_total")
+        .getValue(type);
+  }
+
   private void allowStreamingBlocks() {
     when(database.streamFinalizedBlocks(any(), any()))
         .thenAnswer(
@@ -0,0 +1,163 @@
+/*
+ * Copyright ConsenSys Software Inc., 2022
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tech.pegasys.teku.storage.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
+import tech.pegasys.teku.infrastructure.metrics.TekuMetricCategory;
+import tech.pegasys.teku.infrastructure.ssz.tree.TreeNode;
+import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.Spec;
+import tech.pegasys.teku.spec.TestSpecFactory;
+import tech.pegasys.teku.spec.datastructures.state.beaconstate.BeaconState;
+import tech.pegasys.teku.spec.util.DataStructureUtil;
+
+class MemoryBoundedStateCacheTest {
+  private static final String PREFIX = "test_states";
+
+  private final Spec spec = TestSpecFactory.createMinimalPhase0();
+  private final DataStructureUtil dataStructureUtil = new DataStructureUtil(spec);
+  private final StubMetricsSystem metricsSystem = new StubMetricsSystem();
+
+  private final BeaconState state = dataStructureUtil.randomBeaconState(64);
+  private final long stateSize = estimateSize(state);
+
+  @Test
+  void estimateUniqueBytes_shouldExcludeNodesSharedWithReferences() {
+    final BeaconState updatedState = state.updated(s -> s.setSlot(s.getSlot().plus(1)));
+
+    final long uniqueBytes =
+        MemoryBoundedStateCache.estimateUniqueBytes(
+            updatedState.getBackingNode(), new TreeNode[] {state.getBackingNode()});
+
+    assertThat(uniqueBytes).isPositive().isLessThan(stateSize / 10);
+    assertThat(
+            MemoryBoundedStateCache.estimateUniqueBytes(
+                state.getBackingNode(), new TreeNode[] {state.getBackingNode()}))
+        .isZero();
+  }
+
+  @Test
+  void put_shouldOnlyChargeSharedNodesOnce() {
+    final MemoryBoundedStateCache<Integer, BeaconState> cache = createCache(Long.MAX_VALUE, 10);
+    cache.put(1, state);
+    assertThat(cache.getRetainedBytes()).isEqualTo(stateSize);
+
+    cache.put(2, state.updated(s -> s.setSlot(s.getSlot().plus(1))));
+    assertThat(cache.getRetainedBytes()).isGreaterThan(stateSize).isLessThan(stateSize * 11 / 10);
+
+    cache.remove(1);
+    assertThat(cache.getRetainedBytes()).isEqualTo(estimateSize(cache.get(2)));
+  }
+
+  @Test
+  void put_shouldEvictWhenRetainedBytesExceedBudget() {
+    final MemoryBoundedStateCache<Integer, BeaconState> cache =
+        createCache(stateSize + stateSize / 2, 10);
+    cache.put(1, state);
+    cache.put(2, state.updated(s -> s.setSlot(s.getSlot().plus(1))));
+    assertThat(cache).containsOnlyKeys(1, 2);
+
+    cache.put(3, dataStructureUtil.randomBeaconState(64));
+    assertThat(cache.size()).isLessThan(3);
+    assertThat(cache.getRetainedBytes()).isLessThanOrEqualTo(stateSize + stateSize / 2);
+  }
+
+  @Test
+  void put_shouldEvictWhenEntryCountExceeded() {
+    final MemoryBoundedStateCache<Integer, BeaconState> cache = createCache(Long.MAX_VALUE, 2);
+    cache.put(1, state);
+    cache.put(2, state.updated(s -> s.setSlot(UInt64.valueOf(2))));
+    cache.put(3, state.updated(s -> s.setSlot(UInt64.valueOf(3))));
+
+    assertThat(cache).hasSize(2);
+  }
+
+  @Test
+  void put_shouldPreferEvictingStatesThatAreCheaperToRegenerate() {
+    final BeaconState epochState = dataStructureUtil.randomBeaconState(64);
+    final BeaconState blockState = dataStructureUtil.randomBeaconState(64);
+    final Map<BeaconState, Double> costs =
+        Map.of(
+            epochState, MemoryBoundedStateCache.EPOCH_TRANSITION_REGENERATION_COST,
+            blockState, MemoryBoundedStateCache.BLOCK_REGENERATION_COST);
+    final MemoryBoundedStateCache<Integer, BeaconState> cache =
+        new MemoryBoundedStateCache<>(
+            metricsSystem,
+            PREFIX,
+            Long.MAX_VALUE,
+            1,
+            Function.identity(),
+            value -> costs.getOrDefault(value, 1d));
+
+    cache.put(1, epochState);
+    cache.put(2, blockState);
+
+    assertThat(cache).containsOnlyKeys(1);
+  }
+
+  @Test
+  void get_shouldTrackHitRatio() {
+    final MemoryBoundedStateCache<Integer, BeaconState> cache = createCache(Long.MAX_VALUE, 10);
+    cache.startMetrics();
+    cache.put(1, state);
+
+    assertThat(cache.get(1)).isSameAs(state);
+    assertThat(cache.get(2)).isNull();
+    assertThat(cache.get(1)).isSameAs(state);
+
+    assertThat(cache.getHitRatio()).isEqualTo(2d / 3);
+    assertThat(
+            metricsSystem
+                .getCounter(TekuMetricCategory.STORAGE, PREFIX + "_cache_requests_total")
+                .getValue("miss"))
+        .isEqualTo(1);
+    assertThat(
+            metricsSystem
+                .getGauge(TekuMetricCategory.STORAGE, PREFIX + "_cache_retained_bytes")
+                .getValue())
+        .isEqualTo(stateSize);
+  }
+
+  @Test
+  void keySet_removeIfShouldRemoveEntries() {
+    final MemoryBoundedStateCache<Integer, BeaconState> cache = createCache(Long.MAX_VALUE, 10);
+    cache.put(1, state);
+    cache.put(2, state.updated(s -> s.setSlot(UInt64.valueOf(2))));
+
+    cache.keySet().removeIf(key -> key == 1);
+
+    assertThat(cache).containsOnlyKeys(2);
+    assertThat(cache.getRetainedBytes()).isEqualTo(estimateSize(cache.get(2)));
+  }
+
+  private MemoryBoundedStateCache<Integer, BeaconState> createCache(
+      final long maxBytes, final int maxEntries) {
+    return new MemoryBoundedStateCache<>(
+        metricsSystem,
+        PREFIX,
+        maxBytes,
+        maxEntries,
+        Function.identity(),
+        value -> MemoryBoundedStateCache.BLOCK_REGENERATION_COST);
+  }
+
+  private static long estimateSize(final BeaconState state) {
+    return MemoryBoundedStateCache.estimateUniqueBytes(state.getBackingNode(), new TreeNode[0]);
+  }
+}
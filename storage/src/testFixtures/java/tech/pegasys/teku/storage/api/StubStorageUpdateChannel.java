@@ -14,10 +14,12 @@
 package tech.pegasys.teku.storage.api;
 
 import java.util.Collection;
+import java.util.List;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.ethereum.pow.api.DepositTreeSnapshot;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
 import tech.pegasys.teku.spec.datastructures.state.AnchorPoint;
@@ -30,6 +32,11 @@ public class StubStorageUpdateChannel implements StorageUpdateChannel {
     return SafeFuture.completedFuture(UpdateResult.EMPTY);
   }
 
+  @Override
+  public SafeFuture<Void> onStorageUpdateGroup(final StorageUpdateGroup group) {
+    return SafeFuture.COMPLETE;
+  }
+
   @Override
   public SafeFuture<Void> onFinalizedBlocks(final Collection<SignedBeaconBlock> finalizedBlocks) {
     return SafeFuture.COMPLETE;
@@ -47,6 +54,12 @@ public class StubStorageUpdateChannel implements StorageUpdateChannel {
     return SafeFuture.COMPLETE;
   }
 
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedStates(
+      final List<SignedBlockAndState> blocksAndStates) {
+    return SafeFuture.COMPLETE;
+  }
+
   @Override
   public SafeFuture<Void> onWeakSubjectivityUpdate(
       final WeakSubjectivityUpdate weakSubjectivityUpdate) {
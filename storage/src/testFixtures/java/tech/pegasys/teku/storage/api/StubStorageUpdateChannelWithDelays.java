@@ -14,11 +14,13 @@
 package tech.pegasys.teku.storage.api;
 
 import java.util.Collection;
+import java.util.List;
 import org.apache.tuweni.bytes.Bytes32;
 import tech.pegasys.teku.ethereum.pow.api.DepositTreeSnapshot;
 import tech.pegasys.teku.infrastructure.async.SafeFuture;
 import tech.pegasys.teku.infrastructure.async.StubAsyncRunner;
 import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBlockAndState;
 import tech.pegasys.teku.spec.datastructures.blocks.SlotAndBlockRoot;
 import tech.pegasys.teku.spec.datastructures.execution.versions.eip4844.BlobsSidecar;
 import tech.pegasys.teku.spec.datastructures.state.AnchorPoint;
@@ -36,6 +38,11 @@ public class StubStorageUpdateChannelWithDelays implements StorageUpdateChannel
     return asyncRunner.runAsync(() -> SafeFuture.completedFuture(UpdateResult.EMPTY));
   }
 
+  @Override
+  public SafeFuture<Void> onStorageUpdateGroup(final StorageUpdateGroup group) {
+    return asyncRunner.runAsync(() -> SafeFuture.COMPLETE);
+  }
+
   @Override
   public SafeFuture<Void> onFinalizedBlocks(final Collection<SignedBeaconBlock> finalizedBlocks) {
     return asyncRunner.runAsync(() -> SafeFuture.COMPLETE);
@@ -53,6 +60,12 @@ public class StubStorageUpdateChannelWithDelays implements StorageUpdateChannel
     return asyncRunner.runAsync(() -> SafeFuture.COMPLETE);
   }
 
+  @Override
+  public SafeFuture<Void> onReconstructedFinalizedStates(
+      final List<SignedBlockAndState> blocksAndStates) {
+    return asyncRunner.runAsync(() -> SafeFuture.COMPLETE);
+  }
+
   @Override
   public SafeFuture<Void> onWeakSubjectivityUpdate(
       final WeakSubjectivityUpdate weakSubjectivityUpdate) {
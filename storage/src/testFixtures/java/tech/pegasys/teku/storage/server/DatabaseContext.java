@@ -70,4 +70,31 @@ public class DatabaseContext {
         .storeNonCanonicalBlocks(storeNonCanonicalBlocks)
         .build();
   }
+
+  public StorageSystem createStorageWithEraBlockStore(
+      final Spec spec,
+      final Path tmpDir,
+      final StateStorageMode storageMode,
+      final StoreConfig storeConfig) {
+    final Path eraDirectory = tmpDir.resolve("era");
+    if (inMemoryStorage) {
+      return InMemoryStorageSystemBuilder.create()
+          .specProvider(spec)
+          .version(getDatabaseVersion())
+          .storageMode(storageMode)
+          .stateStorageFrequency(1L)
+          .storeConfig(storeConfig)
+          .eraBlockStoreDirectory(eraDirectory)
+          .build();
+    }
+    return FileBackedStorageSystemBuilder.create()
+        .specProvider(spec)
+        .dataDir(tmpDir)
+        .version(getDatabaseVersion())
+        .storageMode(storageMode)
+        .stateStorageFrequency(1L)
+        .storeConfig(storeConfig)
+        .eraBlockStoreDirectory(eraDirectory)
+        .build();
+  }
 }
@@ -19,6 +19,7 @@ import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.StateStorageMode;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaFinalizedSnapshotStateAdapter;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaHotAdapter;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedDiffState;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedTreeState;
 
@@ -35,6 +36,7 @@ public class InMemoryKvStoreDatabaseFactory {
     final SchemaHotAdapter schemaHot = combinedSchema.asSchemaHot();
     final SchemaFinalizedSnapshotStateAdapter schemaFinalized = combinedSchema.asSchemaFinalized();
     return KvStoreDatabase.createV4(
+        new StubMetricsSystem(),
         hotDb,
         coldDb,
         schemaHot,
@@ -53,7 +55,13 @@ public class InMemoryKvStoreDatabaseFactory {
       final Spec spec) {
     final V6SchemaCombinedSnapshot combinedSchema = V6SchemaCombinedSnapshot.createV6(spec);
     return KvStoreDatabase.createWithStateSnapshots(
-        db, combinedSchema, storageMode, stateStorageFrequency, storeNonCanonicalBlocks, spec);
+        new StubMetricsSystem(),
+        db,
+        combinedSchema,
+        storageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
   }
 
   public static Database createTree(
@@ -65,4 +73,21 @@ public class InMemoryKvStoreDatabaseFactory {
     return KvStoreDatabase.createWithStateTree(
         new StubMetricsSystem(), db, schema, storageMode, storeNonCanonicalBlocks, 1000, spec);
   }
+
+  public static Database createDiff(
+      MockKvStoreInstance db,
+      final StateStorageMode storageMode,
+      final long stateStorageFrequency,
+      final boolean storeNonCanonicalBlocks,
+      final Spec spec) {
+    final V6SchemaCombinedDiffState schema = new V6SchemaCombinedDiffState(spec);
+    return KvStoreDatabase.createWithStateDiffs(
+        new StubMetricsSystem(),
+        db,
+        schema,
+        storageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
+  }
 }
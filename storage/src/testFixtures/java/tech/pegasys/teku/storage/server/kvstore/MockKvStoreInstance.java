@@ -200,6 +200,13 @@ public class MockKvStoreInstance implements KvStoreAccessor {
         .map(e -> columnKey(column, e));
   }
 
+  @Override
+  public <K extends Comparable<K>, V> void compactRange(
+      final KvStoreColumn<K, V> column, final K from, final K to) {
+    assertOpen();
+    assertValidColumn(column);
+  }
+
   @Override
   public KvStoreTransaction startTransaction() {
     assertOpen();
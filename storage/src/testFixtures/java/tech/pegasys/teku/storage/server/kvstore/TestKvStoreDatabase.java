@@ -15,6 +15,7 @@ package tech.pegasys.teku.storage.server.kvstore;
 
 import com.google.errorprone.annotations.MustBeClosed;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao;
+import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.FinalizedUpdater;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.HotUpdater;
 
 public class TestKvStoreDatabase {
@@ -32,4 +33,9 @@ public class TestKvStoreDatabase {
   public HotUpdater hotUpdater() {
     return db.hotUpdater();
   }
+
+  @MustBeClosed
+  public FinalizedUpdater finalizedUpdater() {
+    return db.finalizedUpdater();
+  }
 }
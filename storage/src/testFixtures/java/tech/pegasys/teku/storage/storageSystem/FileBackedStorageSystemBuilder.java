@@ -17,13 +17,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.nio.file.Path;
+import java.util.Optional;
 import tech.pegasys.teku.infrastructure.metrics.StubMetricsSystem;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.generator.ChainBuilder;
 import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
 import tech.pegasys.teku.storage.server.StateStorageMode;
+import tech.pegasys.teku.storage.server.era.EraBlockStore;
 import tech.pegasys.teku.storage.server.kvstore.KvStoreConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreDatabase;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
 import tech.pegasys.teku.storage.server.leveldb.LevelDbDatabaseFactory;
 import tech.pegasys.teku.storage.server.rocksdb.RocksDbDatabaseFactory;
@@ -43,6 +46,7 @@ public class FileBackedStorageSystemBuilder {
   private Path archiveDir;
   private long stateStorageFrequency = 1L;
   private boolean storeNonCanonicalBlocks = false;
+  private Optional<Path> eraBlockStoreDirectory = Optional.empty();
 
   private FileBackedStorageSystemBuilder() {}
 
@@ -51,7 +55,7 @@ public class FileBackedStorageSystemBuilder {
   }
 
   public StorageSystem build() {
-    final Database database = buildDatabase();
+    final Database database = withEraBlockStore(buildDatabase());
 
     validate();
     return StorageSystem.create(
@@ -69,6 +73,9 @@ public class FileBackedStorageSystemBuilder {
       case LEVELDB_TREE:
         database = createLevelDbTrieDatabase();
         break;
+      case LEVELDB_DIFF:
+        database = createLevelDbDiffDatabase();
+        break;
       case LEVELDB2:
         database = createLevelDb2Database();
         break;
@@ -90,14 +97,26 @@ public class FileBackedStorageSystemBuilder {
     return database;
   }
 
+  private Database withEraBlockStore(final Database database) {
+    return eraBlockStoreDirectory
+        .<Database>map(
+            directory ->
+                ((KvStoreDatabase) database)
+                    .withEraBlockStore(EraBlockStore.open(directory, spec), true))
+        .orElse(database);
+  }
+
   private FileBackedStorageSystemBuilder copy() {
-    return create()
-        .specProvider(spec)
-        .version(version)
-        .dataDir(dataDir)
-        .storageMode(storageMode)
-        .stateStorageFrequency(stateStorageFrequency)
-        .storeConfig(storeConfig);
+    final FileBackedStorageSystemBuilder copy =
+        create()
+            .specProvider(spec)
+            .version(version)
+            .dataDir(dataDir)
+            .storageMode(storageMode)
+            .stateStorageFrequency(stateStorageFrequency)
+            .storeConfig(storeConfig);
+    copy.eraBlockStoreDirectory = eraBlockStoreDirectory;
+    return copy;
   }
 
   private void validate() {
@@ -147,6 +166,12 @@ public class FileBackedStorageSystemBuilder {
     return this;
   }
 
+  public FileBackedStorageSystemBuilder eraBlockStoreDirectory(final Path eraBlockStoreDirectory) {
+    checkNotNull(eraBlockStoreDirectory);
+    this.eraBlockStoreDirectory = Optional.of(eraBlockStoreDirectory);
+    return this;
+  }
+
   private StorageSystem.RestartedStorageSupplier createRestartSupplier() {
     return (mode) -> copy().storageMode(mode).build();
   }
@@ -198,6 +223,17 @@ public class FileBackedStorageSystemBuilder {
         spec);
   }
 
+  private Database createLevelDbDiffDatabase() {
+    KvStoreConfiguration configDefault = KvStoreConfiguration.v6SingleDefaults();
+    return LevelDbDatabaseFactory.createLevelDbDiff(
+        new StubMetricsSystem(),
+        configDefault.withDatabaseDir(hotDir),
+        storageMode,
+        stateStorageFrequency,
+        storeNonCanonicalBlocks,
+        spec);
+  }
+
   private Database createV5Database() {
     return RocksDbDatabaseFactory.createV4(
         new StubMetricsSystem(),
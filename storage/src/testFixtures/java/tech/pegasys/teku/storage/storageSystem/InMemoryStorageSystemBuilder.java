@@ -15,7 +15,9 @@ package tech.pegasys.teku.storage.storageSystem;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import tech.pegasys.teku.bls.BLSKeyPair;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.TestSpecFactory;
@@ -24,10 +26,13 @@ import tech.pegasys.teku.spec.generator.ChainBuilder;
 import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
 import tech.pegasys.teku.storage.server.StateStorageMode;
+import tech.pegasys.teku.storage.server.era.EraBlockStore;
 import tech.pegasys.teku.storage.server.kvstore.InMemoryKvStoreDatabaseFactory;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreDatabase;
 import tech.pegasys.teku.storage.server.kvstore.MockKvStoreInstance;
 import tech.pegasys.teku.storage.server.kvstore.schema.Schema;
 import tech.pegasys.teku.storage.server.kvstore.schema.SchemaFinalizedSnapshotStateAdapter;
+import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedDiffState;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedSnapshot;
 import tech.pegasys.teku.storage.server.kvstore.schema.V6SchemaCombinedTreeState;
 import tech.pegasys.teku.storage.store.StoreConfig;
@@ -40,6 +45,7 @@ public class InMemoryStorageSystemBuilder {
   private int numberOfValidators = 3;
   private long stateStorageFrequency = 1L;
   private boolean storeNonCanonicalBlocks = false;
+  private Optional<Path> eraBlockStoreDirectory = Optional.empty();
 
   private Spec spec = TestSpecFactory.createMinimalPhase0();
 
@@ -72,6 +78,9 @@ public class InMemoryStorageSystemBuilder {
       case LEVELDB_TREE:
         database = createLevelDbTreeDatabase();
         break;
+      case LEVELDB_DIFF:
+        database = createLevelDbDiffDatabase();
+        break;
       case LEVELDB2: // Leveldb only varies by db type which doesn't apply to in-memory
       case V6:
         database = createV6Database();
@@ -90,7 +99,7 @@ public class InMemoryStorageSystemBuilder {
     final List<BLSKeyPair> validatorKeys =
         new MockStartValidatorKeyPairFactory().generateKeyPairs(0, numberOfValidators);
     return StorageSystem.create(
-        database,
+        withEraBlockStore(database),
         createRestartSupplier(),
         storageMode,
         storeConfig,
@@ -115,6 +124,7 @@ public class InMemoryStorageSystemBuilder {
     copy.hotDb = hotDb;
     copy.coldDb = coldDb;
     copy.spec = spec;
+    copy.eraBlockStoreDirectory = eraBlockStoreDirectory;
 
     return copy;
   }
@@ -153,6 +163,21 @@ public class InMemoryStorageSystemBuilder {
     return this;
   }
 
+  public InMemoryStorageSystemBuilder eraBlockStoreDirectory(final Path eraBlockStoreDirectory) {
+    checkNotNull(eraBlockStoreDirectory);
+    this.eraBlockStoreDirectory = Optional.of(eraBlockStoreDirectory);
+    return this;
+  }
+
+  private Database withEraBlockStore(final Database database) {
+    return eraBlockStoreDirectory
+        .<Database>map(
+            directory ->
+                ((KvStoreDatabase) database)
+                    .withEraBlockStore(EraBlockStore.open(directory, spec), true))
+        .orElse(database);
+  }
+
   private StorageSystem.RestartedStorageSupplier createRestartSupplier() {
     return (mode) -> {
       final InMemoryStorageSystemBuilder copy = copy().storageMode(mode);
@@ -170,6 +195,15 @@ public class InMemoryStorageSystemBuilder {
         hotDb, storageMode, storeNonCanonicalBlocks, spec);
   }
 
+  private Database createLevelDbDiffDatabase() {
+    if (hotDb == null) {
+      final V6SchemaCombinedDiffState schema = new V6SchemaCombinedDiffState(spec);
+      hotDb = MockKvStoreInstance.createEmpty(schema.getAllColumns(), schema.getAllVariables());
+    }
+    return InMemoryKvStoreDatabaseFactory.createDiff(
+        hotDb, storageMode, stateStorageFrequency, storeNonCanonicalBlocks, spec);
+  }
+
   private Database createV6Database() {
     if (hotDb == null) {
       final V6SchemaCombinedSnapshot schema = V6SchemaCombinedSnapshot.createV6(spec);
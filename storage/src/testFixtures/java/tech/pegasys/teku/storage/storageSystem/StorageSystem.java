@@ -35,6 +35,7 @@ import tech.pegasys.teku.storage.server.ChainStorage;
 import tech.pegasys.teku.storage.server.Database;
 import tech.pegasys.teku.storage.server.DepositStorage;
 import tech.pegasys.teku.storage.server.StateStorageMode;
+import tech.pegasys.teku.storage.server.StorageConfiguration;
 import tech.pegasys.teku.storage.store.StoreConfig;
 
 public class StorageSystem implements AutoCloseable {
@@ -90,7 +91,12 @@ public class StorageSystem implements AutoCloseable {
     final StubMetricsSystem metricsSystem = new StubMetricsSystem();
 
     // Create and start storage server
-    final ChainStorage chainStorageServer = ChainStorage.create(database, spec);
+    final ChainStorage chainStorageServer =
+        ChainStorage.create(
+            metricsSystem,
+            database,
+            spec,
+            StorageConfiguration.DEFAULT_FINALIZED_STATE_CACHE_MAX_BYTES);
 
     // Create recent chain data
     final FinalizedCheckpointChannel finalizedCheckpointChannel =
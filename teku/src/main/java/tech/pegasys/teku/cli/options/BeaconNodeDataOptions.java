@@ -25,6 +25,7 @@ import tech.pegasys.teku.service.serviceutils.layout.DataConfig;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
 import tech.pegasys.teku.storage.server.StateStorageMode;
 import tech.pegasys.teku.storage.server.StorageConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public class BeaconNodeDataOptions extends ValidatorClientDataOptions {
 
@@ -95,6 +96,18 @@ public class BeaconNodeDataOptions extends ValidatorClientDataOptions {
   private Boolean reconstructHistoricStates =
       SyncConfig.DEFAULT_RECONSTRUCT_HISTORIC_STATES_ENABLED;
 
+  @CommandLine.Option(
+      names = {"--Xreconstruct-historic-states-batch-size"},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of slots replayed before the reconstructed states are written together. "
+              + "Values above 1 replay the next batch while the previous one is written",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "1")
+  private int reconstructHistoricStatesBatchSize =
+      SyncConfig.DEFAULT_RECONSTRUCT_HISTORIC_STATES_BATCH_SIZE;
+
   @CommandLine.Option(
       names = {"--Xdata-storage-block-pruning-interval"},
       hidden = true,
@@ -128,6 +141,71 @@ public class BeaconNodeDataOptions extends ValidatorClientDataOptions {
       arity = "0..1")
   private int blobsSidecarsPruningLimit = StorageConfiguration.DEFAULT_BLOBS_PRUNING_LIMIT;
 
+  @CommandLine.Option(
+      names = {"--Xdata-storage-era-files-enabled"},
+      hidden = true,
+      paramLabel = "<BOOLEAN>",
+      description = "Move finalized blocks into immutable slot-indexed segment files",
+      fallbackValue = "true",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "0..1")
+  private boolean eraBlockStoreEnabled = StorageConfiguration.DEFAULT_ERA_BLOCK_STORE_ENABLED;
+
+  @CommandLine.Option(
+      names = {"--Xdata-storage-block-archiving-interval"},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description = "Interval in seconds between moving finalized blocks into segment files",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "1")
+  private long blockArchivingIntervalSeconds =
+      StorageConfiguration.DEFAULT_BLOCK_ARCHIVING_INTERVAL.toSeconds();
+
+  @CommandLine.Option(
+      names = {"--Xdata-storage-group-commit-max-size"},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum number of hot database writes committed together. "
+              + "Set to 0 to commit each write separately",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "1")
+  private int groupCommitMaxSize = StorageConfiguration.DEFAULT_GROUP_COMMIT_MAX_SIZE;
+
+  @CommandLine.Option(
+      names = {"--Xdata-storage-maintenance-io-budget"},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum number of slots of finalized data pruned or compacted in each slot. "
+              + "Set to 0 for no limit",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "1")
+  private int maintenanceIoBudget = StorageConfiguration.DEFAULT_MAINTENANCE_IO_BUDGET;
+
+  @CommandLine.Option(
+      names = {"--Xdata-storage-value-codec"},
+      hidden = true,
+      paramLabel = "<CODEC>",
+      description =
+          "Compression applied to stored blocks and states when creating a new database. "
+              + "Existing databases keep the codec they were created with. "
+              + "(Valid values: ${COMPLETION-CANDIDATES})",
+      showDefaultValue = Visibility.ALWAYS,
+      arity = "1")
+  private ValueCodec dataStorageValueCodec = StorageConfiguration.DEFAULT_VALUE_CODEC;
+
+  @CommandLine.Option(
+      names = {"--Xdata-storage-finalized-state-cache-max-bytes"},
+      hidden = true,
+      paramLabel = "<INTEGER>",
+      description =
+          "Maximum estimated heap used by the cache of regenerated finalized states. "
+              + "Defaults to a sixteenth of the maximum heap size",
+      arity = "1")
+  private long finalizedStateCacheMaxBytes =
+      StorageConfiguration.DEFAULT_FINALIZED_STATE_CACHE_MAX_BYTES;
+
   @Override
   protected DataConfig.Builder configureDataConfig(final DataConfig.Builder config) {
     return super.configureDataConfig(config).beaconDataPath(dataBeaconPath);
@@ -145,11 +223,18 @@ public class BeaconNodeDataOptions extends ValidatorClientDataOptions {
                 .maxKnownNodeCacheSize(maxKnownNodeCacheSize)
                 .blockPruningInterval(Duration.ofSeconds(blockPruningIntervalSeconds))
                 .blobsPruningInterval(Duration.ofSeconds(blobsSidecarsPruningIntervalSeconds))
-                .blobsPruningLimit(blobsSidecarsPruningLimit));
+                .blobsPruningLimit(blobsSidecarsPruningLimit)
+                .eraBlockStoreEnabled(eraBlockStoreEnabled)
+                .blockArchivingInterval(Duration.ofSeconds(blockArchivingIntervalSeconds))
+                .groupCommitMaxSize(groupCommitMaxSize)
+                .maintenanceIoBudget(maintenanceIoBudget)
+                .dataStorageValueCodec(dataStorageValueCodec)
+                .finalizedStateCacheMaxBytes(finalizedStateCacheMaxBytes));
     builder.sync(
         b ->
             b.fetchAllHistoricBlocks(dataStorageMode.storesAllBlocks())
-                .reconstructHistoricStatesEnabled(reconstructHistoricStates));
+                .reconstructHistoricStatesEnabled(reconstructHistoricStates)
+                .reconstructHistoricStatesBatchSize(reconstructHistoricStatesBatchSize));
   }
 
   private DatabaseVersion parseDatabaseVersion() {
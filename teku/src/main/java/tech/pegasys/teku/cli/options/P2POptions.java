@@ -158,6 +158,17 @@ public class P2POptions {
       arity = "1")
   private boolean multiPeerSyncEnabled = SyncConfig.DEFAULT_MULTI_PEER_SYNC_ENABLED;
 
+  @Option(
+      names = {"--Xsync-pipelined-block-import-enabled"},
+      paramLabel = "<BOOLEAN>",
+      showDefaultValue = Visibility.ALWAYS,
+      description =
+          "Verify block signatures in parallel with the state transition of following blocks when syncing",
+      fallbackValue = "true",
+      hidden = true,
+      arity = "1")
+  private boolean pipelinedBlockImportEnabled = SyncConfig.DEFAULT_PIPELINED_BLOCK_IMPORT_ENABLED;
+
   @Option(
       names = {"--p2p-subscribe-all-subnets-enabled"},
       paramLabel = "<BOOLEAN>",
@@ -315,7 +326,10 @@ public class P2POptions {
                   .listenPort(p2pPort)
                   .advertisedIp(Optional.ofNullable(p2pAdvertisedIp));
             })
-        .sync(s -> s.isMultiPeerSyncEnabled(multiPeerSyncEnabled));
+        .sync(
+            s ->
+                s.isMultiPeerSyncEnabled(multiPeerSyncEnabled)
+                    .isPipelinedBlockImportEnabled(pipelinedBlockImportEnabled));
     natOptions.configure(builder);
   }
 }
@@ -52,12 +52,54 @@ public class StoreOptions {
       arity = "1")
   private int checkpointStateCacheSize = StoreConfig.DEFAULT_CHECKPOINT_STATE_CACHE_SIZE;
 
+  @Option(
+      hidden = true,
+      names = {"--Xstore-state-cache-max-bytes"},
+      paramLabel = "<LONG>",
+      description =
+          "Maximum estimated heap retained by cached states, excluding nodes they share. Defaults to a quarter of the max heap size",
+      arity = "1")
+  private long stateCacheMaxBytes = StoreConfig.DEFAULT_STATE_CACHE_MAX_BYTES;
+
+  @Option(
+      hidden = true,
+      names = {"--Xstore-checkpoint-state-cache-max-bytes"},
+      paramLabel = "<LONG>",
+      description =
+          "Maximum estimated heap retained by cached checkpoint states, excluding nodes they share. Defaults to a tenth of the max heap size",
+      arity = "1")
+  private long checkpointStateCacheMaxBytes = StoreConfig.DEFAULT_CHECKPOINT_STATE_CACHE_MAX_BYTES;
+
+  @Option(
+      hidden = true,
+      names = {"--Xstore-public-key-cache-persistence-enabled"},
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Persist decompressed validator public keys to the data directory so they are not recomputed on restart",
+      arity = "0..1",
+      fallbackValue = "true")
+  private boolean publicKeyCachePersistenceEnabled =
+      StoreConfig.DEFAULT_PUBLIC_KEY_CACHE_PERSISTENCE_ENABLED;
+
+  @Option(
+      hidden = true,
+      names = {"--Xstore-parallel-hashing-threshold"},
+      paramLabel = "<INTEGER>",
+      description =
+          "Minimum number of unhashed tree nodes for a state root to be calculated in parallel. A value of zero disables parallel hashing",
+      arity = "1")
+  private int parallelHashingThreshold = StoreConfig.DEFAULT_PARALLEL_HASHING_THRESHOLD;
+
   public void configure(final TekuConfiguration.Builder builder) {
     builder.store(
         b ->
             b.hotStatePersistenceFrequencyInEpochs(hotStatePersistenceFrequencyInEpochs)
                 .blockCacheSize(blockCacheSize)
                 .stateCacheSize(stateCacheSize)
-                .checkpointStateCacheSize(checkpointStateCacheSize));
+                .checkpointStateCacheSize(checkpointStateCacheSize)
+                .stateCacheMaxBytes(stateCacheMaxBytes)
+                .checkpointStateCacheMaxBytes(checkpointStateCacheMaxBytes)
+                .publicKeyCachePersistenceEnabled(publicKeyCachePersistenceEnabled)
+                .parallelHashingThreshold(parallelHashingThreshold));
   }
 }
@@ -15,6 +15,7 @@ package tech.pegasys.teku.cli.options;
 
 import static tech.pegasys.teku.validator.api.ValidatorConfig.DEFAULT_VALIDATOR_BLINDED_BLOCKS_ENABLED;
 
+import java.time.Duration;
 import picocli.CommandLine.Help.Visibility;
 import picocli.CommandLine.Option;
 import tech.pegasys.teku.cli.converter.UInt64Converter;
@@ -111,6 +112,17 @@ public class ValidatorProposerOptions {
       arity = "0..1")
   private boolean blindedBlocksEnabled = DEFAULT_VALIDATOR_BLINDED_BLOCKS_ENABLED;
 
+  @Option(
+      names = {"--Xvalidators-proposer-attestation-packing-time-budget"},
+      paramLabel = "<INTEGER>",
+      showDefaultValue = Visibility.ALWAYS,
+      description =
+          "Time (in milliseconds) to spend optimising the selection of attestations for a produced block before falling back to greedy selection",
+      arity = "1",
+      hidden = true)
+  private long attestationPackingTimeBudget =
+      ValidatorConfig.DEFAULT_ATTESTATION_PACKING_TIME_BUDGET.toMillis();
+
   public void configure(TekuConfiguration.Builder builder) {
     builder.validator(
         config ->
@@ -123,6 +135,7 @@ public class ValidatorProposerOptions {
                 .builderRegistrationDefaultGasLimit(builderRegistrationDefaultGasLimit)
                 .builderRegistrationSendingBatchSize(builderRegistrationSendingBatchSize)
                 .builderRegistrationTimestampOverride(builderRegistrationTimestampOverride)
-                .builderRegistrationPublicKeyOverride(builderRegistrationPublicKeyOverride));
+                .builderRegistrationPublicKeyOverride(builderRegistrationPublicKeyOverride)
+                .attestationPackingTimeBudget(Duration.ofMillis(attestationPackingTimeBudget)));
   }
 }
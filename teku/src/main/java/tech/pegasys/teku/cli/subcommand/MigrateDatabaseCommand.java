@@ -100,6 +100,15 @@ public class MigrateDatabaseCommand implements Runnable {
       arity = "1")
   private Integer batchSize = 100;
 
+  @CommandLine.Option(
+      names = {"--Xdata-storage-era-files-enabled"},
+      paramLabel = "<BOOLEAN>",
+      hidden = true,
+      description = "Move finalized blocks into segment files as part of the migration",
+      fallbackValue = "true",
+      arity = "0..1")
+  private boolean eraBlockStoreEnabled = false;
+
   private DataDirLayout dataDirLayout;
 
   // OVERVIEW
@@ -149,6 +158,7 @@ public class MigrateDatabaseCommand implements Runnable {
             .network(network)
             .storageMode(dataStorageMode)
             .batchSize(batchSize)
+            .eraBlockStoreEnabled(eraBlockStoreEnabled)
             .statusUpdater(SUB_COMMAND_LOG::display)
             .build();
 
@@ -214,7 +224,8 @@ public class MigrateDatabaseCommand implements Runnable {
       final DatabaseVersion currentDatabaseVersion =
           DatabaseVersion.fromString(versionValue)
               .orElseThrow(() -> new IOException("Could not read db.version file"));
-      if (currentDatabaseVersion.equals(databaseVersion)) {
+      // Moving finalized blocks into segment files doesn't require a change of version
+      if (currentDatabaseVersion.equals(databaseVersion) && !eraBlockStoreEnabled) {
         SUB_COMMAND_LOG.exit(0, "The specified database is already the requested version");
       }
       return currentDatabaseVersion;
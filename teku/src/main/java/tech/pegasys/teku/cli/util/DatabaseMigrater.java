@@ -44,6 +44,7 @@ public class DatabaseMigrater {
   private final Spec spec;
   private final String network;
   private final StateStorageMode storageMode;
+  private final boolean eraBlockStoreEnabled;
   final AsyncRunnerFactory asyncRunnerFactory =
       AsyncRunnerFactory.createDefault(new MetricTrackingExecutorFactory(new NoOpMetricsSystem()));
   private KvStoreDatabase originalDatabase;
@@ -64,10 +65,12 @@ public class DatabaseMigrater {
       final StateStorageMode storageMode,
       final Spec spec,
       final int batchSize,
+      final boolean eraBlockStoreEnabled,
       final Consumer<String> statusUpdater) {
     this.dataDirLayout = dataDirLayout;
     this.network = network;
     this.storageMode = storageMode;
+    this.eraBlockStoreEnabled = eraBlockStoreEnabled;
     this.spec = spec;
     this.batchSize = batchSize;
     this.statusUpdater = statusUpdater;
@@ -92,6 +95,11 @@ public class DatabaseMigrater {
     statusUpdater.accept("Migrating data to the new database");
     migrateData();
 
+    if (eraBlockStoreEnabled) {
+      statusUpdater.accept("Moving finalized blocks into segment files");
+      archiveFinalizedBlocks();
+    }
+
     closeDatabases();
     statusUpdater.accept("Swapping new database to be active");
     swapActiveDatabase();
@@ -105,9 +113,9 @@ public class DatabaseMigrater {
     final Path originalDatabasePath = dataDirLayout.getBeaconDataDirectory();
 
     statusUpdater.accept("Opening original database...");
-    originalDatabase = createDatabase(originalDatabasePath, sourceDatabaseVersion);
+    originalDatabase = createDatabase(originalDatabasePath, sourceDatabaseVersion, false);
     statusUpdater.accept("Creating a new database...");
-    newDatabase = createDatabase(newDatabasePath, targetDatabaseVersion);
+    newDatabase = createDatabase(newDatabasePath, targetDatabaseVersion, eraBlockStoreEnabled);
   }
 
   @VisibleForTesting
@@ -152,7 +160,7 @@ public class DatabaseMigrater {
       FileUtils.deleteDirectory(newBeaconFolderPath.toFile());
     }
     newBeaconFolderPath.toFile().mkdir();
-    for (String currentEntry : List.of("network.yml", "kvstore")) {
+    for (String currentEntry : List.of("network.yml", "kvstore", "era")) {
       Path currentPath = dataDirLayout.getBeaconDataDirectory().resolve(currentEntry);
       if (Files.exists(currentPath)) {
         if (currentPath.toFile().isDirectory()) {
@@ -176,7 +184,27 @@ public class DatabaseMigrater {
   }
 
   @VisibleForTesting
-  KvStoreDatabase createDatabase(final Path databasePath, DatabaseVersion databaseVersion)
+  void archiveFinalizedBlocks() throws DatabaseMigraterError {
+    try {
+      int archivedSegments = 0;
+      while (newDatabase.archiveFinalizedBlocks()) {
+        archivedSegments++;
+        if (archivedSegments % 100 == 0) {
+          statusUpdater.accept("Moved " + archivedSegments + " segments of finalized blocks");
+        }
+      }
+      statusUpdater.accept("Moved " + archivedSegments + " segments of finalized blocks");
+    } catch (Exception ex) {
+      throw new DatabaseMigraterError(
+          "Failed to move finalized blocks into segment files: " + ex.getMessage(), ex);
+    }
+  }
+
+  @VisibleForTesting
+  KvStoreDatabase createDatabase(
+      final Path databasePath,
+      final DatabaseVersion databaseVersion,
+      final boolean eraBlockStoreEnabled)
       throws DatabaseMigraterError {
     final Eth2NetworkConfiguration config = Eth2NetworkConfiguration.builder(network).build();
     final VersionedDatabaseFactory databaseFactory =
@@ -189,6 +217,7 @@ public class DatabaseMigrater {
                 .storeNonCanonicalBlocks(true)
                 .eth1DepositContract(config.getEth1DepositContractAddress())
                 .dataStorageCreateDbVersion(databaseVersion)
+                .eraBlockStoreEnabled(eraBlockStoreEnabled)
                 .build());
     final Database database = databaseFactory.createDatabase();
     if (!(database instanceof KvStoreDatabase)) {
@@ -214,6 +243,7 @@ public class DatabaseMigrater {
     private Consumer<String> statusUpdater;
     private String network;
     private StateStorageMode storageMode = StateStorageMode.ARCHIVE;
+    private boolean eraBlockStoreEnabled = false;
     private Spec spec;
 
     public Builder dataOptions(final ValidatorClientDataOptions dataOptions) {
@@ -249,6 +279,11 @@ public class DatabaseMigrater {
       return this;
     }
 
+    public Builder eraBlockStoreEnabled(final boolean eraBlockStoreEnabled) {
+      this.eraBlockStoreEnabled = eraBlockStoreEnabled;
+      return this;
+    }
+
     public Builder statusUpdater(final Consumer<String> statusUpdater) {
       this.statusUpdater = statusUpdater;
       return this;
@@ -263,7 +298,13 @@ public class DatabaseMigrater {
       checkNotNull(dataDirLayout);
       checkNotNull(spec);
       return new DatabaseMigrater(
-          dataDirLayout, network, storageMode, spec, batchSize, statusUpdater);
+          dataDirLayout,
+          network,
+          storageMode,
+          spec,
+          batchSize,
+          eraBlockStoreEnabled,
+          statusUpdater);
     }
   }
 }
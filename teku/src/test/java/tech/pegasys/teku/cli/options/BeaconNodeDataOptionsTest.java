@@ -29,6 +29,7 @@ import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException
 import tech.pegasys.teku.spec.networks.Eth2Network;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
 import tech.pegasys.teku.storage.server.StorageConfiguration;
+import tech.pegasys.teku.storage.server.kvstore.serialization.ValueCodec;
 
 public class BeaconNodeDataOptionsTest extends AbstractBeaconNodeCommandTest {
   private static final Path TEST_PATH = Path.of("/tmp/teku");
@@ -238,6 +239,35 @@ public class BeaconNodeDataOptionsTest extends AbstractBeaconNodeCommandTest {
         .isEqualTo(config);
   }
 
+  @Test
+  void dataStorageValueCodec_shouldDefault() {
+    final TekuConfiguration config = getTekuConfigurationFromArguments();
+    assertThat(config.storageConfiguration().getDataStorageValueCodec())
+        .isEqualTo(StorageConfiguration.DEFAULT_VALUE_CODEC);
+  }
+
+  @Test
+  void dataStorageValueCodec_shouldAcceptNonDefaultValues() {
+    final TekuConfiguration config =
+        getTekuConfigurationFromArguments("--Xdata-storage-value-codec=SNAPPY");
+    assertThat(config.storageConfiguration().getDataStorageValueCodec())
+        .isEqualTo(ValueCodec.SNAPPY);
+  }
+
+  @Test
+  void finalizedStateCacheMaxBytes_shouldDefault() {
+    final TekuConfiguration config = getTekuConfigurationFromArguments();
+    assertThat(config.storageConfiguration().getFinalizedStateCacheMaxBytes())
+        .isEqualTo(StorageConfiguration.DEFAULT_FINALIZED_STATE_CACHE_MAX_BYTES);
+  }
+
+  @Test
+  void finalizedStateCacheMaxBytes_shouldAcceptNonDefaultValues() {
+    final TekuConfiguration config =
+        getTekuConfigurationFromArguments("--Xdata-storage-finalized-state-cache-max-bytes=1024");
+    assertThat(config.storageConfiguration().getFinalizedStateCacheMaxBytes()).isEqualTo(1024);
+  }
+
   @Test
   void shouldNotAllowPruningBlocksAndReconstructingStates() {
     assertThatThrownBy(
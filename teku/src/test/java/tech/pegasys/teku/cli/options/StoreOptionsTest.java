@@ -43,6 +43,45 @@ public class StoreOptionsTest extends AbstractBeaconNodeCommandTest {
     assertThat(globalConfiguration.getHotStatePersistenceFrequencyInEpochs()).isEqualTo(2);
   }
 
+  @Test
+  public void publicKeyCachePersistence_shouldBeDisabledByDefault() {
+    final StoreConfig globalConfiguration =
+        getTekuConfigurationFromArguments().beaconChain().storeConfig();
+    assertThat(globalConfiguration.isPublicKeyCachePersistenceEnabled()).isFalse();
+  }
+
+  @Test
+  public void publicKeyCachePersistence_shouldRespectCLIArg() {
+    final String[] args = {
+      "--Xstore-public-key-cache-persistence-enabled", "true",
+    };
+    final StoreConfig globalConfiguration =
+        getTekuConfigurationFromArguments(args).beaconChain().storeConfig();
+    assertThat(globalConfiguration.isPublicKeyCachePersistenceEnabled()).isTrue();
+  }
+
+  @Test
+  public void stateCacheMaxBytes_shouldRespectCLIArgs() {
+    final String[] args = {
+      "--Xstore-state-cache-max-bytes", "1000",
+      "--Xstore-checkpoint-state-cache-max-bytes", "500",
+    };
+    final StoreConfig globalConfiguration =
+        getTekuConfigurationFromArguments(args).beaconChain().storeConfig();
+    assertThat(globalConfiguration.getStateCacheMaxBytes()).isEqualTo(1000);
+    assertThat(globalConfiguration.getCheckpointStateCacheMaxBytes()).isEqualTo(500);
+  }
+
+  @Test
+  public void parallelHashingThreshold_shouldRespectCLIArg() {
+    final String[] args = {
+      "--Xstore-parallel-hashing-threshold", "0",
+    };
+    final StoreConfig globalConfiguration =
+        getTekuConfigurationFromArguments(args).beaconChain().storeConfig();
+    assertThat(globalConfiguration.getParallelHashingThreshold()).isZero();
+  }
+
   @Test
   public void hotStatePersistenceFrequency_invalidNumber() {
     final String[] args = {
@@ -155,6 +155,21 @@ public class ValidatorOptionsTest extends AbstractBeaconNodeCommandTest {
         .isEqualTo(Optional.of(UInt64.valueOf(120000)));
   }
 
+  @Test
+  public void shouldUseDefaultAttestationPackingTimeBudget() {
+    final TekuConfiguration config = getTekuConfigurationFromArguments();
+    assertThat(config.validatorClient().getValidatorConfig().getAttestationPackingTimeBudget())
+        .isEqualTo(ValidatorConfig.DEFAULT_ATTESTATION_PACKING_TIME_BUDGET);
+  }
+
+  @Test
+  public void shouldSetAttestationPackingTimeBudget() {
+    final String[] args = {"--Xvalidators-proposer-attestation-packing-time-budget", "125"};
+    final TekuConfiguration config = getTekuConfigurationFromArguments(args);
+    assertThat(config.validatorClient().getValidatorConfig().getAttestationPackingTimeBudget())
+        .isEqualTo(Duration.ofMillis(125));
+  }
+
   @Test
   public void shouldReportEmptyIfValidatorRegistrationPublicKeyOverrideNotSpecified() {
     final TekuConfiguration config = getTekuConfigurationFromArguments();
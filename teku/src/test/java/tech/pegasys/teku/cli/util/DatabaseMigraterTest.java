@@ -13,6 +13,7 @@
 
 package tech.pegasys.teku.cli.util;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assumptions.assumeThat;
 import static org.mockito.Mockito.mock;
@@ -22,7 +23,9 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,11 +37,14 @@ import tech.pegasys.teku.service.serviceutils.layout.DataDirLayout;
 import tech.pegasys.teku.spec.Spec;
 import tech.pegasys.teku.spec.TestSpecFactory;
 import tech.pegasys.teku.spec.datastructures.blocks.BeaconBlockAndState;
+import tech.pegasys.teku.spec.datastructures.blocks.SignedBeaconBlock;
 import tech.pegasys.teku.spec.datastructures.state.Checkpoint;
 import tech.pegasys.teku.spec.util.DataStructureUtil;
 import tech.pegasys.teku.storage.server.DatabaseVersion;
 import tech.pegasys.teku.storage.server.StateStorageMode;
+import tech.pegasys.teku.storage.server.kvstore.KvStoreDatabase;
 import tech.pegasys.teku.storage.server.kvstore.TestKvStoreDatabase;
+import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.FinalizedUpdater;
 import tech.pegasys.teku.storage.server.kvstore.dataaccess.KvStoreCombinedDao.HotUpdater;
 
 public class DatabaseMigraterTest {
@@ -166,6 +172,65 @@ public class DatabaseMigraterTest {
     migrater.closeDatabases();
   }
 
+  @Test
+  void shouldCopyEraDirectoryToNewDatabaseFolder(@TempDir Path tmpDir) throws IOException {
+    final DataDirLayout dataDirLayout = prepareTempDir(tmpDir, "5");
+    final Path eraDirectory = dataDirLayout.getBeaconDataDirectory().resolve("era");
+    assertThat(eraDirectory.toFile().mkdir()).isTrue();
+    Files.createFile(eraDirectory.resolve("blocks-000000000000.era"));
+    final DatabaseMigrater migrater = getDatabaseMigrater(dataDirLayout);
+
+    migrater.duplicateBeaconFolderContents();
+
+    assertThat(tmpDir.resolve("beacon.new").resolve("era").resolve("blocks-000000000000.era"))
+        .isRegularFile();
+  }
+
+  @Test
+  void shouldMoveFinalizedBlocksIntoEraFiles(@TempDir Path tmpDir) throws Exception {
+    final DataDirLayout dataDirLayout = prepareTempDir(tmpDir, "5");
+    final DatabaseMigrater migrater =
+        DatabaseMigrater.builder()
+            .dataDirLayout(dataDirLayout)
+            .storageMode(StateStorageMode.ARCHIVE)
+            .network("minimal")
+            .spec(spec)
+            .eraBlockStoreEnabled(true)
+            .statusUpdater(logger)
+            .build();
+    // The first segment ends at slot 2047 and is finalized, the next one is not
+    final List<SignedBeaconBlock> blocks =
+        Stream.of(0L, 100L, 2047L, 2049L)
+            .map(dataStructureUtil::randomSignedBeaconBlock)
+            .collect(toList());
+    final Checkpoint finalizedCheckpoint =
+        new Checkpoint(UInt64.valueOf(300), blocks.get(3).getRoot());
+    migrater.openDatabases(DatabaseVersion.V5, DatabaseVersion.LEVELDB2);
+    final TestKvStoreDatabase originalDb = new TestKvStoreDatabase(migrater.getOriginalDatabase());
+    try (FinalizedUpdater updater = originalDb.finalizedUpdater()) {
+      blocks.forEach(updater::addFinalizedBlock);
+      updater.commit();
+    }
+    try (HotUpdater updater = originalDb.hotUpdater()) {
+      updater.setFinalizedCheckpoint(finalizedCheckpoint);
+      updater.commit();
+    }
+
+    migrater.migrateData();
+    migrater.archiveFinalizedBlocks();
+
+    final KvStoreDatabase newDatabase = migrater.getNewDatabase();
+    final TestKvStoreDatabase newDb = new TestKvStoreDatabase(newDatabase);
+    assertThat(migrater.getNewBeaconFolderPath().resolve("era").resolve("blocks-000000000000.era"))
+        .isRegularFile();
+    assertThat(newDb.getHotDao().getFinalizedBlockAtSlot(UInt64.valueOf(100))).isEmpty();
+    for (SignedBeaconBlock block : blocks) {
+      assertThat(newDatabase.getFinalizedBlockAtSlot(block.getSlot())).contains(block);
+    }
+
+    migrater.closeDatabases();
+  }
+
   private DataDirLayout prepareTempDir(final Path tempDir, final String dbVersionString)
       throws IOException {
     final Path originalBeaconFolder = tempDir.resolve("beacon");
@@ -31,6 +31,7 @@ import tech.pegasys.teku.ethereum.execution.types.Eth1Address;
 import tech.pegasys.teku.infrastructure.exceptions.ExceptionUtil;
 import tech.pegasys.teku.infrastructure.exceptions.InvalidConfigurationException;
 import tech.pegasys.teku.infrastructure.unsigned.UInt64;
+import tech.pegasys.teku.spec.config.Constants;
 
 public class ValidatorConfig {
 
@@ -44,6 +45,8 @@ public class ValidatorConfig {
   public static final boolean DEFAULT_VALIDATOR_CLIENT_SSZ_BLOCKS_ENABLED = true;
   public static final boolean DEFAULT_DOPPELGANGER_DETECTION_ENABLED = false;
   public static final int DEFAULT_EXECUTOR_MAX_QUEUE_SIZE = 20_000;
+  public static final Duration DEFAULT_ATTESTATION_PACKING_TIME_BUDGET =
+      Constants.DEFAULT_ATTESTATION_PACKING_TIME_BUDGET;
   public static final Duration DEFAULT_VALIDATOR_EXTERNAL_SIGNER_TIMEOUT = Duration.ofSeconds(5);
   public static final int DEFAULT_VALIDATOR_EXTERNAL_SIGNER_CONCURRENT_REQUEST_LIMIT = 32;
   public static final boolean DEFAULT_VALIDATOR_KEYSTORE_LOCKING_ENABLED = true;
@@ -86,6 +89,7 @@ public class ValidatorConfig {
   private final Optional<BLSPublicKey> builderRegistrationPublicKeyOverride;
   private final int executorMaxQueueSize;
   private final Optional<String> sentryNodeConfigurationFile;
+  private final Duration attestationPackingTimeBudget;
 
   private ValidatorConfig(
       final List<String> validatorKeys,
@@ -117,7 +121,8 @@ public class ValidatorConfig {
       final Optional<UInt64> builderRegistrationTimestampOverride,
       final Optional<BLSPublicKey> builderRegistrationPublicKeyOverride,
       final int executorMaxQueueSize,
-      final Optional<String> sentryNodeConfigurationFile) {
+      final Optional<String> sentryNodeConfigurationFile,
+      final Duration attestationPackingTimeBudget) {
     this.validatorKeys = validatorKeys;
     this.validatorExternalSignerPublicKeySources = validatorExternalSignerPublicKeySources;
     this.validatorExternalSignerUrl = validatorExternalSignerUrl;
@@ -151,6 +156,7 @@ public class ValidatorConfig {
     this.builderRegistrationPublicKeyOverride = builderRegistrationPublicKeyOverride;
     this.executorMaxQueueSize = executorMaxQueueSize;
     this.sentryNodeConfigurationFile = sentryNodeConfigurationFile;
+    this.attestationPackingTimeBudget = attestationPackingTimeBudget;
   }
 
   public static Builder builder() {
@@ -276,6 +282,10 @@ public class ValidatorConfig {
     return sentryNodeConfigurationFile;
   }
 
+  public Duration getAttestationPackingTimeBudget() {
+    return attestationPackingTimeBudget;
+  }
+
   private void validateProposerDefaultFeeRecipientOrProposerConfigSource() {
     if (proposerDefaultFeeRecipient.isEmpty()
         && proposerConfigSource.isEmpty()
@@ -325,6 +335,7 @@ public class ValidatorConfig {
     private Optional<BLSPublicKey> builderRegistrationPublicKeyOverride = Optional.empty();
     private int executorMaxQueueSize = DEFAULT_EXECUTOR_MAX_QUEUE_SIZE;
     private Optional<String> sentryNodeConfigurationFile = Optional.empty();
+    private Duration attestationPackingTimeBudget = DEFAULT_ATTESTATION_PACKING_TIME_BUDGET;
 
     private Builder() {}
 
@@ -521,6 +532,11 @@ public class ValidatorConfig {
       return this;
     }
 
+    public Builder attestationPackingTimeBudget(final Duration attestationPackingTimeBudget) {
+      this.attestationPackingTimeBudget = attestationPackingTimeBudget;
+      return this;
+    }
+
     public ValidatorConfig build() {
       validateExternalSignerUrlAndPublicKeys();
       validateExternalSignerKeystoreAndPasswordFileConfig();
@@ -557,7 +573,8 @@ public class ValidatorConfig {
           builderRegistrationTimestampOverride,
           builderRegistrationPublicKeyOverride,
           executorMaxQueueSize,
-          sentryNodeConfigurationFile);
+          sentryNodeConfigurationFile,
+          attestationPackingTimeBudget);
     }
 
     private void validateExternalSignerUrlAndPublicKeys() {